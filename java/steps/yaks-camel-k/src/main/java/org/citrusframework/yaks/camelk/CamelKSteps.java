@@ -26,6 +26,7 @@ import com.consol.citrus.Citrus;
 import com.consol.citrus.TestCaseRunner;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.util.FileUtils;
@@ -34,6 +35,7 @@ import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCleanup;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -41,6 +43,7 @@ import org.springframework.core.io.Resource;
 import static com.consol.citrus.container.Assert.Builder.assertException;
 import static com.consol.citrus.container.FinallySequence.Builder.doFinally;
 import static org.citrusframework.yaks.camelk.actions.CamelKActionBuilder.camelk;
+import static org.citrusframework.yaks.kubernetes.actions.KubernetesActionBuilder.kubernetes;
 
 public class CamelKSteps {
 
@@ -50,6 +53,9 @@ public class CamelKSteps {
     @CitrusFramework
     private Citrus citrus;
 
+    @CitrusResource
+    private TestContext context;
+
     private KubernetesClient k8sClient;
 
     private boolean autoRemoveResources = CamelKSettings.isAutoRemoveResources();
@@ -97,16 +103,14 @@ public class CamelKSteps {
 		runner.run(camelk()
                     .client(k8sClient)
                     .createIntegration(name + "." + language)
+                    .cleanup(getResourceCleanup())
                     .source(configuration.get("source"))
                     .dependencies(configuration.getOrDefault("dependencies", "").trim())
                     .properties(configuration.getOrDefault("properties", "").trim())
                     .propertyFiles(propertyFiles)
                     .traits(configuration.get("traits")));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(camelk().client(k8sClient).deleteIntegration(name)));
-        }
+        registerCleanup();
 	}
 
 	@Given("^load Camel-K integration ([a-z0-9-]+).([a-z0-9-]+)$")
@@ -124,13 +128,11 @@ public class CamelKSteps {
         runner.run(camelk()
                     .client(k8sClient)
                     .createIntegration(name + "." + language)
+                    .cleanup(getResourceCleanup())
                     .propertyFiles(propertyFiles)
                     .source(source));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(camelk().client(k8sClient).deleteIntegration(name)));
-        }
+        registerCleanup();
 	}
 
     @Given("^delete Camel-K integration ([a-z0-9-]+)$")
@@ -184,4 +186,28 @@ public class CamelKSteps {
                     .delayBetweenAttempts(delayBetweenAttempts)
                     .waitForLogMessage(message)));
     }
+
+    /**
+     * Gets the resource cleanup of the scenario that tracks created resources when auto removal is enabled.
+     * The cleanup is shared with the Kubernetes steps.
+     * @return the resource cleanup or null when auto removal is disabled.
+     */
+    private KubernetesResourceCleanup getResourceCleanup() {
+        return autoRemoveResources ? KubernetesResourceCleanup.getOrCreate(context, k8sClient) : null;
+    }
+
+    /**
+     * Removes all tracked Camel-K resources at the end of the scenario. The cleanup is shared with other steps of the
+     * scenario, so the cleanup action is registered only once and deletes all resources of a kind with a single request.
+     */
+    private void registerCleanup() {
+        KubernetesResourceCleanup resourceCleanup = getResourceCleanup();
+        if (resourceCleanup != null && resourceCleanup.schedule()) {
+            runner.then(doFinally()
+                    .actions(kubernetes().client(k8sClient).cleanup(resourceCleanup)
+                            .resources()
+                            .cleanup()
+                            .timeout(maxAttempts * delayBetweenAttempts)));
+        }
+    }
 }
@@ -17,7 +17,10 @@
 
 package org.citrusframework.yaks.camelk;
 
+import com.consol.citrus.context.TestContext;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
+import org.citrusframework.yaks.kubernetes.KubernetesVariableNames;
 
 /**
  * @author Christoph Deppisch
@@ -30,6 +33,21 @@ public class CamelKSupport {
         // prevent instantiation of utility class
     }
 
+    /**
+     * Resolves the namespace to use in the current scenario. Uses the namespace that the Kubernetes namespace pool has
+     * assigned to the scenario when the pool is enabled and falls back to the namespace given in Camel-K environment settings.
+     * @param context
+     * @return
+     */
+    public static String namespace(TestContext context) {
+        if (KubernetesSettings.isNamespacePoolEnabled() &&
+                context.getVariables().containsKey(KubernetesVariableNames.NAMESPACE.value())) {
+            return context.getVariable(KubernetesVariableNames.NAMESPACE.value());
+        }
+
+        return CamelKSettings.getNamespace();
+    }
+
     public static CustomResourceDefinitionContext integrationCRDContext(String version) {
         return camelkCRDContext("integrations", version);
     }
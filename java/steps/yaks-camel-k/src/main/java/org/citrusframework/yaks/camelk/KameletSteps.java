@@ -24,6 +24,7 @@ import com.consol.citrus.Citrus;
 import com.consol.citrus.TestCaseRunner;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
@@ -35,7 +36,7 @@ import org.citrusframework.yaks.camelk.model.KameletBinding;
 import org.citrusframework.yaks.camelk.model.KameletBindingSpec;
 import org.citrusframework.yaks.camelk.model.KameletSpec;
 import org.citrusframework.yaks.kafka.KafkaSettings;
-import org.citrusframework.yaks.knative.KnativeSettings;
+import org.citrusframework.yaks.knative.KnativeSupport;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -50,6 +51,9 @@ public class KameletSteps {
     @CitrusResource
     private TestCaseRunner runner;
 
+    @CitrusResource
+    private TestContext context;
+
     @CitrusFramework
     private Citrus citrus;
 
@@ -147,7 +151,7 @@ public class KameletSteps {
     @Given("^bind Kamelet ([a-z0-9-]+) to uri ([^\\s]+)$")
     public void bindKameletToUri(String kameletName, String uri) {
         KameletBindingSpec.Endpoint.ObjectReference sourceRef =
-                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSettings.getNamespace(), kameletName);
+                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSupport.namespace(context), kameletName);
         source = new KameletBindingSpec.Endpoint(sourceRef);
 
         sink = new KameletBindingSpec.Endpoint(uri);
@@ -156,7 +160,7 @@ public class KameletSteps {
     @Given("^bind Kamelet ([a-z0-9-]+) to Kafka topic ([^\\s]+)$")
     public void bindKameletToKafka(String kameletName, String topic) {
         KameletBindingSpec.Endpoint.ObjectReference sourceRef =
-                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSettings.getNamespace(), kameletName);
+                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSupport.namespace(context), kameletName);
         source = new KameletBindingSpec.Endpoint(sourceRef);
 
         KameletBindingSpec.Endpoint.ObjectReference sinkRef =
@@ -172,11 +176,11 @@ public class KameletSteps {
     @Given("^bind Kamelet ([a-z0-9-]+) to Knative channel ([^\\s]+) of kind ([^\\s]+)$")
     public void bindKameletToKnativeChannel(String kameletName, String channel, String channelKind) {
         KameletBindingSpec.Endpoint.ObjectReference sourceRef =
-                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSettings.getNamespace(), kameletName);
+                new KameletBindingSpec.Endpoint.ObjectReference(CamelKSupport.CAMELK_CRD_GROUP + "/" + CamelKSettings.getKameletApiVersion(), "Kamelet", CamelKSupport.namespace(context), kameletName);
         source = new KameletBindingSpec.Endpoint(sourceRef);
 
         KameletBindingSpec.Endpoint.ObjectReference sinkRef =
-                new KameletBindingSpec.Endpoint.ObjectReference(channelKind, KnativeSettings.getNamespace(), channel);
+                new KameletBindingSpec.Endpoint.ObjectReference(channelKind, KnativeSupport.namespace(context), channel);
         sink = new KameletBindingSpec.Endpoint(sinkRef);
     }
 
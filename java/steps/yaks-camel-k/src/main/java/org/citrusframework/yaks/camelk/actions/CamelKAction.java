@@ -18,7 +18,9 @@
 package org.citrusframework.yaks.camelk.actions;
 
 import com.consol.citrus.TestAction;
+import com.consol.citrus.context.TestContext;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.citrusframework.yaks.camelk.CamelKSupport;
 
 /**
  * Base action provides access to Knative properties such as broker name. These properties are read from
@@ -34,5 +36,16 @@ public interface CamelKAction extends TestAction {
      * @return
      */
     KubernetesClient getKubernetesClient();
+
+    /**
+     * Resolves namespace name from given test context. Uses the namespace that the Kubernetes namespace pool has assigned
+     * to the current scenario when the pool is enabled. Fallback to the namespace given in Camel-K environment settings.
+     *
+     * @param context
+     * @return
+     */
+    default String namespace(TestContext context) {
+        return CamelKSupport.namespace(context);
+    }
 }
 
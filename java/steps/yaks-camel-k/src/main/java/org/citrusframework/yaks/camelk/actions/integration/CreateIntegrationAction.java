@@ -37,6 +37,7 @@ import org.citrusframework.yaks.camelk.actions.AbstractCamelKAction;
 import org.citrusframework.yaks.camelk.model.Integration;
 import org.citrusframework.yaks.camelk.model.IntegrationList;
 import org.citrusframework.yaks.camelk.model.IntegrationSpec;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCleanup;
 
 /**
  * Test action creates new Camel-K integration with given name and source code. Uses given Kubernetes client to
@@ -52,6 +53,7 @@ public class CreateIntegrationAction extends AbstractCamelKAction {
     private final List<String> properties;
     private final List<String> propertyFiles;
     private final String traits;
+    private final KubernetesResourceCleanup resourceCleanup;
 
     /**
      * Constructor using given builder.
@@ -65,6 +67,7 @@ public class CreateIntegrationAction extends AbstractCamelKAction {
         this.properties = builder.properties;
         this.propertyFiles = builder.propertyFiles;
         this.traits = builder.traits;
+        this.resourceCleanup = builder.resourceCleanup;
     }
 
     @Override
@@ -85,9 +88,13 @@ public class CreateIntegrationAction extends AbstractCamelKAction {
         addTraitSpec(integrationBuilder, context);
 
         final Integration i = integrationBuilder.build();
+        if (resourceCleanup != null) {
+            resourceCleanup.track(i, namespace(context));
+        }
+
         CustomResourceDefinitionContext ctx = CamelKSupport.integrationCRDContext(CamelKSettings.getApiVersion());
         getKubernetesClient().customResources(ctx, Integration.class, IntegrationList.class)
-                .inNamespace(CamelKSettings.getNamespace())
+                .inNamespace(namespace(context))
                 .createOrReplace(i);
 
         LOG.info(String.format("Successfully created Camel-K integration '%s'", i.getMetadata().getName()));
@@ -182,6 +189,7 @@ public class CreateIntegrationAction extends AbstractCamelKAction {
         private final List<String> properties = new ArrayList<>();
         private final List<String> propertyFiles = new ArrayList<>();
         private String traits;
+        private KubernetesResourceCleanup resourceCleanup;
 
         public Builder integration(String integrationName) {
             this.integrationName = integrationName;
@@ -238,6 +246,14 @@ public class CreateIntegrationAction extends AbstractCamelKAction {
             return this;
         }
 
+        /**
+         * Track the created integration with given resource cleanup.
+         */
+        public Builder cleanup(KubernetesResourceCleanup resourceCleanup) {
+            this.resourceCleanup = resourceCleanup;
+            return this;
+        }
+
         @Override
         public CreateIntegrationAction build() {
             return new CreateIntegrationAction(this);
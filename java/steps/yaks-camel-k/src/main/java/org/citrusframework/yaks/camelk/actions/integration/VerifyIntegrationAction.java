@@ -22,15 +22,20 @@ import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.PodResource;
 import org.citrusframework.yaks.camelk.CamelKSettings;
 import org.citrusframework.yaks.camelk.actions.AbstractCamelKAction;
+import org.citrusframework.yaks.kubernetes.BackoffStrategy;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.PodLogMatcher;
+import org.citrusframework.yaks.kubernetes.ResourceWaiter;
 
 /**
  * Test action verifies integration Pod running/stopped state and optionally waits for a log message to be present. Raises errors
  * when either the integration is not in expected state or the log message is not available. Both operations are automatically retried
- * for a given amount of attempts.
+ * with the configured backoff strategy until the timeout (max attempts times delay between attempts) is exceeded.
  *
  * @author Christoph Deppisch
  */
@@ -40,6 +45,8 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
     private final String logMessage;
     private final int maxAttempts;
     private final long delayBetweenAttempts;
+    private final boolean followLogs;
+    private final BackoffStrategy backoff;
 
     private final String phase;
 
@@ -54,15 +61,18 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
         this.logMessage = builder.logMessage;
         this.maxAttempts = builder.maxAttempts;
         this.delayBetweenAttempts = builder.delayBetweenAttempts;
+        this.followLogs = builder.followLogs;
+        this.backoff = builder.backoff != null ? builder.backoff : KubernetesSupport.backoffStrategy(delayBetweenAttempts);
     }
 
     @Override
     public void doExecute(TestContext context) {
         String podName = context.replaceDynamicContentInString(integrationName);
-        Pod pod = verifyIntegrationPod(podName, context.replaceDynamicContentInString(phase));
+        String namespace = namespace(context);
+        Pod pod = verifyIntegrationPod(podName, context.replaceDynamicContentInString(phase), namespace);
 
         if (logMessage != null) {
-            verifyIntegrationLogs(pod, podName, context.replaceDynamicContentInString(logMessage));
+            verifyIntegrationLogs(pod, podName, context.replaceDynamicContentInString(logMessage), namespace);
         }
     }
 
@@ -71,36 +81,52 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
      * @param pod
      * @param name
      * @param message
+     * @param namespace
      */
-    private void verifyIntegrationLogs(Pod pod, String name, String message) {
-        for (int i = 0; i < maxAttempts; i++) {
-            String log = getIntegrationPodLogs(pod);
-            if (log.contains(message)) {
-                LOG.info("Verified integration logs - All values OK!");
-                return;
-            }
-
-            LOG.warn(String.format("Waiting for integration '%s' to log message - retry in %s ms", name, delayBetweenAttempts));
+    private void verifyIntegrationLogs(Pod pod, String name, String message, String namespace) {
+        long timeout = maxAttempts * delayBetweenAttempts;
+        long start = System.currentTimeMillis();
+        if (followLogs) {
             try {
-                Thread.sleep(delayBetweenAttempts);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted while waiting for integration pod logs", e);
+                PodLogMatcher matcher = new PodLogMatcher(getKubernetesClient(), namespace);
+                if (matcher.waitForLogMessage(pod, message, timeout, delayBetweenAttempts)) {
+                    LOG.info("Verified integration logs - All values OK!");
+                    return;
+                }
+
+                throw new ActionTimeoutException(timeout,
+                        new CitrusRuntimeException(String.format("Failed to verify integration '%s' - " +
+                                "has not printed message '%s' after %d ms", name, message, timeout)));
+            } catch (KubernetesClientException e) {
+                LOG.warn(String.format("Failed to follow logs of integration '%s' - fall back to polling", name), e);
             }
         }
 
-        throw new ActionTimeoutException((maxAttempts * delayBetweenAttempts),
-                new CitrusRuntimeException(String.format("Failed to verify integration '%s' - " +
-                        "has not printed message '%s' after %d attempts", name, logMessage, maxAttempts)));
+        pollIntegrationLogs(pod, name, message, namespace, ResourceWaiter.getRemainingTime(start, timeout));
+    }
+
+    /**
+     * Wait for integration pod to log given message by polling the complete pod logs until the timeout is exceeded.
+     * @param pod
+     * @param name
+     * @param message
+     * @param namespace
+     * @param timeout
+     */
+    private void pollIntegrationLogs(Pod pod, String name, String message, String namespace, long timeout) {
+        waiter("integration-log", timeout).waitFor(String.format("integration '%s' to log message '%s'", name, message),
+                () -> getIntegrationPodLogs(pod, namespace).contains(message));
     }
 
     /**
      * Retrieve log messages from given pod.
      * @param pod
+     * @param namespace
      * @return
      */
-    private String getIntegrationPodLogs(Pod pod) {
+    private String getIntegrationPodLogs(Pod pod, String namespace) {
         PodResource<Pod> podRes = getKubernetesClient().pods()
-                .inNamespace(CamelKSettings.getNamespace())
+                .inNamespace(namespace)
                 .withName(pod.getMetadata().getName());
 
         String containerName = null;
@@ -121,38 +147,34 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
      * Wait for given pod to be in given state.
      * @param name
      * @param phase
+     * @param namespace
      * @return
      */
-    private Pod verifyIntegrationPod(String name, String phase) {
-        for (int i = 0; i < maxAttempts; i++) {
-            Pod pod = getIntegrationPod(name, phase);
-            if (pod != null) {
-                LOG.info(String.format("Verified integration pod '%s' state '%s'!", name, phase));
-                return pod;
-            }
-
-            LOG.warn(String.format("Waiting for integration '%s' in state '%s'- retry in %s ms", name, phase, delayBetweenAttempts));
-            try {
-                Thread.sleep(delayBetweenAttempts);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted while waiting for integration pod state", e);
-            }
-        }
+    private Pod verifyIntegrationPod(String name, String phase, String namespace) {
+        return waiter("integration", maxAttempts * delayBetweenAttempts).waitFor(String.format("integration '%s' in state '%s'", name, phase),
+                () -> getIntegrationPod(name, phase, namespace));
+    }
 
-        throw new ActionTimeoutException((maxAttempts * delayBetweenAttempts),
-                new CitrusRuntimeException(String.format("Failed to verify integration '%s' - " +
-                        "is not in state '%s' after %d attempts", name, phase, maxAttempts)));
+    /**
+     * Creates waiter for given resource kind using the backoff strategy and given timeout.
+     * @param kind
+     * @param timeout
+     * @return
+     */
+    private ResourceWaiter waiter(String kind, long timeout) {
+        return new ResourceWaiter(kind, timeout, backoff);
     }
 
     /**
      * Retrieve pod given state.
      * @param integration
      * @param phase
+     * @param namespace
      * @return
      */
-    private Pod getIntegrationPod(final String integration, final String phase) {
+    private Pod getIntegrationPod(final String integration, final String phase, final String namespace) {
         PodList pods = getKubernetesClient().pods()
-                .inNamespace(CamelKSettings.getNamespace())
+                .inNamespace(namespace)
                 .withLabel(CamelKSettings.INTEGRATION_LABEL, integration)
                 .list();
 
@@ -172,6 +194,8 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
 
         private int maxAttempts = CamelKSettings.getMaxAttempts();
         private long delayBetweenAttempts = CamelKSettings.getDelayBetweenAttempts();
+        private boolean followLogs = KubernetesSettings.isWatchResources();
+        private BackoffStrategy backoff;
 
         private String phase = "Running";
 
@@ -205,6 +229,16 @@ public class VerifyIntegrationAction extends AbstractCamelKAction {
             return this;
         }
 
+        public Builder followLogs(boolean followLogs) {
+            this.followLogs = followLogs;
+            return this;
+        }
+
+        public Builder backoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
         @Override
         public VerifyIntegrationAction build() {
             return new VerifyIntegrationAction(this);
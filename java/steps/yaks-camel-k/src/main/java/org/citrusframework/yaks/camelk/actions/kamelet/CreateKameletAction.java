@@ -130,7 +130,7 @@ public class CreateKameletAction extends AbstractCamelKAction {
 
         CustomResourceDefinitionContext ctx = CamelKSupport.kameletCRDContext(CamelKSettings.getKameletApiVersion());
         getKubernetesClient().customResources(ctx, Kamelet.class, KameletList.class)
-                .inNamespace(CamelKSettings.getNamespace())
+                .inNamespace(namespace(context))
                 .createOrReplace(kamelet);
 
         LOG.info(String.format("Successfully created Kamelet '%s'", kamelet.getMetadata().getName()));
@@ -112,7 +112,7 @@ public class CreateKameletBindingAction extends AbstractCamelKAction {
 
         CustomResourceDefinitionContext ctx = CamelKSupport.kameletBindingCRDContext(CamelKSettings.getKameletApiVersion());
         getKubernetesClient().customResources(ctx, KameletBinding.class, KameletBindingList.class)
-                .inNamespace(CamelKSettings.getNamespace())
+                .inNamespace(namespace(context))
                 .createOrReplace(binding);
 
         LOG.info(String.format("Successfully created KameletBinding '%s'", binding.getMetadata().getName()));
@@ -18,7 +18,6 @@
 package org.citrusframework.yaks.camelk.actions.kamelet;
 
 import com.consol.citrus.context.TestContext;
-import com.consol.citrus.exceptions.ValidationException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
 import org.citrusframework.yaks.camelk.CamelKSettings;
@@ -26,16 +25,22 @@ import org.citrusframework.yaks.camelk.CamelKSupport;
 import org.citrusframework.yaks.camelk.actions.AbstractCamelKAction;
 import org.citrusframework.yaks.camelk.model.KameletBinding;
 import org.citrusframework.yaks.camelk.model.KameletBindingList;
+import org.citrusframework.yaks.kubernetes.BackoffStrategy;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.ResourceWaiter;
 
 /**
- * Test action verifies Kamelet CRD is present on given namespace.
+ * Test action verifies KameletBinding CRD is present on given namespace. Waits for the resource to be available with the
+ * configured backoff strategy until the timeout (max attempts times delay between attempts) is exceeded.
  *
  * @author Christoph Deppisch
  */
 public class VerifyKameletBindingAction extends AbstractCamelKAction {
 
     private final String name;
+    private final int maxAttempts;
+    private final long delayBetweenAttempts;
+    private final BackoffStrategy backoff;
 
     /**
      * Constructor using given builder.
@@ -44,20 +49,21 @@ public class VerifyKameletBindingAction extends AbstractCamelKAction {
     public VerifyKameletBindingAction(Builder builder) {
         super("verify-kamelet-binding", builder);
         this.name = builder.name;
+        this.maxAttempts = builder.maxAttempts;
+        this.delayBetweenAttempts = builder.delayBetweenAttempts;
+        this.backoff = builder.backoff != null ? builder.backoff : KubernetesSupport.backoffStrategy(delayBetweenAttempts);
     }
 
     @Override
     public void doExecute(TestContext context) {
         String bindingName = context.replaceDynamicContentInString(name);
         CustomResourceDefinitionContext ctx = CamelKSupport.kameletBindingCRDContext(CamelKSettings.getKameletApiVersion());
-        KameletBinding binding = getKubernetesClient().customResources(ctx, KameletBinding.class, KameletBindingList.class)
-                .inNamespace(CamelKSettings.getNamespace())
-                .withName(bindingName)
-                .get();
-
-        if (binding == null) {
-            throw new ValidationException(String.format("Failed to retrieve KameletBinding '%s' in namespace '%s'", name, CamelKSettings.getNamespace()));
-        }
+        KameletBinding binding = new ResourceWaiter("kamelet-binding", maxAttempts * delayBetweenAttempts, backoff)
+                .waitFor(String.format("KameletBinding '%s' in namespace '%s'", bindingName, namespace(context)),
+                        () -> getKubernetesClient().customResources(ctx, KameletBinding.class, KameletBindingList.class)
+                                .inNamespace(namespace(context))
+                                .withName(bindingName)
+                                .get());
 
         LOG.info("KamletBinding validation successful - All values OK!");
         if (LOG.isDebugEnabled()) {
@@ -76,6 +82,10 @@ public class VerifyKameletBindingAction extends AbstractCamelKAction {
 
         private String name;
 
+        private int maxAttempts = CamelKSettings.getMaxAttempts();
+        private long delayBetweenAttempts = CamelKSettings.getDelayBetweenAttempts();
+        private BackoffStrategy backoff;
+
         public Builder isAvailable() {
             return this;
         }
@@ -85,6 +95,21 @@ public class VerifyKameletBindingAction extends AbstractCamelKAction {
             return this;
         }
 
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder delayBetweenAttempts(long delayBetweenAttempts) {
+            this.delayBetweenAttempts = delayBetweenAttempts;
+            return this;
+        }
+
+        public Builder backoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
         @Override
         public VerifyKameletBindingAction build() {
             return new VerifyKameletBindingAction(this);
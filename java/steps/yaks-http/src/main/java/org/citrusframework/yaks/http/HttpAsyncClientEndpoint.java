@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.endpoint.AbstractEndpoint;
+import com.consol.citrus.exceptions.ActionTimeoutException;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.client.HttpClient;
+import com.consol.citrus.http.client.HttpEndpointConfiguration;
+import com.consol.citrus.http.message.HttpMessage;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.messaging.Consumer;
+import com.consol.citrus.messaging.Producer;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.citrusframework.yaks.http.capture.HttpCaptureInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+
+/**
+ * Endpoint sends the requests of a Http client on the async transport without blocking a thread per request. The Http client
+ * steps use the endpoint in fork mode. Request URL, message conversion and charset are taken from the Http client, so
+ * requests look the same as requests sent by the client itself.
+ *
+ * Requests in flight are kept in the test context in order of sending and each receive takes the response of the oldest
+ * request. Client interceptors work on blocking exchanges and are not applied, except for the HTTP traffic capture that
+ * records each exchange once the response has arrived.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpAsyncClientEndpoint extends AbstractEndpoint {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpAsyncClientEndpoint.class);
+
+    private final HttpClient httpClient;
+    private final HttpAsyncTransport transport;
+    private final long timeout;
+
+    public HttpAsyncClientEndpoint(HttpClient httpClient, HttpAsyncTransport transport, long timeout) {
+        super(httpClient.getEndpointConfiguration());
+        setName(httpClient.getName());
+        this.httpClient = httpClient;
+        this.transport = transport;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public HttpEndpointConfiguration getEndpointConfiguration() {
+        return httpClient.getEndpointConfiguration();
+    }
+
+    /**
+     * Gets the requests sent in given test context that have not been received yet.
+     * @param context
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private Deque<AsyncExchange> getExchanges(TestContext context) {
+        String variable = getName() + "_async_exchanges";
+        if (!context.getVariables().containsKey(variable)) {
+            context.setVariable(variable, new ArrayDeque<AsyncExchange>());
+        }
+
+        return (Deque<AsyncExchange>) context.getVariableObject(variable);
+    }
+
+    @Override
+    public Producer createProducer() {
+        return new Producer() {
+            @Override
+            public void send(Message message, TestContext context) {
+                HttpEndpointConfiguration configuration = getEndpointConfiguration();
+                HttpMessage httpMessage = message instanceof HttpMessage ? (HttpMessage) message : new HttpMessage(message);
+
+                String uri = configuration.getEndpointUriResolver() != null ?
+                        configuration.getEndpointUriResolver().resolveEndpointUri(httpMessage, configuration.getRequestUrl()) :
+                        configuration.getRequestUrl();
+                HttpMethod method = Optional.ofNullable(httpMessage.getRequestMethod()).orElse(configuration.getRequestMethod());
+                HttpEntity<?> entity = configuration.getMessageConverter().convertOutbound(httpMessage, configuration, context);
+
+                AsyncExchange exchange = new AsyncExchange(method, URI.create(uri), entity.getHeaders(),
+                        getBytes(entity.getBody(), configuration.getCharset()));
+
+                SimpleHttpRequest request;
+                try {
+                    request = HttpAsyncTransport.createRequest(method, exchange.getURI(), exchange.getHeaders(), exchange.body);
+                } catch (IOException e) {
+                    throw new CitrusRuntimeException("Failed to create Http request", e);
+                }
+
+                request.setConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout, TimeUnit.MILLISECONDS)
+                        .setResponseTimeout(timeout, TimeUnit.MILLISECONDS)
+                        .build());
+
+                List<HttpCaptureInterceptor> captures = getCaptureInterceptors();
+                getExchanges(context).add(exchange);
+                transport.execute(request, new FutureCallback<SimpleHttpResponse>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        captures.forEach(capture -> exchange.capture(capture, response));
+                        exchange.response.complete(response);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        exchange.response.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        exchange.response.cancel(false);
+                    }
+                });
+            }
+
+            @Override
+            public String getName() {
+                return getProducerName();
+            }
+        };
+    }
+
+    @Override
+    public Consumer createConsumer() {
+        return new Consumer() {
+            @Override
+            public Message receive(TestContext context) {
+                return receive(context, timeout);
+            }
+
+            @Override
+            public Message receive(TestContext context, long timeout) {
+                AsyncExchange exchange = getExchanges(context).poll();
+                if (exchange == null) {
+                    throw new CitrusRuntimeException("Failed to receive response - no request has been sent");
+                }
+
+                SimpleHttpResponse response;
+                try {
+                    response = exchange.response.get(timeout, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CitrusRuntimeException("Interrupted while waiting for Http response", e);
+                } catch (TimeoutException e) {
+                    throw new ActionTimeoutException(timeout);
+                } catch (ExecutionException e) {
+                    throw new CitrusRuntimeException(String.format("Failed to send Http request %s %s",
+                            exchange.getMethodValue(), exchange.getURI()), e.getCause());
+                }
+
+                HttpHeaders headers = new HttpAsyncTransport.AsyncClientHttpResponse(response).getHeaders();
+                ResponseEntity<String> entity = ResponseEntity.status(response.getCode())
+                        .headers(headers)
+                        .body(response.getBodyText());
+                HttpEndpointConfiguration configuration = getEndpointConfiguration();
+                return configuration.getMessageConverter().convertInbound(entity, configuration, context);
+            }
+
+            @Override
+            public String getName() {
+                return getConsumerName();
+            }
+        };
+    }
+
+    /**
+     * Gets the HTTP traffic capture interceptors of the Http client. Warns about all other interceptors as those do not see
+     * requests sent on the async transport.
+     * @return
+     */
+    private List<HttpCaptureInterceptor> getCaptureInterceptors() {
+        List<ClientHttpRequestInterceptor> interceptors = Optional.ofNullable(getEndpointConfiguration().getClientInterceptors())
+                .orElseGet(Collections::emptyList);
+
+        if (interceptors.stream().anyMatch(interceptor -> !(interceptor instanceof HttpCaptureInterceptor))) {
+            LOG.warn(String.format("Forked Http request bypasses the client interceptors of Http client '%s'", getName()));
+        }
+
+        return interceptors.stream()
+                .filter(HttpCaptureInterceptor.class::isInstance)
+                .map(HttpCaptureInterceptor.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] getBytes(Object body, String charset) {
+        if (body == null) {
+            return new byte[0];
+        }
+
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+
+        return body.toString().getBytes(Charset.forName(charset));
+    }
+
+    /**
+     * Request in flight waiting for its response.
+     */
+    private static class AsyncExchange implements HttpRequest {
+        private final HttpMethod method;
+        private final URI uri;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long timestamp = System.currentTimeMillis();
+        private final long start = System.nanoTime();
+        private final CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+
+        AsyncExchange(HttpMethod method, URI uri, HttpHeaders headers, byte[] body) {
+            this.method = method;
+            this.uri = uri;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * Writes this exchange to the capture log of given interceptor.
+         * @param capture
+         * @param response
+         */
+        void capture(HttpCaptureInterceptor capture, SimpleHttpResponse response) {
+            byte[] responseBody = response.getBodyBytes();
+            try {
+                capture.capture(this, body, new HttpAsyncTransport.AsyncClientHttpResponse(response),
+                        responseBody != null ? responseBody : new byte[0],
+                        timestamp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (IOException | RuntimeException e) {
+                LOG.warn(String.format("Failed to capture Http exchange %s %s", method, uri), e);
+            }
+        }
+
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.consol.citrus.Citrus;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.report.AbstractTestSuiteListener;
+import com.consol.citrus.spi.ReferenceResolver;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.client5.http.ssl.TrustAllStrategy;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIAuthority;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Non-blocking Http client transport shared by all scenarios of a test suite. Requests are processed by a few I/O event loop
+ * threads. Depending on the version policy the transport negotiates HTTP/2 via ALPN on secure connections (negotiate), always uses
+ * HTTP/2 and multiplexes all requests to a host over a single connection (http2) or sticks to HTTP/1.1 (http1).
+ *
+ * In fork mode the Http client steps send requests on the transport via {@link HttpAsyncClientEndpoint} and load tests use the
+ * transport directly in order to have many requests in flight without blocking a thread per request. Http client endpoints may
+ * also use the transport via its request factory, which waits for each response on the calling thread.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpAsyncTransport {
+
+    /** Bean name of the suite scoped async transport */
+    public static final String ASYNC_TRANSPORT_BEAN_NAME = "yaksHttpAsyncTransport";
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ClientHttpRequestFactory requestFactory;
+
+    public HttpAsyncTransport() {
+        this(HttpSettings.getVersionPolicy(), HttpSettings.getIoThreads(),
+                HttpSettings.getMaxConnections(), HttpSettings.getMaxConnectionsPerRoute(), HttpSettings.getClientTrustAll());
+    }
+
+    public HttpAsyncTransport(String versionPolicy, int ioThreads, int maxConnections, int maxConnectionsPerRoute) {
+        this(versionPolicy, ioThreads, maxConnections, maxConnectionsPerRoute, HttpSettings.getClientTrustAll());
+    }
+
+    public HttpAsyncTransport(String versionPolicy, int ioThreads, int maxConnections, int maxConnectionsPerRoute, boolean trustAll) {
+        TlsStrategy tlsStrategy = tlsStrategy(trustAll);
+
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(ioThreads)
+                .build();
+
+        if ("http2".equalsIgnoreCase(versionPolicy)) {
+            httpClient = HttpAsyncClients.customHttp2()
+                    .setTlsStrategy(tlsStrategy)
+                    .setIOReactorConfig(ioReactorConfig)
+                    .disableCookieManagement()
+                    .build();
+        } else {
+            httpClient = HttpAsyncClients.custom()
+                    .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                            .setTlsStrategy(tlsStrategy)
+                            .setMaxConnTotal(maxConnections)
+                            .setMaxConnPerRoute(maxConnectionsPerRoute)
+                            .build())
+                    .setVersionPolicy("http1".equalsIgnoreCase(versionPolicy) ?
+                            HttpVersionPolicy.FORCE_HTTP_1 : HttpVersionPolicy.NEGOTIATE)
+                    .setIOReactorConfig(ioReactorConfig)
+                    .disableCookieManagement()
+                    .disableConnectionState()
+                    .build();
+        }
+
+        httpClient.start();
+        requestFactory = getRequestFactory(HttpSettings.getTimeout());
+    }
+
+    /**
+     * Gets the suite scoped async transport. Creates and binds a new transport to the reference resolver if not present.
+     * The transport is closed when the test suite has finished.
+     * @param citrus
+     * @return
+     */
+    public static synchronized HttpAsyncTransport getOrCreate(Citrus citrus) {
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(ASYNC_TRANSPORT_BEAN_NAME)) {
+            return referenceResolver.resolve(ASYNC_TRANSPORT_BEAN_NAME, HttpAsyncTransport.class);
+        }
+
+        HttpAsyncTransport transport = new HttpAsyncTransport();
+        referenceResolver.bind(ASYNC_TRANSPORT_BEAN_NAME, transport);
+        citrus.addTestSuiteListener(new AbstractTestSuiteListener() {
+            @Override
+            public void onFinish() {
+                transport.close();
+            }
+        });
+
+        return transport;
+    }
+
+    /**
+     * Sends given request without blocking. The callback is invoked on one of the I/O threads once the response has been received.
+     * @param request
+     * @param callback
+     * @return
+     */
+    public Future<SimpleHttpResponse> execute(SimpleHttpRequest request, FutureCallback<SimpleHttpResponse> callback) {
+        return httpClient.execute(request, callback);
+    }
+
+    /**
+     * Closes the transport and all open connections.
+     */
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * Request factory to use on Http client endpoints. Waits for responses using the default Http client timeout.
+     * @return
+     */
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Request factory to use on Http client endpoints. Waits for responses using given timeout in milliseconds.
+     * @param timeout
+     * @return
+     */
+    public ClientHttpRequestFactory getRequestFactory(long timeout) {
+        return (uri, httpMethod) -> new AsyncClientHttpRequest(uri, httpMethod, timeout);
+    }
+
+    /**
+     * Gets the async Http client.
+     * @return
+     */
+    public CloseableHttpAsyncClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Creates request for the async transport with given headers and body. Hop-by-hop headers are set by the transport and
+     * the host header is carried as request authority.
+     * @param method
+     * @param uri
+     * @param headers
+     * @param body
+     * @return
+     * @throws IOException
+     */
+    static SimpleHttpRequest createRequest(HttpMethod method, URI uri, HttpHeaders headers, byte[] body) throws IOException {
+        SimpleHttpRequest request = new SimpleHttpRequest(method.name(), uri);
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey();
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONNECTION.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                continue;
+            }
+
+            if (HttpHeaders.HOST.equalsIgnoreCase(name)) {
+                // HTTP/2 carries the host as request authority
+                try {
+                    request.setAuthority(URIAuthority.create(headers.getFirst(name)));
+                } catch (URISyntaxException e) {
+                    throw new IOException("Invalid host header", e);
+                }
+                continue;
+            }
+
+            header.getValue().forEach(value -> request.addHeader(name, value));
+        }
+
+        if (body != null && body.length > 0) {
+            ContentType contentType = headers.getContentType() != null ?
+                    ContentType.parse(headers.getContentType().toString()) : ContentType.DEFAULT_BINARY;
+            request.setBody(body, contentType);
+        } else if (headers.getContentType() != null) {
+            request.addHeader(HttpHeaders.CONTENT_TYPE, headers.getContentType().toString());
+        }
+
+        return request;
+    }
+
+    /**
+     * Get TLS strategy for secure connections. Uses trust all strategy and noop host name verifier when enabled,
+     * the default system SSL settings otherwise.
+     * @param trustAll
+     * @return
+     */
+    private static TlsStrategy tlsStrategy(boolean trustAll) {
+        if (!trustAll) {
+            return ClientTlsStrategyBuilder.create()
+                    .setSslContext(SSLContexts.createSystemDefault())
+                    .build();
+        }
+
+        try {
+            SSLContext sslContext = SSLContexts
+                    .custom()
+                    .loadTrustMaterial(TrustAllStrategy.INSTANCE)
+                    .build();
+
+            return ClientTlsStrategyBuilder.create()
+                    .setSslContext(sslContext)
+                    .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                    .build();
+        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+            throw new CitrusRuntimeException("Failed to create http client for ssl connection", e);
+        }
+    }
+
+    /**
+     * Buffering client request sent via the async transport. The calling thread waits for the response.
+     */
+    private class AsyncClientHttpRequest extends AbstractClientHttpRequest {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final long timeout;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        AsyncClientHttpRequest(URI uri, HttpMethod method, long timeout) {
+            this.uri = uri;
+            this.method = method;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            SimpleHttpRequest request = createRequest(method, uri, headers, body.toByteArray());
+
+            Future<SimpleHttpResponse> response = httpClient.execute(request, null);
+            try {
+                return new AsyncClientHttpResponse(response.get(timeout, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                response.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Http response", e);
+            } catch (TimeoutException e) {
+                response.cancel(true);
+                throw new SocketTimeoutException(String.format("No Http response received from '%s' within %d ms", uri, timeout));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+
+                throw new IOException("Failed to send Http request", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Client response holding the buffered response body.
+     */
+    static class AsyncClientHttpResponse implements ClientHttpResponse {
+
+        private final SimpleHttpResponse response;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        AsyncClientHttpResponse(SimpleHttpResponse response) {
+            this.response = response;
+
+            for (Header header : response.getHeaders()) {
+                headers.add(header.getName(), header.getValue());
+            }
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(response.getCode());
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return response.getCode();
+        }
+
+        @Override
+        public String getStatusText() {
+            return response.getReasonPhrase() != null ? response.getReasonPhrase() : "";
+        }
+
+        @Override
+        public InputStream getBody() {
+            byte[] bytes = response.getBodyBytes();
+            return new ByteArrayInputStream(bytes != null ? bytes : new byte[0]);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void close() {
+            // response body is buffered - nothing to release
+        }
+    }
+}
@@ -17,19 +17,21 @@
 
 package org.citrusframework.yaks.http;
 
-import javax.net.ssl.SSLContext;
 import java.io.IOException;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.consol.citrus.Citrus;
 import com.consol.citrus.CitrusSettings;
 import com.consol.citrus.TestCaseRunner;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.endpoint.Endpoint;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.http.actions.HttpClientActionBuilder;
 import com.consol.citrus.http.actions.HttpClientRequestActionBuilder;
@@ -38,6 +40,7 @@ import com.consol.citrus.http.client.HttpClient;
 import com.consol.citrus.http.client.HttpClientBuilder;
 import com.consol.citrus.http.message.HttpMessage;
 import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.validation.ValidationProcessor;
 import com.consol.citrus.variable.dictionary.DataDictionary;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.Before;
@@ -45,17 +48,24 @@ import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustAllStrategy;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.SSLContexts;
+import org.citrusframework.yaks.http.capture.HttpCaptureInterceptor;
+import org.citrusframework.yaks.http.capture.HttpCaptureLog;
+import org.citrusframework.yaks.http.capture.HttpReplayAction;
+import org.citrusframework.yaks.http.health.HttpHealthWaitAction;
+import org.citrusframework.yaks.http.load.HttpLoadAction;
+import org.citrusframework.yaks.http.load.VerifyHttpLoadAction;
+import org.citrusframework.yaks.http.stream.HttpStreamAction;
+import org.citrusframework.yaks.http.stream.VerifyHttpStreamAction;
+import org.citrusframework.yaks.http.validation.CompositeValidationProcessor;
+import org.citrusframework.yaks.http.validation.PathExpressionValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
-import static com.consol.citrus.container.Wait.Builder.waitFor;
 import static com.consol.citrus.http.actions.HttpActionBuilder.http;
 import static com.consol.citrus.validation.PathExpressionValidationContext.Builder.pathExpression;
 
@@ -64,13 +74,20 @@ import static com.consol.citrus.validation.PathExpressionValidationContext.Build
  */
 public class HttpClientSteps implements HttpSteps {
 
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClientSteps.class);
+
     @CitrusResource
     private TestCaseRunner runner;
 
+    @CitrusResource
+    private TestContext context;
+
     @CitrusFramework
     private Citrus citrus;
 
     private HttpClient httpClient;
+    private boolean defaultClient;
 
     private String requestUrl;
 
@@ -79,6 +96,7 @@ public class HttpClientSteps implements HttpSteps {
     private Map<String, String> requestParams = new HashMap<>();
 
     private Map<String, Object> bodyValidationExpressions = new HashMap<>();
+    private List<ValidationProcessor> validationProcessors = new ArrayList<>();
 
     private String requestMessageType;
     private String responseMessageType;
@@ -86,6 +104,11 @@ public class HttpClientSteps implements HttpSteps {
     private String requestBody;
     private String responseBody;
 
+    private String requestBodyResource;
+    private String responseBodyResource;
+    private Long responseBodySize;
+    private String responseBodyChecksum;
+
     private DataDictionary<?> outboundDictionary;
     private DataDictionary<?> inboundDictionary;
 
@@ -93,20 +116,29 @@ public class HttpClientSteps implements HttpSteps {
 
     private boolean forkMode = HttpSettings.getForkMode();
 
+    private double loadRate;
+    private String loadTransport = HttpSettings.getLoadTransport();
+
+    private boolean bodyStreaming = HttpSettings.getBodyStreaming();
+    private boolean streamExchange;
+
     @Before
     public void before(Scenario scenario) {
         if (httpClient == null) {
             if (citrus.getCitrusContext().getReferenceResolver().resolveAll(HttpClient.class).size() == 1L) {
                 httpClient = citrus.getCitrusContext().getReferenceResolver().resolve(HttpClient.class);
             } else {
-                httpClient = new HttpClientBuilder()
-                        .timeout(HttpSettings.getTimeout())
-                        .build();
+                httpClient = createDefaultClient();
+                defaultClient = true;
             }
         }
 
         timeout = httpClient.getEndpointConfiguration().getTimeout();
 
+        if (StringUtils.hasText(HttpSettings.getCaptureFile())) {
+            captureClientTraffic(HttpSettings.getCaptureFile());
+        }
+
         requestHeaders = new HashMap<>();
         responseHeaders = new HashMap<>();
         requestParams = new HashMap<>();
@@ -114,9 +146,16 @@ public class HttpClientSteps implements HttpSteps {
         responseMessageType = CitrusSettings.DEFAULT_MESSAGE_TYPE;
         requestBody = null;
         responseBody = null;
+        requestBodyResource = null;
+        responseBodyResource = null;
+        responseBodySize = null;
+        responseBodyChecksum = null;
+        streamExchange = false;
         bodyValidationExpressions = new HashMap<>();
+        validationProcessors = new ArrayList<>();
         outboundDictionary = null;
         inboundDictionary = null;
+        loadRate = 0D;
     }
 
     @Given("^HTTP client \"([^\"\\s]+)\"$")
@@ -126,17 +165,30 @@ public class HttpClientSteps implements HttpSteps {
         }
 
         httpClient = citrus.getCitrusContext().getReferenceResolver().resolve(id, HttpClient.class);
+        defaultClient = false;
     }
 
     @Given("^(?:URL|url): ([^\\s]+)$")
     public void setUrl(String url) {
-        if (url.startsWith("https")) {
-            httpClient.getEndpointConfiguration().setRequestFactory(sslRequestFactory());
+        if (url.startsWith("https") && !defaultClient) {
+            httpClient.getEndpointConfiguration().setRequestFactory(HttpConnectionPool.getOrCreate(citrus).getRequestFactory());
         }
 
         this.requestUrl = url;
     }
 
+    @Given("^capture HTTP client traffic to ([^\\s]+)$")
+    public void captureClientTraffic(String file) {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        Optional.ofNullable(httpClient.getEndpointConfiguration().getClientInterceptors())
+                .ifPresent(interceptors::addAll);
+        interceptors.removeIf(HttpCaptureInterceptor.class::isInstance);
+        HttpCaptureLog captureLog = HttpCaptureLog.getOrCreate(citrus, context.replaceDynamicContentInString(file));
+        interceptors.add(new HttpCaptureInterceptor(captureLog));
+
+        httpClient.getEndpointConfiguration().setClientInterceptors(interceptors);
+    }
+
     @Given("^HTTP request timeout is (\\d+)(?: ms| milliseconds)$")
     public void configureTimeout(long timeout) {
         this.timeout = timeout;
@@ -147,6 +199,21 @@ public class HttpClientSteps implements HttpSteps {
         this.forkMode = "enabled".equals(mode);
     }
 
+    @Given("^HTTP body streaming is (enabled|disabled)$")
+    public void configureBodyStreaming(String mode) {
+        this.bodyStreaming = "enabled".equals(mode);
+    }
+
+    @Given("^HTTP load rate is (\\d+) requests? per second$")
+    public void configureLoadRate(double rate) {
+        this.loadRate = rate;
+    }
+
+    @Given("^HTTP load transport is (async|blocking)$")
+    public void configureLoadTransport(String transport) {
+        this.loadTransport = transport;
+    }
+
     @Given("^(?:URL|url) is healthy$")
     public void healthCheck() {
         waitForHttpUrl(requestUrl);
@@ -169,21 +236,54 @@ public class HttpClientSteps implements HttpSteps {
 
     @Given("^wait for (?:URL|url|path) ([^\\s]+) to return (\\d+)(?: [^\\s]+)?$")
     public void waitForHttpStatus(String urlOrPath, Integer statusCode) {
-        runner.given(waitFor().http()
-                .milliseconds(timeout)
-                .interval(timeout / 10)
-                .status(statusCode)
-                .url(getRequestUrl(urlOrPath)));
+        waitForHttpStatusUsingMethod(HttpMethod.HEAD.name(), urlOrPath, statusCode);
     }
 
     @Given("^wait for (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) on (?:URL|url|path) ([^\\s]+) to return (\\d+)(?: [^\\s]+)?$")
     public void waitForHttpStatusUsingMethod(String method, String urlOrPath, Integer statusCode) {
-        runner.given(waitFor().http()
-                .milliseconds(timeout)
+        runner.given(new HttpHealthWaitAction.Builder()
+                .url(getRequestUrl(urlOrPath))
                 .method(method)
-                .interval(timeout / 10)
                 .status(statusCode)
-                .url(getRequestUrl(urlOrPath)));
+                .timeout(timeout)
+                .client(HttpConnectionPool.getOrCreate(citrus).getHttpClient()));
+    }
+
+    @Given("^wait for (?:URLs|urls|paths)$")
+    public void waitForHttpUrls(DataTable urls) {
+        waitForHttpStatusUsingMethod(HttpMethod.HEAD.name(), urls, 200);
+    }
+
+    @Given("^wait for (?:URLs|urls|paths) to return (\\d+)(?: [^\\s]+)?$")
+    public void waitForHttpStatus(Integer statusCode, DataTable urls) {
+        waitForHttpStatusUsingMethod(HttpMethod.HEAD.name(), urls, statusCode);
+    }
+
+    @Given("^wait for (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) on (?:URLs|urls|paths)$")
+    public void waitForHttpUrlsUsingMethod(String method, DataTable urls) {
+        waitForHttpStatusUsingMethod(method, urls, 200);
+    }
+
+    @Given("^wait for (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) on (?:URLs|urls|paths) to return (\\d+)(?: [^\\s]+)?$")
+    public void waitForHttpStatusUsingMethod(String method, Integer statusCode, DataTable urls) {
+        waitForHttpStatusUsingMethod(method, urls, statusCode);
+    }
+
+    /**
+     * Waits for all URLs in given data table to return the status code. URLs are probed in parallel.
+     * @param method
+     * @param urls
+     * @param statusCode
+     */
+    private void waitForHttpStatusUsingMethod(String method, DataTable urls, Integer statusCode) {
+        runner.given(new HttpHealthWaitAction.Builder()
+                .urls(urls.asList().stream()
+                        .map(this::getRequestUrl)
+                        .collect(Collectors.toList()))
+                .method(method)
+                .status(statusCode)
+                .timeout(timeout)
+                .client(HttpConnectionPool.getOrCreate(citrus).getHttpClient()));
     }
 
     @Then("^(?:expect|verify) HTTP response header ([^\\s]+)(?:=| is )\"(.+)\"$")
@@ -232,6 +332,14 @@ public class HttpClientSteps implements HttpSteps {
         expressions.forEach(this::addBodyValidationExpression);
     }
 
+    /**
+     * Adds validation processor for the next response body received. Processors run after the body validation expressions.
+     * @param processor
+     */
+    public void addValidationProcessor(ValidationProcessor processor) {
+        validationProcessors.add(processor);
+    }
+
     @Given("^HTTP request body$")
     public void setRequestBodyMultiline(String body) {
         setRequestBody(body);
@@ -239,6 +347,11 @@ public class HttpClientSteps implements HttpSteps {
 
     @Given("^load HTTP request body ([^\\s]+)$")
     public void loadRequestBody(String file) {
+        if (bodyStreaming) {
+            this.requestBodyResource = file;
+            return;
+        }
+
         try {
             setRequestBody(FileUtils.readToString(FileUtils.getFileResource(file)));
         } catch (IOException e) {
@@ -258,6 +371,11 @@ public class HttpClientSteps implements HttpSteps {
 
     @Given("^(?:expect|verify) HTTP response body loaded from ([^\\s]+)$")
     public void loadResponseBody(String file) {
+        if (bodyStreaming) {
+            this.responseBodyResource = file;
+            return;
+        }
+
         try {
             setResponseBody(FileUtils.readToString(FileUtils.getFileResource(file)));
         } catch (IOException e) {
@@ -270,6 +388,16 @@ public class HttpClientSteps implements HttpSteps {
         this.responseBody = body;
     }
 
+    @Then("^(?:expect|verify) HTTP response body size is (\\d+)(?: bytes)?$")
+    public void setResponseBodySize(long size) {
+        this.responseBodySize = size;
+    }
+
+    @Then("^(?:expect|verify) HTTP response body checksum is ([0-9a-fA-F]+)$")
+    public void setResponseBodyChecksum(String checksum) {
+        this.responseBodyChecksum = checksum;
+    }
+
     @When("^send HTTP request$")
     public void sendClientRequestFull(String requestData) {
         sendClientRequest(HttpMessage.fromRequestData(requestData));
@@ -287,25 +415,166 @@ public class HttpClientSteps implements HttpSteps {
 
     @When("^send (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) ([^\"\\s]+)$")
     public void sendClientRequest(String method, String path) {
-        sendClientRequest(createRequest(requestBody, requestHeaders, requestParams, method, path));
+        if (bodyStreaming) {
+            sendStreamRequest(method, path);
+        } else {
+            sendClientRequest(createRequest(requestBody, requestHeaders, requestParams, method, path));
+        }
         requestBody = null;
+        requestBodyResource = null;
         requestHeaders.clear();
         requestParams.clear();
     }
 
     @Then("^receive HTTP (\\d+)(?: [^\\s]+)?$")
     public void receiveClientResponse(Integer status) {
-        receiveClientResponse(createResponse(responseBody, responseHeaders, status));
+        if (streamExchange) {
+            receiveStreamResponse(status);
+        } else {
+            if (responseBodyResource != null || responseBodySize != null || responseBodyChecksum != null) {
+                throw new CitrusRuntimeException("Verifying response body size and checksum requires HTTP body streaming to be enabled");
+            }
+
+            receiveClientResponse(createResponse(responseBody, responseHeaders, status));
+        }
         responseBody = null;
+        responseBodyResource = null;
+        responseBodySize = null;
+        responseBodyChecksum = null;
         responseHeaders.clear();
     }
 
+    @When("^replay HTTP capture ([^\\s]+)(?: at (\\d+(?:\\.\\d+)?) times (?:the )?captured rate)?(?: with concurrency (\\d+))?$")
+    public void replayCapture(String file, Double rateFactor, Integer concurrency) {
+        HttpReplayAction.Builder replay = new HttpReplayAction.Builder()
+                .resource(file)
+                .baseUrl(requestUrl)
+                .timeout(timeout)
+                .client(HttpConnectionPool.getOrCreate(citrus).getHttpClient());
+
+        Optional.ofNullable(rateFactor).ifPresent(replay::rateFactor);
+        Optional.ofNullable(concurrency).ifPresent(replay::concurrency);
+
+        runner.run(replay);
+    }
+
+    @When("^send (\\d+) (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) requests? to ([^\"\\s]+) with concurrency (\\d+)$")
+    public void sendLoadRequests(long count, String method, String path, int concurrency) {
+        sendLoad(new HttpLoadAction.Builder().count(count), method, path, concurrency);
+    }
+
+    @When("^send (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE) requests to ([^\"\\s]+) for (\\d+) (?:seconds|s) with concurrency (\\d+)$")
+    public void sendLoadRequestsForDuration(String method, String path, long seconds, int concurrency) {
+        sendLoad(new HttpLoadAction.Builder().duration(seconds * 1000L), method, path, concurrency);
+    }
+
+    @Then("^HTTP (p\\d+(?:\\.\\d+)?|mean|max) latency should be (<|<=|>|>=) (\\d+(?:\\.\\d+)?)(?: ms| milliseconds)$")
+    public void verifyLoadLatency(String metric, String operator, double threshold) {
+        runner.run(new VerifyHttpLoadAction.Builder()
+                .metric(metric)
+                .operator(operator)
+                .threshold(threshold));
+    }
+
+    @Then("^HTTP error rate should be (<|<=|>|>=) (\\d+(?:\\.\\d+)?) ?%$")
+    public void verifyLoadErrorRate(String operator, double threshold) {
+        runner.run(new VerifyHttpLoadAction.Builder()
+                .errorRate()
+                .operator(operator)
+                .threshold(threshold));
+    }
+
+    @Then("^HTTP throughput should be (<|<=|>|>=) (\\d+(?:\\.\\d+)?) requests? per second$")
+    public void verifyLoadThroughput(String operator, double threshold) {
+        runner.run(new VerifyHttpLoadAction.Builder()
+                .throughput()
+                .operator(operator)
+                .threshold(threshold));
+    }
+
+    /**
+     * Runs Http load with current request headers, query parameters and body.
+     * @param load
+     * @param method
+     * @param path
+     * @param concurrency
+     */
+    private void sendLoad(HttpLoadAction.Builder load, String method, String path, int concurrency) {
+        if ("async".equals(loadTransport)) {
+            load.transport(HttpAsyncTransport.getOrCreate(citrus));
+        } else {
+            load.connectionPool(HttpConnectionPool.getOrCreate(citrus));
+        }
+
+        runner.run(load.method(method)
+                .url(getRequestUrl(path))
+                .queryParams(requestParams)
+                .headers(requestHeaders)
+                .body(requestBody)
+                .concurrency(concurrency)
+                .rate(loadRate)
+                .timeout(timeout));
+
+        requestBody = null;
+        requestHeaders.clear();
+        requestParams.clear();
+    }
+
+    /**
+     * Sends request with streamed request body and consumes the response as a stream. Size, checksum and structural
+     * check of the response body are verified with the next receive step.
+     *
+     * Streamed requests use the pooled Http connections instead of the Citrus Http client endpoint, because the client
+     * interceptors work on fully buffered bodies. Client interceptors such as the HTTP traffic capture do not see the
+     * streamed exchange.
+     * @param method
+     * @param path
+     */
+    private void sendStreamRequest(String method, String path) {
+        if (!CollectionUtils.isEmpty(httpClient.getEndpointConfiguration().getClientInterceptors())) {
+            LOG.warn(String.format("Streamed Http request %s %s bypasses the client interceptors of Http client '%s' " +
+                    "- interceptors and traffic capture do not see this exchange", method, path, httpClient.getName()));
+        }
+
+        runner.run(new HttpStreamAction.Builder()
+                .method(method)
+                .url(getRequestUrl(path))
+                .queryParams(requestParams)
+                .headers(requestHeaders)
+                .body(requestBody)
+                .bodyResource(requestBodyResource)
+                .timeout(timeout)
+                .client(HttpConnectionPool.getOrCreate(citrus).getHttpClient()));
+
+        streamExchange = true;
+    }
+
+    /**
+     * Verifies the response of the last streamed request.
+     * @param status
+     */
+    private void receiveStreamResponse(Integer status) {
+        if (!bodyValidationExpressions.isEmpty() || !validationProcessors.isEmpty()) {
+            throw new CitrusRuntimeException("Response body expressions and validation processors are not supported with HTTP body streaming");
+        }
+
+        runner.run(new VerifyHttpStreamAction.Builder()
+                .status(status)
+                .headers(responseHeaders)
+                .body(responseBody)
+                .bodyResource(responseBodyResource)
+                .size(responseBodySize)
+                .checksum(responseBodyChecksum));
+
+        streamExchange = false;
+    }
+
     /**
      * Sends client request.
      * @param request
      */
     private void sendClientRequest(HttpMessage request) {
-        HttpClientActionBuilder.HttpClientSendActionBuilder sendBuilder = http().client(httpClient).send();
+        HttpClientActionBuilder.HttpClientSendActionBuilder sendBuilder = http().client(getClientEndpoint()).send();
         HttpClientRequestActionBuilder.HttpMessageBuilderSupport requestBuilder;
 
         if (request.getRequestMethod() == null || request.getRequestMethod().equals(HttpMethod.POST)) {
@@ -328,8 +597,6 @@ public class HttpClientSteps implements HttpSteps {
             requestBuilder = sendBuilder.post().message(request);
         }
 
-        requestBuilder.fork(forkMode);
-
         if (StringUtils.hasText(requestUrl)) {
             requestBuilder.uri(requestUrl);
         }
@@ -348,13 +615,19 @@ public class HttpClientSteps implements HttpSteps {
      * @param response
      */
     private void receiveClientResponse(HttpMessage response) {
-        HttpClientResponseActionBuilder.HttpMessageBuilderSupport responseBuilder = http().client(httpClient).receive()
+        HttpClientResponseActionBuilder.HttpMessageBuilderSupport responseBuilder = http().client(getClientEndpoint()).receive()
                 .response(response.getStatusCode())
                 .message(response);
 
-        responseBuilder.validate(pathExpression().expressions(bodyValidationExpressions));
+        responseBuilder.validate(new PathExpressionValidator(bodyValidationExpressions));
+        responseBuilder.validate(pathExpression().expressions(PathExpressionValidator.getUnsupported(bodyValidationExpressions)));
         bodyValidationExpressions.clear();
 
+        if (!validationProcessors.isEmpty()) {
+            responseBuilder.validate(new CompositeValidationProcessor(validationProcessors));
+        }
+        validationProcessors = new ArrayList<>();
+
         responseBuilder.timeout(timeout);
         responseBuilder.type(responseMessageType);
 
@@ -366,35 +639,27 @@ public class HttpClientSteps implements HttpSteps {
     }
 
     /**
-     * Get secure request factory.
+     * Gets the endpoint to send requests and receive responses with. In fork mode requests of the current client are sent
+     * on the non-blocking async transport so no thread waits for the response.
      * @return
      */
-    private HttpComponentsClientHttpRequestFactory sslRequestFactory() {
-        return new HttpComponentsClientHttpRequestFactory(sslClient());
+    private Endpoint getClientEndpoint() {
+        if (forkMode) {
+            return new HttpAsyncClientEndpoint(httpClient, HttpAsyncTransport.getOrCreate(citrus), timeout);
+        }
+
+        return httpClient;
     }
 
     /**
-     * Get secure http client implementation with trust all strategy and noop host name verifier.
+     * Creates new client with timeout settings. The client uses the shared pool of connections.
      * @return
      */
-    private org.apache.http.client.HttpClient sslClient() {
-        try {
-            SSLContext sslcontext = SSLContexts
-                    .custom()
-                    .loadTrustMaterial(TrustAllStrategy.INSTANCE)
-                    .build();
-
-            SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(
-                    sslcontext, NoopHostnameVerifier.INSTANCE);
-
-            return HttpClients
-                    .custom()
-                    .setSSLSocketFactory(sslSocketFactory)
-                    .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE)
-                    .build();
-        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
-            throw new CitrusRuntimeException("Failed to create http client for ssl connection", e);
-        }
+    private HttpClient createDefaultClient() {
+        return new HttpClientBuilder()
+                .timeout(HttpSettings.getTimeout())
+                .requestFactory(HttpConnectionPool.getOrCreate(citrus).getRequestFactory())
+                .build();
     }
 
     /**
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.Citrus;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.report.AbstractTestSuiteListener;
+import com.consol.citrus.spi.ReferenceResolver;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Pool of Http client connections shared by all scenarios of a test suite. Keeps connections alive between requests and
+ * scenarios so tests do not pay for a new TCP and TLS handshake on each request. All secure connections use the same SSL
+ * context so TLS sessions get resumed. The SSL context verifies server certificates with the default system SSL settings
+ * unless trusting all certificates is explicitly enabled with {@link HttpSettings#getClientTrustAll()}.
+ *
+ * Cookie management is disabled on the pooled client in order to not share cookies across scenarios.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpConnectionPool {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+    /** Bean name of the suite scoped connection pool */
+    public static final String CONNECTION_POOL_BEAN_NAME = "yaksHttpConnectionPool";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    public HttpConnectionPool() {
+        this(HttpSettings.getMaxConnections(), HttpSettings.getMaxConnectionsPerRoute(), HttpSettings.getKeepAlive());
+    }
+
+    public HttpConnectionPool(int maxConnections, int maxConnectionsPerRoute, long keepAlive) {
+        this(maxConnections, maxConnectionsPerRoute, keepAlive, HttpSettings.getClientTrustAll());
+    }
+
+    public HttpConnectionPool(int maxConnections, int maxConnectionsPerRoute, long keepAlive, boolean trustAll) {
+        connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", sslSocketFactory(trustAll))
+                        .build());
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        };
+
+        httpClient = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .disableConnectionState()
+                .build();
+
+        requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Gets the suite scoped connection pool. Creates and binds a new pool to the reference resolver if not present.
+     * The pool is closed when the test suite has finished.
+     * @param citrus
+     * @return
+     */
+    public static synchronized HttpConnectionPool getOrCreate(Citrus citrus) {
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(CONNECTION_POOL_BEAN_NAME)) {
+            return referenceResolver.resolve(CONNECTION_POOL_BEAN_NAME, HttpConnectionPool.class);
+        }
+
+        HttpConnectionPool connectionPool = new HttpConnectionPool();
+        referenceResolver.bind(CONNECTION_POOL_BEAN_NAME, connectionPool);
+        citrus.addTestSuiteListener(new AbstractTestSuiteListener() {
+            @Override
+            public void onFinish() {
+                connectionPool.close();
+            }
+        });
+
+        return connectionPool;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close pooled Http client", e);
+        }
+    }
+
+    /**
+     * Makes sure the pool is able to hold given number of connections to a single route. Raises the maximum number of
+     * connections in total and per route if necessary. Limits are never lowered.
+     * @param connections
+     */
+    public synchronized void ensureCapacity(int connections) {
+        if (connectionManager.getDefaultMaxPerRoute() < connections) {
+            LOG.info(String.format("Raising Http connection pool limit to %d connections per route", connections));
+            connectionManager.setDefaultMaxPerRoute(connections);
+        }
+
+        if (connectionManager.getMaxTotal() < connections) {
+            connectionManager.setMaxTotal(connections);
+        }
+    }
+
+    /**
+     * Request factory to use on Http client endpoints.
+     * @return
+     */
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Gets the pooled Http client.
+     * @return
+     */
+    public org.apache.http.client.HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets the connection manager holding the pooled connections.
+     * @return
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * Get SSL socket factory for secure connections. Uses trust all strategy and noop host name verifier when enabled,
+     * the default system SSL settings otherwise.
+     * @param trustAll
+     * @return
+     */
+    public static SSLConnectionSocketFactory sslSocketFactory(boolean trustAll) {
+        if (!trustAll) {
+            return SSLConnectionSocketFactory.getSystemSocketFactory();
+        }
+
+        try {
+            SSLContext sslContext = SSLContexts
+                    .custom()
+                    .loadTrustMaterial(TrustAllStrategy.INSTANCE)
+                    .build();
+
+            return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+            throw new CitrusRuntimeException("Failed to create http client for ssl connection", e);
+        }
+    }
+}
@@ -17,21 +17,28 @@
 
 package org.citrusframework.yaks.http;
 
+import javax.servlet.Filter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import com.consol.citrus.Citrus;
 import com.consol.citrus.CitrusSettings;
 import com.consol.citrus.TestCaseRunner;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.endpoint.EndpointAdapter;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.http.actions.HttpServerActionBuilder;
 import com.consol.citrus.http.actions.HttpServerRequestActionBuilder;
@@ -40,6 +47,8 @@ import com.consol.citrus.http.message.HttpMessage;
 import com.consol.citrus.http.server.HttpServer;
 import com.consol.citrus.http.server.HttpServerBuilder;
 import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.validation.ValidationProcessor;
+import com.consol.citrus.validation.matcher.ValidationMatcherUtils;
 import com.consol.citrus.variable.dictionary.DataDictionary;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.Before;
@@ -47,6 +56,15 @@ import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import org.citrusframework.yaks.http.capture.HttpCaptureFilter;
+import org.citrusframework.yaks.http.capture.HttpCaptureLog;
+import org.citrusframework.yaks.http.server.ConcurrentEndpointAdapter;
+import org.citrusframework.yaks.http.stub.HttpStubEndpointAdapter;
+import org.citrusframework.yaks.http.stub.HttpStubRoutesAction;
+import org.citrusframework.yaks.http.stub.HttpStubThrottleFilter;
+import org.citrusframework.yaks.http.stub.VerifyHttpStubAction;
+import org.citrusframework.yaks.http.validation.CompositeValidationProcessor;
+import org.citrusframework.yaks.http.validation.PathExpressionValidator;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.SecureRequestCustomizer;
@@ -56,6 +74,7 @@ import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
 
 import static com.consol.citrus.http.actions.HttpActionBuilder.http;
 import static com.consol.citrus.validation.PathExpressionValidationContext.Builder.pathExpression;
@@ -68,6 +87,9 @@ public class HttpServerSteps implements HttpSteps {
     @CitrusResource
     private TestCaseRunner runner;
 
+    @CitrusResource
+    private TestContext context;
+
     @CitrusFramework
     private Citrus citrus;
 
@@ -78,6 +100,7 @@ public class HttpServerSteps implements HttpSteps {
     private Map<String, String> requestParams = new HashMap<>();
 
     private Map<String, Object> bodyValidationExpressions = new HashMap<>();
+    private List<ValidationProcessor> validationProcessors = new ArrayList<>();
 
     private String requestMessageType;
     private String responseMessageType;
@@ -121,6 +144,7 @@ public class HttpServerSteps implements HttpSteps {
         requestBody = null;
         responseBody = null;
         bodyValidationExpressions = new HashMap<>();
+        validationProcessors = new ArrayList<>();
         outboundDictionary = null;
         inboundDictionary = null;
     }
@@ -207,6 +231,140 @@ public class HttpServerSteps implements HttpSteps {
         }
     }
 
+    @Given("^HTTP server concurrent mode is (enabled|disabled)$")
+    public void configureConcurrentMode(String mode) {
+        configureEndpointAdapter("concurrent", "enabled".equals(mode), ConcurrentEndpointAdapter.class,
+                () -> new ConcurrentEndpointAdapter(httpServer.getName(), timeout));
+    }
+
+    @Given("^HTTP server stub mode is (enabled|disabled)$")
+    public void configureStubMode(String mode) {
+        configureEndpointAdapter("stub", "enabled".equals(mode), HttpStubEndpointAdapter.class,
+                () -> new HttpStubEndpointAdapter(httpServer.getName()));
+
+        // throttle filter comes first so limited bandwidth also applies to responses written by other filters
+        Map<String, Filter> filters = new LinkedHashMap<>();
+        if ("enabled".equals(mode)) {
+            filters.put(HttpStubThrottleFilter.FILTER_NAME, new HttpStubThrottleFilter());
+        }
+        Optional.ofNullable(httpServer.getFilters()).ifPresent(filters::putAll);
+        if (!"enabled".equals(mode)) {
+            filters.remove(HttpStubThrottleFilter.FILTER_NAME);
+        }
+        httpServer.setFilters(filters);
+    }
+
+    @Given("^HTTP server stub routes$")
+    public void addStubRoutes(DataTable routes) {
+        HttpStubRoutesAction.Builder builder = new HttpStubRoutesAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter());
+
+        for (Map<String, String> row : routes.asMaps()) {
+            Map<String, Object> response = new HashMap<>();
+            Optional.ofNullable(row.get("status")).ifPresent(status -> response.put("status", status));
+            Optional.ofNullable(row.get("contentType")).ifPresent(contentType -> response.put("contentType", contentType));
+            Optional.ofNullable(row.get("body")).ifPresent(body -> response.put("body", body));
+
+            Map<String, Object> route = new HashMap<>();
+            Optional.ofNullable(row.get("method")).ifPresent(method -> route.put("method", method));
+            route.put("path", row.get("path"));
+            route.put("headers", parseHeaders(row.get("headers")));
+            route.put("response", response);
+            builder.route(route);
+        }
+
+        runner.run(builder);
+        startServer();
+    }
+
+    @Given("^load HTTP server stub routes ([^\\s]+)$")
+    public void loadStubRoutes(String file) {
+        runner.run(new HttpStubRoutesAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter())
+                .resource(file));
+        startServer();
+    }
+
+    @Given("^HTTP server stub (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE|\\*) ([^\\s]+) faults$")
+    public void addStubFaults(String method, String path, DataTable faults) {
+        Map<String, Object> definition = new LinkedHashMap<>();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        Map<String, String> faultPairs = faults.asMap(String.class, String.class);
+        for (Map.Entry<String, String> fault : faultPairs.entrySet()) {
+            if (fault.getKey().startsWith("latency.")) {
+                latency.put(fault.getKey().substring("latency.".length()), fault.getValue());
+            } else {
+                definition.put(fault.getKey(), fault.getValue());
+            }
+        }
+
+        if (!latency.isEmpty()) {
+            definition.put("latency", latency);
+        }
+
+        runner.run(new HttpStubRoutesAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter())
+                .faults(method, path, definition));
+    }
+
+    @Given("^load HTTP server stub routes from capture ([^\\s]+)( with recorded latency)?$")
+    public void loadStubRoutesFromCapture(String file, String recordedLatency) {
+        runner.run(new HttpStubRoutesAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter())
+                .capture(file, recordedLatency != null));
+        startServer();
+    }
+
+    @Given("^capture HTTP server traffic to ([^\\s]+)$")
+    public void captureServerTraffic(String file) {
+        if (httpServer.isRunning()) {
+            throw new CitrusRuntimeException(String.format("Unable to capture traffic on running HTTP server '%s'", httpServer.getName()));
+        }
+
+        Map<String, Filter> filters = new LinkedHashMap<>();
+        Optional.ofNullable(httpServer.getFilters()).ifPresent(filters::putAll);
+        HttpCaptureLog captureLog = HttpCaptureLog.getOrCreate(citrus, context.replaceDynamicContentInString(file));
+        filters.put(HttpCaptureFilter.FILTER_NAME, new HttpCaptureFilter(captureLog));
+        httpServer.setFilters(filters);
+    }
+
+    @Given("^(?:clear|reset) HTTP server stub routes$")
+    public void clearStubRoutes() {
+        getStubEndpointAdapter().reset();
+    }
+
+    @Then("^(?:expect|verify) HTTP server stub (GET|HEAD|POST|PUT|PATCH|DELETE|OPTIONS|TRACE|\\*) ([^\\s]+) (?:is|was|has been) called (exactly |at least |at most )?(\\d+) times?$")
+    public void verifyStubRoute(String method, String path, String operator, long count) {
+        runner.run(new VerifyHttpStubAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter())
+                .route(method, path)
+                .operator(operator != null ? operator.trim() : "exactly")
+                .count(count));
+    }
+
+    @Then("^(?:expect|verify) HTTP server stub (?:has|had) (\\d+) unmatched requests?$")
+    public void verifyStubUnmatched(long count) {
+        runner.run(new VerifyHttpStubAction.Builder()
+                .endpointAdapter(getStubEndpointAdapter())
+                .unmatched()
+                .count(count));
+    }
+
+    @Given("^HTTP server correlates requests by path$")
+    public void correlateByPath() {
+        getConcurrentEndpointAdapter().correlateByPath();
+    }
+
+    @Given("^HTTP server correlates requests by header ([^\\s]+)$")
+    public void correlateByHeader(String header) {
+        getConcurrentEndpointAdapter().correlateByHeader(header);
+    }
+
+    @Given("^HTTP server correlates requests by expression ([^\\s]+)$")
+    public void correlateByExpression(String expression) {
+        getConcurrentEndpointAdapter().correlateByExpression(expression);
+    }
+
     @Given("^HTTP server timeout is (\\d+)(?: ms| milliseconds)$")
     public void configureTimeout(long timeout) {
         this.timeout = timeout;
@@ -258,6 +416,14 @@ public class HttpServerSteps implements HttpSteps {
         expressions.forEach(this::addBodyValidationExpression);
     }
 
+    /**
+     * Adds validation processor for the next request body received. Processors run after the body validation expressions.
+     * @param processor
+     */
+    public void addValidationProcessor(ValidationProcessor processor) {
+        validationProcessors.add(processor);
+    }
+
     @Given("^HTTP response body$")
     public void setResponseBodyMultiline(String body) {
         setResponseBody(body);
@@ -326,6 +492,13 @@ public class HttpServerSteps implements HttpSteps {
         responseHeaders.clear();
     }
 
+    @Then("^send HTTP (\\d+)(?: [^\\s]+)? to request \"(.+)\"$")
+    public void sendServerResponse(Integer status, String correlationKey) {
+        getConcurrentEndpointAdapter();
+        responseHeaders.put(ConcurrentEndpointAdapter.CORRELATION_KEY_HEADER, correlationKey);
+        sendServerResponse(status);
+    }
+
     /**
      * Receives server request.
      * @param request
@@ -358,9 +531,22 @@ public class HttpServerSteps implements HttpSteps {
             requestBuilder = receiveBuilder.post().message(request);
         }
 
-        requestBuilder.validate(pathExpression().expressions(bodyValidationExpressions));
+        if (httpServer.getEndpointAdapter() instanceof ConcurrentEndpointAdapter) {
+            String correlationKey = getCorrelationKey((ConcurrentEndpointAdapter) httpServer.getEndpointAdapter(), request);
+            if (correlationKey != null) {
+                requestBuilder.selector(Collections.singletonMap(ConcurrentEndpointAdapter.CORRELATION_KEY_SELECTOR, correlationKey));
+            }
+        }
+
+        requestBuilder.validate(new PathExpressionValidator(bodyValidationExpressions));
+        requestBuilder.validate(pathExpression().expressions(PathExpressionValidator.getUnsupported(bodyValidationExpressions)));
         bodyValidationExpressions.clear();
 
+        if (!validationProcessors.isEmpty()) {
+            requestBuilder.validate(new CompositeValidationProcessor(validationProcessors));
+        }
+        validationProcessors = new ArrayList<>();
+
         requestBuilder
                 .timeout(timeout)
                 .type(requestMessageType);
@@ -372,6 +558,96 @@ public class HttpServerSteps implements HttpSteps {
         runner.run(requestBuilder);
     }
 
+    /**
+     * Gets the correlation key of the expected request. Returns null when the expected request does not define a fixed
+     * value for the correlation key so the next buffered request is received.
+     * @param endpointAdapter
+     * @param request
+     * @return
+     */
+    private String getCorrelationKey(ConcurrentEndpointAdapter endpointAdapter, HttpMessage request) {
+        Object value;
+        if (endpointAdapter.getCorrelationHeader() != null) {
+            value = request.getHeader(endpointAdapter.getCorrelationHeader());
+        } else if (endpointAdapter.getCorrelationExpression() != null) {
+            value = bodyValidationExpressions.get(endpointAdapter.getCorrelationExpression());
+        } else {
+            Object path = request.getPath();
+            if (path == null || request.getRequestMethod() == null) {
+                return null;
+            }
+
+            value = ConcurrentEndpointAdapter.getPathCorrelationKey(request.getRequestMethod().name(), path.toString());
+        }
+
+        if (value == null || ValidationMatcherUtils.isValidationMatcherExpression(value.toString())) {
+            return null;
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Enables or disables a special server mode by switching the endpoint adapter. The endpoint adapter must be set before the
+     * server is started. Disabling a mode restores the default endpoint adapter.
+     * @param mode
+     * @param enabled
+     * @param type
+     * @param endpointAdapter
+     */
+    private void configureEndpointAdapter(String mode, boolean enabled, Class<? extends EndpointAdapter> type,
+                                          Supplier<EndpointAdapter> endpointAdapter) {
+        if (enabled == type.isInstance(httpServer.getEndpointAdapter())) {
+            return;
+        }
+
+        if (httpServer.isRunning()) {
+            throw new CitrusRuntimeException(String.format("Unable to %s %s mode on running HTTP server '%s'",
+                    enabled ? "enable" : "disable", mode, httpServer.getName()));
+        }
+
+        if (enabled) {
+            httpServer.setEndpointAdapter(endpointAdapter.get());
+        } else {
+            httpServer.setEndpointAdapter(null);
+            httpServer.initialize();
+        }
+    }
+
+    /**
+     * Parses request header predicates in the form "name=value;name=value".
+     * @param headers
+     * @return
+     */
+    private static Map<String, Object> parseHeaders(String headers) {
+        Map<String, Object> predicates = new LinkedHashMap<>();
+        if (headers != null) {
+            for (String header : headers.split(";")) {
+                String[] pair = header.split("=", 2);
+                if (pair.length == 2) {
+                    predicates.put(pair[0].trim(), pair[1].trim());
+                }
+            }
+        }
+        return predicates;
+    }
+
+    private HttpStubEndpointAdapter getStubEndpointAdapter() {
+        if (!(httpServer.getEndpointAdapter() instanceof HttpStubEndpointAdapter)) {
+            throw new CitrusRuntimeException("Stub routes require HTTP server stub mode to be enabled");
+        }
+
+        return (HttpStubEndpointAdapter) httpServer.getEndpointAdapter();
+    }
+
+    private ConcurrentEndpointAdapter getConcurrentEndpointAdapter() {
+        if (!(httpServer.getEndpointAdapter() instanceof ConcurrentEndpointAdapter)) {
+            throw new CitrusRuntimeException("Request correlation requires HTTP server concurrent mode to be enabled");
+        }
+
+        return (ConcurrentEndpointAdapter) httpServer.getEndpointAdapter();
+    }
+
     /**
      * Create a new server instance and bind it to the context.
      * @return
@@ -383,6 +659,14 @@ public class HttpServerSteps implements HttpSteps {
                 .name(serverName)
                 .build();
 
+        if (HttpSettings.getServerConcurrentMode()) {
+            httpServer.setEndpointAdapter(new ConcurrentEndpointAdapter(serverName, timeout));
+        }
+
+        if (StringUtils.hasText(HttpSettings.getCaptureFile())) {
+            captureServerTraffic(HttpSettings.getCaptureFile());
+        }
+
         citrus.getCitrusContext().getReferenceResolver().bind(serverName, httpServer);
         httpServer.initialize();
 
@@ -53,6 +53,58 @@ public class HttpSettings {
     private static final String SECURE_KEYSTORE_PASSWORD_ENV = HTTP_ENV_PREFIX + "SECURE_KEYSTORE_PASSWORD";
     private static final String SECURE_KEYSTORE_PASSWORD_DEFAULT = "secret";
 
+    private static final String MAX_CONNECTIONS_PROPERTY = HTTP_PROPERTY_PREFIX + "client.max.connections";
+    private static final String MAX_CONNECTIONS_ENV = HTTP_ENV_PREFIX + "CLIENT_MAX_CONNECTIONS";
+    private static final String MAX_CONNECTIONS_DEFAULT = "100";
+
+    private static final String MAX_CONNECTIONS_PER_ROUTE_PROPERTY = HTTP_PROPERTY_PREFIX + "client.max.connections.per.route";
+    private static final String MAX_CONNECTIONS_PER_ROUTE_ENV = HTTP_ENV_PREFIX + "CLIENT_MAX_CONNECTIONS_PER_ROUTE";
+    private static final String MAX_CONNECTIONS_PER_ROUTE_DEFAULT = "20";
+
+    private static final String KEEP_ALIVE_PROPERTY = HTTP_PROPERTY_PREFIX + "client.keep.alive";
+    private static final String KEEP_ALIVE_ENV = HTTP_ENV_PREFIX + "CLIENT_KEEP_ALIVE";
+    private static final String KEEP_ALIVE_DEFAULT = "30000";
+
+    private static final String TRUST_ALL_PROPERTY = HTTP_PROPERTY_PREFIX + "client.trust.all";
+    private static final String TRUST_ALL_ENV = HTTP_ENV_PREFIX + "CLIENT_TRUST_ALL";
+    private static final String TRUST_ALL_DEFAULT = "false";
+
+    private static final String VERSION_POLICY_PROPERTY = HTTP_PROPERTY_PREFIX + "client.version.policy";
+    private static final String VERSION_POLICY_ENV = HTTP_ENV_PREFIX + "CLIENT_VERSION_POLICY";
+    private static final String VERSION_POLICY_DEFAULT = "negotiate";
+
+    private static final String IO_THREADS_PROPERTY = HTTP_PROPERTY_PREFIX + "client.io.threads";
+    private static final String IO_THREADS_ENV = HTTP_ENV_PREFIX + "CLIENT_IO_THREADS";
+    private static final String IO_THREADS_DEFAULT = "2";
+
+    private static final String EXPRESSION_CACHE_SIZE_PROPERTY = HTTP_PROPERTY_PREFIX + "expression.cache.size";
+    private static final String EXPRESSION_CACHE_SIZE_ENV = HTTP_ENV_PREFIX + "EXPRESSION_CACHE_SIZE";
+    private static final String EXPRESSION_CACHE_SIZE_DEFAULT = "500";
+
+    private static final String BODY_STREAMING_PROPERTY = HTTP_PROPERTY_PREFIX + "body.streaming";
+    private static final String BODY_STREAMING_ENV = HTTP_ENV_PREFIX + "BODY_STREAMING";
+    private static final String BODY_STREAMING_DEFAULT = "false";
+
+    private static final String LOAD_TRANSPORT_PROPERTY = HTTP_PROPERTY_PREFIX + "load.transport";
+    private static final String LOAD_TRANSPORT_ENV = HTTP_ENV_PREFIX + "LOAD_TRANSPORT";
+    private static final String LOAD_TRANSPORT_DEFAULT = "async";
+
+    private static final String SERVER_CONCURRENT_MODE_PROPERTY = HTTP_PROPERTY_PREFIX + "server.concurrent.mode";
+    private static final String SERVER_CONCURRENT_MODE_ENV = HTTP_ENV_PREFIX + "SERVER_CONCURRENT_MODE";
+    private static final String SERVER_CONCURRENT_MODE_DEFAULT = "false";
+
+    private static final String HEALTH_INITIAL_INTERVAL_PROPERTY = HTTP_PROPERTY_PREFIX + "health.initial.interval";
+    private static final String HEALTH_INITIAL_INTERVAL_ENV = HTTP_ENV_PREFIX + "HEALTH_INITIAL_INTERVAL";
+    private static final String HEALTH_INITIAL_INTERVAL_DEFAULT = "50";
+
+    private static final String HEALTH_MAX_INTERVAL_PROPERTY = HTTP_PROPERTY_PREFIX + "health.max.interval";
+    private static final String HEALTH_MAX_INTERVAL_ENV = HTTP_ENV_PREFIX + "HEALTH_MAX_INTERVAL";
+    private static final String HEALTH_MAX_INTERVAL_DEFAULT = "2000";
+
+    private static final String CAPTURE_FILE_PROPERTY = HTTP_PROPERTY_PREFIX + "capture.file";
+    private static final String CAPTURE_FILE_ENV = HTTP_ENV_PREFIX + "CAPTURE_FILE";
+    private static final String CAPTURE_FILE_DEFAULT = "";
+
     private HttpSettings() {
         // prevent instantiation of utility class
     }
@@ -121,4 +173,130 @@ public class HttpSettings {
                 System.getenv(SECURE_KEYSTORE_PASSWORD_ENV) != null ? System.getenv(SECURE_KEYSTORE_PASSWORD_ENV) :
                         SECURE_KEYSTORE_PASSWORD_DEFAULT);
     }
+
+    /**
+     * Maximum number of pooled client connections shared by all scenarios.
+     * @return
+     */
+    public static int getMaxConnections() {
+        return Integer.parseInt(System.getProperty(MAX_CONNECTIONS_PROPERTY,
+                System.getenv(MAX_CONNECTIONS_ENV) != null ? System.getenv(MAX_CONNECTIONS_ENV) : MAX_CONNECTIONS_DEFAULT));
+    }
+
+    /**
+     * Maximum number of pooled client connections per route (target host and port).
+     * @return
+     */
+    public static int getMaxConnectionsPerRoute() {
+        return Integer.parseInt(System.getProperty(MAX_CONNECTIONS_PER_ROUTE_PROPERTY,
+                System.getenv(MAX_CONNECTIONS_PER_ROUTE_ENV) != null ? System.getenv(MAX_CONNECTIONS_PER_ROUTE_ENV) :
+                        MAX_CONNECTIONS_PER_ROUTE_DEFAULT));
+    }
+
+    /**
+     * Time in milliseconds to keep idle pooled connections alive when the server does not send a keep alive timeout.
+     * @return
+     */
+    public static long getKeepAlive() {
+        return Long.parseLong(System.getProperty(KEEP_ALIVE_PROPERTY,
+                System.getenv(KEEP_ALIVE_ENV) != null ? System.getenv(KEEP_ALIVE_ENV) : KEEP_ALIVE_DEFAULT));
+    }
+
+    /**
+     * Trust all server certificates and skip the host name verification on secure client connections.
+     * Disabled by default so server certificates get verified with the default system SSL settings. Enable the setting
+     * explicitly in order to connect to servers with self-signed certificates.
+     * @return
+     */
+    public static boolean getClientTrustAll() {
+        return Boolean.parseBoolean(System.getProperty(TRUST_ALL_PROPERTY,
+                System.getenv(TRUST_ALL_ENV) != null ? System.getenv(TRUST_ALL_ENV) : TRUST_ALL_DEFAULT));
+    }
+
+    /**
+     * Http protocol version policy of the async client transport. One of negotiate, http2 or http1.
+     * @return
+     */
+    public static String getVersionPolicy() {
+        return System.getProperty(VERSION_POLICY_PROPERTY,
+                System.getenv(VERSION_POLICY_ENV) != null ? System.getenv(VERSION_POLICY_ENV) : VERSION_POLICY_DEFAULT);
+    }
+
+    /**
+     * Number of I/O event loop threads used by the async client transport.
+     * @return
+     */
+    public static int getIoThreads() {
+        return Integer.parseInt(System.getProperty(IO_THREADS_PROPERTY,
+                System.getenv(IO_THREADS_ENV) != null ? System.getenv(IO_THREADS_ENV) : IO_THREADS_DEFAULT));
+    }
+
+    /**
+     * Maximum number of compiled JsonPath and XPath expressions kept in the cache.
+     * @return
+     */
+    public static int getExpressionCacheSize() {
+        return Integer.parseInt(System.getProperty(EXPRESSION_CACHE_SIZE_PROPERTY,
+                System.getenv(EXPRESSION_CACHE_SIZE_ENV) != null ? System.getenv(EXPRESSION_CACHE_SIZE_ENV) :
+                        EXPRESSION_CACHE_SIZE_DEFAULT));
+    }
+
+    /**
+     * Stream request and response bodies instead of loading them into memory.
+     * @return
+     */
+    public static boolean getBodyStreaming() {
+        return Boolean.parseBoolean(System.getProperty(BODY_STREAMING_PROPERTY,
+                System.getenv(BODY_STREAMING_ENV) != null ? System.getenv(BODY_STREAMING_ENV) : BODY_STREAMING_DEFAULT));
+    }
+
+    /**
+     * Transport used to run Http load. Either async (non-blocking transport) or blocking (one worker thread per
+     * concurrent request).
+     * @return
+     */
+    public static String getLoadTransport() {
+        return System.getProperty(LOAD_TRANSPORT_PROPERTY,
+                System.getenv(LOAD_TRANSPORT_ENV) != null ? System.getenv(LOAD_TRANSPORT_ENV) : LOAD_TRANSPORT_DEFAULT);
+    }
+
+    /**
+     * Buffer inbound server requests so tests are able to verify concurrent requests in any order.
+     * @return
+     */
+    public static boolean getServerConcurrentMode() {
+        return Boolean.parseBoolean(System.getProperty(SERVER_CONCURRENT_MODE_PROPERTY,
+                System.getenv(SERVER_CONCURRENT_MODE_ENV) != null ? System.getenv(SERVER_CONCURRENT_MODE_ENV) :
+                        SERVER_CONCURRENT_MODE_DEFAULT));
+    }
+
+    /**
+     * Interval in milliseconds between the first health probes when waiting for a URL. The interval doubles with each
+     * probe up to the max interval.
+     * @return
+     */
+    public static long getHealthInitialInterval() {
+        return Long.parseLong(System.getProperty(HEALTH_INITIAL_INTERVAL_PROPERTY,
+                System.getenv(HEALTH_INITIAL_INTERVAL_ENV) != null ? System.getenv(HEALTH_INITIAL_INTERVAL_ENV) :
+                        HEALTH_INITIAL_INTERVAL_DEFAULT));
+    }
+
+    /**
+     * Max interval in milliseconds between health probes when waiting for a URL.
+     * @return
+     */
+    public static long getHealthMaxInterval() {
+        return Long.parseLong(System.getProperty(HEALTH_MAX_INTERVAL_PROPERTY,
+                System.getenv(HEALTH_MAX_INTERVAL_ENV) != null ? System.getenv(HEALTH_MAX_INTERVAL_ENV) :
+                        HEALTH_MAX_INTERVAL_DEFAULT));
+    }
+
+    /**
+     * Capture log file all Http client and server exchanges are written to. Capturing is disabled when empty.
+     * @return
+     */
+    public static String getCaptureFile() {
+        return System.getProperty(CAPTURE_FILE_PROPERTY,
+                System.getenv(CAPTURE_FILE_ENV) != null ? System.getenv(CAPTURE_FILE_ENV) : CAPTURE_FILE_DEFAULT);
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Servlet filter writes each exchange handled by a Http server to the capture log. Request and response content is
+ * cached while the server handles the request.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpCaptureFilter extends OncePerRequestFilter {
+
+    /** Filter name on the Http server */
+    public static final String FILTER_NAME = "yaks-http-capture-filter";
+
+    private final HttpCaptureLog captureLog;
+
+    public HttpCaptureFilter(HttpCaptureLog captureLog) {
+        this.captureLog = captureLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requestWrapper, responseWrapper);
+        } finally {
+            captureLog.append(createRecord(requestWrapper, responseWrapper, timestamp,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static HttpExchangeRecord createRecord(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response,
+                                                   long timestamp, long duration) {
+        HttpExchangeRecord record = new HttpExchangeRecord();
+        record.setSource(HttpExchangeRecord.SOURCE_SERVER);
+        record.setTimestamp(timestamp);
+        record.setDuration(duration);
+        record.setMethod(request.getMethod());
+        record.setUrl(request.getQueryString() != null ? request.getRequestURI() + "?" + request.getQueryString() : request.getRequestURI());
+        for (String name : Collections.list(request.getHeaderNames())) {
+            record.getRequestHeaders().put(name, String.join(",", Collections.list(request.getHeaders(name))));
+        }
+        record.setRequestContent(request.getContentAsByteArray(), request.getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        record.setStatus(response.getStatus());
+        for (String name : response.getHeaderNames()) {
+            record.getResponseHeaders().put(name, String.join(",", response.getHeaders(name)));
+        }
+        if (response.getContentType() != null) {
+            record.getResponseHeaders().put(HttpHeaders.CONTENT_TYPE, response.getContentType());
+        }
+        record.setResponseContent(response.getContentAsByteArray(), response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        return record;
+    }
+}
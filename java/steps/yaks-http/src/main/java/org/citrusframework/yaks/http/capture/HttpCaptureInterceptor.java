@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Client interceptor writes each exchange of a Http client to the capture log. The response body is buffered so it
+ * can be captured and still be read by the client.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpCaptureInterceptor implements ClientHttpRequestInterceptor {
+
+    private final HttpCaptureLog captureLog;
+
+    public HttpCaptureInterceptor(HttpCaptureLog captureLog) {
+        this.captureLog = captureLog;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        ClientHttpResponse response = execution.execute(request, body);
+        byte[] responseBody = StreamUtils.copyToByteArray(response.getBody());
+
+        capture(request, body, response, responseBody, timestamp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return new BufferedResponse(response, responseBody);
+    }
+
+    /**
+     * Writes given exchange to the capture log. Used for exchanges that do not run through the interceptor chain such as
+     * requests sent on the async transport.
+     * @param request
+     * @param body
+     * @param response
+     * @param responseBody
+     * @param timestamp
+     * @param duration
+     * @throws IOException
+     */
+    public void capture(HttpRequest request, byte[] body, ClientHttpResponse response, byte[] responseBody,
+                        long timestamp, long duration) throws IOException {
+        HttpExchangeRecord record = new HttpExchangeRecord();
+        record.setSource(HttpExchangeRecord.SOURCE_CLIENT);
+        record.setTimestamp(timestamp);
+        record.setDuration(duration);
+        record.setMethod(request.getMethodValue());
+        record.setUrl(request.getURI().toString());
+        request.getHeaders().forEach((name, values) -> record.getRequestHeaders().put(name, String.join(",", values)));
+        record.setRequestContent(body, request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        record.setStatus(response.getRawStatusCode());
+        response.getHeaders().forEach((name, values) -> record.getResponseHeaders().put(name, String.join(",", values)));
+        record.setResponseContent(responseBody, response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        captureLog.append(record);
+    }
+
+    /**
+     * Response reads the body from the buffered content.
+     */
+    private static class BufferedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse response, byte[] body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.consol.citrus.Citrus;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.report.AbstractTestSuiteListener;
+import com.consol.citrus.spi.ReferenceResolver;
+import com.consol.citrus.util.FileUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only capture log of Http exchanges. The log is a gzip compressed file with one Json record per line. Each
+ * record is flushed to the file right away, so the log is readable while capturing is still in progress. Opening an
+ * existing log appends a new gzip member to the file.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpCaptureLog {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpCaptureLog.class);
+
+    /** Bean name prefix of suite scoped capture logs */
+    private static final String CAPTURE_LOG_BEAN_PREFIX = "yaksHttpCaptureLog:";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Path file;
+    private final OutputStream out;
+
+    private long records;
+
+    public HttpCaptureLog(Path file) {
+        this.file = file;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            this.out = new GZIPOutputStream(new FileOutputStream(file.toFile(), true), true);
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to open Http capture log %s", file), e);
+        }
+    }
+
+    /**
+     * Gets the suite scoped capture log writing to given file. Creates and binds a new log to the reference resolver
+     * if not present. The log is closed when the test suite has finished.
+     * @param citrus
+     * @param file
+     * @return
+     */
+    public static synchronized HttpCaptureLog getOrCreate(Citrus citrus, String file) {
+        Path path = Paths.get(file).toAbsolutePath().normalize();
+        String beanName = CAPTURE_LOG_BEAN_PREFIX + path;
+
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(beanName)) {
+            return referenceResolver.resolve(beanName, HttpCaptureLog.class);
+        }
+
+        HttpCaptureLog captureLog = new HttpCaptureLog(path);
+        referenceResolver.bind(beanName, captureLog);
+        citrus.addTestSuiteListener(new AbstractTestSuiteListener() {
+            @Override
+            public void onFinish() {
+                captureLog.close();
+            }
+        });
+
+        LOG.info(String.format("Capturing Http exchanges to %s", path));
+        return captureLog;
+    }
+
+    /**
+     * Appends record to the log and flushes the compressed stream.
+     * @param record
+     */
+    public synchronized void append(HttpExchangeRecord record) {
+        try {
+            out.write(OBJECT_MAPPER.writeValueAsBytes(record));
+            out.write('\n');
+            out.flush();
+            records++;
+        } catch (IOException e) {
+            LOG.warn(String.format("Failed to write Http exchange %s to capture log %s", record, file), e);
+        }
+    }
+
+    /**
+     * Reads all records from given capture log. The path is a file system path or a Citrus resource path
+     * (e.g. classpath:capture.jsonl.gz).
+     * @param resourcePath
+     * @param context
+     * @return
+     */
+    public static List<HttpExchangeRecord> read(String resourcePath, TestContext context) {
+        Path path = Paths.get(resourcePath);
+        try (InputStream in = Files.isRegularFile(path) ? Files.newInputStream(path) :
+                FileUtils.getFileResource(resourcePath, context).getInputStream()) {
+            return read(in);
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to read Http capture log %s", resourcePath), e);
+        }
+    }
+
+    /**
+     * Reads all records from given capture log content. A truncated last gzip member (e.g. from a log that is still
+     * open for writing) ends the log.
+     * @param in
+     * @return
+     */
+    public static List<HttpExchangeRecord> read(InputStream in) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(in)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+        } catch (EOFException e) {
+            LOG.debug("Reached end of open Http capture log");
+        } catch (IOException e) {
+            throw new CitrusRuntimeException("Failed to read Http capture log", e);
+        }
+
+        List<HttpExchangeRecord> records = new ArrayList<>();
+        String[] lines = new String(content.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].trim().isEmpty()) {
+                continue;
+            }
+
+            try {
+                records.add(OBJECT_MAPPER.readValue(lines[i], HttpExchangeRecord.class));
+            } catch (JsonProcessingException e) {
+                if (i < lines.length - 1) {
+                    throw new CitrusRuntimeException("Invalid record in Http capture log", e);
+                }
+                LOG.debug("Ignoring incomplete last record in Http capture log");
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Closes the log.
+     */
+    public synchronized void close() {
+        try {
+            out.close();
+            LOG.info(String.format("Closed Http capture log %s with %d new records", file, records));
+        } catch (IOException e) {
+            LOG.warn(String.format("Failed to close Http capture log %s", file), e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
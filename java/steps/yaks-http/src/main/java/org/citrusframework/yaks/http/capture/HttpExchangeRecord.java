@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Single captured Http exchange with request, response and timings. Records are written as one Json line each to
+ * the capture log. Bodies that are valid UTF-8 text are stored as is, other bodies are stored Base64 encoded and marked
+ * with body encoding {@link #BODY_ENCODING_BASE64}.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpExchangeRecord {
+
+    /** Exchange captured by a Http client */
+    public static final String SOURCE_CLIENT = "client";
+
+    /** Exchange captured by a Http server */
+    public static final String SOURCE_SERVER = "server";
+
+    /** Encoding of binary bodies */
+    public static final String BODY_ENCODING_BASE64 = "base64";
+
+    private String source;
+    private long timestamp;
+    private long duration;
+
+    private String method;
+    private String url;
+    private Map<String, String> requestHeaders = new LinkedHashMap<>();
+    private String requestBody;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String requestBodyEncoding;
+
+    private int status;
+    private Map<String, String> responseHeaders = new LinkedHashMap<>();
+    private String responseBody;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String responseBodyEncoding;
+
+    /**
+     * Gets the path and query of the request URL.
+     * @return
+     */
+    @JsonIgnore
+    public String getPathAndQuery() {
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() != null && !uri.getRawPath().isEmpty() ? uri.getRawPath() : "/";
+        return uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+    }
+
+    /**
+     * Sets the request body from given content. Decompresses gzip encoded content.
+     * @param content
+     * @param contentEncoding
+     */
+    public void setRequestContent(byte[] content, String contentEncoding) {
+        byte[] decoded = decompress(content, contentEncoding);
+        this.requestBody = toBody(decoded);
+        this.requestBodyEncoding = getBodyEncoding(decoded);
+    }
+
+    /**
+     * Sets the response body from given content. Decompresses gzip encoded content.
+     * @param content
+     * @param contentEncoding
+     */
+    public void setResponseContent(byte[] content, String contentEncoding) {
+        byte[] decoded = decompress(content, contentEncoding);
+        this.responseBody = toBody(decoded);
+        this.responseBodyEncoding = getBodyEncoding(decoded);
+    }
+
+    /**
+     * Gets the raw request body content.
+     * @return
+     */
+    @JsonIgnore
+    public byte[] getRequestContent() {
+        return toContent(requestBody, requestBodyEncoding);
+    }
+
+    /**
+     * Gets the raw response body content.
+     * @return
+     */
+    @JsonIgnore
+    public byte[] getResponseContent() {
+        return toContent(responseBody, responseBodyEncoding);
+    }
+
+    private static byte[] decompress(byte[] content, String contentEncoding) {
+        if (content == null || content.length == 0) {
+            return null;
+        }
+
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+                return StreamUtils.copyToByteArray(in);
+            } catch (IOException e) {
+                return content;
+            }
+        }
+
+        return content;
+    }
+
+    private static String toBody(byte[] content) {
+        if (content == null) {
+            return null;
+        }
+
+        return isText(content) ? new String(content, StandardCharsets.UTF_8) : Base64.getEncoder().encodeToString(content);
+    }
+
+    private static String getBodyEncoding(byte[] content) {
+        return content == null || isText(content) ? null : BODY_ENCODING_BASE64;
+    }
+
+    private static byte[] toContent(String body, String bodyEncoding) {
+        if (body == null) {
+            return null;
+        }
+
+        if (BODY_ENCODING_BASE64.equals(bodyEncoding)) {
+            return Base64.getDecoder().decode(body);
+        }
+
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks if given content is valid UTF-8 text.
+     * @param content
+     * @return
+     */
+    private static boolean isText(byte[] content) {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(content));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Gets the time the request was sent or received in milliseconds since epoch.
+     * @return
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets the time in milliseconds between request and response.
+     * @return
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Map<String, String> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    public void setRequestHeaders(Map<String, String> requestHeaders) {
+        this.requestHeaders = requestHeaders;
+    }
+
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public void setRequestBody(String requestBody) {
+        this.requestBody = requestBody;
+    }
+
+    /**
+     * Gets the encoding of the request body, {@link #BODY_ENCODING_BASE64} for binary content or null for text.
+     * @return
+     */
+    public String getRequestBodyEncoding() {
+        return requestBodyEncoding;
+    }
+
+    public void setRequestBodyEncoding(String requestBodyEncoding) {
+        this.requestBodyEncoding = requestBodyEncoding;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public void setResponseHeaders(Map<String, String> responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * Gets the encoding of the response body, {@link #BODY_ENCODING_BASE64} for binary content or null for text.
+     * @return
+     */
+    public String getResponseBodyEncoding() {
+        return responseBodyEncoding;
+    }
+
+    public void setResponseBodyEncoding(String responseBodyEncoding) {
+        this.responseBodyEncoding = responseBodyEncoding;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s -> %d in %d ms", source, method, url, status, duration);
+    }
+}
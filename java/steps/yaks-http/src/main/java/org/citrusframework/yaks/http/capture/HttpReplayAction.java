@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.citrusframework.yaks.http.load.HttpLoadAction;
+import org.citrusframework.yaks.http.load.HttpLoadResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Test action replays the requests of a capture log as load on a Http server. Requests are replayed in the order of their
+ * captured timestamps, which may differ from the order in the log when several clients and servers write to the same log.
+ * Each request is sent at its original offset from the first captured request divided by the rate factor, so a factor
+ * of 2 replays the captured traffic twice as fast. Requests are sent to the given base URL with the captured path, query, headers and body.
+ *
+ * Latencies are measured from the scheduled start time of each request and the result is stored as load result
+ * in test variable {@link HttpLoadAction#LOAD_RESULT_VARIABLE}, so the Http load verification applies to replays, too.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpReplayAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpReplayAction.class);
+
+    /** Headers not copied from captured requests */
+    private static final List<String> SKIPPED_HEADERS = Arrays.asList(HttpHeaders.HOST, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.CONTENT_ENCODING);
+
+    private final String resource;
+    private final String baseUrl;
+    private final double rateFactor;
+    private final int concurrency;
+    private final long timeout;
+    private final HttpClient httpClient;
+
+    public HttpReplayAction(Builder builder) {
+        super("http-replay", builder);
+
+        this.resource = builder.resource;
+        this.baseUrl = builder.baseUrl;
+        this.rateFactor = builder.rateFactor;
+        this.concurrency = builder.concurrency;
+        this.timeout = builder.timeout;
+        this.httpClient = builder.httpClient;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        String resourcePath = context.replaceDynamicContentInString(resource);
+        List<HttpExchangeRecord> records = HttpCaptureLog.read(resourcePath, context);
+
+        if (records.isEmpty()) {
+            throw new CitrusRuntimeException(String.format("No Http exchanges to replay in capture log %s", resourcePath));
+        }
+
+        records.sort(Comparator.comparingLong(HttpExchangeRecord::getTimestamp));
+
+        String url = context.replaceDynamicContentInString(baseUrl);
+        LOG.info(String.format("Replaying %d Http exchanges from %s on %s with rate factor %s", records.size(), resourcePath, url, rateFactor));
+
+        Histogram latencies = new ConcurrentHistogram(3);
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(concurrency, 1), runnable -> {
+            Thread thread = new Thread(runnable, "yaks-http-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long firstTimestamp = records.get(0).getTimestamp();
+        long start = System.nanoTime();
+        try {
+            for (HttpExchangeRecord record : records) {
+                long offset = (long) (TimeUnit.MILLISECONDS.toNanos(record.getTimestamp() - firstTimestamp) / rateFactor);
+                long scheduled = start + offset;
+
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                executor.execute(() -> {
+                    if (send(url, record)) {
+                        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout * records.size(), TimeUnit.MILLISECONDS)) {
+                throw new CitrusRuntimeException("Timed out waiting for replayed Http requests");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while replaying Http exchanges", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        HttpLoadResult result = new HttpLoadResult(latencies, records.size(), errors.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info(String.format("Finished Http replay from %s: %s", resourcePath, result));
+        context.setVariable(HttpLoadAction.LOAD_RESULT_VARIABLE, result);
+    }
+
+    /**
+     * Sends captured request to the base URL.
+     * @param url
+     * @param record
+     * @return true when the response was successful.
+     */
+    private boolean send(String url, HttpExchangeRecord record) {
+        RequestBuilder request = RequestBuilder.create(record.getMethod())
+                .setUri(url.replaceAll("/$", "") + record.getPathAndQuery())
+                .setConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) timeout)
+                        .setConnectionRequestTimeout((int) timeout)
+                        .setSocketTimeout((int) timeout)
+                        .build());
+
+        for (Map.Entry<String, String> header : record.getRequestHeaders().entrySet()) {
+            if (SKIPPED_HEADERS.stream().noneMatch(header.getKey()::equalsIgnoreCase)) {
+                request.addHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        byte[] content = record.getRequestContent();
+        if (content != null) {
+            request.setEntity(new ByteArrayEntity(content));
+        }
+
+        try {
+            return httpClient.execute(request.build(), response -> {
+                EntityUtils.consume(response.getEntity());
+                return response.getStatusLine().getStatusCode() < 400;
+            });
+        } catch (IOException e) {
+            LOG.debug(String.format("Failed to replay Http exchange %s", record), e);
+            return false;
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<HttpReplayAction, Builder> {
+
+        private String resource;
+        private String baseUrl;
+        private double rateFactor = 1.0D;
+        private int concurrency = 10;
+        private long timeout = 5000L;
+        private HttpClient httpClient;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder replay() {
+            return new Builder();
+        }
+
+        /**
+         * Capture log file resource to replay.
+         * @param resource
+         * @return
+         */
+        public Builder resource(String resource) {
+            this.resource = resource;
+            return this;
+        }
+
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Scales the captured rate, e.g. 2 replays the traffic twice as fast as captured.
+         * @param rateFactor
+         * @return
+         */
+        public Builder rateFactor(double rateFactor) {
+            this.rateFactor = rateFactor;
+            return this;
+        }
+
+        /**
+         * Max number of replayed requests in flight.
+         * @param concurrency
+         * @return
+         */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder client(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        @Override
+        public HttpReplayAction build() {
+            if (resource == null || baseUrl == null) {
+                throw new CitrusRuntimeException("Http replay requires a capture log and a base URL");
+            }
+
+            if (rateFactor <= 0D) {
+                throw new CitrusRuntimeException("Http replay rate factor must be positive");
+            }
+
+            if (httpClient == null) {
+                throw new CitrusRuntimeException("Missing Http client for replay");
+            }
+
+            return new HttpReplayAction(this);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.health;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.util.EntityUtils;
+import org.citrusframework.yaks.http.HttpSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test action waits for one or more URLs to return an expected status code. Each URL is probed at an increasing
+ * interval starting with a short initial interval that doubles with each probe up to a max interval. So readiness
+ * is detected shortly after the service is up, while services that take longer to start are not flooded with requests.
+ *
+ * Probes use the given (pooled) Http client so connections are reused between probes. Multiple URLs are probed in
+ * parallel and the action waits until all URLs are ready or the timeout is exceeded. Probes do not ask for compressed
+ * content as only the response status is of interest.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpHealthWaitAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpHealthWaitAction.class);
+
+    private final List<String> urls;
+    private final String method;
+    private final int status;
+    private final long timeout;
+    private final long initialInterval;
+    private final long maxInterval;
+    private final HttpClient httpClient;
+
+    public HttpHealthWaitAction(Builder builder) {
+        super("http-health-wait", builder);
+
+        this.urls = builder.urls;
+        this.method = builder.method;
+        this.status = builder.status;
+        this.timeout = builder.timeout;
+        this.initialInterval = builder.initialInterval;
+        this.maxInterval = builder.maxInterval;
+        this.httpClient = builder.httpClient;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        List<String> resolved = urls.stream()
+                .map(context::replaceDynamicContentInString)
+                .collect(Collectors.toList());
+
+        long deadline = System.currentTimeMillis() + timeout;
+        Map<String, String> failures = new ConcurrentHashMap<>();
+
+        if (resolved.size() == 1) {
+            probe(resolved.get(0), deadline, failures);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(resolved.size(), runnable -> {
+                Thread thread = new Thread(runnable, "yaks-http-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                CompletableFuture.allOf(resolved.stream()
+                        .map(url -> CompletableFuture.runAsync(() -> probe(url, deadline, failures), executor))
+                        .toArray(CompletableFuture[]::new))
+                        .join();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new CitrusRuntimeException(String.format("Failed to wait for %d of %d URLs to return %d within %d ms: %s",
+                    failures.size(), resolved.size(), status, timeout, failures));
+        }
+    }
+
+    /**
+     * Probes given URL until it returns the expected status or the deadline is reached. Records the last probe result
+     * in given failures when the URL did not become ready.
+     * @param url
+     * @param deadline
+     * @param failures
+     */
+    private void probe(String url, long deadline, Map<String, String> failures) {
+        long start = System.currentTimeMillis();
+        long interval = initialInterval;
+        int attempts = 0;
+        String lastResult = "no probe sent";
+
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0L) {
+                failures.put(url, lastResult);
+                return;
+            }
+
+            attempts++;
+            try {
+                int probeTimeout = (int) Math.min(remaining, Integer.MAX_VALUE);
+                int responseStatus = httpClient.execute(RequestBuilder.create(method)
+                        .setUri(url)
+                        .addHeader(HttpHeaders.ACCEPT_ENCODING, "identity")
+                        .setConfig(RequestConfig.custom()
+                                .setConnectTimeout(probeTimeout)
+                                .setConnectionRequestTimeout(probeTimeout)
+                                .setSocketTimeout(probeTimeout)
+                                .build())
+                        .build(), response -> {
+                    EntityUtils.consume(response.getEntity());
+                    return response.getStatusLine().getStatusCode();
+                });
+
+                if (responseStatus == status) {
+                    LOG.info(String.format("URL %s returned %d after %d probes in %d ms", url, responseStatus, attempts,
+                            System.currentTimeMillis() - start));
+                    return;
+                }
+
+                lastResult = "status " + responseStatus;
+            } catch (IOException e) {
+                lastResult = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+
+            LOG.debug(String.format("Waiting for URL %s to return %d (%s) - next probe in %d ms", url, status, lastResult, interval));
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.min(interval, Math.max(deadline - System.currentTimeMillis(), 0L)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(url, "interrupted");
+                return;
+            }
+
+            interval = Math.min(interval * 2, maxInterval);
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<HttpHealthWaitAction, Builder> {
+
+        private final List<String> urls = new ArrayList<>();
+        private String method = "HEAD";
+        private int status = 200;
+        private long timeout = HttpSettings.getTimeout();
+        private long initialInterval = HttpSettings.getHealthInitialInterval();
+        private long maxInterval = HttpSettings.getHealthMaxInterval();
+        private HttpClient httpClient;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder waitForUrls() {
+            return new Builder();
+        }
+
+        public Builder url(String url) {
+            this.urls.add(url);
+            return this;
+        }
+
+        public Builder urls(List<String> urls) {
+            this.urls.addAll(urls);
+            return this;
+        }
+
+        public Builder method(String method) {
+            this.method = method;
+            return this;
+        }
+
+        public Builder status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder initialInterval(long initialInterval) {
+            this.initialInterval = initialInterval;
+            return this;
+        }
+
+        public Builder maxInterval(long maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        public Builder client(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        @Override
+        public HttpHealthWaitAction build() {
+            if (urls.isEmpty()) {
+                throw new CitrusRuntimeException("Missing URL to wait for");
+            }
+
+            if (httpClient == null) {
+                throw new CitrusRuntimeException("Missing Http client for health probes");
+            }
+
+            return new HttpHealthWaitAction(this);
+        }
+    }
+}
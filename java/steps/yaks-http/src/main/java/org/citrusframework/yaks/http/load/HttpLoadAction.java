@@ -0,0 +1,531 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.citrusframework.yaks.http.HttpAsyncTransport;
+import org.citrusframework.yaks.http.HttpConnectionPool;
+import org.citrusframework.yaks.http.HttpSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+
+/**
+ * Test action fires a templated Http request many times with given concurrency. The run is limited by a total number
+ * of requests and/or a duration. Optionally the action paces the requests to a target rate in requests per second.
+ *
+ * With an async transport the requests are dispatched without blocking and the concurrency limits the number of requests
+ * in flight. Otherwise the action starts one worker thread per concurrent request and all workers share a pooled Http
+ * client. When a {@link HttpConnectionPool} is given the workers use the suite scoped pool so connections stay alive
+ * across load runs and regular client requests. The pool is enlarged to hold at least one connection per worker.
+ * Without connection pool the action creates a private client with one connection per worker that is closed after the run.
+ *
+ * Latencies are recorded to a histogram so tests are able to verify percentiles afterwards. When a rate is given the
+ * latency is measured from the intended start time of each request so queueing delays caused by a slow server are part
+ * of the result. Responses with status code 400 or higher as well as I/O errors count as errors.
+ *
+ * The result is stored as test variable object {@link #LOAD_RESULT_VARIABLE} in the test context.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpLoadAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpLoadAction.class);
+
+    /** Test variable holding the result of the last load run */
+    public static final String LOAD_RESULT_VARIABLE = "YAKS_HTTP_LOAD_RESULT";
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> queryParams;
+    private final Map<String, String> headers;
+    private final String body;
+    private final int concurrency;
+    private final long count;
+    private final long duration;
+    private final double rate;
+    private final long timeout;
+    private final HttpAsyncTransport transport;
+    private final HttpConnectionPool connectionPool;
+
+    public HttpLoadAction(Builder builder) {
+        super("http-load", builder);
+
+        this.method = builder.method;
+        this.url = builder.url;
+        this.queryParams = builder.queryParams;
+        this.headers = builder.headers;
+        this.body = builder.body;
+        this.concurrency = builder.concurrency;
+        this.count = builder.count;
+        this.duration = builder.duration;
+        this.rate = builder.rate;
+        this.timeout = builder.timeout;
+        this.transport = builder.transport;
+        this.connectionPool = builder.connectionPool;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        if (count <= 0 && duration <= 0) {
+            throw new CitrusRuntimeException("Http load requires a positive number of requests or a duration");
+        }
+
+        int workers = Math.max(concurrency, 1);
+        LOG.info(String.format("Starting Http load on %s %s with concurrency %d%s", method, url, workers,
+                transport != null ? " using async transport" : ""));
+
+        LoadRecorder recorder = new LoadRecorder();
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0L;
+        long start = System.nanoTime();
+        long deadline = duration > 0 ? start + TimeUnit.MILLISECONDS.toNanos(duration) : Long.MAX_VALUE;
+
+        try {
+            if (transport != null) {
+                runAsync(context, recorder, workers, start, intervalNanos, deadline);
+            } else {
+                runBlocking(context, recorder, workers, start, intervalNanos, deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while running Http load", e);
+        }
+
+        HttpLoadResult result = new HttpLoadResult(recorder.latencies, recorder.requests.get(), recorder.errors.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info(String.format("Finished Http load on %s %s: %s", method, url, result));
+        context.setVariable(LOAD_RESULT_VARIABLE, result);
+    }
+
+    /**
+     * Runs the load on the non-blocking transport. A single thread dispatches the requests and limits the number of requests
+     * in flight to the given concurrency. Responses are handled on the transport I/O threads.
+     */
+    private void runAsync(TestContext context, LoadRecorder recorder, int workers,
+                          long start, long intervalNanos, long deadline) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(workers);
+
+        for (long index = 0; count <= 0 || index < count; index++) {
+            long scheduled = intervalNanos > 0 ? start + index * intervalNanos : System.nanoTime();
+            if (scheduled >= deadline || System.nanoTime() >= deadline) {
+                break;
+            }
+
+            awaitScheduled(scheduled);
+            inFlight.acquire();
+
+            long sent = intervalNanos > 0 ? scheduled : System.nanoTime();
+            recorder.requests.incrementAndGet();
+            transport.execute(createAsyncRequest(context), new FutureCallback<SimpleHttpResponse>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    if (response.getCode() < 400) {
+                        recorder.success(sent);
+                    } else {
+                        recorder.errors.incrementAndGet();
+                    }
+                    inFlight.release();
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    recorder.error(e);
+                    inFlight.release();
+                }
+
+                @Override
+                public void cancelled() {
+                    recorder.errors.incrementAndGet();
+                    inFlight.release();
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(workers, timeout * 2, TimeUnit.MILLISECONDS)) {
+            throw new CitrusRuntimeException(String.format("Timed out after %d ms waiting for %d of %d Http load requests " +
+                    "in flight to finish (%d errors so far)", timeout * 2, workers - inFlight.availablePermits(),
+                    recorder.requests.get(), recorder.errors.get()));
+        }
+    }
+
+    /**
+     * Runs the load on a fixed number of worker threads sharing a pooled blocking Http client. Uses the suite scoped
+     * connection pool if set, a private client that gets closed after the run otherwise.
+     */
+    private void runBlocking(TestContext context, LoadRecorder recorder, int workers,
+                             long start, long intervalNanos, long deadline) throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "yaks-http-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CloseableHttpClient privateClient = null;
+        HttpClient client;
+        if (connectionPool != null) {
+            connectionPool.ensureCapacity(workers);
+            client = connectionPool.getHttpClient();
+        } else {
+            privateClient = createClient(workers);
+            client = privateClient;
+        }
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        long index = sequence.getAndIncrement();
+                        if (count > 0 && index >= count) {
+                            break;
+                        }
+
+                        long scheduled = intervalNanos > 0 ? start + index * intervalNanos : System.nanoTime();
+                        if (scheduled >= deadline || System.nanoTime() >= deadline) {
+                            break;
+                        }
+
+                        awaitScheduled(scheduled);
+
+                        recorder.requests.incrementAndGet();
+                        try {
+                            if (send(client, context)) {
+                                recorder.success(scheduled);
+                            } else {
+                                recorder.errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            recorder.error(e);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new CitrusRuntimeException("Failed to run Http load", e);
+        } finally {
+            executor.shutdownNow();
+
+            if (privateClient != null) {
+                try {
+                    privateClient.close();
+                } catch (IOException e) {
+                    LOG.warn("Failed to close Http load client", e);
+                }
+            }
+        }
+    }
+
+    private static void awaitScheduled(long scheduled) {
+        long wait;
+        while ((wait = scheduled - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Creates request for the async transport. Request URL, headers and body get resolved for each request
+     * so test functions such as random numbers produce a new value for every request.
+     * @param context
+     * @return
+     */
+    private SimpleHttpRequest createAsyncRequest(TestContext context) {
+        synchronized (context) {
+            SimpleHttpRequest request = new SimpleHttpRequest(method, URI.create(getRequestUrl(context)));
+            request.setConfig(org.apache.hc.client5.http.config.RequestConfig.custom()
+                    .setConnectionRequestTimeout(timeout, TimeUnit.MILLISECONDS)
+                    .setResponseTimeout(timeout, TimeUnit.MILLISECONDS)
+                    .build());
+
+            String contentType = null;
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                String name = context.replaceDynamicContentInString(header.getKey());
+                String value = context.replaceDynamicContentInString(header.getValue());
+                if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                    contentType = value;
+                } else {
+                    request.addHeader(name, value);
+                }
+            }
+
+            if (StringUtils.hasText(body)) {
+                request.setBody(context.replaceDynamicContentInString(body),
+                        contentType != null ? ContentType.parse(contentType) : ContentType.TEXT_PLAIN);
+            } else if (contentType != null) {
+                request.addHeader(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+
+            return request;
+        }
+    }
+
+    /**
+     * Sends a single request and consumes the response. Request URL, headers and body get resolved for each request
+     * so test functions such as random numbers produce a new value for every request.
+     * @param client
+     * @param context
+     * @return true when the response was successful.
+     * @throws IOException
+     */
+    private boolean send(HttpClient client, TestContext context) throws IOException {
+        RequestBuilder request = RequestBuilder.create(method)
+                .setConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) timeout)
+                        .setConnectionRequestTimeout((int) timeout)
+                        .setSocketTimeout((int) timeout)
+                        .build());
+        synchronized (context) {
+            request.setUri(getRequestUrl(context));
+            headers.forEach((name, value) -> request.addHeader(context.replaceDynamicContentInString(name),
+                    context.replaceDynamicContentInString(value)));
+            if (StringUtils.hasText(body)) {
+                request.setEntity(new StringEntity(context.replaceDynamicContentInString(body), "UTF-8"));
+            }
+        }
+
+        HttpResponse response = client.execute(request.build());
+        try {
+            return isSuccess(response);
+        } finally {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    private static boolean isSuccess(HttpResponse response) {
+        return response.getStatusLine().getStatusCode() < 400;
+    }
+
+    /**
+     * Creates pooled Http client with one connection per worker. Secure connections use the same SSL settings
+     * as regular client requests.
+     * @param workers
+     * @return
+     */
+    private CloseableHttpClient createClient(int workers) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", HttpConnectionPool.sslSocketFactory(HttpSettings.getClientTrustAll()))
+                        .build());
+        connectionManager.setMaxTotal(workers);
+        connectionManager.setDefaultMaxPerRoute(workers);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .build();
+    }
+
+    /**
+     * Collects latencies and request counts from all workers.
+     */
+    private static class LoadRecorder {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void success(long scheduled) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+        }
+
+        void error(Exception e) {
+            if (errors.incrementAndGet() == 1L) {
+                LOG.warn("Http load request failed - logging further errors on debug level", e);
+            } else {
+                LOG.debug("Http load request failed", e);
+            }
+        }
+    }
+
+    /**
+     * Resolves the request URL and appends the query parameters. Parameter names and values are URL encoded after dynamic
+     * content has been resolved.
+     * @param context
+     * @return
+     */
+    private String getRequestUrl(TestContext context) {
+        StringBuilder requestUrl = new StringBuilder(context.replaceDynamicContentInString(url));
+        try {
+            for (Map.Entry<String, String> param : queryParams.entrySet()) {
+                requestUrl.append(requestUrl.indexOf("?") < 0 ? "?" : "&")
+                        .append(URLEncoder.encode(context.replaceDynamicContentInString(param.getKey()), "UTF-8"))
+                        .append("=")
+                        .append(URLEncoder.encode(context.replaceDynamicContentInString(param.getValue()), "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new CitrusRuntimeException("Failed to encode Http query parameters", e);
+        }
+
+        return requestUrl.toString();
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<HttpLoadAction, Builder> {
+
+        private String method = "GET";
+        private String url;
+        private final Map<String, String> queryParams = new LinkedHashMap<>();
+        private final Map<String, String> headers = new HashMap<>();
+        private String body;
+        private int concurrency = 1;
+        private long count;
+        private long duration;
+        private double rate;
+        private long timeout = 5000L;
+        private HttpAsyncTransport transport;
+        private HttpConnectionPool connectionPool;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder load() {
+            return new Builder();
+        }
+
+        public Builder method(String method) {
+            this.method = method;
+            return this;
+        }
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder queryParam(String name, String value) {
+            this.queryParams.put(name, value);
+            return this;
+        }
+
+        public Builder queryParams(Map<String, String> queryParams) {
+            this.queryParams.putAll(queryParams);
+            return this;
+        }
+
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public Builder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        public Builder body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder count(long count) {
+            this.count = count;
+            return this;
+        }
+
+        public Builder duration(long milliseconds) {
+            this.duration = milliseconds;
+            return this;
+        }
+
+        public Builder rate(double requestsPerSecond) {
+            this.rate = requestsPerSecond;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder transport(HttpAsyncTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sends blocking requests with the connections of given suite scoped pool.
+         * @param connectionPool
+         * @return
+         */
+        public Builder connectionPool(HttpConnectionPool connectionPool) {
+            this.connectionPool = connectionPool;
+            return this;
+        }
+
+        @Override
+        public HttpLoadAction build() {
+            if (url == null) {
+                throw new CitrusRuntimeException("Missing request URL for Http load");
+            }
+
+            return new HttpLoadAction(this);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of a Http load run. Holds the latency histogram of all successful exchanges in microseconds
+ * together with request and error counts so tests are able to verify percentiles, error rates and throughput.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpLoadResult {
+
+    private final Histogram latencies;
+    private final long requests;
+    private final long errors;
+    private final long durationMillis;
+
+    public HttpLoadResult(Histogram latencies, long requests, long errors, long durationMillis) {
+        this.latencies = latencies;
+        this.requests = requests;
+        this.errors = errors;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Gets the latency in milliseconds at given percentile (e.g. 99.0 for p99).
+     * @param percentile
+     * @return
+     */
+    public double getLatency(double percentile) {
+        return toMillis(latencies.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Gets the mean latency in milliseconds.
+     * @return
+     */
+    public double getMeanLatency() {
+        return latencies.getTotalCount() > 0 ? latencies.getMean() / TimeUnit.MILLISECONDS.toMicros(1) : 0D;
+    }
+
+    /**
+     * Gets the maximum latency in milliseconds.
+     * @return
+     */
+    public double getMaxLatency() {
+        return toMillis(latencies.getMaxValue());
+    }
+
+    /**
+     * Gets the error rate in percent of all requests sent.
+     * @return
+     */
+    public double getErrorRate() {
+        return requests > 0 ? errors * 100D / requests : 0D;
+    }
+
+    /**
+     * Gets the number of requests per second.
+     * @return
+     */
+    public double getThroughput() {
+        return durationMillis > 0 ? requests * 1000D / durationMillis : 0D;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d, errors=%d (%.2f%%), throughput=%.1f req/s, " +
+                        "latency p50=%.2f ms, p90=%.2f ms, p99=%.2f ms, max=%.2f ms",
+                requests, errors, getErrorRate(), getThroughput(),
+                getLatency(50.0), getLatency(90.0), getLatency(99.0), getMaxLatency());
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test action verifies a metric of the last Http load run against a threshold. Supported metrics are latency
+ * percentiles (e.g. p99), mean and max latency in milliseconds, error rate in percent and throughput
+ * in requests per second. Latency metrics fail when no request of the load run has been successful.
+ *
+ * @author Christoph Deppisch
+ */
+public class VerifyHttpLoadAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(VerifyHttpLoadAction.class);
+
+    private final String resultVariable;
+    private final String metric;
+    private final String operator;
+    private final double threshold;
+
+    public VerifyHttpLoadAction(Builder builder) {
+        super("verify-http-load", builder);
+
+        this.resultVariable = builder.resultVariable;
+        this.metric = builder.metric;
+        this.operator = builder.operator;
+        this.threshold = builder.threshold;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        if (!context.getVariables().containsKey(resultVariable)) {
+            throw new CitrusRuntimeException(String.format("Missing Http load result '%s' - please run Http load first", resultVariable));
+        }
+
+        HttpLoadResult result = (HttpLoadResult) context.getVariableObject(resultVariable);
+        if (isLatencyMetric() && result.getLatencies().getTotalCount() == 0) {
+            // latencies are recorded for successful requests only so an empty histogram must not pass the threshold
+            throw new ValidationException(String.format("Http load %s validation failed - no successful request " +
+                    "has been recorded (%s)", metric, result));
+        }
+
+        double value = getValue(result);
+
+        if (!compare(value)) {
+            throw new ValidationException(String.format("Http load %s validation failed - expected %s %s but was %.2f (%s)",
+                    metric, operator, threshold, value, result));
+        }
+
+        LOG.info(String.format("Http load %s validation successful - %.2f %s %s", metric, value, operator, threshold));
+    }
+
+    private double getValue(HttpLoadResult result) {
+        switch (metric) {
+            case "mean":
+                return result.getMeanLatency();
+            case "max":
+                return result.getMaxLatency();
+            case "error-rate":
+                return result.getErrorRate();
+            case "throughput":
+                return result.getThroughput();
+            default:
+                if (metric.startsWith("p")) {
+                    return result.getLatency(Double.parseDouble(metric.substring(1)));
+                }
+
+                throw new CitrusRuntimeException(String.format("Unsupported Http load metric '%s'", metric));
+        }
+    }
+
+    private boolean isLatencyMetric() {
+        return "mean".equals(metric) || "max".equals(metric) || metric.startsWith("p");
+    }
+
+    private boolean compare(double value) {
+        switch (operator) {
+            case "<":
+                return value < threshold;
+            case "<=":
+                return value <= threshold;
+            case ">":
+                return value > threshold;
+            case ">=":
+                return value >= threshold;
+            default:
+                throw new CitrusRuntimeException(String.format("Unsupported comparison operator '%s'", operator));
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<VerifyHttpLoadAction, Builder> {
+
+        private String resultVariable = HttpLoadAction.LOAD_RESULT_VARIABLE;
+        private String metric;
+        private String operator = "<";
+        private double threshold;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder verifyLoad() {
+            return new Builder();
+        }
+
+        /**
+         * Verify latency at given percentile (e.g. 99.0) in milliseconds.
+         * @param percentile
+         * @return
+         */
+        public Builder latency(double percentile) {
+            return metric("p" + percentile);
+        }
+
+        public Builder meanLatency() {
+            return metric("mean");
+        }
+
+        public Builder maxLatency() {
+            return metric("max");
+        }
+
+        public Builder errorRate() {
+            return metric("error-rate");
+        }
+
+        public Builder throughput() {
+            return metric("throughput");
+        }
+
+        /**
+         * Test variable holding the load result to verify. Defaults to the result of the last Http load run.
+         * @param resultVariable
+         * @return
+         */
+        public Builder result(String resultVariable) {
+            this.resultVariable = resultVariable;
+            return this;
+        }
+
+        public Builder metric(String metric) {
+            this.metric = metric;
+            return this;
+        }
+
+        public Builder operator(String operator) {
+            this.operator = operator;
+            return this;
+        }
+
+        public Builder threshold(double threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        public Builder lessThan(double threshold) {
+            return operator("<").threshold(threshold);
+        }
+
+        public Builder greaterThan(double threshold) {
+            return operator(">").threshold(threshold);
+        }
+
+        @Override
+        public VerifyHttpLoadAction build() {
+            if (metric == null) {
+                throw new CitrusRuntimeException("Missing metric to verify on Http load result");
+            }
+
+            return new VerifyHttpLoadAction(this);
+        }
+    }
+}
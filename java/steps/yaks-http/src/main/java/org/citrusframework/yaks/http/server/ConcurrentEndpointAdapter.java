@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.endpoint.AbstractEndpoint;
+import com.consol.citrus.endpoint.AbstractEndpointAdapter;
+import com.consol.citrus.endpoint.AbstractEndpointConfiguration;
+import com.consol.citrus.endpoint.Endpoint;
+import com.consol.citrus.endpoint.EndpointConfiguration;
+import com.consol.citrus.endpoint.adapter.mapping.HeaderMappingKeyExtractor;
+import com.consol.citrus.endpoint.adapter.mapping.JsonPayloadMappingKeyExtractor;
+import com.consol.citrus.endpoint.adapter.mapping.MappingKeyExtractor;
+import com.consol.citrus.exceptions.ActionTimeoutException;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.message.HttpMessage;
+import com.consol.citrus.http.message.HttpMessageHeaders;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.message.MessageSelectorBuilder;
+import com.consol.citrus.messaging.Producer;
+import com.consol.citrus.messaging.SelectiveConsumer;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+/**
+ * Endpoint adapter lets a Http server handle many requests at the same time. Inbound requests are buffered in a
+ * correlation indexed queue and each request waits on its server worker thread for the response. Tests receive the buffered
+ * requests in any order by selecting the correlation key of the expected request. Taken requests are tracked per test
+ * context with their correlation key. A response naming the correlation key in the header {@link #CORRELATION_KEY_HEADER}
+ * completes the oldest taken request with this key, so several taken requests can be answered in any order. A response
+ * without this header completes the request taken last. The waiting worker thread then writes the response.
+ *
+ * By default requests are correlated by request method and path. As an alternative requests can be correlated by a header
+ * or a JsonPath expression evaluated on the request body.
+ *
+ * @author Christoph Deppisch
+ */
+public class ConcurrentEndpointAdapter extends AbstractEndpointAdapter {
+
+    /** Selector key holding the expected correlation key */
+    public static final String CORRELATION_KEY_SELECTOR = "correlationKey";
+
+    /** Response header naming the correlation key of the taken request to answer, removed before the response is written */
+    public static final String CORRELATION_KEY_HEADER = "yaks_http_correlation_key";
+
+    private final CorrelatingRequestQueue queue = new CorrelatingRequestQueue(new PathMappingKeyExtractor());
+    private final EndpointConfiguration endpointConfiguration = new ConcurrentEndpointConfiguration();
+    private final ConcurrentEndpoint endpoint = new ConcurrentEndpoint();
+
+    private String correlationHeader;
+    private String correlationExpression;
+
+    public ConcurrentEndpointAdapter(String name, long timeout) {
+        setName(name);
+        endpoint.setName(name);
+        endpointConfiguration.setTimeout(timeout);
+    }
+
+    @Override
+    protected Message handleMessageInternal(Message request) {
+        CorrelatingRequestQueue.PendingRequest pending = queue.add(request);
+        log.debug(String.format("Buffered request with correlation key '%s'", pending.getKey()));
+
+        try {
+            return pending.getResponse().get(endpointConfiguration.getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn(String.format("No response for request with correlation key '%s' after %d ms",
+                    pending.getKey(), endpointConfiguration.getTimeout()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for response", e);
+        } catch (ExecutionException e) {
+            log.warn("Failed to get response", e);
+        } finally {
+            queue.remove(pending);
+        }
+
+        return new HttpMessage().status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Correlate requests by request method and path (e.g. "GET /todo/1").
+     */
+    public void correlateByPath() {
+        this.correlationHeader = null;
+        this.correlationExpression = null;
+        queue.setKeyExtractor(new PathMappingKeyExtractor());
+    }
+
+    /**
+     * Correlate requests by the value of given header.
+     * @param header
+     */
+    public void correlateByHeader(String header) {
+        this.correlationHeader = header;
+        this.correlationExpression = null;
+        queue.setKeyExtractor(new HeaderMappingKeyExtractor(header));
+    }
+
+    /**
+     * Correlate requests by the value of given JsonPath expression evaluated on the request body.
+     * @param expression
+     */
+    public void correlateByExpression(String expression) {
+        this.correlationHeader = null;
+        this.correlationExpression = expression;
+
+        JsonPayloadMappingKeyExtractor keyExtractor = new JsonPayloadMappingKeyExtractor();
+        keyExtractor.setJsonPathExpression(expression);
+        queue.setKeyExtractor(keyExtractor);
+    }
+
+    /**
+     * Builds the correlation key of a request with given method and path.
+     * @param method
+     * @param path
+     * @return
+     */
+    public static String getPathCorrelationKey(String method, String path) {
+        String requestPath = StringUtils.hasText(path) ? path : "/";
+        if (requestPath.contains("?")) {
+            requestPath = requestPath.substring(0, requestPath.indexOf('?'));
+        }
+
+        return method + " " + (requestPath.startsWith("/") ? requestPath : "/" + requestPath);
+    }
+
+    /**
+     * Gets the header used to correlate requests or null when requests are not correlated by header.
+     * @return
+     */
+    public String getCorrelationHeader() {
+        return correlationHeader;
+    }
+
+    /**
+     * Gets the JsonPath expression used to correlate requests or null when requests are not correlated by expression.
+     * @return
+     */
+    public String getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * Gets the queue of buffered requests.
+     * @return
+     */
+    public CorrelatingRequestQueue getQueue() {
+        return queue;
+    }
+
+    @Override
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public EndpointConfiguration getEndpointConfiguration() {
+        return endpointConfiguration;
+    }
+
+    /**
+     * Extracts request method and path as correlation key.
+     */
+    private static class PathMappingKeyExtractor implements MappingKeyExtractor {
+        @Override
+        public String extractMappingKey(Message request) {
+            return getPathCorrelationKey(String.valueOf(request.getHeader(HttpMessageHeaders.HTTP_REQUEST_METHOD)),
+                    String.valueOf(request.getHeader(HttpMessageHeaders.HTTP_REQUEST_URI)));
+        }
+    }
+
+    private static class ConcurrentEndpointConfiguration extends AbstractEndpointConfiguration {
+    }
+
+    /**
+     * Endpoint used by receive and send test actions on the server. The consumer takes buffered requests from the queue and
+     * remembers the requests taken in the test context. The producer completes one of these requests with the response.
+     */
+    private class ConcurrentEndpoint extends AbstractEndpoint {
+
+        ConcurrentEndpoint() {
+            super(endpointConfiguration);
+        }
+
+        /**
+         * Gets the requests taken in given test context that wait for a response. Maps the request id to the correlation
+         * key in the order the requests have been taken.
+         * @param context
+         * @return
+         */
+        @SuppressWarnings("unchecked")
+        private Map<Long, String> getTakenRequests(TestContext context) {
+            String variable = getName() + "_taken_requests";
+            if (!context.getVariables().containsKey(variable)) {
+                context.setVariable(variable, new LinkedHashMap<Long, String>());
+            }
+
+            return (Map<Long, String>) context.getVariableObject(variable);
+        }
+
+        @Override
+        public Producer createProducer() {
+            return new Producer() {
+                @Override
+                public void send(Message message, TestContext context) {
+                    Object key = message.getHeader(CORRELATION_KEY_HEADER);
+                    message.removeHeader(CORRELATION_KEY_HEADER);
+
+                    Map<Long, String> takenRequests = getTakenRequests(context);
+                    Long id = null;
+                    for (Map.Entry<Long, String> taken : takenRequests.entrySet()) {
+                        if (key == null) {
+                            id = taken.getKey();
+                        } else if (key.toString().equals(taken.getValue())) {
+                            id = taken.getKey();
+                            break;
+                        }
+                    }
+
+                    if (id == null && key == null) {
+                        throw new CitrusRuntimeException("Failed to send response - no request has been received");
+                    } else if (id == null) {
+                        throw new CitrusRuntimeException(String.format("Failed to send response - " +
+                                "no request with correlation key '%s' has been received", key));
+                    }
+
+                    takenRequests.remove(id);
+                    queue.complete(id, message);
+                }
+
+                @Override
+                public String getName() {
+                    return getProducerName();
+                }
+            };
+        }
+
+        @Override
+        public SelectiveConsumer createConsumer() {
+            return new SelectiveConsumer() {
+                @Override
+                public Message receive(String selector, TestContext context) {
+                    return receive(selector, context, endpointConfiguration.getTimeout());
+                }
+
+                @Override
+                public Message receive(String selector, TestContext context, long timeout) {
+                    String key = null;
+                    if (StringUtils.hasText(selector)) {
+                        key = MessageSelectorBuilder.withString(selector).toKeyValueMap().get(CORRELATION_KEY_SELECTOR);
+                    }
+
+                    try {
+                        CorrelatingRequestQueue.PendingRequest pending = queue.take(key, timeout);
+                        if (pending == null) {
+                            throw new ActionTimeoutException(timeout);
+                        }
+
+                        getTakenRequests(context).put(pending.getId(), pending.getKey());
+                        return pending.getRequest();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CitrusRuntimeException("Interrupted while waiting for request", e);
+                    }
+                }
+
+                @Override
+                public Message receive(TestContext context) {
+                    return receive(null, context);
+                }
+
+                @Override
+                public Message receive(TestContext context, long timeout) {
+                    return receive(null, context, timeout);
+                }
+
+                @Override
+                public String getName() {
+                    return getConsumerName();
+                }
+            };
+        }
+    }
+}
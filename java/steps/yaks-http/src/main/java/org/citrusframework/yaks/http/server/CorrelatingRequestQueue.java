@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.server;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.consol.citrus.endpoint.adapter.mapping.MappingKeyExtractor;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.message.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers inbound requests that wait for a response. Each request is indexed with a correlation key extracted from the
+ * request (e.g. path, header or Json body element) so tests are able to take the request matching an expected key
+ * regardless of the order of arrival. Requests without an expected key are taken in order of arrival.
+ *
+ * Taken requests stay in progress until a response is given or the request is removed.
+ *
+ * @author Christoph Deppisch
+ */
+public class CorrelatingRequestQueue {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(CorrelatingRequestQueue.class);
+
+    private final Map<String, Deque<PendingRequest>> index = new HashMap<>();
+    private final Set<PendingRequest> arrivals = new LinkedHashSet<>();
+    private final Map<Long, PendingRequest> inProgress = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition arrived = lock.newCondition();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile MappingKeyExtractor keyExtractor;
+
+    public CorrelatingRequestQueue(MappingKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Adds new request to the queue and notifies all waiting consumers.
+     * @param request
+     * @return the pending request holding the future response.
+     */
+    public PendingRequest add(Message request) {
+        PendingRequest pending = new PendingRequest(ids.incrementAndGet(), extractKey(request), request);
+
+        lock.lock();
+        try {
+            arrivals.add(pending);
+            if (pending.getKey() != null) {
+                index.computeIfAbsent(pending.getKey(), key -> new ArrayDeque<>()).add(pending);
+            }
+            arrived.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        return pending;
+    }
+
+    /**
+     * Takes the oldest request with given correlation key. Takes the oldest request of all when no key is given.
+     * Waits for a matching request to arrive until the timeout is exceeded.
+     * @param key
+     * @param timeout
+     * @return the matching request or null when no request has arrived in time.
+     * @throws InterruptedException
+     */
+    public PendingRequest take(String key, long timeout) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        lock.lock();
+        try {
+            PendingRequest pending;
+            while ((pending = poll(key)) == null) {
+                if (remaining <= 0L) {
+                    return null;
+                }
+
+                remaining = arrived.awaitNanos(remaining);
+            }
+
+            inProgress.put(pending.getId(), pending);
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes the request in progress with given id with the response.
+     * @param id
+     * @param response
+     */
+    public void complete(long id, Message response) {
+        PendingRequest pending = inProgress.remove(id);
+        if (pending == null) {
+            throw new CitrusRuntimeException(String.format("Failed to find request in progress for id '%s' - " +
+                    "request has already been answered or timed out", id));
+        }
+
+        pending.getResponse().complete(response);
+    }
+
+    /**
+     * Removes the request from the queue, for instance because the request has timed out.
+     * @param pending
+     */
+    public void remove(PendingRequest pending) {
+        lock.lock();
+        try {
+            if (arrivals.remove(pending) && pending.getKey() != null) {
+                Deque<PendingRequest> requests = index.get(pending.getKey());
+                requests.remove(pending);
+                if (requests.isEmpty()) {
+                    index.remove(pending.getKey());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        inProgress.remove(pending.getId());
+    }
+
+    /**
+     * Gets the number of buffered requests that have not been taken yet.
+     * @return
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return arrivals.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock.
+     * @param key
+     * @return
+     */
+    private PendingRequest poll(String key) {
+        if (key == null) {
+            Iterator<PendingRequest> iterator = arrivals.iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+
+            PendingRequest pending = iterator.next();
+            remove(pending);
+            return pending;
+        }
+
+        Deque<PendingRequest> requests = index.get(key);
+        if (requests == null) {
+            return null;
+        }
+
+        PendingRequest pending = requests.poll();
+        if (requests.isEmpty()) {
+            index.remove(key);
+        }
+        arrivals.remove(pending);
+        return pending;
+    }
+
+    private String extractKey(Message request) {
+        try {
+            return keyExtractor.extractMappingKey(request);
+        } catch (RuntimeException e) {
+            LOG.debug(String.format("Unable to extract correlation key from request - %s", e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Sets the key extractor used for requests arriving from now on.
+     * @param keyExtractor
+     */
+    public void setKeyExtractor(MappingKeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Request waiting for a response.
+     */
+    public static class PendingRequest {
+        private final long id;
+        private final String key;
+        private final Message request;
+        private final CompletableFuture<Message> response = new CompletableFuture<>();
+
+        PendingRequest(long id, String key, Message request) {
+            this.id = id;
+            this.key = key;
+            this.request = request;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Message getRequest() {
+            return request;
+        }
+
+        public CompletableFuture<Message> getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.util.FileUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Test action sends a Http request and consumes the response as a stream. File based request bodies are written to the
+ * connection in chunks and never loaded into memory. The response body is read once in chunks while the action computes
+ * size and checksum of the content. Json and XML response bodies are checked to be well-formed during the same pass with
+ * a streaming parser. The body content itself is discarded.
+ *
+ * The request is sent with the given Apache Http client, not with a Citrus Http client endpoint. Citrus client interceptors
+ * work on fully buffered bodies, so they do not apply to streamed exchanges. This includes the HTTP traffic capture.
+ *
+ * The result is stored as test variable object {@link #STREAM_RESULT_VARIABLE} in the test context.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStreamAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpStreamAction.class);
+
+    /** Test variable holding the result of the last streamed exchange */
+    public static final String STREAM_RESULT_VARIABLE = "YAKS_HTTP_STREAM_RESULT";
+
+    /** Algorithm used to compute body checksums */
+    public static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> queryParams;
+    private final Map<String, String> headers;
+    private final String body;
+    private final String bodyResource;
+    private final long timeout;
+    private final HttpClient httpClient;
+
+    public HttpStreamAction(Builder builder) {
+        super("http-stream", builder);
+
+        this.method = builder.method;
+        this.url = builder.url;
+        this.queryParams = builder.queryParams;
+        this.headers = builder.headers;
+        this.body = builder.body;
+        this.bodyResource = builder.bodyResource;
+        this.timeout = builder.timeout;
+        this.httpClient = builder.httpClient;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        String requestUrl = getRequestUrl(context);
+        LOG.info(String.format("Sending streamed Http request %s %s", method, requestUrl));
+
+        RequestBuilder request = RequestBuilder.create(method)
+                .setUri(requestUrl)
+                .setConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) timeout)
+                        .setSocketTimeout((int) timeout)
+                        .build());
+
+        String contentType = null;
+        for (Map.Entry<String, String> header : context.resolveDynamicValuesInMap(headers).entrySet()) {
+            if (header.getKey().equalsIgnoreCase(HttpHeaders.CONTENT_TYPE)) {
+                contentType = header.getValue();
+            } else {
+                request.addHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        if (bodyResource != null || body != null) {
+            request.setEntity(createEntity(context, contentType));
+        } else if (contentType != null) {
+            request.addHeader(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+
+        try {
+            HttpResponse response = httpClient.execute(request.build());
+            HttpStreamResult result = consume(response);
+            LOG.info(String.format("Received streamed Http response: %s", result));
+            context.setVariable(STREAM_RESULT_VARIABLE, result);
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to send streamed Http request %s %s", method, requestUrl), e);
+        }
+    }
+
+    /**
+     * Creates the request entity. File system resources are sent as file entity, other resources are streamed
+     * from their input stream. Inline bodies are sent as string entity.
+     * @param context
+     * @param contentType
+     * @return
+     */
+    private HttpEntity createEntity(TestContext context, String contentType) {
+        ContentType type = StringUtils.hasText(contentType) ? ContentType.parse(contentType) : ContentType.APPLICATION_OCTET_STREAM;
+
+        if (bodyResource == null) {
+            return new StringEntity(context.replaceDynamicContentInString(body), type);
+        }
+
+        Resource resource = FileUtils.getFileResource(context.replaceDynamicContentInString(bodyResource), context);
+        try {
+            if (resource.isFile()) {
+                return new FileEntity(resource.getFile(), type);
+            }
+
+            return new InputStreamEntity(resource.getInputStream(), resource.contentLength(), type);
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to read request body from resource %s", bodyResource), e);
+        }
+    }
+
+    /**
+     * Reads the response body once and computes size, checksum and structural check result.
+     * @param response
+     * @return
+     * @throws IOException
+     */
+    private HttpStreamResult consume(HttpResponse response) throws IOException {
+        Map<String, String> responseHeaders = new LinkedCaseInsensitiveMap<>();
+        for (Header header : response.getAllHeaders()) {
+            responseHeaders.merge(header.getName(), header.getValue(), (first, second) -> first + "," + second);
+        }
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            MeteredInputStream empty = new MeteredInputStream(new ByteArrayInputStream(new byte[0]), CHECKSUM_ALGORITHM);
+            return new HttpStreamResult(response.getStatusLine().getStatusCode(), responseHeaders, 0L, empty.getChecksum(), null, null);
+        }
+
+        String structure = getStructure(responseHeaders.get(HttpHeaders.CONTENT_TYPE));
+        String structureError = null;
+        try (InputStream content = entity.getContent();
+             MeteredInputStream metered = new MeteredInputStream(content, CHECKSUM_ALGORITHM)) {
+            if (structure != null) {
+                structureError = checkStructure(structure, metered);
+            }
+
+            metered.drain();
+            return new HttpStreamResult(response.getStatusLine().getStatusCode(), responseHeaders,
+                    metered.getSize(), metered.getChecksum(), structure, structureError);
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    /**
+     * Checks that the content is well-formed Json or XML with a streaming parser.
+     * @param structure
+     * @param content
+     * @return the error message or null when content is well-formed.
+     * @throws IOException
+     */
+    static String checkStructure(String structure, InputStream content) throws IOException {
+        if (structure.equals("json")) {
+            try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+                while (parser.nextToken() != null) {
+                    // only check structure
+                }
+            } catch (JsonProcessingException e) {
+                return e.getOriginalMessage();
+            }
+        } else {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+            try {
+                XMLStreamReader reader = factory.createXMLStreamReader(content);
+                while (reader.hasNext()) {
+                    reader.next();
+                }
+                reader.close();
+            } catch (XMLStreamException e) {
+                return e.getMessage();
+            }
+        }
+
+        return null;
+    }
+
+    private static String getStructure(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        if (contentType.contains("json")) {
+            return "json";
+        }
+
+        if (contentType.contains("xml")) {
+            return "xml";
+        }
+
+        return null;
+    }
+
+    /**
+     * Resolves the request URL and appends the query parameters. Parameter names and values are URL encoded after dynamic
+     * content has been resolved.
+     * @param context
+     * @return
+     */
+    private String getRequestUrl(TestContext context) {
+        StringBuilder requestUrl = new StringBuilder(context.replaceDynamicContentInString(url));
+        try {
+            for (Map.Entry<String, String> param : queryParams.entrySet()) {
+                requestUrl.append(requestUrl.indexOf("?") < 0 ? "?" : "&")
+                        .append(URLEncoder.encode(context.replaceDynamicContentInString(param.getKey()), "UTF-8"))
+                        .append("=")
+                        .append(URLEncoder.encode(context.replaceDynamicContentInString(param.getValue()), "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new CitrusRuntimeException("Failed to encode Http query parameters", e);
+        }
+
+        return requestUrl.toString();
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<HttpStreamAction, Builder> {
+
+        private String method = "GET";
+        private String url;
+        private final Map<String, String> queryParams = new LinkedHashMap<>();
+        private final Map<String, String> headers = new HashMap<>();
+        private String body;
+        private String bodyResource;
+        private long timeout = 60000L;
+        private HttpClient httpClient;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder stream() {
+            return new Builder();
+        }
+
+        public Builder method(String method) {
+            this.method = method;
+            return this;
+        }
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder queryParam(String name, String value) {
+            this.queryParams.put(name, value);
+            return this;
+        }
+
+        public Builder queryParams(Map<String, String> queryParams) {
+            this.queryParams.putAll(queryParams);
+            return this;
+        }
+
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public Builder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        public Builder body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Streams the request body from given file resource.
+         * @param bodyResource
+         * @return
+         */
+        public Builder bodyResource(String bodyResource) {
+            this.bodyResource = bodyResource;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder client(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        @Override
+        public HttpStreamAction build() {
+            if (url == null) {
+                throw new CitrusRuntimeException("Missing request URL for streamed Http request");
+            }
+
+            if (httpClient == null) {
+                throw new CitrusRuntimeException("Missing Http client for streamed Http request");
+            }
+
+            return new HttpStreamAction(this);
+        }
+    }
+}
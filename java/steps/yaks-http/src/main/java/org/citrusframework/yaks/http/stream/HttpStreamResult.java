@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import java.util.Map;
+
+/**
+ * Result of a streamed Http exchange. Holds the response status and headers as well as size, checksum and structural
+ * check result of the response body. The body content itself is not kept.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStreamResult {
+
+    private final int status;
+    private final Map<String, String> headers;
+    private final long size;
+    private final String checksum;
+    private final String structure;
+    private final String structureError;
+
+    public HttpStreamResult(int status, Map<String, String> headers, long size, String checksum,
+                            String structure, String structureError) {
+        this.status = status;
+        this.headers = headers;
+        this.size = size;
+        this.checksum = checksum;
+        this.structure = structure;
+        this.structureError = structureError;
+    }
+
+    /**
+     * Gets the response status code.
+     * @return
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the response headers.
+     * @return
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the number of bytes in the response body.
+     * @return
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the hex encoded checksum of the response body.
+     * @return
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Gets the body structure that has been checked (json or xml) or null when no structural check has been performed.
+     * @return
+     */
+    public String getStructure() {
+        return structure;
+    }
+
+    /**
+     * Gets the error of the structural check or null when the body is well-formed.
+     * @return
+     */
+    public String getStructureError() {
+        return structureError;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("status=%d, size=%d bytes, %s=%s%s", status, size, HttpStreamAction.CHECKSUM_ALGORITHM, checksum,
+                structure != null ? String.format(", %s=%s", structure, structureError != null ? structureError : "well-formed") : "");
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.validation.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test action verifies the result of the last streamed Http exchange. Verifies status code and headers as well as size,
+ * checksum and structure of the response body. Expected bodies given as file resource are read in chunks in order to
+ * compute size and checksum so the expected content is never loaded into memory either.
+ *
+ * @author Christoph Deppisch
+ */
+public class VerifyHttpStreamAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(VerifyHttpStreamAction.class);
+
+    private final int status;
+    private final Map<String, String> headers;
+    private final Long size;
+    private final String checksum;
+    private final String body;
+    private final String bodyResource;
+
+    public VerifyHttpStreamAction(Builder builder) {
+        super("verify-http-stream", builder);
+
+        this.status = builder.status;
+        this.headers = builder.headers;
+        this.size = builder.size;
+        this.checksum = builder.checksum;
+        this.body = builder.body;
+        this.bodyResource = builder.bodyResource;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        if (!context.getVariables().containsKey(HttpStreamAction.STREAM_RESULT_VARIABLE)) {
+            throw new CitrusRuntimeException("Missing Http stream result - please send streamed Http request first");
+        }
+
+        HttpStreamResult result = (HttpStreamResult) context.getVariableObject(HttpStreamAction.STREAM_RESULT_VARIABLE);
+
+        if (status > 0 && status != result.getStatus()) {
+            throw new ValidationException(String.format("Http stream status code validation failed - expected %d but was %d",
+                    status, result.getStatus()));
+        }
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String actual = result.getHeaders().get(header.getKey());
+            if (actual == null) {
+                throw new ValidationException(String.format("Http stream header validation failed - missing header '%s'",
+                        header.getKey()));
+            }
+
+            ValidationUtils.validateValues(actual, context.replaceDynamicContentInString(header.getValue()),
+                    header.getKey(), context);
+        }
+
+        if (result.getStructureError() != null) {
+            throw new ValidationException(String.format("Http stream body validation failed - %s body is not well-formed: %s",
+                    result.getStructure(), result.getStructureError()));
+        }
+
+        if (bodyResource != null) {
+            String resourcePath = context.replaceDynamicContentInString(bodyResource);
+            try (InputStream content = FileUtils.getFileResource(resourcePath, context).getInputStream()) {
+                verifyContent(result, content, resourcePath);
+            } catch (IOException e) {
+                throw new CitrusRuntimeException(String.format("Failed to read expected body from resource %s", resourcePath), e);
+            }
+        }
+
+        if (body != null) {
+            verifyContent(result, new ByteArrayInputStream(context.replaceDynamicContentInString(body)
+                    .getBytes(StandardCharsets.UTF_8)), "inline body");
+        }
+
+        if (size != null && size != result.getSize()) {
+            throw new ValidationException(String.format("Http stream body size validation failed - expected %d bytes but was %d bytes",
+                    size, result.getSize()));
+        }
+
+        if (checksum != null && !context.replaceDynamicContentInString(checksum).equalsIgnoreCase(result.getChecksum())) {
+            throw new ValidationException(String.format("Http stream body %s checksum validation failed - expected %s but was %s",
+                    HttpStreamAction.CHECKSUM_ALGORITHM, checksum, result.getChecksum()));
+        }
+
+        LOG.info(String.format("Http stream validation successful - %s", result));
+    }
+
+    /**
+     * Compares size and checksum of given expected content with the streamed response body.
+     * @param result
+     * @param expected
+     * @param description
+     */
+    private static void verifyContent(HttpStreamResult result, InputStream expected, String description) {
+        try (MeteredInputStream metered = new MeteredInputStream(expected, HttpStreamAction.CHECKSUM_ALGORITHM)) {
+            metered.drain();
+
+            String expectedChecksum = metered.getChecksum();
+            if (metered.getSize() != result.getSize() || !expectedChecksum.equals(result.getChecksum())) {
+                throw new ValidationException(String.format("Http stream body validation failed - expected content of %s " +
+                                "(%d bytes, %s=%s) but was %d bytes, %s=%s", description, metered.getSize(),
+                        HttpStreamAction.CHECKSUM_ALGORITHM, expectedChecksum, result.getSize(),
+                        HttpStreamAction.CHECKSUM_ALGORITHM, result.getChecksum()));
+            }
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to read expected body from %s", description), e);
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<VerifyHttpStreamAction, Builder> {
+
+        private int status;
+        private final Map<String, String> headers = new HashMap<>();
+        private Long size;
+        private String checksum;
+        private String body;
+        private String bodyResource;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder verifyStream() {
+            return new Builder();
+        }
+
+        public Builder status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public Builder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        /**
+         * Expected body size in bytes.
+         * @param size
+         * @return
+         */
+        public Builder size(Long size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Expected hex encoded SHA-256 checksum of the body.
+         * @param checksum
+         * @return
+         */
+        public Builder checksum(String checksum) {
+            this.checksum = checksum;
+            return this;
+        }
+
+        /**
+         * Expected body content compared byte by byte.
+         * @param body
+         * @return
+         */
+        public Builder body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Expected body content loaded from given file resource and compared byte by byte.
+         * @param bodyResource
+         * @return
+         */
+        public Builder bodyResource(String bodyResource) {
+            this.bodyResource = bodyResource;
+            return this;
+        }
+
+        @Override
+        public VerifyHttpStreamAction build() {
+            return new VerifyHttpStreamAction(this);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.consol.citrus.endpoint.AbstractEndpoint;
+import com.consol.citrus.endpoint.AbstractEndpointAdapter;
+import com.consol.citrus.endpoint.AbstractEndpointConfiguration;
+import com.consol.citrus.endpoint.Endpoint;
+import com.consol.citrus.endpoint.EndpointConfiguration;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.message.HttpMessage;
+import com.consol.citrus.http.message.HttpMessageHeaders;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.messaging.Consumer;
+import com.consol.citrus.messaging.Producer;
+import org.eclipse.jetty.server.Request;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Endpoint adapter answers all requests with pre-registered stub routes. Requests are handled on the server worker
+ * threads without any test step involvement. Requests that do not match any route get a 404 response and are counted as
+ * unmatched requests. Routes with faults get latency, limited bandwidth, error responses and connection resets injected
+ * on the server worker thread.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubEndpointAdapter extends AbstractEndpointAdapter {
+
+    private final HttpStubRouter router = new HttpStubRouter();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    private final EndpointConfiguration endpointConfiguration = new StubEndpointConfiguration();
+    private final StubEndpoint endpoint = new StubEndpoint();
+
+    public HttpStubEndpointAdapter(String name) {
+        setName(name);
+        endpoint.setName(name);
+    }
+
+    @Override
+    protected Message handleMessageInternal(Message request) {
+        Map<String, Object> headers = new LinkedCaseInsensitiveMap<>();
+        headers.putAll(request.getHeaders());
+
+        String method = String.valueOf(request.getHeader(HttpMessageHeaders.HTTP_REQUEST_METHOD));
+        String path = String.valueOf(request.getHeader(HttpMessageHeaders.HTTP_REQUEST_URI));
+
+        HttpStubRouter.Match match = router.match(method, path, headers);
+        if (match == null) {
+            unmatched.incrementAndGet();
+            log.warn(String.format("No stub route for request %s %s", method, path));
+            return new HttpMessage().status(HttpStatus.NOT_FOUND);
+        }
+
+        HttpStubRoute route = match.getRoute();
+        HttpStubFault fault = route.getFault();
+        if (fault == null) {
+            return route.respond(match.getParams());
+        }
+
+        return respondWithFault(route, fault, match.getParams());
+    }
+
+    /**
+     * Creates route response with injected faults. Latency is added first, then the connection reset and error response
+     * decisions are drawn. Regular responses are written with the limited bandwidth.
+     * @param route
+     * @param fault
+     * @param params
+     * @return
+     */
+    private Message respondWithFault(HttpStubRoute route, HttpStubFault fault, Map<String, String> params) {
+        pause(fault.nextLatency());
+
+        if (fault.nextReset()) {
+            route.countHit();
+            resetConnection(route);
+            return new HttpMessage().status(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        if (fault.nextError()) {
+            route.countHit();
+            return new HttpMessage().status(HttpStatus.valueOf(fault.getErrorStatus()));
+        }
+
+        HttpMessage response = route.respond(params);
+        if (fault.getBandwidth() > 0L) {
+            throttle(route, fault.getBandwidth());
+        }
+        return response;
+    }
+
+    /**
+     * Aborts the connection of the current request on the underlying Jetty channel.
+     * @param route
+     */
+    private void resetConnection(HttpStubRoute route) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            Request request = Request.getBaseRequest(((ServletRequestAttributes) attributes).getRequest());
+            if (request != null) {
+                log.info(String.format("Resetting connection on stub route %s", route));
+                request.getHttpChannel().abort(new IOException(String.format("Connection reset on stub route %s", route)));
+                return;
+            }
+        }
+
+        log.warn(String.format("Unable to reset connection on stub route %s - missing Jetty request", route));
+    }
+
+    /**
+     * Limits the bandwidth of the response body. The stub throttle filter on the Http server writes the body in chunks
+     * with the bandwidth set as request attribute.
+     * @param route
+     * @param bandwidth bytes per second.
+     */
+    private void throttle(HttpStubRoute route, long bandwidth) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            log.warn(String.format("Unable to limit bandwidth on stub route %s - missing request", route));
+            return;
+        }
+
+        attributes.setAttribute(HttpStubThrottleFilter.BANDWIDTH_ATTRIBUTE, bandwidth, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private void pause(long millis) {
+        if (millis <= 0L) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while injecting stub route faults", e);
+        }
+    }
+
+    /**
+     * Gets the router holding all stub routes.
+     * @return
+     */
+    public HttpStubRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * Gets the number of requests that did not match any route.
+     * @return
+     */
+    public long getUnmatched() {
+        return unmatched.get();
+    }
+
+    /**
+     * Removes all routes and resets the unmatched request count.
+     */
+    public void reset() {
+        router.clear();
+        unmatched.set(0L);
+    }
+
+    @Override
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public EndpointConfiguration getEndpointConfiguration() {
+        return endpointConfiguration;
+    }
+
+    private static class StubEndpointConfiguration extends AbstractEndpointConfiguration {
+    }
+
+    /**
+     * Stub routes answer all requests so test steps are not able to receive requests or send responses.
+     */
+    private class StubEndpoint extends AbstractEndpoint {
+
+        StubEndpoint() {
+            super(endpointConfiguration);
+        }
+
+        @Override
+        public Producer createProducer() {
+            throw new CitrusRuntimeException(String.format("Unable to send response on HTTP server '%s' in stub mode", getName()));
+        }
+
+        @Override
+        public Consumer createConsumer() {
+            throw new CitrusRuntimeException(String.format("Unable to receive request on HTTP server '%s' in stub mode", getName()));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * Faults injected into the responses of a stub route: latency, limited bandwidth, error responses and connection resets.
+ * Random decisions use a seeded random generator so runs with the same request sequence are repeatable. Faults are given
+ * as definitions with the same structure as the faults section of a YAML route:
+ *
+ * <pre>
+ * faults:
+ *   latency:
+ *     distribution: normal
+ *     mean: 200
+ *     deviation: 50
+ *   bandwidth: 10240
+ *   errorRate: 5%
+ *   errorStatus: 503
+ *   resetRate: 0.01
+ *   seed: 42
+ * </pre>
+ *
+ * Latency distributions are fixed (latency given as plain number), uniform (min, max), normal (mean, deviation) and
+ * percentiles (recorded latency histogram as map of percentile to latency, e.g. 50: 20, 99: 250).
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubFault {
+
+    private final Random random;
+
+    private LatencyDistribution latency;
+    private long bandwidth;
+    private double errorRate;
+    private int errorStatus = 503;
+    private double resetRate;
+
+    public HttpStubFault(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates faults from given definition. Values are resolved with the test context.
+     * @param definition
+     * @param defaultSeed seed used when the definition does not set a seed.
+     * @param context
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static HttpStubFault fromDefinition(Map<String, Object> definition, long defaultSeed, TestContext context) {
+        long seed = definition.containsKey("seed") ? Long.parseLong(resolve(definition.get("seed"), context)) : defaultSeed;
+        HttpStubFault fault = new HttpStubFault(seed);
+
+        Object latency = definition.get("latency");
+        if (latency instanceof Map) {
+            fault.setLatency(createLatency((Map<String, Object>) latency, context));
+        } else if (latency != null) {
+            fault.setLatency(LatencyDistribution.fixed(Long.parseLong(resolve(latency, context))));
+        }
+
+        if (definition.containsKey("bandwidth")) {
+            fault.setBandwidth(Long.parseLong(resolve(definition.get("bandwidth"), context)));
+        }
+
+        if (definition.containsKey("errorRate")) {
+            fault.setErrorRate(parseRate(resolve(definition.get("errorRate"), context)));
+        }
+
+        if (definition.containsKey("errorStatus")) {
+            fault.setErrorStatus(Integer.parseInt(resolve(definition.get("errorStatus"), context)));
+        }
+
+        if (definition.containsKey("resetRate")) {
+            fault.setResetRate(parseRate(resolve(definition.get("resetRate"), context)));
+        }
+
+        return fault;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LatencyDistribution createLatency(Map<String, Object> latency, TestContext context) {
+        String distribution = resolve(latency.getOrDefault("distribution", "fixed"), context);
+        switch (distribution) {
+            case "fixed":
+                return LatencyDistribution.fixed(Long.parseLong(resolve(latency.get("value"), context)));
+            case "uniform":
+                return LatencyDistribution.uniform(Long.parseLong(resolve(latency.get("min"), context)),
+                        Long.parseLong(resolve(latency.get("max"), context)));
+            case "normal":
+                return LatencyDistribution.normal(Double.parseDouble(resolve(latency.get("mean"), context)),
+                        Double.parseDouble(resolve(latency.get("deviation"), context)));
+            case "percentiles":
+                Map<Double, Long> percentiles = new LinkedHashMap<>();
+                Object values = latency.get("percentiles");
+                if (values instanceof Map) {
+                    ((Map<Object, Object>) values).forEach((percentile, value) ->
+                            percentiles.put(parsePercentile(resolve(percentile, context)), Long.parseLong(resolve(value, context))));
+                } else if (values != null) {
+                    for (String entry : resolve(values, context).split(";")) {
+                        String[] keyValue = entry.split("=", 2);
+                        if (keyValue.length == 2) {
+                            percentiles.put(parsePercentile(keyValue[0]), Long.parseLong(keyValue[1].trim()));
+                        }
+                    }
+                }
+                return LatencyDistribution.percentiles(percentiles);
+            default:
+                throw new CitrusRuntimeException(String.format("Unsupported latency distribution '%s' - " +
+                        "please use one of fixed, uniform, normal, percentiles", distribution));
+        }
+    }
+
+    private static double parsePercentile(String percentile) {
+        String value = percentile.trim();
+        if (value.startsWith("p")) {
+            value = value.substring(1);
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Parses rate given as fraction (0.05) or percentage (5%).
+     * @param rate
+     * @return
+     */
+    static double parseRate(String rate) {
+        String value = rate.trim();
+        if (value.endsWith("%")) {
+            return Double.parseDouble(value.substring(0, value.length() - 1).trim()) / 100D;
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static String resolve(Object value, TestContext context) {
+        if (value == null) {
+            throw new CitrusRuntimeException("Missing value in stub route faults");
+        }
+
+        return context.replaceDynamicContentInString(String.valueOf(value));
+    }
+
+    /**
+     * Draws the latency to add to the next response.
+     * @return latency in milliseconds.
+     */
+    public long nextLatency() {
+        if (latency == null) {
+            return 0L;
+        }
+
+        synchronized (random) {
+            return latency.sample(random);
+        }
+    }
+
+    /**
+     * Decides if the next request gets an error response.
+     * @return
+     */
+    public boolean nextError() {
+        return errorRate > 0D && nextDouble() < errorRate;
+    }
+
+    /**
+     * Decides if the connection of the next request is reset.
+     * @return
+     */
+    public boolean nextReset() {
+        return resetRate > 0D && nextDouble() < resetRate;
+    }
+
+    private double nextDouble() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+
+    public void setLatency(LatencyDistribution latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Gets the maximum number of response body bytes per second or zero for unlimited bandwidth.
+     * @return
+     */
+    public long getBandwidth() {
+        return bandwidth;
+    }
+
+    public void setBandwidth(long bandwidth) {
+        this.bandwidth = bandwidth;
+    }
+
+    /**
+     * Sets the fraction (0 - 1) of requests answered with the error status.
+     * @param errorRate
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Sets the fraction (0 - 1) of requests with a connection reset.
+     * @param resetRate
+     */
+    public void setResetRate(double resetRate) {
+        this.resetRate = resetRate;
+    }
+}
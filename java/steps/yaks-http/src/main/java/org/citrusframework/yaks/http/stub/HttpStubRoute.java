@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.http.message.HttpMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+/**
+ * Stub route answers requests matching request method, path pattern and header predicates with a templated response.
+ * The path pattern supports parameter segments (e.g. /todo/{id}), single segment wildcards (*) and a trailing multi segment
+ * wildcard (**). Parameter values are available as placeholders in the response body template.
+ *
+ * The route counts the requests it has answered.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubRoute {
+
+    /** Method matching any request method */
+    public static final String ANY_METHOD = "*";
+
+    /** Header predicate value matching any header value */
+    public static final String ANY_VALUE = "*";
+
+    private final String method;
+    private final String path;
+    private final List<String> segments;
+    private final List<String> paramNames;
+    private final Map<String, String> requestHeaders;
+
+    private final int status;
+    private final Map<String, HttpStubTemplate> responseHeaders;
+    private final HttpStubTemplate body;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private volatile HttpStubFault fault;
+
+    public HttpStubRoute(String method, String path, Map<String, String> requestHeaders,
+                         int status, Map<String, HttpStubTemplate> responseHeaders, HttpStubTemplate body) {
+        this.method = method.toUpperCase();
+        this.path = path;
+        this.segments = getSegments(path);
+        this.paramNames = parseParamNames(path);
+        this.requestHeaders = requestHeaders;
+        this.status = status;
+        this.responseHeaders = responseHeaders;
+        this.body = body;
+    }
+
+    /**
+     * Splits given path into its segments.
+     * @param path
+     * @return
+     */
+    public static List<String> getSegments(String path) {
+        if (!StringUtils.hasText(path)) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(path.split("/"))
+                .filter(StringUtils::hasLength)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the names of all path parameters in given path pattern.
+     * @param path
+     * @return
+     */
+    public static List<String> parseParamNames(String path) {
+        List<String> names = new ArrayList<>();
+        for (String segment : getSegments(path)) {
+            if (isParam(segment)) {
+                names.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return names;
+    }
+
+    static boolean isParam(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    /**
+     * Checks request method and header predicates of this route.
+     * @param requestMethod
+     * @param headers
+     * @return
+     */
+    public boolean matches(String requestMethod, Map<String, Object> headers) {
+        if (!method.equals(ANY_METHOD) && !method.equalsIgnoreCase(requestMethod)) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> predicate : requestHeaders.entrySet()) {
+            Object value = headers.get(predicate.getKey());
+            if (value == null || !(predicate.getValue().equals(ANY_VALUE) || predicate.getValue().equals(value.toString()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates the response for a request with given path parameter values and counts the hit.
+     * @param params
+     * @return
+     */
+    public HttpMessage respond(Map<String, String> params) {
+        countHit();
+
+        HttpMessage response = new HttpMessage(body.render(params));
+        response.status(HttpStatus.valueOf(status));
+        responseHeaders.forEach((name, value) -> response.setHeader(name, value.render(params)));
+        return response;
+    }
+
+    /**
+     * Counts a request answered by this route without using the route response, e.g. on injected faults.
+     */
+    void countHit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Checks if given route handles the same requests as this route.
+     * @param route
+     * @return
+     */
+    public boolean isSameRoute(HttpStubRoute route) {
+        return method.equals(route.method) && segments.equals(route.segments) && requestHeaders.equals(route.requestHeaders);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    List<String> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Gets the names of the path parameters in order of appearance.
+     * @return
+     */
+    public List<String> getParamNames() {
+        return paramNames;
+    }
+
+    /**
+     * Gets the number of requests answered by this route.
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the faults injected into responses of this route or null when the route answers without faults.
+     * @return
+     */
+    public HttpStubFault getFault() {
+        return fault;
+    }
+
+    public void setFault(HttpStubFault fault) {
+        this.fault = fault;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + (requestHeaders.isEmpty() ? "" : " " + requestHeaders);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Routes requests to stub routes. Routes are kept in a trie with one node per path segment so matching a request path takes
+ * one lookup per segment regardless of the number of registered routes. Literal segments take precedence over parameter
+ * segments, parameter segments over single segment wildcards and single segment wildcards over the trailing multi segment
+ * wildcard. Routes on the same node are checked in order of registration.
+ *
+ * Routes may be registered while the router handles requests.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubRouter {
+
+    private static final String WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Node root = new Node();
+    private final List<HttpStubRoute> routes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds new route. Replaces an existing route handling the same requests.
+     * @param route
+     */
+    public synchronized void add(HttpStubRoute route) {
+        Node node = root;
+        for (String segment : route.getSegments()) {
+            if (HttpStubRoute.isParam(segment)) {
+                if (node.param == null) {
+                    node.param = new Node();
+                }
+                node = node.param;
+            } else if (segment.equals(MULTI_WILDCARD)) {
+                if (node.multiWildcard == null) {
+                    node.multiWildcard = new Node();
+                }
+                node = node.multiWildcard;
+                break;
+            } else if (segment.equals(WILDCARD)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+
+        for (HttpStubRoute existing : node.routes) {
+            if (existing.isSameRoute(route)) {
+                node.routes.remove(existing);
+                routes.remove(existing);
+            }
+        }
+
+        node.routes.add(route);
+        routes.add(route);
+    }
+
+    /**
+     * Finds the route for given request.
+     * @param method
+     * @param path
+     * @param headers
+     * @return the match holding route and path parameter values or null when no route matches.
+     */
+    public Match match(String method, String path, Map<String, Object> headers) {
+        List<String> segments = HttpStubRoute.getSegments(path);
+        return match(root, segments, 0, new ArrayList<>(), method, headers);
+    }
+
+    private Match match(Node node, List<String> segments, int index, List<String> values, String method, Map<String, Object> headers) {
+        if (index == segments.size()) {
+            Match match = matchRoutes(node, values, method, headers);
+            if (match != null) {
+                return match;
+            }
+        } else {
+            String segment = segments.get(index);
+
+            Node child = node.children.get(segment);
+            if (child != null) {
+                Match match = match(child, segments, index + 1, values, method, headers);
+                if (match != null) {
+                    return match;
+                }
+            }
+
+            Node param = node.param;
+            if (param != null) {
+                values.add(segment);
+                Match match = match(param, segments, index + 1, values, method, headers);
+                if (match != null) {
+                    return match;
+                }
+                values.remove(values.size() - 1);
+            }
+
+            Node wildcard = node.wildcard;
+            if (wildcard != null) {
+                Match match = match(wildcard, segments, index + 1, values, method, headers);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+
+        Node multiWildcard = node.multiWildcard;
+        if (multiWildcard != null) {
+            return matchRoutes(multiWildcard, values, method, headers);
+        }
+
+        return null;
+    }
+
+    private Match matchRoutes(Node node, List<String> values, String method, Map<String, Object> headers) {
+        for (HttpStubRoute route : node.routes) {
+            if (route.matches(method, headers)) {
+                return new Match(route, getParams(route, values));
+            }
+        }
+
+        return null;
+    }
+
+    private static Map<String, String> getParams(HttpStubRoute route, List<String> values) {
+        if (values.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<String> names = route.getParamNames();
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < names.size() && i < values.size(); i++) {
+            params.put(names.get(i), values.get(i));
+        }
+        return params;
+    }
+
+    /**
+     * Gets all registered routes.
+     * @return
+     */
+    public List<HttpStubRoute> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Removes all routes.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        root.param = null;
+        root.wildcard = null;
+        root.multiWildcard = null;
+        root.routes.clear();
+        routes.clear();
+    }
+
+    /**
+     * Route trie node.
+     */
+    private static class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final List<HttpStubRoute> routes = new CopyOnWriteArrayList<>();
+
+        private volatile Node param;
+        private volatile Node wildcard;
+        private volatile Node multiWildcard;
+    }
+
+    /**
+     * Matching route with path parameter values.
+     */
+    public static class Match {
+        private final HttpStubRoute route;
+        private final Map<String, String> params;
+
+        Match(HttpStubRoute route, Map<String, String> params) {
+            this.route = route;
+            this.params = params;
+        }
+
+        public HttpStubRoute getRoute() {
+            return route;
+        }
+
+        public Map<String, String> getParams() {
+            return params;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.util.FileUtils;
+import org.citrusframework.yaks.http.capture.HttpCaptureLog;
+import org.citrusframework.yaks.http.capture.HttpExchangeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Test action registers stub routes on a Http server in stub mode. Routes are given as definitions with the same structure
+ * as the YAML route files:
+ *
+ * <pre>
+ * routes:
+ *   - method: GET
+ *     path: /todo/{id}
+ *     headers:
+ *       Accept: application/json
+ *     response:
+ *       status: 200
+ *       contentType: application/json
+ *       headers:
+ *         X-TodoId: ${id}
+ *       body: |
+ *         {"id": "${id}", "task": "Sample task"}
+ *     faults:
+ *       latency: 100
+ *       errorRate: 5%
+ * </pre>
+ *
+ * See {@link HttpStubFault} for the faults section. Faults may also be set on already registered routes.
+ *
+ * Routes are also created from the exchanges of a Http capture log. Each captured method and path becomes a route
+ * answering with the response of the latest captured exchange. Optionally the route adds latencies following the
+ * distribution of the captured response times.
+ *
+ * Header values and response body are resolved with the test context once when the route is registered. Path parameter
+ * placeholders in response headers and body are replaced on each request.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubRoutesAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(HttpStubRoutesAction.class);
+
+    /** Captured response headers not copied to stub routes */
+    private static final List<String> CAPTURED_HEADERS_SKIPPED = Arrays.asList(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.DATE, HttpHeaders.SERVER);
+
+    private final HttpStubEndpointAdapter endpointAdapter;
+    private final List<Map<String, Object>> routes;
+    private final String resource;
+    private final List<RouteFaults> faults;
+    private final String capture;
+    private final boolean recordedLatency;
+
+    public HttpStubRoutesAction(Builder builder) {
+        super("http-stub-routes", builder);
+
+        this.endpointAdapter = builder.endpointAdapter;
+        this.routes = builder.routes;
+        this.resource = builder.resource;
+        this.faults = builder.faults;
+        this.capture = builder.capture;
+        this.recordedLatency = builder.recordedLatency;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        List<Map<String, Object>> definitions = new ArrayList<>(routes);
+        if (resource != null) {
+            definitions.addAll(loadRoutes(context.replaceDynamicContentInString(resource), context));
+        }
+
+        for (Map<String, Object> definition : definitions) {
+            HttpStubRoute route = createRoute(definition, context);
+            endpointAdapter.getRouter().add(route);
+            LOG.info(String.format("Registered stub route %s", route));
+        }
+
+        if (capture != null) {
+            String capturePath = context.replaceDynamicContentInString(capture);
+            for (HttpStubRoute route : createCapturedRoutes(HttpCaptureLog.read(capturePath, context), recordedLatency)) {
+                endpointAdapter.getRouter().add(route);
+                LOG.info(String.format("Registered stub route %s from capture log %s", route, capturePath));
+            }
+        }
+
+        for (RouteFaults routeFaults : faults) {
+            String method = routeFaults.method.toUpperCase();
+            String path = context.replaceDynamicContentInString(routeFaults.path);
+
+            List<HttpStubRoute> matching = endpointAdapter.getRouter().getRoutes().stream()
+                    .filter(route -> route.getMethod().equals(method) && route.getPath().equals(path))
+                    .collect(Collectors.toList());
+
+            if (matching.isEmpty()) {
+                throw new CitrusRuntimeException(String.format("Unable to find stub route %s %s", method, path));
+            }
+
+            for (HttpStubRoute route : matching) {
+                route.setFault(createFault(routeFaults.definition, route, context));
+                LOG.info(String.format("Added faults to stub route %s", route));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> loadRoutes(String resourcePath, TestContext context) {
+        try (InputStream in = FileUtils.getFileResource(resourcePath, context).getInputStream()) {
+            Object yaml = new Yaml().load(in);
+            if (yaml instanceof Map) {
+                yaml = ((Map<String, Object>) yaml).getOrDefault("routes", Collections.emptyList());
+            }
+
+            if (!(yaml instanceof List)) {
+                throw new CitrusRuntimeException(String.format("Invalid stub routes in %s - expected list of routes", resourcePath));
+            }
+
+            return (List<Map<String, Object>>) yaml;
+        } catch (IOException e) {
+            throw new CitrusRuntimeException(String.format("Failed to load stub routes from %s", resourcePath), e);
+        }
+    }
+
+    /**
+     * Creates one route per captured method and path. The latest captured exchange defines the response. Captured
+     * response times become a latency distribution of percentiles when recorded latency is enabled.
+     * @param records
+     * @param recordedLatency
+     * @return
+     */
+    private static List<HttpStubRoute> createCapturedRoutes(List<HttpExchangeRecord> records, boolean recordedLatency) {
+        Map<String, List<HttpExchangeRecord>> exchanges = new LinkedHashMap<>();
+        for (HttpExchangeRecord record : records) {
+            String path = record.getPathAndQuery().split("\\?", 2)[0];
+            exchanges.computeIfAbsent(record.getMethod().toUpperCase() + " " + path, key -> new ArrayList<>()).add(record);
+        }
+
+        List<HttpStubRoute> routes = new ArrayList<>();
+        for (Map.Entry<String, List<HttpExchangeRecord>> entry : exchanges.entrySet()) {
+            String[] methodAndPath = entry.getKey().split(" ", 2);
+            HttpExchangeRecord latest = entry.getValue().get(entry.getValue().size() - 1);
+
+            Map<String, HttpStubTemplate> responseHeaders = new LinkedHashMap<>();
+            latest.getResponseHeaders().forEach((name, value) -> {
+                if (CAPTURED_HEADERS_SKIPPED.stream().noneMatch(name::equalsIgnoreCase)) {
+                    responseHeaders.put(name, HttpStubTemplate.literal(value));
+                }
+            });
+
+            HttpStubRoute route = new HttpStubRoute(methodAndPath[0], methodAndPath[1], new LinkedCaseInsensitiveMap<>(),
+                    latest.getStatus(), responseHeaders, HttpStubTemplate.literal(latest.getResponseBody()));
+
+            if (recordedLatency) {
+                HttpStubFault fault = new HttpStubFault(route.toString().hashCode());
+                fault.setLatency(LatencyDistribution.percentiles(getPercentiles(entry.getValue())));
+                route.setFault(fault);
+            }
+
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    /**
+     * Gets the captured response times at a fixed set of percentiles.
+     * @param records
+     * @return
+     */
+    private static Map<Double, Long> getPercentiles(List<HttpExchangeRecord> records) {
+        long[] durations = records.stream().mapToLong(HttpExchangeRecord::getDuration).sorted().toArray();
+
+        Map<Double, Long> percentiles = new LinkedHashMap<>();
+        for (double percentile : new double[] { 0D, 50D, 90D, 99D, 100D }) {
+            int rank = (int) Math.ceil(percentile / 100D * durations.length) - 1;
+            percentiles.put(percentile, durations[Math.max(0, Math.min(rank, durations.length - 1))]);
+        }
+        return percentiles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpStubRoute createRoute(Map<String, Object> definition, TestContext context) {
+        if (!definition.containsKey("path")) {
+            throw new CitrusRuntimeException(String.format("Missing path in stub route %s", definition));
+        }
+
+        String method = String.valueOf(definition.getOrDefault("method", HttpStubRoute.ANY_METHOD));
+        String path = context.replaceDynamicContentInString(String.valueOf(definition.get("path")));
+
+        Map<String, Object> response = (Map<String, Object>) definition.getOrDefault("response", Collections.emptyMap());
+        int status = Integer.parseInt(String.valueOf(response.getOrDefault("status", "200")));
+
+        List<String> paramNames = HttpStubRoute.parseParamNames(path);
+
+        Map<String, HttpStubTemplate> responseHeaders = new LinkedHashMap<>();
+        Map<String, Object> headers = (Map<String, Object>) response.getOrDefault("headers", Collections.emptyMap());
+        headers.forEach((name, value) -> responseHeaders.put(name, HttpStubTemplate.compile(String.valueOf(value), paramNames, context)));
+        if (response.containsKey("contentType")) {
+            responseHeaders.put(HttpHeaders.CONTENT_TYPE,
+                    HttpStubTemplate.compile(String.valueOf(response.get("contentType")), paramNames, context));
+        }
+
+        Object body = response.get("body");
+        HttpStubTemplate template = HttpStubTemplate.compile(body != null ? String.valueOf(body) : null, paramNames, context);
+
+        HttpStubRoute route = new HttpStubRoute(method, path, resolveHeaders((Map<String, Object>) definition.get("headers"), context),
+                status, responseHeaders, template);
+
+        if (definition.get("faults") instanceof Map) {
+            route.setFault(createFault((Map<String, Object>) definition.get("faults"), route, context));
+        }
+
+        return route;
+    }
+
+    /**
+     * Creates route faults. Routes without explicit seed use a seed derived from the route so runs are repeatable.
+     * @param definition
+     * @param route
+     * @param context
+     * @return
+     */
+    private static HttpStubFault createFault(Map<String, Object> definition, HttpStubRoute route, TestContext context) {
+        return HttpStubFault.fromDefinition(definition, route.toString().hashCode(), context);
+    }
+
+    private static Map<String, String> resolveHeaders(Map<String, Object> headers, TestContext context) {
+        Map<String, String> resolved = new LinkedCaseInsensitiveMap<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> resolved.put(name, context.replaceDynamicContentInString(String.valueOf(value))));
+        }
+        return resolved;
+    }
+
+    /**
+     * Fault definition for already registered routes.
+     */
+    private static class RouteFaults {
+        private final String method;
+        private final String path;
+        private final Map<String, Object> definition;
+
+        RouteFaults(String method, String path, Map<String, Object> definition) {
+            this.method = method;
+            this.path = path;
+            this.definition = definition;
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<HttpStubRoutesAction, Builder> {
+
+        private HttpStubEndpointAdapter endpointAdapter;
+        private final List<Map<String, Object>> routes = new ArrayList<>();
+        private String resource;
+        private final List<RouteFaults> faults = new ArrayList<>();
+        private String capture;
+        private boolean recordedLatency;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder stubRoutes() {
+            return new Builder();
+        }
+
+        public Builder endpointAdapter(HttpStubEndpointAdapter endpointAdapter) {
+            this.endpointAdapter = endpointAdapter;
+            return this;
+        }
+
+        public Builder route(Map<String, Object> definition) {
+            this.routes.add(definition);
+            return this;
+        }
+
+        public Builder routes(List<Map<String, Object>> definitions) {
+            this.routes.addAll(definitions);
+            return this;
+        }
+
+        /**
+         * Loads routes from given YAML file resource.
+         * @param resource
+         * @return
+         */
+        public Builder resource(String resource) {
+            this.resource = resource;
+            return this;
+        }
+
+        /**
+         * Creates routes from the exchanges in given Http capture log.
+         * @param capture
+         * @param recordedLatency add latencies following the captured response times.
+         * @return
+         */
+        public Builder capture(String capture, boolean recordedLatency) {
+            this.capture = capture;
+            this.recordedLatency = recordedLatency;
+            return this;
+        }
+
+        /**
+         * Sets faults on already registered routes with given method and path pattern.
+         * @param method
+         * @param path
+         * @param definition
+         * @return
+         */
+        public Builder faults(String method, String path, Map<String, Object> definition) {
+            this.faults.add(new RouteFaults(method, path, definition));
+            return this;
+        }
+
+        @Override
+        public HttpStubRoutesAction build() {
+            if (endpointAdapter == null) {
+                throw new CitrusRuntimeException("Missing stub endpoint adapter - please enable stub mode on HTTP server");
+            }
+
+            return new HttpStubRoutesAction(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.consol.citrus.context.TestContext;
+
+/**
+ * Response body template compiled once when the route is registered. Test variables and functions are resolved at compile
+ * time. Placeholders referencing path parameters of the route (e.g. ${id} for path /todo/{id}) stay in the template and are
+ * replaced with the actual parameter value on each request.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubTemplate {
+
+    private final List<String> literals;
+    private final List<String> params;
+
+    private HttpStubTemplate(List<String> literals, List<String> params) {
+        this.literals = literals;
+        this.params = params;
+    }
+
+    /**
+     * Compiles given template. Resolves all placeholders except for the given path parameter names in the test context.
+     * @param template
+     * @param paramNames
+     * @param context
+     * @return
+     */
+    public static HttpStubTemplate compile(String template, Collection<String> paramNames, TestContext context) {
+        if (template == null) {
+            return new HttpStubTemplate(Collections.singletonList(""), Collections.emptyList());
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < template.length()) {
+            int start = template.indexOf("${", position);
+            int end = start < 0 ? -1 : template.indexOf('}', start);
+            if (end < 0) {
+                literal.append(template, position, template.length());
+                break;
+            }
+
+            String name = template.substring(start + 2, end);
+            if (paramNames.contains(name)) {
+                literal.append(template, position, start);
+                literals.add(context.replaceDynamicContentInString(literal.toString()));
+                params.add(name);
+                literal.setLength(0);
+            } else {
+                literal.append(template, position, end + 1);
+            }
+
+            position = end + 1;
+        }
+
+        literals.add(context.replaceDynamicContentInString(literal.toString()));
+        return new HttpStubTemplate(literals, params);
+    }
+
+    /**
+     * Creates template rendering given value as is without resolving any placeholders.
+     * @param value
+     * @return
+     */
+    public static HttpStubTemplate literal(String value) {
+        return new HttpStubTemplate(Collections.singletonList(value != null ? value : ""), Collections.emptyList());
+    }
+
+    /**
+     * Renders the template with given path parameter values.
+     * @param values
+     * @return
+     */
+    public String render(Map<String, String> values) {
+        if (params.isEmpty()) {
+            return literals.get(0);
+        }
+
+        StringBuilder result = new StringBuilder(literals.get(0));
+        for (int i = 0; i < params.size(); i++) {
+            result.append(values.getOrDefault(params.get(i), ""));
+            result.append(literals.get(i + 1));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter limits the bandwidth of stub responses. The stub endpoint adapter sets the bandwidth of the matched
+ * route as request attribute and the response body is then written in chunks at that rate. Responses without
+ * bandwidth attribute are written as is.
+ *
+ * @author Christoph Deppisch
+ */
+public class HttpStubThrottleFilter extends OncePerRequestFilter {
+
+    /** Filter name on the Http server */
+    public static final String FILTER_NAME = "yaks-http-stub-throttle-filter";
+
+    /** Request attribute holding the bandwidth in bytes per second */
+    public static final String BANDWIDTH_ATTRIBUTE = HttpStubThrottleFilter.class.getName() + ".bandwidth";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, new ThrottledResponseWrapper(request, response));
+    }
+
+    /**
+     * Response wrapper throttles the response output stream once the bandwidth attribute is set on the request.
+     */
+    private static class ThrottledResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+
+        ThrottledResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            Object bandwidth = request.getAttribute(BANDWIDTH_ATTRIBUTE);
+            if (!(bandwidth instanceof Long) || (Long) bandwidth <= 0L) {
+                return super.getOutputStream();
+            }
+
+            if (outputStream == null) {
+                outputStream = new ThrottledServletOutputStream(super.getOutputStream(), (Long) bandwidth);
+            }
+
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * Distribution of latencies in milliseconds added to stub responses.
+ *
+ * @author Christoph Deppisch
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws next latency in milliseconds.
+     * @param random
+     * @return
+     */
+    long sample(Random random);
+
+    /**
+     * Constant latency.
+     * @param latency
+     * @return
+     */
+    static LatencyDistribution fixed(long latency) {
+        return random -> latency;
+    }
+
+    /**
+     * Latency uniformly distributed between min and max.
+     * @param min
+     * @param max
+     * @return
+     */
+    static LatencyDistribution uniform(long min, long max) {
+        if (max < min) {
+            throw new CitrusRuntimeException(String.format("Invalid uniform latency distribution - min %d > max %d", min, max));
+        }
+
+        return random -> min + (long) (random.nextDouble() * (max - min + 1));
+    }
+
+    /**
+     * Normally distributed latency with given mean and standard deviation. Negative samples are cut to zero.
+     * @param mean
+     * @param deviation
+     * @return
+     */
+    static LatencyDistribution normal(double mean, double deviation) {
+        return random -> Math.max(0L, Math.round(mean + random.nextGaussian() * deviation));
+    }
+
+    /**
+     * Latency following a recorded histogram given as percentiles (e.g. p50=20, p90=80, p99=250, p100=400).
+     * Samples are interpolated linearly between the given percentiles. Percentiles below the lowest given percentile use the
+     * lowest latency.
+     * @param percentiles mapping percentile (0 - 100) to latency in milliseconds.
+     * @return
+     */
+    static LatencyDistribution percentiles(Map<Double, Long> percentiles) {
+        if (percentiles.isEmpty()) {
+            throw new CitrusRuntimeException("Missing percentiles for recorded latency distribution");
+        }
+
+        TreeMap<Double, Long> sorted = new TreeMap<>(percentiles);
+        return random -> {
+            double percentile = random.nextDouble() * 100D;
+
+            Map.Entry<Double, Long> lower = sorted.floorEntry(percentile);
+            Map.Entry<Double, Long> upper = sorted.ceilingEntry(percentile);
+            if (lower == null) {
+                return upper.getValue();
+            }
+
+            if (upper == null || upper.getKey().equals(lower.getKey())) {
+                return lower.getValue();
+            }
+
+            double fraction = (percentile - lower.getKey()) / (upper.getKey() - lower.getKey());
+            return Math.round(lower.getValue() + fraction * (upper.getValue() - lower.getValue()));
+        };
+    }
+}
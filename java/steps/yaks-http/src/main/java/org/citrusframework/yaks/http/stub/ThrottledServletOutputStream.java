@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream writes to the delegate stream with limited bandwidth. Data is written and flushed in chunks of a tenth of
+ * the bandwidth and the stream pauses after each chunk until the bytes written so far match the bandwidth.
+ *
+ * @author Christoph Deppisch
+ */
+public class ThrottledServletOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final long bandwidth;
+    private final int chunkSize;
+
+    private long written = 0L;
+    private long start = -1L;
+
+    /**
+     * Constructor using delegate stream and bandwidth.
+     * @param delegate
+     * @param bandwidth bytes per second.
+     */
+    public ThrottledServletOutputStream(ServletOutputStream delegate, long bandwidth) {
+        if (bandwidth <= 0L) {
+            throw new IllegalArgumentException(String.format("Invalid bandwidth %d - must be greater than zero", bandwidth));
+        }
+
+        this.delegate = delegate;
+        this.bandwidth = bandwidth;
+        this.chunkSize = (int) Math.max(1L, Math.min(bandwidth / 10, 8192L));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (start < 0L) {
+            start = System.nanoTime();
+        }
+
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, chunkSize);
+            delegate.write(b, offset, chunk);
+            delegate.flush();
+
+            offset += chunk;
+            remaining -= chunk;
+            written += chunk;
+            pause();
+        }
+    }
+
+    /**
+     * Waits until the time elapsed since the first write matches the time needed to transfer the written bytes.
+     */
+    private void pause() throws IOException {
+        long wait = TimeUnit.SECONDS.toNanos(written) / bandwidth - (System.nanoTime() - start);
+        if (wait <= 0L) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing throttled response");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+        return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        delegate.setWriteListener(writeListener);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test action verifies the number of requests answered by a stub route or the number of requests that did not match
+ * any stub route.
+ *
+ * @author Christoph Deppisch
+ */
+public class VerifyHttpStubAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(VerifyHttpStubAction.class);
+
+    private final HttpStubEndpointAdapter endpointAdapter;
+    private final String method;
+    private final String path;
+    private final String operator;
+    private final long count;
+
+    public VerifyHttpStubAction(Builder builder) {
+        super("verify-http-stub", builder);
+
+        this.endpointAdapter = builder.endpointAdapter;
+        this.method = builder.method;
+        this.path = builder.path;
+        this.operator = builder.operator;
+        this.count = builder.count;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        String description;
+        long actual;
+
+        if (path == null) {
+            description = "unmatched requests";
+            actual = endpointAdapter.getUnmatched();
+        } else {
+            String routePath = context.replaceDynamicContentInString(path);
+            List<HttpStubRoute> routes = endpointAdapter.getRouter().getRoutes().stream()
+                    .filter(route -> route.getMethod().equalsIgnoreCase(method) && route.getPath().equals(routePath))
+                    .collect(Collectors.toList());
+
+            if (routes.isEmpty()) {
+                throw new CitrusRuntimeException(String.format("Unable to find stub route %s %s", method, routePath));
+            }
+
+            description = String.format("calls of stub route %s %s", method, routePath);
+            actual = routes.stream().mapToLong(HttpStubRoute::getHits).sum();
+        }
+
+        if (!compare(actual)) {
+            throw new ValidationException(String.format("Http stub validation failed - expected %s %d %s but was %d",
+                    operator, count, description, actual));
+        }
+
+        LOG.info(String.format("Http stub validation successful - %d %s", actual, description));
+    }
+
+    private boolean compare(long actual) {
+        switch (operator) {
+            case "exactly":
+                return actual == count;
+            case "at least":
+                return actual >= count;
+            case "at most":
+                return actual <= count;
+            default:
+                throw new CitrusRuntimeException(String.format("Unsupported comparison operator '%s'", operator));
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<VerifyHttpStubAction, Builder> {
+
+        private HttpStubEndpointAdapter endpointAdapter;
+        private String method = HttpStubRoute.ANY_METHOD;
+        private String path;
+        private String operator = "exactly";
+        private long count;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder verifyStub() {
+            return new Builder();
+        }
+
+        public Builder endpointAdapter(HttpStubEndpointAdapter endpointAdapter) {
+            this.endpointAdapter = endpointAdapter;
+            return this;
+        }
+
+        /**
+         * Verify calls of the route with given method and path pattern.
+         * @param method
+         * @param path
+         * @return
+         */
+        public Builder route(String method, String path) {
+            this.method = method;
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Verify requests that did not match any route.
+         * @return
+         */
+        public Builder unmatched() {
+            this.path = null;
+            return this;
+        }
+
+        /**
+         * Comparison operator: exactly, at least or at most.
+         * @param operator
+         * @return
+         */
+        public Builder operator(String operator) {
+            this.operator = operator;
+            return this;
+        }
+
+        public Builder count(long count) {
+            this.count = count;
+            return this;
+        }
+
+        @Override
+        public VerifyHttpStubAction build() {
+            if (endpointAdapter == null) {
+                throw new CitrusRuntimeException("Missing stub endpoint adapter - please enable stub mode on HTTP server");
+            }
+
+            return new VerifyHttpStubAction(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.validation.ValidationProcessor;
+
+/**
+ * Runs several validation processors on the same message in order. Receive actions only hold a single validation
+ * processor so steps combine body path expressions and schema validation with this processor.
+ *
+ * @author Christoph Deppisch
+ */
+public class CompositeValidationProcessor implements ValidationProcessor {
+
+    private final List<ValidationProcessor> processors;
+
+    public CompositeValidationProcessor(List<ValidationProcessor> processors) {
+        this.processors = new ArrayList<>(processors);
+    }
+
+    @Override
+    public void validate(Message message, TestContext context) {
+        for (ValidationProcessor processor : processors) {
+            processor.validate(message, context);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.validation;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.jayway.jsonpath.JsonPath;
+import org.citrusframework.yaks.http.HttpSettings;
+
+/**
+ * Bounded least recently used cache of compiled JsonPath and XPath expressions. Expressions are keyed by message type
+ * and expression so repeated validations of the same paths skip parsing and compiling the expressions.
+ *
+ * Namespace prefixes of XPath expressions are resolved when compiling the expression, so the namespaces bound to these
+ * prefixes are part of the cache key. Compiled XPath expressions are not thread safe so callers must synchronize on the
+ * expression while evaluating.
+ *
+ * @author Christoph Deppisch
+ */
+public class PathExpressionCache {
+
+    private static final PathExpressionCache INSTANCE = new PathExpressionCache(HttpSettings.getExpressionCacheSize());
+
+    private final Map<String, Object> expressions;
+
+    private final XPathFactory xPathFactory = XPathFactory.newInstance();
+
+    public PathExpressionCache(int maxSize) {
+        this.expressions = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache instance shared by all validations.
+     * @return
+     */
+    public static PathExpressionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the compiled JsonPath expression. Compiles and caches the expression if not present.
+     * @param expression
+     * @return
+     */
+    public synchronized JsonPath getJsonPath(String expression) {
+        return (JsonPath) expressions.computeIfAbsent(key("json", expression, ""), key -> JsonPath.compile(expression));
+    }
+
+    /**
+     * Gets the compiled XPath expression. Compiles and caches the expression if not present.
+     * @param expression
+     * @param namespaceContext resolves the namespace prefixes when compiling the expression.
+     * @param namespaceKey the namespaces bound to the prefixes used in the expression.
+     * @return
+     */
+    public synchronized XPathExpression getXPath(String expression, NamespaceContext namespaceContext, String namespaceKey) {
+        return (XPathExpression) expressions.computeIfAbsent(key("xml", expression, namespaceKey), key -> {
+            try {
+                XPath xpath = xPathFactory.newXPath();
+                xpath.setNamespaceContext(namespaceContext);
+                return xpath.compile(expression);
+            } catch (XPathExpressionException e) {
+                throw new CitrusRuntimeException(String.format("Failed to compile XPath expression: %s", expression), e);
+            }
+        });
+    }
+
+    /**
+     * Gets the number of cached expressions.
+     * @return
+     */
+    public synchronized int size() {
+        return expressions.size();
+    }
+
+    /**
+     * Removes all cached expressions.
+     */
+    public synchronized void clear() {
+        expressions.clear();
+    }
+
+    private static String key(String messageType, String expression, String namespaceKey) {
+        return messageType + ":" + expression + namespaceKey;
+    }
+}
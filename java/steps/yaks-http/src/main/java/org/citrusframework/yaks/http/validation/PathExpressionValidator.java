@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.validation;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.validation.ValidationProcessor;
+import com.consol.citrus.validation.ValidationUtils;
+import com.consol.citrus.validation.json.JsonPathFunctions;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Validates message body content with JsonPath and XPath expressions. The message payload is parsed only once and all
+ * expressions are evaluated on the same document. Compiled expressions are taken from the {@link PathExpressionCache}.
+ *
+ * Expressions starting with '$' are JsonPath expressions, XPath expressions support the result type prefixes node:,
+ * node-set:, string:, number: and boolean:. XPath namespace prefixes are resolved with the Citrus namespace context of
+ * the message, i.e. the configured namespace mappings and the namespaces declared in the message. Expected values may
+ * use test variables, functions and validation matchers.
+ *
+ * Expressions this validator does not support (see {@link #supports(String)}) are ignored, callers pass these on to
+ * the Citrus path expression validation (see {@link #getUnsupported(Map)}).
+ *
+ * @author Christoph Deppisch
+ */
+public class PathExpressionValidator implements ValidationProcessor {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(PathExpressionValidator.class);
+
+    private static final String[] XPATH_RESULT_TYPES = { "node-set", "node", "string", "number", "boolean" };
+
+    private static final Pattern NAMESPACE_PREFIX = Pattern.compile("(?<![\\w.\\-:])([A-Za-z_][\\w.\\-]*):(?!:)");
+
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(PathExpressionValidator::createDocumentBuilder);
+
+    private final Map<String, Object> expressions;
+    private final PathExpressionCache cache;
+
+    public PathExpressionValidator(Map<String, Object> expressions) {
+        this(expressions, PathExpressionCache.getInstance());
+    }
+
+    public PathExpressionValidator(Map<String, Object> expressions, PathExpressionCache cache) {
+        this.expressions = new LinkedHashMap<>();
+        this.cache = cache;
+
+        expressions.forEach((expression, value) -> {
+            if (supports(expression)) {
+                this.expressions.put(expression, value);
+            }
+        });
+    }
+
+    /**
+     * Gets the expressions of given map that this validator does not support.
+     * @param expressions
+     * @return
+     */
+    public static Map<String, Object> getUnsupported(Map<String, Object> expressions) {
+        Map<String, Object> unsupported = new LinkedHashMap<>();
+        expressions.forEach((expression, value) -> {
+            if (!supports(expression)) {
+                unsupported.put(expression, value);
+            }
+        });
+        return unsupported;
+    }
+
+    /**
+     * Checks if given expression is supported. Expressions using test variables or functions, Citrus dynamic namespaces
+     * and element names that are no XPath expressions are not supported.
+     * @param expression
+     * @return
+     */
+    public static boolean supports(String expression) {
+        if (expression.contains("${") || expression.contains("citrus:")) {
+            return false;
+        }
+
+        if (expression.startsWith("$")) {
+            return true;
+        }
+
+        String path = removeResultType(expression);
+        return !path.contains("{") && (path.contains("/") || path.contains("("));
+    }
+
+    @Override
+    public void validate(Message message, TestContext context) {
+        if (expressions.isEmpty()) {
+            return;
+        }
+
+        String payload = message.getPayload(String.class);
+        if (!StringUtils.hasText(payload)) {
+            throw new ValidationException("Unable to validate message elements - receive message payload was empty");
+        }
+
+        DocumentContext json = null;
+        Document xml = null;
+        NamespaceContext namespaceContext = null;
+
+        for (Map.Entry<String, Object> entry : expressions.entrySet()) {
+            String expression = entry.getKey();
+            Object expectedValue = entry.getValue() instanceof String ?
+                    context.replaceDynamicContentInString(entry.getValue().toString()) : entry.getValue();
+
+            Object actualValue;
+            if (expression.startsWith("$")) {
+                if (json == null) {
+                    json = JsonPath.parse(payload);
+                }
+                actualValue = evaluateJsonPath(json, expression);
+            } else {
+                if (xml == null) {
+                    xml = parseXml(payload);
+                    namespaceContext = context.getNamespaceContextBuilder().buildContext(message, Collections.emptyMap());
+                }
+                actualValue = evaluateXPath(xml, namespaceContext, expression);
+            }
+
+            ValidationUtils.validateValues(actualValue, expectedValue, expression, context);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(String.format("Validating element: %s='%s': OK", expression, expectedValue));
+            }
+        }
+
+        LOG.info("Path expression validation successful: All values OK");
+    }
+
+    /**
+     * Evaluates JsonPath expression with optional trailing function such as size() or keySet().
+     * @param json
+     * @param expression
+     * @return
+     */
+    private Object evaluateJsonPath(DocumentContext json, String expression) {
+        String path = expression;
+        String function = null;
+        for (String name : JsonPathFunctions.getSupportedFunctions()) {
+            String suffix = String.format(".%s()", name);
+            if (path.endsWith(suffix)) {
+                function = name;
+                path = path.substring(0, path.length() - suffix.length());
+                break;
+            }
+        }
+
+        JsonPath compiled = cache.getJsonPath(path);
+
+        Object result;
+        try {
+            result = json.read(compiled);
+        } catch (PathNotFoundException e) {
+            throw new CitrusRuntimeException(String.format("Failed to evaluate JSON path expression: %s", path), e);
+        }
+
+        if (!compiled.isDefinite() && result instanceof List && ((List<?>) result).size() == 1) {
+            result = ((List<?>) result).get(0);
+        }
+
+        if (function != null) {
+            return JsonPathFunctions.evaluate(result, function);
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates XPath expression with optional result type prefix.
+     * @param xml
+     * @param namespaceContext
+     * @param expression
+     * @return
+     */
+    private Object evaluateXPath(Document xml, NamespaceContext namespaceContext, String expression) {
+        String path = removeResultType(expression);
+        String resultType = path.equals(expression) ? "node" : expression.substring(0, expression.length() - path.length() - 1);
+
+        XPathExpression compiled = cache.getXPath(path, namespaceContext, getNamespaceKey(path, namespaceContext));
+
+        try {
+            synchronized (compiled) {
+                switch (resultType) {
+                    case "string":
+                        return compiled.evaluate(xml, XPathConstants.STRING);
+                    case "number":
+                        return compiled.evaluate(xml, XPathConstants.NUMBER);
+                    case "boolean":
+                        return compiled.evaluate(xml, XPathConstants.BOOLEAN);
+                    case "node-set":
+                        NodeList nodes = (NodeList) compiled.evaluate(xml, XPathConstants.NODESET);
+                        List<String> values = new ArrayList<>();
+                        for (int i = 0; i < nodes.getLength(); i++) {
+                            values.add(getNodeValue(nodes.item(i)));
+                        }
+                        return values;
+                    default:
+                        Node node = (Node) compiled.evaluate(xml, XPathConstants.NODE);
+                        if (node == null) {
+                            throw new CitrusRuntimeException(String.format("No result for XPath expression: '%s'", path));
+                        }
+                        return getNodeValue(node);
+                }
+            }
+        } catch (XPathExpressionException e) {
+            throw new CitrusRuntimeException(String.format("Failed to evaluate XPath expression: %s", path), e);
+        }
+    }
+
+    /**
+     * Removes the result type prefix from given XPath expression if any.
+     * @param expression
+     * @return
+     */
+    private static String removeResultType(String expression) {
+        for (String type : XPATH_RESULT_TYPES) {
+            if (expression.startsWith(type + ":")) {
+                return expression.substring(type.length() + 1);
+            }
+        }
+
+        return expression;
+    }
+
+    /**
+     * Lists the namespaces bound to the prefixes used in given XPath expression.
+     * @param path
+     * @param namespaceContext
+     * @return
+     */
+    private static String getNamespaceKey(String path, NamespaceContext namespaceContext) {
+        Map<String, String> namespaces = new TreeMap<>();
+        Matcher matcher = NAMESPACE_PREFIX.matcher(path);
+        while (matcher.find()) {
+            namespaces.put(matcher.group(1), namespaceContext.getNamespaceURI(matcher.group(1)));
+        }
+
+        return namespaces.isEmpty() ? "" : namespaces.toString();
+    }
+
+    private static String getNodeValue(Node node) {
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            return node.getFirstChild() != null ? node.getFirstChild().getNodeValue() : "";
+        }
+
+        return node.getNodeValue();
+    }
+
+    /**
+     * Parses XML payload with a document builder that does not resolve document type declarations and external entities.
+     * @param payload
+     * @return
+     */
+    private static Document parseXml(String payload) {
+        DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
+        try {
+            return documentBuilder.parse(new InputSource(new StringReader(payload)));
+        } catch (SAXException | IOException e) {
+            throw new CitrusRuntimeException("Failed to parse XML text", e);
+        } finally {
+            documentBuilder.reset();
+        }
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setXIncludeAware(false);
+            factory.setExpandEntityReferences(false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new CitrusRuntimeException("Failed to create XML document builder", e);
+        }
+    }
+}
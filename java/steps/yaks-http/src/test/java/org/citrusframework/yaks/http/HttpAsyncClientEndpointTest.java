@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.client.HttpClient;
+import com.consol.citrus.http.client.HttpClientBuilder;
+import com.consol.citrus.http.message.HttpMessage;
+import com.sun.net.httpserver.HttpServer;
+import org.citrusframework.yaks.http.capture.HttpCaptureInterceptor;
+import org.citrusframework.yaks.http.capture.HttpCaptureLog;
+import org.citrusframework.yaks.http.capture.HttpExchangeRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpAsyncClientEndpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestContext context;
+    private HttpServer server;
+    private HttpAsyncTransport transport;
+    private HttpClient httpClient;
+
+    @Before
+    public void setup() throws IOException {
+        context = TestContextFactory.newInstance().getObject();
+
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/todo", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/1")) {
+                try {
+                    Thread.sleep(300L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            byte[] body = String.format("{\"path\": \"%s\"}", path).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(2));
+        server.start();
+
+        transport = new HttpAsyncTransport("http1", 1, 10, 10);
+        httpClient = new HttpClientBuilder()
+                .requestUrl("http://localhost:" + server.getAddress().getPort())
+                .build();
+    }
+
+    @After
+    public void cleanup() {
+        server.stop(0);
+        transport.close();
+    }
+
+    @Test
+    public void shouldReceiveResponsesInOrderOfRequests() {
+        HttpAsyncClientEndpoint endpoint = new HttpAsyncClientEndpoint(httpClient, transport, 5000L);
+
+        endpoint.createProducer().send(new HttpMessage().method(HttpMethod.GET).path("/todo/1"), context);
+        endpoint.createProducer().send(new HttpMessage().method(HttpMethod.GET).path("/todo/2"), context);
+
+        HttpMessage first = (HttpMessage) endpoint.createConsumer().receive(context, 5000L);
+        Assert.assertEquals(HttpStatus.OK, first.getStatusCode());
+        Assert.assertEquals("{\"path\": \"/todo/1\"}", first.getPayload(String.class));
+
+        HttpMessage second = (HttpMessage) endpoint.createConsumer().receive(context, 5000L);
+        Assert.assertEquals("{\"path\": \"/todo/2\"}", second.getPayload(String.class));
+    }
+
+    @Test
+    public void shouldCaptureForkedExchanges() {
+        Path file = folder.getRoot().toPath().resolve("forked.jsonl.gz");
+        HttpCaptureLog captureLog = new HttpCaptureLog(file);
+        httpClient.getEndpointConfiguration().setClientInterceptors(Collections.singletonList(new HttpCaptureInterceptor(captureLog)));
+
+        HttpAsyncClientEndpoint endpoint = new HttpAsyncClientEndpoint(httpClient, transport, 5000L);
+        endpoint.createProducer().send(new HttpMessage().method(HttpMethod.GET).path("/todo/2"), context);
+        endpoint.createConsumer().receive(context, 5000L);
+        captureLog.close();
+
+        List<HttpExchangeRecord> records = HttpCaptureLog.read(file.toString(), context);
+        Assert.assertEquals(1, records.size());
+        Assert.assertEquals("GET", records.get(0).getMethod());
+        Assert.assertEquals("/todo/2", records.get(0).getPathAndQuery());
+        Assert.assertEquals(200, records.get(0).getStatus());
+        Assert.assertEquals("{\"path\": \"/todo/2\"}", records.get(0).getResponseBody());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailToReceiveWithoutRequest() {
+        new HttpAsyncClientEndpoint(httpClient, transport, 5000L).createConsumer().receive(context, 100L);
+    }
+}
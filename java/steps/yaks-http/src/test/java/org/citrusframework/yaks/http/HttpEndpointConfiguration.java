@@ -28,6 +28,8 @@ import com.consol.citrus.endpoint.adapter.StaticEndpointAdapter;
 import com.consol.citrus.endpoint.adapter.StaticResponseEndpointAdapter;
 import com.consol.citrus.endpoint.adapter.mapping.HeaderMappingKeyExtractor;
 import com.consol.citrus.endpoint.adapter.mapping.SimpleMappingStrategy;
+import com.consol.citrus.http.client.HttpClient;
+import com.consol.citrus.http.client.HttpClientBuilder;
 import com.consol.citrus.http.message.HttpMessage;
 import com.consol.citrus.http.message.HttpMessageHeaders;
 import com.consol.citrus.http.server.HttpServer;
@@ -46,6 +48,7 @@ import org.springframework.http.MediaType;
 public class HttpEndpointConfiguration {
 
     private static final int HTTP_PORT = 8080;
+    private static final String CONCURRENT_URL = "http://localhost:8089";
 
     @Bean
     public HttpServer httpServer(TestContextFactory contextFactory) {
@@ -56,6 +59,20 @@ public class HttpEndpointConfiguration {
                               .build();
     }
 
+    @Bean
+    public HttpClient concurrentClientA() {
+        return new HttpClientBuilder()
+                .requestUrl(CONCURRENT_URL)
+                .build();
+    }
+
+    @Bean
+    public HttpClient concurrentClientB() {
+        return new HttpClientBuilder()
+                .requestUrl(CONCURRENT_URL)
+                .build();
+    }
+
     @Bean
     public EndpointAdapter staticResponseAdapter(TestContextFactory contextFactory) {
         RequestDispatchingEndpointAdapter dispatchingEndpointAdapter = new RequestDispatchingEndpointAdapter();
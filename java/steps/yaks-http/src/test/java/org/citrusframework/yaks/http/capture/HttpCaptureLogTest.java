@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpCaptureLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TestContext context = TestContextFactory.newInstance().getObject();
+
+    @Test
+    public void shouldReadOpenLog() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("capture/traffic.jsonl.gz");
+
+        HttpCaptureLog captureLog = new HttpCaptureLog(file);
+        captureLog.append(record("GET", "http://localhost:8080/todo/1?details=true", 200, 12L));
+        captureLog.append(record("POST", "http://localhost:8080/todo", 201, 25L));
+
+        List<HttpExchangeRecord> records = HttpCaptureLog.read(file.toString(), context);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("/todo/1?details=true", records.get(0).getPathAndQuery());
+        Assert.assertEquals(12L, records.get(0).getDuration());
+        Assert.assertEquals("application/json", records.get(0).getResponseHeaders().get("Content-Type"));
+        Assert.assertEquals("{\"id\": 1}", records.get(0).getResponseBody());
+        Assert.assertEquals("POST", records.get(1).getMethod());
+        Assert.assertEquals(201, records.get(1).getStatus());
+
+        captureLog.close();
+        Assert.assertEquals(2, HttpCaptureLog.read(Files.newInputStream(file)).size());
+    }
+
+    @Test
+    public void shouldAppendToExistingLog() {
+        Path file = folder.getRoot().toPath().resolve("traffic.jsonl.gz");
+
+        HttpCaptureLog captureLog = new HttpCaptureLog(file);
+        captureLog.append(record("GET", "/todo/1", 200, 5L));
+        captureLog.close();
+
+        captureLog = new HttpCaptureLog(file);
+        captureLog.append(record("DELETE", "/todo/1", 204, 7L));
+
+        List<HttpExchangeRecord> records = HttpCaptureLog.read(file.toString(), context);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("/todo/1", records.get(1).getPathAndQuery());
+        Assert.assertEquals("DELETE", records.get(1).getMethod());
+
+        captureLog.close();
+    }
+
+    @Test
+    public void shouldStoreBinaryBodiesBase64Encoded() {
+        Path file = folder.getRoot().toPath().resolve("binary.jsonl.gz");
+        byte[] binary = new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x00, (byte) 0xff };
+
+        HttpExchangeRecord record = record("POST", "/images", 201, 3L);
+        record.setRequestContent(binary, null);
+        record.setResponseContent("{\"id\": 1}".getBytes(StandardCharsets.UTF_8), null);
+
+        HttpCaptureLog captureLog = new HttpCaptureLog(file);
+        captureLog.append(record);
+        captureLog.close();
+
+        HttpExchangeRecord read = HttpCaptureLog.read(file.toString(), context).get(0);
+        Assert.assertEquals(HttpExchangeRecord.BODY_ENCODING_BASE64, read.getRequestBodyEncoding());
+        Assert.assertArrayEquals(binary, read.getRequestContent());
+        Assert.assertNull(read.getResponseBodyEncoding());
+        Assert.assertEquals("{\"id\": 1}", read.getResponseBody());
+    }
+
+    @Test
+    public void shouldDecompressGzipBodies() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"id\": 1}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpExchangeRecord record = new HttpExchangeRecord();
+        record.setResponseContent(compressed.toByteArray(), "gzip");
+
+        Assert.assertNull(record.getResponseBodyEncoding());
+        Assert.assertEquals("{\"id\": 1}", record.getResponseBody());
+    }
+
+    private static HttpExchangeRecord record(String method, String url, int status, long duration) {
+        HttpExchangeRecord record = new HttpExchangeRecord();
+        record.setSource(HttpExchangeRecord.SOURCE_CLIENT);
+        record.setTimestamp(System.currentTimeMillis());
+        record.setDuration(duration);
+        record.setMethod(method);
+        record.setUrl(url);
+        record.setStatus(status);
+        record.getResponseHeaders().put("Content-Type", "application/json");
+        record.setResponseBody("{\"id\": 1}");
+        return record;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.capture;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.citrusframework.yaks.http.load.HttpLoadAction;
+import org.citrusframework.yaks.http.load.HttpLoadResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.StreamUtils;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpReplayActionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TestContext context = TestContextFactory.newInstance().getObject();
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<byte[]> bodies = Collections.synchronizedList(new ArrayList<>());
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @Before
+    public void setup() throws IOException {
+        httpClient = HttpClients.createDefault();
+
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            bodies.add(StreamUtils.copyToByteArray(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    public void shouldReplayInTimestampOrder() {
+        long now = System.currentTimeMillis();
+        Path file = capture(record("GET", "/todo/2", now + 20L),
+                record("GET", "/todo/1", now),
+                record("GET", "/todo/3", now + 40L));
+
+        HttpLoadResult result = replay(file);
+
+        Assert.assertEquals(3L, result.getRequests());
+        Assert.assertEquals(0L, result.getErrors());
+        Assert.assertEquals(Arrays.asList("GET /todo/1", "GET /todo/2", "GET /todo/3"), requests);
+    }
+
+    @Test
+    public void shouldReplayBinaryBodies() {
+        byte[] binary = new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x00, (byte) 0xff };
+        HttpExchangeRecord record = record("POST", "/images", System.currentTimeMillis());
+        record.setRequestContent(binary, null);
+
+        HttpLoadResult result = replay(capture(record));
+
+        Assert.assertEquals(0L, result.getErrors());
+        Assert.assertEquals(Collections.singletonList("POST /images"), requests);
+        Assert.assertArrayEquals(binary, bodies.get(0));
+    }
+
+    private HttpLoadResult replay(Path file) {
+        new HttpReplayAction.Builder()
+                .resource(file.toString())
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .rateFactor(10.0D)
+                .concurrency(1)
+                .timeout(5000L)
+                .client(httpClient)
+                .build()
+                .execute(context);
+
+        return (HttpLoadResult) context.getVariableObject(HttpLoadAction.LOAD_RESULT_VARIABLE);
+    }
+
+    private Path capture(HttpExchangeRecord... records) {
+        Path file = folder.getRoot().toPath().resolve("replay.jsonl.gz");
+        HttpCaptureLog captureLog = new HttpCaptureLog(file);
+        for (HttpExchangeRecord record : records) {
+            captureLog.append(record);
+        }
+        captureLog.close();
+        return file;
+    }
+
+    private static HttpExchangeRecord record(String method, String url, long timestamp) {
+        HttpExchangeRecord record = new HttpExchangeRecord();
+        record.setSource(HttpExchangeRecord.SOURCE_CLIENT);
+        record.setTimestamp(timestamp);
+        record.setMethod(method);
+        record.setUrl(url);
+        record.setStatus(200);
+        return record;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.health;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.sun.net.httpserver.HttpServer;
+import org.citrusframework.yaks.http.HttpConnectionPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpHealthWaitActionTest {
+
+    private final HttpConnectionPool connectionPool = new HttpConnectionPool(10, 10, 1000L);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private TestContext context;
+    private HttpServer server;
+    private int port;
+
+    @Before
+    public void setup() throws IOException {
+        context = TestContextFactory.newInstance().getObject();
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+        connectionPool.close();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldDetectLateReadiness() {
+        scheduler.schedule(this::startServer, 300L, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        new HttpHealthWaitAction.Builder()
+                .urls(Arrays.asList("http://localhost:" + port + "/health", "http://localhost:" + port + "/ready"))
+                .method("GET")
+                .timeout(5000L)
+                .initialInterval(50L)
+                .maxInterval(200L)
+                .client(connectionPool.getHttpClient())
+                .build()
+                .execute(context);
+
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue("Readiness detected after " + duration + " ms", duration >= 300L);
+
+        // each URL is ready on the first probe after the server has started
+        Assert.assertEquals(1, requests.get("/health").get());
+        Assert.assertEquals(1, requests.get("/ready").get());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnTimeout() {
+        new HttpHealthWaitAction.Builder()
+                .url("http://localhost:" + port + "/health")
+                .timeout(300L)
+                .client(connectionPool.getHttpClient())
+                .build()
+                .execute(context);
+    }
+
+    private void startServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/", exchange -> {
+                requests.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start health server", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.ValidationException;
+import com.sun.net.httpserver.HttpServer;
+import org.citrusframework.yaks.http.HttpConnectionPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpLoadActionTest {
+
+    private TestContext context;
+    private HttpServer server;
+
+    @Before
+    public void setup() throws IOException {
+        context = TestContextFactory.newInstance().getObject();
+
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/fail", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void cleanup() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldRunBlockingLoad() {
+        HttpLoadResult result = load("/ok");
+
+        Assert.assertEquals(20L, result.getRequests());
+        Assert.assertEquals(0L, result.getErrors());
+        Assert.assertEquals(20L, result.getLatencies().getTotalCount());
+    }
+
+    @Test
+    public void shouldRunBlockingLoadOnConnectionPool() {
+        HttpConnectionPool connectionPool = new HttpConnectionPool(2, 2, 5000L);
+        try {
+            new HttpLoadAction.Builder()
+                    .url("http://localhost:" + server.getAddress().getPort() + "/ok")
+                    .count(20L)
+                    .concurrency(4)
+                    .timeout(1000L)
+                    .connectionPool(connectionPool)
+                    .build()
+                    .execute(context);
+
+            HttpLoadResult result = (HttpLoadResult) context.getVariableObject(HttpLoadAction.LOAD_RESULT_VARIABLE);
+            Assert.assertEquals(20L, result.getRequests());
+            Assert.assertEquals(0L, result.getErrors());
+            Assert.assertEquals(4, connectionPool.getConnectionManager().getDefaultMaxPerRoute());
+            Assert.assertEquals(4, connectionPool.getConnectionManager().getMaxTotal());
+        } finally {
+            connectionPool.close();
+        }
+    }
+
+    @Test
+    public void shouldCountErrorResponses() {
+        HttpLoadResult result = load("/fail");
+
+        Assert.assertEquals(20L, result.getRequests());
+        Assert.assertEquals(20L, result.getErrors());
+        Assert.assertEquals(100.0D, result.getErrorRate(), 0.0001D);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailLatencyVerificationWhenAllRequestsFail() {
+        HttpLoadResult result = load("/fail");
+        Assert.assertEquals(0L, result.getLatencies().getTotalCount());
+
+        new VerifyHttpLoadAction.Builder()
+                .latency(99.0D)
+                .lessThan(200.0D)
+                .build()
+                .execute(context);
+    }
+
+    private HttpLoadResult load(String path) {
+        new HttpLoadAction.Builder()
+                .url("http://localhost:" + server.getAddress().getPort() + path)
+                .header("Connection", "close")
+                .count(20L)
+                .concurrency(4)
+                .timeout(1000L)
+                .build()
+                .execute(context);
+
+        return (HttpLoadResult) context.getVariableObject(HttpLoadAction.LOAD_RESULT_VARIABLE);
+    }
+}
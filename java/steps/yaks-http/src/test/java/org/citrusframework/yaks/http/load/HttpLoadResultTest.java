@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpLoadResultTest {
+
+    @Test
+    public void shouldCalculatePercentiles() {
+        HttpLoadResult result = new HttpLoadResult(latencies(100), 100L, 0L, 1000L);
+
+        Assert.assertEquals(50.0D, result.getLatency(50.0D), 0.1D);
+        Assert.assertEquals(90.0D, result.getLatency(90.0D), 0.1D);
+        Assert.assertEquals(99.0D, result.getLatency(99.0D), 0.1D);
+        Assert.assertEquals(100.0D, result.getLatency(100.0D), 0.1D);
+        Assert.assertEquals(100.0D, result.getMaxLatency(), 0.1D);
+        Assert.assertEquals(50.5D, result.getMeanLatency(), 0.1D);
+    }
+
+    @Test
+    public void shouldCalculateErrorRateAndThroughput() {
+        HttpLoadResult result = new HttpLoadResult(latencies(195), 200L, 5L, 2000L);
+
+        Assert.assertEquals(2.5D, result.getErrorRate(), 0.0001D);
+        Assert.assertEquals(100.0D, result.getThroughput(), 0.0001D);
+    }
+
+    @Test
+    public void shouldHandleEmptyResult() {
+        HttpLoadResult result = new HttpLoadResult(new Histogram(3), 0L, 0L, 0L);
+
+        Assert.assertEquals(0.0D, result.getLatency(99.0D), 0.0001D);
+        Assert.assertEquals(0.0D, result.getMeanLatency(), 0.0001D);
+        Assert.assertEquals(0.0D, result.getErrorRate(), 0.0001D);
+        Assert.assertEquals(0.0D, result.getThroughput(), 0.0001D);
+    }
+
+    /**
+     * Creates histogram with latencies from 1 ms up to given number of milliseconds.
+     * @param max
+     * @return
+     */
+    static Histogram latencies(int max) {
+        Histogram latencies = new Histogram(3);
+        for (int i = 1; i <= max; i++) {
+            latencies.recordValue(TimeUnit.MILLISECONDS.toMicros(i));
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.load;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class VerifyHttpLoadActionTest {
+
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        context = TestContextFactory.newInstance().getObject();
+        context.setVariable(HttpLoadAction.LOAD_RESULT_VARIABLE,
+                new HttpLoadResult(HttpLoadResultTest.latencies(100), 200L, 10L, 2000L));
+    }
+
+    @Test
+    public void shouldVerifyLatencyThresholds() {
+        verify("p99", "<", 100.0D);
+        verify("p99", "<=", 99.1D);
+        verify("p50", ">", 49.0D);
+        verify("p50", ">=", 50.0D);
+        verify("mean", "<", 51.0D);
+        verify("max", "<=", 100.1D);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnExceededLatency() {
+        verify("p99", "<", 98.0D);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnLatencyEqualToExclusiveThreshold() {
+        verify("max", "<", 100.0D);
+    }
+
+    @Test
+    public void shouldVerifyErrorRateAndThroughput() {
+        verify("error-rate", "<=", 5.0D);
+        verify("throughput", ">=", 100.0D);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnExceededErrorRate() {
+        verify("error-rate", "<", 5.0D);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnLowThroughput() {
+        verify("throughput", ">", 100.0D);
+    }
+
+    @Test
+    public void shouldFailLatencyWhenAllRequestsFailed() {
+        context.setVariable(HttpLoadAction.LOAD_RESULT_VARIABLE,
+                new HttpLoadResult(HttpLoadResultTest.latencies(0), 200L, 200L, 2000L));
+
+        for (String metric : new String[] { "p99", "p50", "mean", "max" }) {
+            try {
+                verify(metric, "<", 200.0D);
+                Assert.fail(String.format("Missing validation exception for metric '%s'", metric));
+            } catch (ValidationException e) {
+                Assert.assertTrue(e.getMessage().contains("no successful request"));
+            }
+        }
+
+        verify("error-rate", ">=", 100.0D);
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnUnsupportedOperator() {
+        verify("p99", "==", 100.0D);
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnMissingResult() {
+        new VerifyHttpLoadAction.Builder()
+                .result("UNKNOWN_LOAD_RESULT")
+                .meanLatency()
+                .lessThan(100.0D)
+                .build()
+                .execute(context);
+    }
+
+    private void verify(String metric, String operator, double threshold) {
+        new VerifyHttpLoadAction.Builder()
+                .metric(metric)
+                .operator(operator)
+                .threshold(threshold)
+                .build()
+                .execute(context);
+    }
+}
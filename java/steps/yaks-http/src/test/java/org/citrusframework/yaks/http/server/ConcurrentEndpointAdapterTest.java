@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.ActionTimeoutException;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.message.HttpMessage;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.messaging.SelectiveConsumer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ConcurrentEndpointAdapterTest {
+
+    private final ConcurrentEndpointAdapter endpointAdapter = new ConcurrentEndpointAdapter("concurrentServer", 5000L);
+
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        context = TestContextFactory.newInstance().getObject();
+    }
+
+    @Test
+    public void shouldReceiveRequestsOutOfOrder() throws Exception {
+        CompletableFuture<Message> first = handle(new HttpMessage("first").method(HttpMethod.GET).path("/todo/1"));
+        CompletableFuture<Message> second = handle(new HttpMessage("second").method(HttpMethod.POST).path("/todo/2"));
+        awaitBuffered(2);
+
+        SelectiveConsumer consumer = (SelectiveConsumer) endpointAdapter.getEndpoint().createConsumer();
+        Message request = consumer.receive("correlationKey = 'POST /todo/2'", context, 1000L);
+        Assert.assertEquals("second", request.getPayload(String.class));
+
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.CREATED), context);
+        Assert.assertEquals(HttpStatus.CREATED, ((HttpMessage) second.get(1, TimeUnit.SECONDS)).getStatusCode());
+        Assert.assertFalse(first.isDone());
+
+        request = consumer.receive(context, 1000L);
+        Assert.assertEquals("first", request.getPayload(String.class));
+
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.OK), context);
+        Assert.assertEquals(HttpStatus.OK, ((HttpMessage) first.get(1, TimeUnit.SECONDS)).getStatusCode());
+        Assert.assertEquals(0, endpointAdapter.getQueue().size());
+    }
+
+    @Test
+    public void shouldCorrelateByHeader() throws Exception {
+        endpointAdapter.correlateByHeader("X-Correlation-Id");
+
+        CompletableFuture<Message> first = handle(new HttpMessage("first").method(HttpMethod.POST).path("/callback")
+                .header("X-Correlation-Id", "1"));
+        CompletableFuture<Message> second = handle(new HttpMessage("second").method(HttpMethod.POST).path("/callback")
+                .header("X-Correlation-Id", "2"));
+        awaitBuffered(2);
+
+        SelectiveConsumer consumer = (SelectiveConsumer) endpointAdapter.getEndpoint().createConsumer();
+        Assert.assertEquals("second", consumer.receive("correlationKey = '2'", context, 1000L).getPayload(String.class));
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.ACCEPTED), context);
+
+        Assert.assertEquals("first", consumer.receive("correlationKey = '1'", context, 1000L).getPayload(String.class));
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.OK), context);
+
+        Assert.assertEquals(HttpStatus.ACCEPTED, ((HttpMessage) second.get(1, TimeUnit.SECONDS)).getStatusCode());
+        Assert.assertEquals(HttpStatus.OK, ((HttpMessage) first.get(1, TimeUnit.SECONDS)).getStatusCode());
+    }
+
+    @Test
+    public void shouldAnswerTakenRequestsInReverseOrder() throws Exception {
+        CompletableFuture<Message> first = handle(new HttpMessage("first").method(HttpMethod.GET).path("/todo/1"));
+        CompletableFuture<Message> second = handle(new HttpMessage("second").method(HttpMethod.GET).path("/todo/2"));
+        awaitBuffered(2);
+
+        SelectiveConsumer consumer = (SelectiveConsumer) endpointAdapter.getEndpoint().createConsumer();
+        Assert.assertEquals("first", consumer.receive("correlationKey = 'GET /todo/1'", context, 1000L).getPayload(String.class));
+        Assert.assertEquals("second", consumer.receive("correlationKey = 'GET /todo/2'", context, 1000L).getPayload(String.class));
+
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.ACCEPTED)
+                .header(ConcurrentEndpointAdapter.CORRELATION_KEY_HEADER, "GET /todo/2"), context);
+        HttpMessage secondResponse = (HttpMessage) second.get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(HttpStatus.ACCEPTED, secondResponse.getStatusCode());
+        Assert.assertNull(secondResponse.getHeader(ConcurrentEndpointAdapter.CORRELATION_KEY_HEADER));
+        Assert.assertFalse(first.isDone());
+
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.OK)
+                .header(ConcurrentEndpointAdapter.CORRELATION_KEY_HEADER, "GET /todo/1"), context);
+        Assert.assertEquals(HttpStatus.OK, ((HttpMessage) first.get(1, TimeUnit.SECONDS)).getStatusCode());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailToAnswerUnknownCorrelationKey() throws Exception {
+        handle(new HttpMessage("first").method(HttpMethod.GET).path("/todo/1"));
+        awaitBuffered(1);
+
+        ((SelectiveConsumer) endpointAdapter.getEndpoint().createConsumer()).receive(context, 1000L);
+        endpointAdapter.getEndpoint().createProducer().send(new HttpMessage().status(HttpStatus.OK)
+                .header(ConcurrentEndpointAdapter.CORRELATION_KEY_HEADER, "GET /todo/2"), context);
+    }
+
+    @Test(expected = ActionTimeoutException.class)
+    public void shouldTimeoutWithoutMatchingRequest() throws Exception {
+        handle(new HttpMessage("first").method(HttpMethod.GET).path("/todo/1"));
+        awaitBuffered(1);
+
+        ((SelectiveConsumer) endpointAdapter.getEndpoint().createConsumer()).receive("correlationKey = 'GET /todo/2'", context, 200L);
+    }
+
+    private CompletableFuture<Message> handle(Message request) {
+        return CompletableFuture.supplyAsync(() -> endpointAdapter.handleMessage(request));
+    }
+
+    private void awaitBuffered(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (endpointAdapter.getQueue().size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+    }
+}
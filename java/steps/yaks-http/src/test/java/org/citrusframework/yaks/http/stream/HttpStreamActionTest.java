@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpStreamActionTest {
+
+    private static final String JSON = "{ \"name\": \"YAKS\", \"pets\": [ \"cat\", \"dog\" ] }";
+
+    private TestContext context;
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @Before
+    public void setup() throws IOException {
+        context = TestContextFactory.newInstance().getObject();
+        httpClient = HttpClients.createDefault();
+
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        respond("/json", "application/json", JSON);
+        respond("/json/truncated", "application/json", "{ \"name\": \"YAKS\", \"pets\": [ \"cat\"");
+        respond("/xml", "application/xml", "<person><name>YAKS</name></person>");
+        respond("/xml/truncated", "application/xml", "<person><name>YAKS</name>");
+        respond("/text", "text/plain", "{ no json");
+        server.createContext("/query", exchange -> {
+            byte[] content = exchange.getRequestURI().getRawQuery().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    public void shouldStreamJsonResponse() {
+        HttpStreamResult result = stream("/json");
+
+        Assert.assertEquals(200, result.getStatus());
+        Assert.assertEquals("json", result.getStructure());
+        Assert.assertNull(result.getStructureError());
+        Assert.assertEquals(JSON.getBytes(StandardCharsets.UTF_8).length, result.getSize());
+        Assert.assertEquals(checksum(JSON), result.getChecksum());
+    }
+
+    @Test
+    public void shouldDetectTruncatedJson() {
+        HttpStreamResult result = stream("/json/truncated");
+
+        Assert.assertEquals("json", result.getStructure());
+        Assert.assertNotNull(result.getStructureError());
+    }
+
+    @Test
+    public void shouldStreamXmlResponse() {
+        HttpStreamResult result = stream("/xml");
+
+        Assert.assertEquals("xml", result.getStructure());
+        Assert.assertNull(result.getStructureError());
+    }
+
+    @Test
+    public void shouldDetectTruncatedXml() {
+        HttpStreamResult result = stream("/xml/truncated");
+
+        Assert.assertEquals("xml", result.getStructure());
+        Assert.assertNotNull(result.getStructureError());
+        Assert.assertEquals(25L, result.getSize());
+    }
+
+    @Test
+    public void shouldSkipStructureCheckForOtherContentTypes() {
+        HttpStreamResult result = stream("/text");
+
+        Assert.assertNull(result.getStructure());
+        Assert.assertNull(result.getStructureError());
+        Assert.assertEquals(9L, result.getSize());
+    }
+
+    @Test
+    public void shouldEncodeQueryParameters() {
+        context.setVariable("id", "1 2");
+
+        new HttpStreamAction.Builder()
+                .url("http://localhost:" + server.getAddress().getPort() + "/query")
+                .queryParam("filter", "name=YAKS&pets")
+                .queryParam("id", "${id}")
+                .client(httpClient)
+                .timeout(5000L)
+                .build()
+                .execute(context);
+
+        HttpStreamResult result = (HttpStreamResult) context.getVariableObject(HttpStreamAction.STREAM_RESULT_VARIABLE);
+        Assert.assertEquals(200, result.getStatus());
+        Assert.assertEquals(checksum("filter=name%3DYAKS%26pets&id=1+2"), result.getChecksum());
+    }
+
+    @Test
+    public void shouldCheckStructure() throws IOException {
+        Assert.assertNull(HttpStreamAction.checkStructure("json", input("[1, 2, 3]")));
+        Assert.assertNotNull(HttpStreamAction.checkStructure("json", input("[1, 2")));
+        Assert.assertNull(HttpStreamAction.checkStructure("xml", input("<a><b/></a>")));
+        Assert.assertNotNull(HttpStreamAction.checkStructure("xml", input("<a><b/>")));
+    }
+
+    private HttpStreamResult stream(String path) {
+        new HttpStreamAction.Builder()
+                .url("http://localhost:" + server.getAddress().getPort() + path)
+                .client(httpClient)
+                .timeout(5000L)
+                .build()
+                .execute(context);
+
+        return (HttpStreamResult) context.getVariableObject(HttpStreamAction.STREAM_RESULT_VARIABLE);
+    }
+
+    private void respond(String path, String contentType, String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        server.createContext(path, exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        });
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String checksum(String content) {
+        MeteredInputStream metered = new MeteredInputStream(input(content), HttpStreamAction.CHECKSUM_ALGORITHM);
+        try {
+            metered.drain();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return metered.getChecksum();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class MeteredInputStreamTest {
+
+    private static final String ABC_CHECKSUM = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+    private static final String EMPTY_CHECKSUM = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    @Test
+    public void shouldComputeSizeAndChecksum() throws IOException {
+        MeteredInputStream metered = stream("abc");
+        metered.drain();
+
+        Assert.assertEquals(3L, metered.getSize());
+        Assert.assertEquals(ABC_CHECKSUM, metered.getChecksum());
+    }
+
+    @Test
+    public void shouldCountSingleByteReads() throws IOException {
+        MeteredInputStream metered = stream("abc");
+        Assert.assertEquals('a', metered.read());
+        Assert.assertEquals('b', metered.read());
+        Assert.assertEquals('c', metered.read());
+        Assert.assertEquals(-1, metered.read());
+
+        Assert.assertEquals(3L, metered.getSize());
+        Assert.assertEquals(ABC_CHECKSUM, metered.getChecksum());
+    }
+
+    @Test
+    public void shouldCountSkippedBytes() throws IOException {
+        MeteredInputStream metered = stream("abc");
+        Assert.assertEquals(2L, metered.skip(2L));
+        metered.drain();
+
+        Assert.assertEquals(3L, metered.getSize());
+        Assert.assertEquals(ABC_CHECKSUM, metered.getChecksum());
+    }
+
+    @Test
+    public void shouldHandleEmptyStream() throws IOException {
+        MeteredInputStream metered = stream("");
+        metered.drain();
+
+        Assert.assertEquals(0L, metered.getSize());
+        Assert.assertEquals(EMPTY_CHECKSUM, metered.getChecksum());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnUnknownAlgorithm() {
+        new MeteredInputStream(new ByteArrayInputStream(new byte[0]), "UNKNOWN");
+    }
+
+    private static MeteredInputStream stream(String content) {
+        return new MeteredInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                HttpStreamAction.CHECKSUM_ALGORITHM);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stream;
+
+import java.util.Collections;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class VerifyHttpStreamActionTest {
+
+    private static final String ABC_CHECKSUM = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        context = TestContextFactory.newInstance().getObject();
+    }
+
+    @Test
+    public void shouldVerifyStreamResult() {
+        context.setVariable(HttpStreamAction.STREAM_RESULT_VARIABLE, result(3L, null));
+
+        new VerifyHttpStreamAction.Builder()
+                .status(200)
+                .header("Content-Type", "text/plain")
+                .size(3L)
+                .checksum(ABC_CHECKSUM.toUpperCase())
+                .body("abc")
+                .build()
+                .execute(context);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnSizeMismatch() {
+        context.setVariable(HttpStreamAction.STREAM_RESULT_VARIABLE, result(3L, null));
+
+        new VerifyHttpStreamAction.Builder()
+                .size(4L)
+                .build()
+                .execute(context);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnContentMismatch() {
+        context.setVariable(HttpStreamAction.STREAM_RESULT_VARIABLE, result(3L, null));
+
+        new VerifyHttpStreamAction.Builder()
+                .body("abd")
+                .build()
+                .execute(context);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnStructureError() {
+        context.setVariable(HttpStreamAction.STREAM_RESULT_VARIABLE, result(3L, "Unexpected end-of-input"));
+
+        new VerifyHttpStreamAction.Builder()
+                .status(200)
+                .build()
+                .execute(context);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnStatusMismatch() {
+        context.setVariable(HttpStreamAction.STREAM_RESULT_VARIABLE, result(3L, null));
+
+        new VerifyHttpStreamAction.Builder()
+                .status(404)
+                .build()
+                .execute(context);
+    }
+
+    private static HttpStreamResult result(long size, String structureError) {
+        return new HttpStreamResult(200, Collections.singletonMap("Content-Type", "text/plain"), size, ABC_CHECKSUM,
+                structureError != null ? "json" : null, structureError);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpStubFaultTest {
+
+    private final TestContext context = TestContextFactory.newInstance().getObject();
+
+    @Test
+    public void shouldSampleLatencyDistributions() {
+        Random random = new Random(42L);
+
+        Assert.assertEquals(100L, LatencyDistribution.fixed(100L).sample(random));
+
+        LatencyDistribution uniform = LatencyDistribution.uniform(10L, 20L);
+        LatencyDistribution normal = LatencyDistribution.normal(50D, 100D);
+        for (int i = 0; i < 1000; i++) {
+            long latency = uniform.sample(random);
+            Assert.assertTrue(latency >= 10L && latency <= 20L);
+            Assert.assertTrue(normal.sample(random) >= 0L);
+        }
+
+        Map<Double, Long> percentiles = new HashMap<>();
+        percentiles.put(50D, 20L);
+        percentiles.put(90D, 80L);
+        percentiles.put(100D, 400L);
+        LatencyDistribution recorded = LatencyDistribution.percentiles(percentiles);
+
+        int belowMedian = 0;
+        for (int i = 0; i < 1000; i++) {
+            long latency = recorded.sample(random);
+            Assert.assertTrue(latency >= 20L && latency <= 400L);
+            if (latency == 20L) {
+                belowMedian++;
+            }
+        }
+        Assert.assertTrue(belowMedian > 400 && belowMedian < 600);
+    }
+
+    @Test
+    public void shouldRepeatFaultsWithSameSeed() {
+        Map<String, Object> latency = new HashMap<>();
+        latency.put("distribution", "normal");
+        latency.put("mean", "200");
+        latency.put("deviation", "50");
+
+        Map<String, Object> definition = new HashMap<>();
+        definition.put("latency", latency);
+        definition.put("errorRate", "10%");
+        definition.put("resetRate", 0.05);
+        definition.put("seed", "${seed}");
+        context.setVariable("seed", "42");
+
+        HttpStubFault fault = HttpStubFault.fromDefinition(definition, 0L, context);
+        HttpStubFault repeated = HttpStubFault.fromDefinition(definition, 0L, context);
+
+        int errors = 0;
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(fault.nextLatency(), repeated.nextLatency());
+            Assert.assertEquals(fault.nextReset(), repeated.nextReset());
+
+            boolean error = fault.nextError();
+            Assert.assertEquals(error, repeated.nextError());
+            if (error) {
+                errors++;
+            }
+        }
+        Assert.assertTrue(errors > 50 && errors < 150);
+    }
+
+    @Test
+    public void shouldParseFaults() {
+        Map<String, Object> definition = new HashMap<>();
+        definition.put("latency", 100);
+        definition.put("bandwidth", 1024);
+        definition.put("errorRate", "100%");
+        definition.put("errorStatus", 502);
+
+        HttpStubFault fault = HttpStubFault.fromDefinition(definition, 0L, context);
+        Assert.assertEquals(100L, fault.nextLatency());
+        Assert.assertEquals(1024L, fault.getBandwidth());
+        Assert.assertEquals(502, fault.getErrorStatus());
+        Assert.assertTrue(fault.nextError());
+        Assert.assertFalse(fault.nextReset());
+
+        Assert.assertEquals(0.05D, HttpStubFault.parseRate("5%"), 0.0001D);
+        Assert.assertEquals(0.05D, HttpStubFault.parseRate("0.05"), 0.0001D);
+    }
+}
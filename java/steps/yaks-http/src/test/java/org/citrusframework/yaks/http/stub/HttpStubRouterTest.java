@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.http.message.HttpMessage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class HttpStubRouterTest {
+
+    private final HttpStubRouter router = new HttpStubRouter();
+
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        context = TestContextFactory.newInstance().getObject();
+        context.setVariable("task", "Sample task");
+    }
+
+    @Test
+    public void shouldPreferLiteralSegments() {
+        router.add(route("GET", "/todo/{id}", Collections.emptyMap(), 200, "{\"id\": \"${id}\", \"task\": \"${task}\"}"));
+        router.add(route("GET", "/todo/count", Collections.emptyMap(), 200, "42"));
+        router.add(route("*", "/todo/**", Collections.emptyMap(), 404, ""));
+
+        HttpStubRouter.Match match = router.match("GET", "/todo/1001", Collections.emptyMap());
+        Assert.assertEquals("/todo/{id}", match.getRoute().getPath());
+        Assert.assertEquals("{\"id\": \"1001\", \"task\": \"Sample task\"}",
+                match.getRoute().respond(match.getParams()).getPayload(String.class));
+
+        match = router.match("GET", "/todo/count", Collections.emptyMap());
+        Assert.assertEquals("42", match.getRoute().respond(match.getParams()).getPayload(String.class));
+
+        match = router.match("DELETE", "/todo/1001/tags", Collections.emptyMap());
+        Assert.assertEquals("/todo/**", match.getRoute().getPath());
+
+        Assert.assertNull(router.match("GET", "/users", Collections.emptyMap()));
+    }
+
+    @Test
+    public void shouldMatchHeaderPredicates() {
+        router.add(route("GET", "/todo/{id}", Collections.singletonMap("Accept", "application/json"), 200, "json"));
+        router.add(route("GET", "/todo/{id}", Collections.emptyMap(), 406, ""));
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("Accept", "application/json");
+
+        HttpMessage response = respond("GET", "/todo/1", headers);
+        Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assert.assertEquals("json", response.getPayload(String.class));
+
+        response = respond("GET", "/todo/1", Collections.emptyMap());
+        Assert.assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
+
+        Assert.assertEquals(2, router.getRoutes().size());
+        Assert.assertEquals(1L, router.getRoutes().get(0).getHits());
+        Assert.assertEquals(1L, router.getRoutes().get(1).getHits());
+    }
+
+    @Test
+    public void shouldReplaceSameRoute() {
+        router.add(route("GET", "/todo/{id}", Collections.emptyMap(), 200, "first"));
+        router.add(route("GET", "/todo/{id}", Collections.emptyMap(), 200, "second"));
+
+        Assert.assertEquals(1, router.getRoutes().size());
+        Assert.assertEquals("second", respond("GET", "/todo/1", Collections.emptyMap()).getPayload(String.class));
+    }
+
+    private HttpMessage respond(String method, String path, Map<String, Object> headers) {
+        HttpStubRouter.Match match = router.match(method, path, headers);
+        return match.getRoute().respond(match.getParams());
+    }
+
+    private HttpStubRoute route(String method, String path, Map<String, String> headers, int status, String body) {
+        return new HttpStubRoute(method, path, headers, status, Collections.emptyMap(),
+                HttpStubTemplate.compile(body, HttpStubRoute.parseParamNames(path), context));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.stub;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ThrottledServletOutputStreamTest {
+
+    @Test
+    public void shouldWriteChunksWithLimitedBandwidth() throws IOException {
+        RecordingOutputStream delegate = new RecordingOutputStream();
+        byte[] body = new byte[500];
+        Arrays.fill(body, (byte) 'x');
+
+        long start = System.nanoTime();
+        try (ThrottledServletOutputStream outputStream = new ThrottledServletOutputStream(delegate, 1000L)) {
+            outputStream.write(body);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertArrayEquals(body, delegate.content.toByteArray());
+        Assert.assertEquals(5, delegate.flushes);
+        Assert.assertTrue(String.format("Expected throttled write to take at least 500 ms but was %d ms", elapsed), elapsed >= 500L);
+    }
+
+    @Test
+    public void shouldKeepBandwidthAcrossWrites() throws IOException {
+        RecordingOutputStream delegate = new RecordingOutputStream();
+
+        long start = System.nanoTime();
+        ThrottledServletOutputStream outputStream = new ThrottledServletOutputStream(delegate, 100L);
+        for (int i = 0; i < 20; i++) {
+            outputStream.write('x');
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertEquals(20, delegate.content.size());
+        Assert.assertTrue(String.format("Expected throttled write to take at least 200 ms but was %d ms", elapsed), elapsed >= 200L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidBandwidth() {
+        new ThrottledServletOutputStream(new RecordingOutputStream(), 0L);
+    }
+
+    private static class RecordingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private int flushes;
+
+        @Override
+        public void write(int b) {
+            content.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
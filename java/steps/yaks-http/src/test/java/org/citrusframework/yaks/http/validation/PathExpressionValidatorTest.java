@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.http.validation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.message.DefaultMessage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class PathExpressionValidatorTest {
+
+    private static final String JSON = "{ \"person\": { \"name\": \"YAKS\", \"age\": 3 }, \"pets\": [ \"cat\", \"dog\" ] }";
+
+    private final PathExpressionCache cache = new PathExpressionCache(10);
+
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        context = TestContextFactory.newInstance().getObject();
+    }
+
+    @Test
+    public void shouldValidateJsonPathExpressions() {
+        context.setVariable("name", "YAKS");
+
+        Map<String, Object> expressions = new LinkedHashMap<>();
+        expressions.put("$.person.name", "${name}");
+        expressions.put("$.person.age", 3);
+        expressions.put("$.pets.size()", 2);
+        expressions.put("$.pets[?(@ == 'dog')]", "dog");
+
+        PathExpressionValidator validator = new PathExpressionValidator(expressions, cache);
+        validator.validate(new DefaultMessage(JSON), context);
+        Assert.assertEquals(4, cache.size());
+
+        validator.validate(new DefaultMessage(JSON), context);
+        Assert.assertEquals(4, cache.size());
+        Assert.assertSame(cache.getJsonPath("$.person.name"), cache.getJsonPath("$.person.name"));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldFailOnJsonValueMismatch() {
+        new PathExpressionValidator(Collections.singletonMap("$.person.name", "Citrus"), cache)
+                .validate(new DefaultMessage(JSON), context);
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnUnknownJsonPath() {
+        new PathExpressionValidator(Collections.singletonMap("$.person.unknown", "YAKS"), cache)
+                .validate(new DefaultMessage(JSON), context);
+    }
+
+    @Test
+    public void shouldValidateXPathExpressions() {
+        Map<String, Object> expressions = new LinkedHashMap<>();
+        expressions.put("/ns:person/ns:name", "YAKS");
+        expressions.put("/ns:person/@id", "1");
+        expressions.put("string:count(/ns:person/*)", "2");
+        expressions.put("boolean:/ns:person/ns:age = 3", true);
+
+        new PathExpressionValidator(expressions, cache)
+                .validate(new DefaultMessage("<ns:person xmlns:ns=\"urn:yaks:v1\" id=\"1\"><ns:name>YAKS</ns:name><ns:age>3</ns:age></ns:person>"), context);
+        Assert.assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void shouldCacheXPathPerNamespace() {
+        Map<String, Object> expressions = Collections.singletonMap("/ns:person/ns:name", "YAKS");
+        PathExpressionValidator validator = new PathExpressionValidator(expressions, cache);
+
+        validator.validate(new DefaultMessage("<ns:person xmlns:ns=\"urn:yaks:v1\"><ns:name>YAKS</ns:name></ns:person>"), context);
+        validator.validate(new DefaultMessage("<ns:person xmlns:ns=\"urn:yaks:v1\"><ns:name>YAKS</ns:name></ns:person>"), context);
+        Assert.assertEquals(1, cache.size());
+
+        validator.validate(new DefaultMessage("<ns:person xmlns:ns=\"urn:yaks:v2\"><ns:name>YAKS</ns:name></ns:person>"), context);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldRejectDocumentTypeDeclarations() {
+        new PathExpressionValidator(Collections.singletonMap("/person/name", "YAKS"), cache)
+                .validate(new DefaultMessage("<!DOCTYPE person [ <!ENTITY name \"YAKS\"> ]><person><name>&name;</name></person>"), context);
+    }
+
+    @Test
+    public void shouldLeaveUnsupportedExpressionsToCitrus() {
+        Map<String, Object> expressions = new LinkedHashMap<>();
+        expressions.put("$.person.name", "YAKS");
+        expressions.put("/person/name", "YAKS");
+        expressions.put("${path}", "YAKS");
+        expressions.put("person.name", "YAKS");
+        expressions.put("/{urn:yaks:v1}person/{urn:yaks:v1}name", "YAKS");
+
+        Map<String, Object> unsupported = PathExpressionValidator.getUnsupported(expressions);
+        Assert.assertEquals(3, unsupported.size());
+        Assert.assertTrue(unsupported.containsKey("${path}"));
+        Assert.assertTrue(unsupported.containsKey("person.name"));
+        Assert.assertTrue(unsupported.containsKey("/{urn:yaks:v1}person/{urn:yaks:v1}name"));
+    }
+}
@@ -0,0 +1,36 @@
+Feature: Http capture and replay
+
+  Background:
+    Given URL: http://localhost:8091
+    Given create HTTP server "captureHttpServer"
+    And HTTP server listening on port 8091
+    And HTTP server stub mode is enabled
+
+  Scenario: Capture and replay
+    Given variable capture is "target/capture/citrus:randomString(8)"
+    Given capture HTTP server traffic to ${capture}-server.jsonl.gz
+    Given HTTP server stub routes
+      | method | path       | status | contentType      | body                |
+      | GET    | /todo/{id} | 200    | application/json | {"id": "${id}"}     |
+      | POST   | /todo      | 201    | application/json | {"created": true}   |
+    Given capture HTTP client traffic to ${capture}-client.jsonl.gz
+    When send GET /todo/1
+    Then receive HTTP 200 OK
+    When send GET /todo/2
+    Then receive HTTP 200 OK
+    Given HTTP request body: {"task": "New task"}
+    When send POST /todo
+    Then receive HTTP 201 CREATED
+    Given clear HTTP server stub routes
+    Given load HTTP server stub routes from capture ${capture}-client.jsonl.gz with recorded latency
+    When send GET /todo/2
+    Then verify HTTP response body: {"id": "2"}
+    And receive HTTP 200 OK
+    When send GET /todo/3
+    Then receive HTTP 404 NOT_FOUND
+    When replay HTTP capture ${capture}-server.jsonl.gz at 2 times captured rate
+    Then HTTP error rate should be <= 20 %
+    And verify HTTP server stub GET /todo/1 was called 1 times
+    And verify HTTP server stub GET /todo/2 was called 3 times
+    And verify HTTP server stub has 2 unmatched requests
+    And verify HTTP server stub POST /todo was called 1 times
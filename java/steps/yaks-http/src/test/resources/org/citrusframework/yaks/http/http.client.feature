@@ -18,6 +18,15 @@ Feature: Http client
     And wait for GET on URL http://localhost:${port}/todo
     And wait for GET on path /todo
 
+  Scenario: Wait for multiple Http URLs
+    Given HTTP request timeout is 5000 milliseconds
+    Then wait for URLs
+      | http://localhost:${port}/todo |
+      | /todo                         |
+    And wait for GET on paths to return 200 OK
+      | /todo                         |
+      | http://localhost:${port}/todo |
+
   Scenario: GET
     When send GET /todo
     Then verify HTTP response body: {"id": "@ignore@", "task": "Sample task", "completed": 0}
@@ -129,3 +138,60 @@ Date: @ignore@
       | $.task      | Sample task |
       | $.completed | 0 |
     And receive HTTP 200 OK
+
+  Scenario: Load test
+    Given HTTP request header Accept is "application/json"
+    When send 50 GET requests to /todo with concurrency 5
+    Then HTTP p99 latency should be < 5000 ms
+    And HTTP error rate should be < 1 %
+
+  Scenario: Load test with rate
+    Given HTTP load rate is 20 requests per second
+    Given HTTP request body
+    """
+    {"id": "citrus:randomNumber(5)", "task": "New task", "completed": 0}
+    """
+    When send POST requests to /todo/citrus:randomNumber(5) for 1 seconds with concurrency 2
+    Then HTTP p50 latency should be <= 5000 ms
+    And HTTP error rate should be <= 0 %
+    And HTTP throughput should be > 5 requests per second
+
+  Scenario: Load test with blocking transport
+    Given HTTP load transport is blocking
+    When send 20 GET requests to /todo with concurrency 4
+    Then HTTP p99 latency should be < 5000 ms
+    And HTTP error rate should be < 1 %
+
+  Scenario: Fork mode
+    Given HTTP request fork mode is enabled
+    When send GET /todo
+    Then verify HTTP response body: {"id": "@ignore@", "task": "Sample task", "completed": 0}
+    And receive HTTP 200 OK
+    Given variable id is "citrus:randomNumber(5)"
+    Given HTTP request body
+    """
+    {"id": "${id}", "task": "Task update", "completed": 0}
+    """
+    When send PUT /todo/${id}
+    And verify HTTP response body
+    """
+    {"id": "${id}", "task": "Task update", "completed": 0}
+    """
+    Then receive HTTP 200 OK
+
+  Scenario: Stream request and response body
+    Given HTTP body streaming is enabled
+    Given variable id is "citrus:randomNumber(5)"
+    Given HTTP request header Content-Type is "application/json"
+    And load HTTP request body task.json
+    When send PUT /todo/${id}
+    Then verify HTTP response body loaded from task.json
+    And verify HTTP response body size is 63 bytes
+    And verify HTTP response body checksum is 5e7e5a8cc2ccc015b742e53b90d03c341db6b1ce297057e9f7be539178ecd15a
+    And receive HTTP 200 OK
+
+  Scenario: Stream response body
+    Given HTTP body streaming is enabled
+    When send GET /todo
+    Then verify HTTP response header Content-Type="application/json"
+    And receive HTTP 200 OK
@@ -0,0 +1,43 @@
+Feature: Http server concurrent mode
+
+  Background:
+    Given URL: http://localhost:8089
+    Given create HTTP server "concurrentHttpServer"
+    And HTTP server listening on port 8089
+    And HTTP server concurrent mode is enabled
+    And start HTTP server
+    And HTTP request fork mode is enabled
+
+  Scenario: Receive request by path
+    When send GET /todo/1
+    Then receive GET /todo/1
+    And HTTP response body: {"id": 1, "task": "Sample task"}
+    And send HTTP 200 OK
+    And expect HTTP response body: {"id": 1, "task": "Sample task"}
+    Then receive HTTP 200 OK
+
+  Scenario: Receive request by header
+    Given HTTP server correlates requests by header X-Correlation-Id
+    Given HTTP request header X-Correlation-Id is "1001"
+    When send POST /callback
+    Then expect HTTP request header: X-Correlation-Id="1001"
+    And receive POST /callback
+    And send HTTP 202 ACCEPTED
+    Then receive HTTP 202 ACCEPTED
+
+  Scenario: Answer concurrent requests in reverse order
+    Given HTTP client "concurrentClientA"
+    When send GET /todo/1
+    Given HTTP client "concurrentClientB"
+    When send GET /todo/2
+    Then receive GET /todo/1
+    And receive GET /todo/2
+    And HTTP response body: {"id": 2}
+    And send HTTP 200 OK to request "GET /todo/2"
+    And HTTP response body: {"id": 1}
+    And send HTTP 200 OK to request "GET /todo/1"
+    Then expect HTTP response body: {"id": 2}
+    And receive HTTP 200 OK
+    Given HTTP client "concurrentClientA"
+    Then expect HTTP response body: {"id": 1}
+    And receive HTTP 200 OK
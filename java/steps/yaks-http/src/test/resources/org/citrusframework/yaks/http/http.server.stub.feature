@@ -0,0 +1,62 @@
+Feature: Http server stub mode
+
+  Background:
+    Given URL: http://localhost:8090
+    Given create HTTP server "stubHttpServer"
+    And HTTP server listening on port 8090
+    And HTTP server stub mode is enabled
+
+  Scenario: Stub routes
+    Given clear HTTP server stub routes
+    Given HTTP server stub routes
+      | method | path       | status | contentType      | body                                     |
+      | GET    | /todo/{id} | 200    | application/json | {"id": "${id}", "task": "Sample task"}   |
+      | POST   | /todo      | 201    | application/json | {"created": true}                        |
+    When send GET /todo/1001
+    Then verify HTTP response body: {"id": "1001", "task": "Sample task"}
+    And receive HTTP 200 OK
+    When send GET /todo/1002
+    Then verify HTTP response body: {"id": "1002", "task": "Sample task"}
+    And receive HTTP 200 OK
+    When send POST /todo
+    Then receive HTTP 201 CREATED
+    And verify HTTP server stub GET /todo/{id} was called 2 times
+    And verify HTTP server stub POST /todo was called at least 1 times
+
+  Scenario: Load stub routes
+    Given clear HTTP server stub routes
+    Given load HTTP server stub routes stub-routes.yaml
+    Given HTTP request header Accept is "application/json"
+    When send GET /todo/1001/tags/urgent
+    Then verify HTTP response header X-Tag="urgent"
+    And verify HTTP response body: {"todo": "1001", "tag": "urgent"}
+    And receive HTTP 200 OK
+    When send GET /todo/1001/tags/urgent
+    Then receive HTTP 406 NOT_ACCEPTABLE
+    When send DELETE /unknown
+    Then receive HTTP 404 NOT_FOUND
+    And verify HTTP server stub GET /todo/{id}/tags/{tag} was called 2 times
+    And verify HTTP server stub has 1 unmatched request
+
+  Scenario: Stub route faults
+    Given clear HTTP server stub routes
+    Given load HTTP server stub routes stub-faults.yaml
+    When send GET /slow/1001
+    Then verify HTTP response body: {"slow": "1001"}
+    And receive HTTP 200 OK
+    When send GET /failing
+    Then receive HTTP 503 SERVICE_UNAVAILABLE
+    Given HTTP server stub routes
+      | method | path       | status | contentType      | body                                     |
+      | GET    | /todo/{id} | 200    | application/json | {"id": "${id}", "task": "Sample task"}   |
+    And HTTP server stub GET /todo/{id} faults
+      | latency.distribution | uniform |
+      | latency.min          | 10      |
+      | latency.max          | 50      |
+      | bandwidth            | 16      |
+      | seed                 | 42      |
+    When send GET /todo/1001
+    Then verify HTTP response body: {"id": "1001", "task": "Sample task"}
+    And receive HTTP 200 OK
+    And verify HTTP server stub GET /slow/{id} was called 1 times
+    And verify HTTP server stub GET /failing was called 1 times
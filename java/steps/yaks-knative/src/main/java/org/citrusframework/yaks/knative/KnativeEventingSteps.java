@@ -31,7 +31,6 @@ import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 
 import static com.consol.citrus.actions.CreateVariablesAction.Builder.createVariable;
 import static com.consol.citrus.container.FinallySequence.Builder.doFinally;
-import static com.consol.citrus.container.RepeatOnErrorUntilTrue.Builder.repeatOnError;
 import static org.citrusframework.yaks.knative.actions.KnativeActionBuilder.knative;
 
 /**
@@ -88,12 +87,11 @@ public class KnativeEventingSteps {
 
     @Given("^Knative broker ([^\\s]+) is running$")
     public void verifyBrokerIsRunning(String brokerName) {
-        runner.then(repeatOnError()
-            .autoSleep(500)
-            .until((i, context) -> i == 10)
-            .actions(knative().client(k8sClient).client(knativeClient)
-                    .brokers()
-                    .verify(brokerName)));
+        runner.then(knative().client(k8sClient).client(knativeClient)
+                .brokers()
+                .verify(brokerName)
+                .maxAttempts(10)
+                .delayBetweenAttempts(500));
     }
 
     @Given("^create Knative trigger ([^\\s]+) on service ([^\\s]+)$")
@@ -25,6 +25,7 @@ import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 
 import static com.consol.citrus.actions.CreateVariablesAction.Builder.createVariable;
@@ -50,7 +51,10 @@ public class KnativeSteps {
     public void before(Scenario scenario) {
         // Use given namespace by initializing a test variable in the test runner. Other test actions and steps
         // may use the variable as expression or resolve the variable value via test context.
-        runner.variable(KnativeVariableNames.NAMESPACE.value(), namespace);
+        // With the Kubernetes namespace pool enabled actions resolve the pooled namespace of the scenario instead.
+        if (!KubernetesSettings.isNamespacePoolEnabled()) {
+            runner.variable(KnativeVariableNames.NAMESPACE.value(), namespace);
+        }
 
         if (k8sClient == null) {
             k8sClient = KubernetesSupport.getKubernetesClient(citrus);
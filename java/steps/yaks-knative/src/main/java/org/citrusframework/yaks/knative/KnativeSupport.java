@@ -17,26 +17,91 @@
 
 package org.citrusframework.yaks.knative;
 
+import java.util.Optional;
+
 import com.consol.citrus.Citrus;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.spi.ReferenceResolver;
 import io.fabric8.knative.client.DefaultKnativeClient;
 import io.fabric8.knative.client.KnativeClient;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.citrusframework.yaks.kubernetes.KubernetesClientHolder;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
+import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.KubernetesVariableNames;
 
 /**
  * @author Christoph Deppisch
  */
 public final class KnativeSupport {
 
+    private static final String KNATIVE_CLIENT_BEAN_NAME = "yaksKnativeClient";
+
     private KnativeSupport() {
         // prevent instantiation of utility class
     }
 
-    public static KnativeClient getKnativeClient(Citrus citrus) {
-        if (citrus.getCitrusContext().getReferenceResolver().resolveAll(KnativeClient.class).size() == 1L) {
-            return citrus.getCitrusContext().getReferenceResolver().resolve(KnativeClient.class);
+    /**
+     * Gets the Knative client. Uses the client bean registered in the Citrus context if any. Otherwise creates a new client
+     * that shares the Http client and configuration of the Kubernetes client and shares it with all steps of the test suite.
+     * When the Kubernetes client is the shared client of {@link KubernetesClientHolder} the Knative client holds a reference
+     * that is released when the test suite has finished. User provided Kubernetes clients are left untouched.
+     * @param citrus
+     * @return
+     */
+    public static synchronized KnativeClient getKnativeClient(Citrus citrus) {
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(KNATIVE_CLIENT_BEAN_NAME)) {
+            return referenceResolver.resolve(KNATIVE_CLIENT_BEAN_NAME, KnativeClient.class);
+        }
+
+        if (referenceResolver.resolveAll(KnativeClient.class).size() == 1L) {
+            return referenceResolver.resolve(KnativeClient.class);
+        }
+
+        Optional<KnativeClient> shared = KubernetesSupport.getSuiteObject(citrus, KNATIVE_CLIENT_BEAN_NAME, KnativeClient.class);
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+
+        KubernetesClient k8sClient = KubernetesSupport.getKubernetesClient(citrus);
+
+        KnativeClient knativeClient;
+        if (k8sClient instanceof HttpClientAware) {
+            knativeClient = new DefaultKnativeClient(((HttpClientAware) k8sClient).getHttpClient(), k8sClient.getConfiguration());
         } else {
-            return new DefaultKnativeClient();
+            knativeClient = new DefaultKnativeClient(k8sClient.getConfiguration());
+        }
+
+        // keep the shared client open as long as the Knative client uses its Http client
+        boolean retained = KubernetesClientHolder.retain(k8sClient);
+        return KubernetesSupport.shareWithSuite(citrus, KNATIVE_CLIENT_BEAN_NAME, knativeClient, client -> {
+            if (retained) {
+                KubernetesClientHolder.release();
+            }
+        });
+    }
+
+    /**
+     * Resolves namespace name from given test context using the stored test variable. When no Knative namespace variable
+     * is present uses the namespace that the Kubernetes namespace pool has assigned to the current scenario if the pool
+     * is enabled. Fallback to the namespace given in Knative environment settings.
+     * @param context
+     * @return
+     */
+    public static String namespace(TestContext context) {
+        if (context.getVariables().containsKey(KnativeVariableNames.NAMESPACE.value())) {
+            return context.getVariable(KnativeVariableNames.NAMESPACE.value());
+        }
+
+        if (KubernetesSettings.isNamespacePoolEnabled() &&
+                context.getVariables().containsKey(KubernetesVariableNames.NAMESPACE.value())) {
+            return context.getVariable(KubernetesVariableNames.NAMESPACE.value());
         }
+
+        return KnativeSettings.getNamespace();
     }
 
     public static CustomResourceDefinitionContext eventingCRDContext(String kind, String version) {
@@ -17,10 +17,6 @@
 
 package org.citrusframework.yaks.knative;
 
-import javax.net.ssl.SSLContext;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.Objects;
 
 import com.consol.citrus.Citrus;
@@ -37,15 +33,10 @@ import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustAllStrategy;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.SSLContexts;
+import org.citrusframework.yaks.http.HttpConnectionPool;
 import org.citrusframework.yaks.knative.ce.CloudEventSupport;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.util.StringUtils;
 
 import static com.consol.citrus.http.actions.HttpActionBuilder.http;
@@ -76,6 +67,7 @@ public class SendEventSteps {
             } else {
                 httpClient = new HttpClientBuilder()
                         .timeout(timeout)
+                        .requestFactory(HttpConnectionPool.getOrCreate(citrus).getRequestFactory())
                         .build();
             }
         }
@@ -86,7 +78,7 @@ public class SendEventSteps {
     @Given("^Knative broker (?:URL|url): ([^\\s]+)$")
     public void setUrl(String url) {
         if (url.startsWith("https")) {
-            httpClient.getEndpointConfiguration().setRequestFactory(sslRequestFactory());
+            httpClient.getEndpointConfiguration().setRequestFactory(HttpConnectionPool.getOrCreate(citrus).getRequestFactory());
         }
 
         this.brokerUrl = url;
@@ -153,36 +145,4 @@ public class SendEventSteps {
                 .response(HttpStatus.ACCEPTED)
                 .timeout(timeout));
     }
-
-    /**
-     * Get secure request factory.
-     * @return
-     */
-    private HttpComponentsClientHttpRequestFactory sslRequestFactory() {
-        return new HttpComponentsClientHttpRequestFactory(sslClient());
-    }
-
-    /**
-     * Get secure http client implementation with trust all strategy and noop host name verifier.
-     * @return
-     */
-    private org.apache.http.client.HttpClient sslClient() {
-        try {
-            SSLContext sslcontext = SSLContexts
-                    .custom()
-                    .loadTrustMaterial(TrustAllStrategy.INSTANCE)
-                    .build();
-
-            SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(
-                    sslcontext, NoopHostnameVerifier.INSTANCE);
-
-            return HttpClients
-                    .custom()
-                    .setSSLSocketFactory(sslSocketFactory)
-                    .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE)
-                    .build();
-        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
-            throw new CitrusRuntimeException("Failed to create http client for ssl connection", e);
-        }
-    }
 }
@@ -22,6 +22,7 @@ import com.consol.citrus.context.TestContext;
 import io.fabric8.knative.client.KnativeClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import org.citrusframework.yaks.knative.KnativeSettings;
+import org.citrusframework.yaks.knative.KnativeSupport;
 import org.citrusframework.yaks.knative.KnativeVariableNames;
 
 /**
@@ -47,17 +48,14 @@ public interface KnativeAction extends TestAction {
 
     /**
      * Resolves namespace name from given test context using the stored test variable.
-     * Fallback to the namespace given in Knative environment settings when no test variable is present.
+     * Fallback to the pooled Kubernetes namespace of the scenario or the namespace given in Knative environment settings
+     * when no test variable is present.
      *
      * @param context
      * @return
      */
     default String namespace(TestContext context) {
-        if (context.getVariables().containsKey(KnativeVariableNames.NAMESPACE.value())) {
-            return context.getVariable(KnativeVariableNames.NAMESPACE.value());
-        }
-
-        return KnativeSettings.getNamespace();
+        return KnativeSupport.namespace(context);
     }
 
     /**
@@ -18,45 +18,71 @@
 package org.citrusframework.yaks.knative.actions.eventing;
 
 import com.consol.citrus.context.TestContext;
-import com.consol.citrus.exceptions.ValidationException;
 import io.fabric8.knative.eventing.v1.Broker;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import org.citrusframework.yaks.knative.actions.AbstractKnativeAction;
+import org.citrusframework.yaks.kubernetes.BackoffStrategy;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
+import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.ResourceWaiter;
 
 /**
+ * Test action verifies that given Knative broker is ready. Waits for the broker with the configured backoff strategy until
+ * the timeout (max attempts times delay between attempts) is exceeded.
+ *
  * @author Christoph Deppisch
  */
 public class VerifyBrokerAction extends AbstractKnativeAction {
 
     private final String brokerName;
+    private final int maxAttempts;
+    private final long delayBetweenAttempts;
+    private final BackoffStrategy backoff;
 
     public VerifyBrokerAction(Builder builder) {
         super("verify-broker", builder);
 
         this.brokerName = builder.brokerName;
+        this.maxAttempts = builder.maxAttempts;
+        this.delayBetweenAttempts = builder.delayBetweenAttempts;
+        this.backoff = builder.backoff != null ? builder.backoff : KubernetesSupport.backoffStrategy(delayBetweenAttempts);
     }
 
     @Override
     public void doExecute(TestContext context) {
+        String resolvedBrokerName = context.replaceDynamicContentInString(brokerName);
+        String namespace = namespace(context);
+
+        new ResourceWaiter("broker", maxAttempts * delayBetweenAttempts, backoff)
+                .waitFor(String.format("Knative broker '%s' in namespace '%s' to be ready", resolvedBrokerName, namespace),
+                        () -> getReadyBroker(resolvedBrokerName, namespace));
+    }
+
+    /**
+     * Retrieve broker when it is in ready state.
+     * @param name
+     * @param namespace
+     * @return the broker or null when the broker is not found or not ready.
+     */
+    private Broker getReadyBroker(String name, String namespace) {
         try {
             Broker broker = getKnativeClient().brokers()
-                    .inNamespace(namespace(context))
-                    .withName(brokerName)
+                    .inNamespace(namespace)
+                    .withName(name)
                     .get();
 
-            if (broker.getStatus() != null &&
+            if (broker != null && broker.getStatus() != null &&
                     broker.getStatus().getConditions() != null &&
                     broker.getStatus().getConditions().stream()
                             .anyMatch(condition -> condition.getType().equals("Ready") &&
                                     condition.getStatus().equalsIgnoreCase("True"))) {
-                LOG.info(String.format("Knative broker %s is ready", brokerName));
-            } else {
-                throw new ValidationException(String.format("Knative broker '%s' is not ready", brokerName));
+                return broker;
             }
         } catch (KubernetesClientException e) {
-            throw new ValidationException(String.format("Failed to validate Knative broker '%s' - " +
-                    "not found in namespace '%s'", brokerName, namespace(context)), e);
+            LOG.warn(String.format("Failed to get Knative broker '%s' in namespace '%s'", name, namespace), e);
         }
+
+        return null;
     }
 
     /**
@@ -66,11 +92,30 @@ public class VerifyBrokerAction extends AbstractKnativeAction {
 
         private String brokerName;
 
+        private int maxAttempts = KubernetesSettings.getMaxAttempts();
+        private long delayBetweenAttempts = KubernetesSettings.getDelayBetweenAttempts();
+        private BackoffStrategy backoff;
+
         public Builder name(String brokerName) {
             this.brokerName = brokerName;
             return this;
         }
 
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder delayBetweenAttempts(long delayBetweenAttempts) {
+            this.delayBetweenAttempts = delayBetweenAttempts;
+            return this;
+        }
+
+        public Builder backoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
         @Override
         public VerifyBrokerAction build() {
             return new VerifyBrokerAction(this);
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+/**
+ * Strategy calculating the delay between attempts when waiting for a resource to reach a state.
+ *
+ * @author Christoph Deppisch
+ */
+@FunctionalInterface
+public interface BackoffStrategy {
+
+    /**
+     * Gets the delay in milliseconds to wait after given attempt.
+     * @param attempt the number of the attempt that has just failed starting with 1.
+     * @return
+     */
+    long getDelay(int attempt);
+
+    /**
+     * Strategy waiting the same amount of time after each attempt.
+     * @param delay
+     * @return
+     */
+    static BackoffStrategy fixed(long delay) {
+        return attempt -> delay;
+    }
+}
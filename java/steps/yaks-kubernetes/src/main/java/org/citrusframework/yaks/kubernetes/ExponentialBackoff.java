@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff strategy increasing the delay exponentially up to a maximum delay. An optional fast poll phase checks the
+ * resource with a short delay for the first attempts so resources that are ready quickly are seen early. Random jitter
+ * spreads the requests of concurrent verifications.
+ *
+ * @author Christoph Deppisch
+ */
+public class ExponentialBackoff implements BackoffStrategy {
+
+    private final long initialDelay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final double jitter;
+
+    private final int fastPollAttempts;
+    private final long fastPollDelay;
+
+    public ExponentialBackoff(long initialDelay, long maxDelay, double multiplier, double jitter) {
+        this(initialDelay, maxDelay, multiplier, jitter, 0, 0L);
+    }
+
+    public ExponentialBackoff(long initialDelay, long maxDelay, double multiplier, double jitter,
+                              int fastPollAttempts, long fastPollDelay) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = Math.max(initialDelay, maxDelay);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(Math.max(0.0, jitter), 1.0);
+        this.fastPollAttempts = fastPollAttempts;
+        this.fastPollDelay = fastPollDelay;
+    }
+
+    @Override
+    public long getDelay(int attempt) {
+        if (attempt <= fastPollAttempts) {
+            return fastPollDelay;
+        }
+
+        int exponent = attempt - fastPollAttempts - 1;
+        double delay = Math.min(initialDelay * Math.pow(multiplier, exponent), maxDelay);
+
+        if (jitter > 0) {
+            delay = delay * (1 - jitter + ThreadLocalRandom.current().nextDouble() * 2 * jitter);
+        }
+
+        return Math.min(Math.round(delay), maxDelay);
+    }
+}
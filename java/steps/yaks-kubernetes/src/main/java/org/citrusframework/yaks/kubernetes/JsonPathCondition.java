@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+
+/**
+ * Condition on a Kubernetes resource expressed with JSONPath. The expression is either a single JSONPath
+ * expression that must evaluate to a truthy value (e.g. <code>.status.readyReplicas</code>) or a comparison of
+ * two operands (e.g. <code>.status.observedGeneration >= .metadata.generation</code>). Operands are JSONPath expressions
+ * starting with <code>.</code> or <code>$</code> or literal values such as numbers, booleans and quoted strings.
+ *
+ * Supported operators are <code>==</code>, <code>!=</code>, <code>&gt;=</code>, <code>&lt;=</code>, <code>&gt;</code>
+ * and <code>&lt;</code>. The expression is compiled once and can be evaluated on many resources.
+ *
+ * @author Christoph Deppisch
+ */
+public final class JsonPathCondition {
+
+    private static final String[] OPERATORS = { "==", "!=", ">=", "<=", ">", "<" };
+
+    private static final Configuration CONFIGURATION = Configuration.defaultConfiguration()
+            .addOptions(Option.SUPPRESS_EXCEPTIONS, Option.DEFAULT_PATH_LEAF_TO_NULL);
+
+    private final String expression;
+    private final Operand left;
+    private final String operator;
+    private final Operand right;
+
+    private JsonPathCondition(String expression, Operand left, String operator, Operand right) {
+        this.expression = expression;
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    /**
+     * Compiles given expression.
+     * @param expression
+     * @return
+     */
+    public static JsonPathCondition compile(String expression) {
+        String trimmed = expression.trim();
+        int[] position = findOperator(trimmed);
+
+        if (position == null) {
+            return new JsonPathCondition(trimmed, Operand.compile(trimmed), null, null);
+        }
+
+        return new JsonPathCondition(trimmed,
+                Operand.compile(trimmed.substring(0, position[0])),
+                OPERATORS[position[1]],
+                Operand.compile(trimmed.substring(position[0] + OPERATORS[position[1]].length())));
+    }
+
+    /**
+     * Evaluates the condition on given resource. The resource is either a JSON string or
+     * an already parsed resource such as a property map.
+     * @param resource
+     * @return true when the resource matches the condition.
+     */
+    public boolean matches(Object resource) {
+        if (resource == null) {
+            return false;
+        }
+
+        Object document = resource instanceof String ? CONFIGURATION.jsonProvider().parse((String) resource) : resource;
+        Object leftValue = left.evaluate(document);
+
+        if (operator == null) {
+            return isTruthy(leftValue);
+        }
+
+        return compare(leftValue, right.evaluate(document));
+    }
+
+    private boolean compare(Object leftValue, Object rightValue) {
+        if (leftValue == null || rightValue == null) {
+            switch (operator) {
+                case "==":
+                    return leftValue == rightValue;
+                case "!=":
+                    return leftValue != rightValue;
+                default:
+                    return false;
+            }
+        }
+
+        int result;
+        if (leftValue instanceof Boolean || rightValue instanceof Boolean) {
+            result = Boolean.compare(Boolean.parseBoolean(String.valueOf(leftValue)),
+                    Boolean.parseBoolean(String.valueOf(rightValue)));
+        } else if (isNumber(leftValue) && isNumber(rightValue)) {
+            result = Double.compare(toNumber(leftValue), toNumber(rightValue));
+        } else {
+            result = String.valueOf(leftValue).compareTo(String.valueOf(rightValue));
+        }
+
+        switch (operator) {
+            case "==":
+                return result == 0;
+            case "!=":
+                return result != 0;
+            case ">=":
+                return result >= 0;
+            case "<=":
+                return result <= 0;
+            case ">":
+                return result > 0;
+            default:
+                return result < 0;
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+
+        String stringValue = String.valueOf(value);
+        return !stringValue.isEmpty() && !stringValue.equalsIgnoreCase("false");
+    }
+
+    private static boolean isNumber(Object value) {
+        if (value instanceof Number) {
+            return true;
+        }
+
+        try {
+            Double.parseDouble(String.valueOf(value));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static double toNumber(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+
+        return Double.parseDouble(String.valueOf(value));
+    }
+
+    /**
+     * Finds first comparison operator that is not part of a filter expression or quoted string.
+     * @param expression
+     * @return index of the operator in the expression and index of the operator in the list of operators or null if not found.
+     */
+    private static int[] findOperator(String expression) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (depth == 0) {
+                for (int j = 0; j < OPERATORS.length; j++) {
+                    if (expression.startsWith(OPERATORS[j], i)) {
+                        return new int[] { i, j };
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Either compiled JSONPath expression or literal value.
+     */
+    private static final class Operand {
+        private final JsonPath path;
+        private final Object value;
+
+        private Operand(JsonPath path, Object value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        static Operand compile(String expression) {
+            String trimmed = expression.trim();
+            if (trimmed.isEmpty()) {
+                throw new CitrusRuntimeException("Missing operand in JSONPath condition");
+            }
+
+            if (trimmed.startsWith("$") || trimmed.startsWith(".")) {
+                try {
+                    return new Operand(JsonPath.compile(trimmed.startsWith(".") ? "$" + trimmed : trimmed), null);
+                } catch (InvalidPathException e) {
+                    throw new CitrusRuntimeException(String.format("Invalid JSONPath expression '%s'", trimmed), e);
+                }
+            }
+
+            if ((trimmed.startsWith("'") && trimmed.endsWith("'")) || (trimmed.startsWith("\"") && trimmed.endsWith("\""))) {
+                return new Operand(null, trimmed.substring(1, trimmed.length() - 1));
+            }
+
+            if (trimmed.equals("null")) {
+                return new Operand(null, null);
+            }
+
+            if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
+                return new Operand(null, Boolean.parseBoolean(trimmed));
+            }
+
+            return new Operand(null, trimmed);
+        }
+
+        Object evaluate(Object document) {
+            if (path == null) {
+                return value;
+            }
+
+            Object result = path.read(document, CONFIGURATION);
+            if (result instanceof List && !path.isDefinite()) {
+                List<?> results = (List<?>) result;
+                if (results.isEmpty()) {
+                    return null;
+                }
+
+                if (results.size() == 1) {
+                    return results.get(0);
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds a single Kubernetes client that is shared by all steps in the test suite. All clients created from this holder
+ * share the same Http client with its connection pool, dispatcher threads and TLS context. The holder counts references
+ * and closes the client once the last reference has been released.
+ *
+ * @author Christoph Deppisch
+ */
+public final class KubernetesClientHolder {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesClientHolder.class);
+
+    private static Config config;
+    private static OkHttpClient httpClient;
+    private static KubernetesClient kubernetesClient;
+
+    private static int references = 0;
+
+    private KubernetesClientHolder() {
+        // prevent instantiation of utility class
+    }
+
+    /**
+     * Gets the shared Kubernetes client and increments the reference count. Creates a new client on first access.
+     * Callers must release the client with {@link #release()} when done.
+     * @return
+     */
+    public static synchronized KubernetesClient acquire() {
+        if (kubernetesClient == null) {
+            config = Config.autoConfigure(null);
+            config.setHttp2Disable(!KubernetesSettings.isClientHttp2());
+            config.setMaxConcurrentRequests(KubernetesSettings.getClientMaxConcurrentRequests());
+            config.setMaxConcurrentRequestsPerHost(KubernetesSettings.getClientMaxConcurrentRequests());
+
+            httpClient = HttpClientUtils.createHttpClient(config)
+                    .newBuilder()
+                    .connectionPool(new ConnectionPool(KubernetesSettings.getClientMaxIdleConnections(),
+                            KubernetesSettings.getClientKeepAlive(), TimeUnit.MILLISECONDS))
+                    .build();
+
+            kubernetesClient = new DefaultKubernetesClient(httpClient, config);
+            LOG.info(String.format("Created shared Kubernetes client for master URL '%s'", config.getMasterUrl()));
+        }
+
+        references++;
+        return kubernetesClient;
+    }
+
+    /**
+     * Increments the reference count when given client is the shared client of this holder. Callers must release
+     * the client with {@link #release()} when this method returns true.
+     * @param client
+     * @return true when given client is the shared client and the reference count has been incremented.
+     */
+    public static synchronized boolean retain(KubernetesClient client) {
+        if (client != null && client == kubernetesClient) {
+            references++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Decrements the reference count and closes the shared client when the last reference has been released.
+     */
+    public static synchronized void release() {
+        if (references > 0) {
+            references--;
+        }
+
+        if (references == 0 && kubernetesClient != null) {
+            LOG.info("Closing shared Kubernetes client");
+            kubernetesClient.close();
+            kubernetesClient = null;
+            httpClient = null;
+            config = null;
+        }
+    }
+
+    /**
+     * Gets the Http client of the shared Kubernetes client. Other clients (e.g. Knative) should use this Http client
+     * in combination with {@link #getConfig()} so connections are shared. Only valid while holding a reference.
+     * @return
+     */
+    public static synchronized OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets the configuration of the shared Kubernetes client. Only valid while holding a reference.
+     * @return
+     */
+    public static synchronized Config getConfig() {
+        return config;
+    }
+}
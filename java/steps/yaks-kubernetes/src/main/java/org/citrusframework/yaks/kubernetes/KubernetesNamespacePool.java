@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.CronJob;
+import io.fabric8.kubernetes.api.model.batch.Job;
+import io.fabric8.kubernetes.api.model.networking.v1.Ingress;
+import io.fabric8.kubernetes.api.model.rbac.Role;
+import io.fabric8.kubernetes.api.model.rbac.RoleBinding;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of pre-created namespaces so each scenario is able to work on its own namespace. The pool keeps a given number
+ * of labeled namespaces warm, including the propagation of the default service account, and hands one namespace to each
+ * scenario. Released namespaces are recycled in the background by deleting their contents (built-in kinds as well as
+ * custom resources of all namespaced custom resource definitions known when the pool starts) and handing the same
+ * namespace back to the pool once all resources (including terminating pods) are gone. Resources the cluster creates in
+ * each namespace (default service account, its token and the root CA config map) are kept. Namespaces that fail to get
+ * cleaned up are deleted and replaced with a fresh namespace. When no namespace is ready the pool creates a new one on
+ * demand.
+ *
+ * @author Christoph Deppisch
+ */
+public class KubernetesNamespacePool {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesNamespacePool.class);
+
+    /** Label marking namespaces managed by the pool */
+    public static final String POOL_LABEL = "yaks.citrusframework.org/namespace-pool";
+
+    private static final String DEFAULT_SERVICE_ACCOUNT = "default";
+
+    /** Resources created by the cluster in each namespace - ignored when verifying that a namespace is empty */
+    private static final String ROOT_CA_CONFIG_MAP = "kube-root-ca.crt";
+    private static final String DEFAULT_TOKEN_PREFIX = DEFAULT_SERVICE_ACCOUNT + "-token-";
+
+    /** Built-in namespaced kinds removed on recycle, owners first so dependents are not recreated meanwhile */
+    private static final List<Class<? extends HasMetadata>> RECYCLE_KINDS = Collections.unmodifiableList(Arrays.asList(
+            CronJob.class, Job.class, Deployment.class, StatefulSet.class, DaemonSet.class, ReplicaSet.class,
+            ReplicationController.class, Pod.class, Service.class, Ingress.class, ConfigMap.class, Secret.class,
+            PersistentVolumeClaim.class, RoleBinding.class, Role.class, ServiceAccount.class));
+
+    /** Kinds that hold resources created by the cluster - deleted by name so the cluster managed resources are kept */
+    private static final List<Class<? extends HasMetadata>> CLUSTER_MANAGED_KINDS = Collections.unmodifiableList(Arrays.asList(
+            ServiceAccount.class, ConfigMap.class, Secret.class));
+
+    private final KubernetesClient k8sClient;
+    private final int size;
+    private final String prefix;
+    private final long readyTimeout;
+
+    private final BlockingQueue<String> ready = new LinkedBlockingQueue<>();
+    private final Set<String> namespaces = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor;
+
+    private volatile boolean stopped = false;
+
+    /** Namespaced custom resource kinds resolved once when the pool starts */
+    private volatile List<CustomResourceDefinitionContext> customKinds = Collections.emptyList();
+
+    public KubernetesNamespacePool(KubernetesClient k8sClient) {
+        this(k8sClient, KubernetesSettings.getNamespacePoolSize(), KubernetesSettings.getNamespacePoolPrefix(),
+                KubernetesSettings.getMaxAttempts() * KubernetesSettings.getDelayBetweenAttempts());
+    }
+
+    public KubernetesNamespacePool(KubernetesClient k8sClient, int size, String prefix, long readyTimeout) {
+        this.k8sClient = k8sClient;
+        this.size = size;
+        this.prefix = prefix;
+        this.readyTimeout = readyTimeout;
+        this.executor = Executors.newFixedThreadPool(Math.max(size, 1), runnable -> {
+            Thread thread = new Thread(runnable, "yaks-namespace-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolves the namespaced custom resource kinds and starts to warm up the pool in the background.
+     */
+    public void start() {
+        try {
+            customKinds = getCustomResourceKinds();
+        } catch (KubernetesClientException e) {
+            LOG.warn("Failed to resolve custom resource kinds - recycled namespaces keep custom resources", e);
+        }
+
+        for (int i = 0; i < size; i++) {
+            executor.submit(() -> {
+                try {
+                    offer(createNamespace());
+                } catch (RuntimeException e) {
+                    LOG.warn("Failed to warm up namespace pool", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Takes a ready namespace from the pool. Creates a new namespace when no namespace is ready.
+     * @return the name of the namespace.
+     */
+    public String acquire() {
+        if (stopped) {
+            throw new CitrusRuntimeException("Namespace pool has been stopped");
+        }
+
+        String namespace = ready.poll();
+        if (namespace == null) {
+            LOG.info("No pooled namespace ready - creating new namespace");
+            namespace = createNamespace();
+        }
+
+        LOG.info(String.format("Acquired namespace '%s' from pool", namespace));
+        return namespace;
+    }
+
+    /**
+     * Gives back the namespace to the pool. The namespace is recycled in the background by deleting all of its
+     * contents. When the pool already holds enough ready namespaces the namespace is deleted only.
+     * @param namespace
+     */
+    public void release(String namespace) {
+        if (stopped) {
+            deleteNamespace(namespace);
+            return;
+        }
+
+        executor.submit(() -> {
+            try {
+                if (ready.size() >= size) {
+                    deleteNamespace(namespace);
+                    return;
+                }
+
+                long start = System.currentTimeMillis();
+                recycle(namespace);
+                offer(namespace);
+                LOG.info(String.format("Recycled namespace '%s' in %d ms", namespace, System.currentTimeMillis() - start));
+            } catch (RuntimeException e) {
+                LOG.warn(String.format("Failed to recycle namespace '%s' - replacing namespace with fresh namespace", namespace), e);
+                deleteNamespace(namespace);
+                replace();
+            }
+        });
+    }
+
+    /**
+     * Stops the pool and deletes all namespaces created by this pool.
+     */
+    public void stop() {
+        stopped = true;
+        executor.shutdownNow();
+        ready.clear();
+        namespaces.forEach(this::deleteNamespace);
+    }
+
+    /**
+     * Deletes all resources in given namespace and waits for the deletion to finish so the namespace is empty
+     * and ready to be used by the next scenario.
+     * @param namespace
+     */
+    private void recycle(String namespace) {
+        customKinds.forEach(context -> deleteAll(context, null, namespace));
+        RECYCLE_KINDS.forEach(kind -> deleteAll(KubernetesSupport.resourceContext(kind, true), kind, namespace));
+
+        waitForEmpty(namespace);
+        waitForServiceAccount(namespace);
+    }
+
+    /**
+     * Adds namespace to the ready namespaces unless the pool has been stopped in the meantime.
+     * @param namespace
+     */
+    private void offer(String namespace) {
+        if (stopped) {
+            deleteNamespace(namespace);
+            return;
+        }
+
+        ready.offer(namespace);
+    }
+
+    /**
+     * Creates a fresh namespace as replacement for a namespace that failed to recycle.
+     */
+    private void replace() {
+        if (stopped) {
+            return;
+        }
+
+        try {
+            offer(createNamespace());
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to replace pooled namespace", e);
+        }
+    }
+
+    /**
+     * Contexts of all namespaced custom resource kinds known to the cluster.
+     * @return
+     */
+    private List<CustomResourceDefinitionContext> getCustomResourceKinds() {
+        return k8sClient.apiextensions().v1().customResourceDefinitions().list().getItems().stream()
+                .filter(crd -> "Namespaced".equals(crd.getSpec().getScope()))
+                .map(CustomResourceDefinitionContext::fromCrd)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes all resources of given kind in namespace. Kinds holding cluster managed resources are deleted by name
+     * so the cluster managed resources are kept.
+     * @param context
+     * @param type
+     * @param namespace
+     */
+    private void deleteAll(CustomResourceDefinitionContext context, Class<? extends HasMetadata> type, String namespace) {
+        if (!CLUSTER_MANAGED_KINDS.contains(type)) {
+            ignoreNotFound(() -> KubernetesSupport.deleteResources(k8sClient, context, type, namespace, Collections.emptyMap(), false));
+            return;
+        }
+
+        KubernetesSupport.getResourceNames(k8sClient, context, type, namespace, Collections.emptyMap()).stream()
+                .filter(name -> !isClusterManaged(type, name))
+                .forEach(name -> ignoreNotFound(() -> KubernetesSupport.deleteResource(k8sClient, context, type, namespace, name)));
+    }
+
+    private static void ignoreNotFound(Runnable request) {
+        try {
+            request.run();
+        } catch (KubernetesClientException e) {
+            if (e.getCode() != 404) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits for all resources in given namespace to be removed. Ignores resources the cluster creates in each namespace.
+     * @param namespace
+     */
+    private void waitForEmpty(String namespace) {
+        long deadline = System.currentTimeMillis() + readyTimeout;
+        try {
+            while (!isEmpty(namespace)) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new CitrusRuntimeException(String.format("Timed out waiting for resources in namespace '%s' to be deleted", namespace));
+                }
+
+                Thread.sleep(KubernetesSettings.getDelayBetweenAttempts());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException(String.format("Interrupted while waiting for resources in namespace '%s' to be deleted", namespace), e);
+        }
+    }
+
+    private boolean isEmpty(String namespace) {
+        for (CustomResourceDefinitionContext context : customKinds) {
+            if (!KubernetesSupport.getResourceNames(k8sClient, context, null, namespace, Collections.emptyMap()).isEmpty()) {
+                return false;
+            }
+        }
+
+        for (Class<? extends HasMetadata> kind : RECYCLE_KINDS) {
+            if (KubernetesSupport.getResourceNames(k8sClient, KubernetesSupport.resourceContext(kind, true), kind, namespace, Collections.emptyMap())
+                    .stream().anyMatch(name -> !isClusterManaged(kind, name))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isClusterManaged(Class<? extends HasMetadata> kind, String name) {
+        return (kind == ServiceAccount.class && DEFAULT_SERVICE_ACCOUNT.equals(name)) ||
+                (kind == ConfigMap.class && ROOT_CA_CONFIG_MAP.equals(name)) ||
+                (kind == Secret.class && name.startsWith(DEFAULT_TOKEN_PREFIX));
+    }
+
+    /**
+     * Creates new labeled namespace and waits for the default service account to be present.
+     * @return
+     */
+    private String createNamespace() {
+        String name = String.format("%s-%s", prefix, UUID.randomUUID().toString().substring(0, 8));
+
+        Map<String, String> labels = new HashMap<>(KubernetesSettings.getDefaultLabels());
+        labels.put(POOL_LABEL, prefix);
+
+        Namespace namespace = new NamespaceBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withLabels(labels)
+                .endMetadata()
+                .build();
+
+        long start = System.currentTimeMillis();
+        k8sClient.namespaces().create(namespace);
+        namespaces.add(name);
+
+        if (stopped) {
+            // pool has been stopped while the namespace was created
+            deleteNamespace(name);
+            throw new CitrusRuntimeException("Namespace pool has been stopped");
+        }
+
+        waitForServiceAccount(name);
+        LOG.info(String.format("Created pooled namespace '%s' in %d ms", name, System.currentTimeMillis() - start));
+        return name;
+    }
+
+    /**
+     * Waits for the default service account in given namespace so the namespace is ready to run workloads.
+     * @param namespace
+     */
+    private void waitForServiceAccount(String namespace) {
+        long deadline = System.currentTimeMillis() + readyTimeout;
+        try {
+            while (k8sClient.serviceAccounts().inNamespace(namespace).withName(DEFAULT_SERVICE_ACCOUNT).get() == null) {
+                if (System.currentTimeMillis() >= deadline) {
+                    LOG.warn(String.format("Timed out waiting for default service account in namespace '%s'", namespace));
+                    return;
+                }
+
+                Thread.sleep(KubernetesSettings.getDelayBetweenAttempts());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for default service account", e);
+        }
+    }
+
+    private void deleteNamespace(String namespace) {
+        try {
+            k8sClient.namespaces().withName(namespace).delete();
+            namespaces.remove(namespace);
+            LOG.info(String.format("Deleted pooled namespace '%s'", namespace));
+        } catch (KubernetesClientException e) {
+            LOG.warn(String.format("Failed to delete pooled namespace '%s'", namespace), e);
+        }
+    }
+
+    /**
+     * Gets the number of namespaces ready to be acquired.
+     * @return
+     */
+    public int getReadyCount() {
+        return ready.size();
+    }
+}
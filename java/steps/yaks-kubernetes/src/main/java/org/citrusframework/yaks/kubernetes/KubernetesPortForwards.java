@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.consol.citrus.endpoint.Endpoint;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.client.HttpClient;
+import com.consol.citrus.http.client.HttpClientBuilder;
+import com.consol.citrus.spi.ReferenceResolver;
+import io.fabric8.kubernetes.api.model.ContainerPort;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.api.model.ServiceSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.LocalPortForward;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+/**
+ * Manages port forwards exposing Kubernetes services as local endpoints so tests running outside of the cluster are able
+ * to connect to in-cluster services. Each forward listens on a single local port and accepts any number of concurrent
+ * connections. Connections are streamed over the shared Kubernetes client so they are multiplexed on the connection to
+ * the API server. Forwards are reused across scenarios as long as they are alive.
+ *
+ * @author Christoph Deppisch
+ */
+public class KubernetesPortForwards {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesPortForwards.class);
+
+    private static final String LOCAL_HOST = "localhost";
+
+    private final KubernetesClient k8sClient;
+    private final KubernetesResourceCache resourceCache;
+
+    private final Map<String, LocalPortForward> forwards = new ConcurrentHashMap<>();
+
+    public KubernetesPortForwards(KubernetesClient k8sClient) {
+        this(k8sClient, null);
+    }
+
+    public KubernetesPortForwards(KubernetesClient k8sClient, KubernetesResourceCache resourceCache) {
+        this.k8sClient = k8sClient;
+        this.resourceCache = resourceCache;
+    }
+
+    /**
+     * Opens port forward to given service port or reuses an existing forward that is still alive.
+     * @param namespace
+     * @param serviceName
+     * @param port the service port.
+     * @param localPort the local port to listen on or 0 to use a random free port.
+     * @return the local port the forward listens on.
+     */
+    public synchronized int forward(String namespace, String serviceName, int port, int localPort) {
+        String key = String.format("%s/%s:%d", namespace, serviceName, port);
+
+        LocalPortForward forward = forwards.get(key);
+        if (forward != null && forward.isAlive() && (localPort == 0 || forward.getLocalPort() == localPort)) {
+            return forward.getLocalPort();
+        }
+
+        if (forward != null) {
+            close(key, forward);
+        }
+
+        Service service = getService(namespace, serviceName);
+        if (service == null) {
+            throw new CitrusRuntimeException(String.format("Unable to forward port - no service '%s' in namespace '%s'",
+                    serviceName, namespace));
+        }
+
+        // the client forwards service ports to the container port of a selected pod
+        int targetPort = getTargetPort(namespace, service, port);
+        if (localPort > 0) {
+            forward = k8sClient.services().inNamespace(namespace).withName(serviceName).portForward(targetPort, localPort);
+        } else {
+            forward = k8sClient.services().inNamespace(namespace).withName(serviceName).portForward(targetPort);
+        }
+
+        forwards.put(key, forward);
+        LOG.info(String.format("Forwarding %s:%d to service '%s' port %d (target port %d) in namespace '%s'",
+                LOCAL_HOST, forward.getLocalPort(), serviceName, port, targetPort, namespace));
+        return forward.getLocalPort();
+    }
+
+    /**
+     * Resolves the target port of given service port. Named target ports are resolved against the container ports
+     * of the pods selected by the service. Service ports without target port forward to the same port number.
+     * @param namespace
+     * @param service
+     * @param port the service port.
+     * @return the container port to forward to.
+     */
+    int getTargetPort(String namespace, Service service, int port) {
+        ServicePort servicePort = Optional.ofNullable(service.getSpec())
+                .map(ServiceSpec::getPorts)
+                .orElse(Collections.emptyList())
+                .stream()
+                .filter(candidate -> candidate.getPort() != null && candidate.getPort() == port)
+                .findFirst()
+                .orElseThrow(() -> new CitrusRuntimeException(String.format("Unable to forward port - service '%s' in namespace '%s' does not expose port %d",
+                        service.getMetadata().getName(), namespace, port)));
+
+        IntOrString targetPort = servicePort.getTargetPort();
+        if (targetPort == null || (targetPort.getIntVal() == null && targetPort.getStrVal() == null)) {
+            return port;
+        }
+
+        if (targetPort.getIntVal() != null) {
+            return targetPort.getIntVal();
+        }
+
+        String protocol = Optional.ofNullable(servicePort.getProtocol()).orElse("TCP");
+        Map<String, String> selector = Optional.ofNullable(service.getSpec().getSelector()).orElse(Collections.emptyMap());
+        return k8sClient.pods().inNamespace(namespace).withLabels(selector).list().getItems()
+                .stream()
+                .filter(pod -> pod.getSpec() != null)
+                .flatMap(pod -> pod.getSpec().getContainers().stream())
+                .filter(container -> container.getPorts() != null)
+                .flatMap(container -> container.getPorts().stream())
+                .filter(containerPort -> targetPort.getStrVal().equals(containerPort.getName())
+                        && protocol.equals(Optional.ofNullable(containerPort.getProtocol()).orElse("TCP")))
+                .map(ContainerPort::getContainerPort)
+                .findFirst()
+                .orElseThrow(() -> new CitrusRuntimeException(String.format("Unable to forward port - no pod of service '%s' in namespace '%s' exposes container port '%s'",
+                        service.getMetadata().getName(), namespace, targetPort.getStrVal())));
+    }
+
+    /**
+     * Looks up the service from the resource cache if any. Falls back to the Kubernetes client when the cache does not
+     * know the service (yet), e.g. because it has just been created.
+     * @param namespace
+     * @param serviceName
+     * @return the service or null if not present.
+     */
+    private Service getService(String namespace, String serviceName) {
+        if (resourceCache != null) {
+            Service service = resourceCache.getService(namespace, serviceName);
+            if (service != null) {
+                return service;
+            }
+        }
+
+        return k8sClient.services().inNamespace(namespace).withName(serviceName).get();
+    }
+
+    /**
+     * Closes all port forwards.
+     */
+    public synchronized void close() {
+        forwards.forEach(this::close);
+        forwards.clear();
+    }
+
+    private void close(String key, LocalPortForward forward) {
+        try {
+            forward.close();
+        } catch (IOException e) {
+            LOG.warn(String.format("Failed to close port forward %s", key), e);
+        }
+        forwards.remove(key);
+    }
+
+    /**
+     * Binds the local port to the endpoint with given name. Existing Http clients get the local request URL. Other
+     * endpoints such as the Kafka endpoint get the local server address. Creates a new Http client when no endpoint
+     * with given name exists.
+     * @param referenceResolver
+     * @param endpointName
+     * @param localPort
+     */
+    public static void bindEndpoint(ReferenceResolver referenceResolver, String endpointName, int localPort) {
+        String url = getLocalUrl(localPort);
+
+        if (!referenceResolver.isResolvable(endpointName)) {
+            HttpClient httpClient = new HttpClientBuilder()
+                    .requestUrl(url)
+                    .build();
+            httpClient.getEndpointConfiguration().setTimeout(KubernetesSettings.getServiceTimeout());
+            referenceResolver.bind(endpointName, httpClient);
+            return;
+        }
+
+        Endpoint endpoint = referenceResolver.resolve(endpointName, Endpoint.class);
+        if (endpoint instanceof HttpClient) {
+            ((HttpClient) endpoint).getEndpointConfiguration().setRequestUrl(url);
+            return;
+        }
+
+        BeanWrapper configuration = PropertyAccessorFactory.forBeanPropertyAccess(endpoint.getEndpointConfiguration());
+        if (configuration.isWritableProperty("server")) {
+            configuration.setPropertyValue("server", String.format("%s:%d", LOCAL_HOST, localPort));
+            return;
+        }
+
+        throw new CitrusRuntimeException(String.format("Unable to bind port forward to endpoint '%s' of type %s",
+                endpointName, endpoint.getClass().getName()));
+    }
+
+    /**
+     * Gets the Http URL of given local port.
+     * @param localPort
+     * @return
+     */
+    public static String getLocalUrl(int localPort) {
+        return String.format("http://%s:%d", LOCAL_HOST, localPort);
+    }
+}
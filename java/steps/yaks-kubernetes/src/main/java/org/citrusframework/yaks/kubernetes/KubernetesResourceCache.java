@@ -0,0 +1,486 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.dsl.base.OperationContext;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Namespace scoped cache of Kubernetes resources shared across scenarios. Informers for a resource kind are started lazily
+ * on the first lookup in a namespace and keep the local cache up to date via list and watch. All read operations served
+ * by this cache do not cause any API server traffic. Mutating operations must still use the Kubernetes client.
+ *
+ * Lookups that miss the local cache read the resource from the API server, because the cache may not have seen
+ * the watch event of a resource that has just been created.
+ *
+ * When an informer is not able to start or sync (e.g. missing list/watch permissions) the lookup falls back to the Kubernetes
+ * client. Failed informers are not kept, the cache tries to start the informer again on lookups after a retry delay.
+ *
+ * @author Christoph Deppisch
+ */
+public class KubernetesResourceCache {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesResourceCache.class);
+
+    /** Maximum time to wait for informers to perform the initial list */
+    private static final long SYNC_TIMEOUT = 10000L;
+    private static final long SYNC_POLL_INTERVAL = 50L;
+
+    /** Time to use direct lookups after an informer or watch has failed to start before starting it again */
+    private static final long RETRY_DELAY = 30000L;
+
+    private final KubernetesClient k8sClient;
+    private final long syncTimeout;
+    private final long retryDelay;
+
+    /** Informers per namespace and resource kind */
+    private final Map<String, SharedIndexInformer<? extends HasMetadata>> informers = new ConcurrentHashMap<>();
+    private final Map<String, CustomResourceStore> customResources = new ConcurrentHashMap<>();
+
+    /** Time of the last failed start per informer or watch key */
+    private final Map<String, Long> failures = new ConcurrentHashMap<>();
+
+    public KubernetesResourceCache(KubernetesClient k8sClient) {
+        this(k8sClient, SYNC_TIMEOUT, RETRY_DELAY);
+    }
+
+    KubernetesResourceCache(KubernetesClient k8sClient, long syncTimeout, long retryDelay) {
+        this.k8sClient = k8sClient;
+        this.syncTimeout = syncTimeout;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Get pod by its name.
+     * @param namespace
+     * @param name
+     * @return the pod or null if not present.
+     */
+    public Pod getPod(String namespace, String name) {
+        return informer(Pod.class, namespace)
+                .map(informer -> informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name)))
+                .orElseGet(() -> k8sClient.pods().inNamespace(namespace).withName(name).get());
+    }
+
+    /**
+     * Get all pods matching given label.
+     * @param namespace
+     * @param label
+     * @param value
+     * @return
+     */
+    public List<Pod> getPods(String namespace, String label, String value) {
+        return informer(Pod.class, namespace)
+                .map(informer -> filterByLabel(informer.getIndexer().list(), label, value))
+                .filter(pods -> !pods.isEmpty())
+                .orElseGet(() -> k8sClient.pods().inNamespace(namespace).withLabel(label, value).list().getItems());
+    }
+
+    /**
+     * Get service by its name.
+     * @param namespace
+     * @param name
+     * @return the service or null if not present.
+     */
+    public Service getService(String namespace, String name) {
+        return informer(Service.class, namespace)
+                .map(informer -> informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name)))
+                .orElseGet(() -> k8sClient.services().inNamespace(namespace).withName(name).get());
+    }
+
+    /**
+     * Get secret by its name.
+     * @param namespace
+     * @param name
+     * @return the secret or null if not present.
+     */
+    public Secret getSecret(String namespace, String name) {
+        return informer(Secret.class, namespace)
+                .map(informer -> informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name)))
+                .orElseGet(() -> k8sClient.secrets().inNamespace(namespace).withName(name).get());
+    }
+
+    /**
+     * Get custom resource by its name.
+     * @param namespace
+     * @param context
+     * @param name
+     * @return the custom resource as property map or null if not present.
+     */
+    public Map<String, Object> getCustomResource(String namespace, CustomResourceDefinitionContext context, String name) {
+        Optional<Map<String, Object>> resource = customResourceStore(namespace, context).map(store -> store.get(name));
+        if (resource.isPresent()) {
+            return resource.get();
+        }
+
+        try {
+            return KubernetesSupport.getResource(k8sClient, namespace, context, name);
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == 404) {
+                return null;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Get all custom resources of given type.
+     * @param namespace
+     * @param context
+     * @return list of custom resources as property maps.
+     */
+    public List<Map<String, Object>> getCustomResources(String namespace, CustomResourceDefinitionContext context) {
+        Optional<List<Map<String, Object>>> resources = customResourceStore(namespace, context)
+                .map(CustomResourceStore::list)
+                .filter(items -> !items.isEmpty());
+        if (resources.isPresent()) {
+            return resources.get();
+        }
+
+        return CustomResourceStore.getItems(KubernetesSupport.getResources(k8sClient, namespace, context));
+    }
+
+    /**
+     * Stops all informers and watches.
+     */
+    public void stop() {
+        informers.values().forEach(SharedIndexInformer::stop);
+        informers.clear();
+
+        customResources.values().forEach(CustomResourceStore::stop);
+        customResources.clear();
+        failures.clear();
+    }
+
+    /**
+     * Stops all informers and watches in given namespace, e.g. when a pooled namespace is released.
+     * @param namespace
+     */
+    public void stop(String namespace) {
+        String prefix = namespace + "/";
+        informers.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(prefix)) {
+                entry.getValue().stop();
+                return true;
+            }
+
+            return false;
+        });
+
+        customResources.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(prefix)) {
+                entry.getValue().stop();
+                return true;
+            }
+
+            return false;
+        });
+        failures.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Checks if an informer for given resource type is running in the namespace.
+     * @param type
+     * @param namespace
+     * @return
+     */
+    boolean isInformerRunning(Class<? extends HasMetadata> type, String namespace) {
+        return informers.containsKey(key(namespace, type.getSimpleName()));
+    }
+
+    /**
+     * Lazy start informer for given resource type in namespace. Waits for the initial sync outside of the informer map
+     * so lookups in other namespaces are not blocked. Informers failing to start or sync are stopped and removed.
+     * @param type
+     * @param namespace
+     * @param <T>
+     * @return the informer or empty if the informer could not be started.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends HasMetadata> Optional<SharedIndexInformer<T>> informer(Class<T> type, String namespace) {
+        String key = key(namespace, type.getSimpleName());
+        if (isRetryDelayed(key)) {
+            return Optional.empty();
+        }
+
+        SharedIndexInformer<T> informer;
+        try {
+            informer = (SharedIndexInformer<T>) informers.computeIfAbsent(key, k -> {
+                SharedIndexInformer<T> typeInformer = k8sClient.informers()
+                        .sharedIndexInformerFor(type, new OperationContext().withNamespace(namespace), 0L);
+                typeInformer.run();
+                return typeInformer;
+            });
+        } catch (KubernetesClientException e) {
+            LOG.warn(String.format("Failed to start %s informer in namespace '%s' - using direct lookups",
+                    type.getSimpleName(), namespace), e);
+            failures.put(key, System.currentTimeMillis());
+            return Optional.empty();
+        }
+
+        if (informer.hasSynced()) {
+            return Optional.of(informer);
+        }
+
+        if (waitForSync(informer)) {
+            LOG.info(String.format("Started %s informer in namespace '%s'", type.getSimpleName(), namespace));
+            return Optional.of(informer);
+        }
+
+        LOG.warn(String.format("%s informer in namespace '%s' has not synced - using direct lookups",
+                type.getSimpleName(), namespace));
+        failures.put(key, System.currentTimeMillis());
+        if (informers.remove(key, informer)) {
+            informer.stop();
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Checks if the informer or watch with given key has failed recently so lookups should not try to start it again.
+     * @param key
+     * @return
+     */
+    private boolean isRetryDelayed(String key) {
+        Long failed = failures.get(key);
+        if (failed == null) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - failed < retryDelay) {
+            return true;
+        }
+
+        failures.remove(key, failed);
+        return false;
+    }
+
+    /**
+     * Wait for informer to perform the initial list of resources.
+     * @param informer
+     * @return true when informer has synced within the timeout.
+     */
+    private boolean waitForSync(SharedIndexInformer<?> informer) {
+        long deadline = System.currentTimeMillis() + syncTimeout;
+        try {
+            while (!informer.hasSynced() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(SYNC_POLL_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return informer.hasSynced();
+    }
+
+    /**
+     * Lazy start custom resource store in namespace. The initial list and watch is performed outside of the store map.
+     * Stores failing to start are removed.
+     * @param namespace
+     * @param context
+     * @return the store or empty if the store could not be started.
+     */
+    private Optional<CustomResourceStore> customResourceStore(String namespace, CustomResourceDefinitionContext context) {
+        String key = key(namespace, context.getName());
+        if (isRetryDelayed(key)) {
+            return Optional.empty();
+        }
+
+        CustomResourceStore store = customResources.compute(key, (k, current) -> {
+            if (current == null || current.isClosed()) {
+                return new CustomResourceStore(k8sClient, namespace, context);
+            }
+
+            return current;
+        });
+
+        if (store.start()) {
+            return Optional.of(store);
+        }
+
+        failures.put(key, System.currentTimeMillis());
+        customResources.remove(key, store);
+        return Optional.empty();
+    }
+
+    /**
+     * Cache key for informers and watches of given resource kind in namespace.
+     * @param namespace
+     * @param kind
+     * @return
+     */
+    private static String key(String namespace, String kind) {
+        return String.format("%s/%s", namespace, kind);
+    }
+
+    private static <T extends HasMetadata> List<T> filterByLabel(List<T> resources, String label, String value) {
+        return resources.stream()
+                .filter(resource -> resource.getMetadata().getLabels() != null &&
+                        value.equals(resource.getMetadata().getLabels().get(label)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Local store of raw custom resources kept up to date via list and watch.
+     */
+    private static class CustomResourceStore implements Watcher<String> {
+
+        private final KubernetesClient k8sClient;
+        private final String namespace;
+        private final CustomResourceDefinitionContext context;
+
+        private final Map<String, Map<String, Object>> items = new ConcurrentHashMap<>();
+
+        private Watch watch;
+        private boolean started = false;
+        private volatile boolean closed = false;
+
+        CustomResourceStore(KubernetesClient k8sClient, String namespace, CustomResourceDefinitionContext context) {
+            this.k8sClient = k8sClient;
+            this.namespace = namespace;
+            this.context = context;
+        }
+
+        /**
+         * Performs the initial list and starts the watch once.
+         * @return true when the store is watching.
+         */
+        synchronized boolean start() {
+            if (started) {
+                return isWatching();
+            }
+
+            started = true;
+            try {
+                Map<String, Object> resourceList = KubernetesSupport.getResources(k8sClient, namespace, context);
+                getItems(resourceList).forEach(this::update);
+
+                String resourceVersion = Optional.ofNullable(resourceList.get("metadata"))
+                        .filter(Map.class::isInstance)
+                        .map(metadata -> ((Map<?, ?>) metadata).get("resourceVersion"))
+                        .map(Object::toString)
+                        .orElse(null);
+
+                watch = k8sClient.customResource(context).watch(namespace, null, null, resourceVersion, this);
+                LOG.info(String.format("Started %s watch in namespace '%s'", context.getName(), namespace));
+            } catch (IOException | KubernetesClientException e) {
+                LOG.warn(String.format("Failed to watch %s in namespace '%s' - using direct lookups", context.getName(), namespace), e);
+                watch = null;
+                closed = true;
+            }
+
+            return isWatching();
+        }
+
+        synchronized void stop() {
+            closed = true;
+            if (watch != null) {
+                watch.close();
+            }
+        }
+
+        boolean isWatching() {
+            return watch != null && !closed;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        Map<String, Object> get(String name) {
+            return items.get(name);
+        }
+
+        List<Map<String, Object>> list() {
+            return new ArrayList<>(items.values());
+        }
+
+        @Override
+        public void eventReceived(Action action, String resource) {
+            try {
+                Map<String, Object> item = KubernetesSupport.json().readValue(resource, new TypeReference<Map<String, Object>>() {});
+                if (action == Action.DELETED) {
+                    Optional.ofNullable(getName(item)).ifPresent(items::remove);
+                } else {
+                    update(item);
+                }
+            } catch (IOException e) {
+                throw new CitrusRuntimeException("Failed to read custom resource watch event", e);
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause) {
+            // force new list and watch on next lookup
+            closed = true;
+        }
+
+        private void update(Map<String, Object> item) {
+            Optional.ofNullable(getName(item)).ifPresent(name -> items.put(name, item));
+        }
+
+        private static String getName(Map<String, Object> item) {
+            Object metadata = item.get("metadata");
+            if (metadata instanceof Map) {
+                return Optional.ofNullable(((Map<?, ?>) metadata).get("name")).map(Object::toString).orElse(null);
+            }
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        static List<Map<String, Object>> getItems(Map<String, Object> resourceList) {
+            Object items = resourceList.get("items");
+            if (items instanceof List) {
+                return ((List<?>) items).stream()
+                        .filter(Map.class::isInstance)
+                        .map(item -> (Map<String, Object>) item)
+                        .collect(Collectors.toList());
+            }
+
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespaced;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Removes all Kubernetes resources created in a scenario with one delete operation per resource kind. Every resource
+ * created in the scenario gets tagged with a scenario label. At the end of the scenario the cleanup deletes all resources
+ * with the scenario label for each tracked kind. Deletions for different kinds run in parallel on a thread pool shared
+ * by all cleanups.
+ *
+ * All step classes of a scenario share the same cleanup (see {@link #getOrCreate(TestContext, KubernetesClient)}) so
+ * resources of the scenario get the same scenario label and are removed by a single cleanup action.
+ *
+ * By default the cleanup waits for the resources to be removed (including finalizers and dependents). This can be
+ * skipped so the scenario ends as soon as the delete requests have been accepted.
+ *
+ * @author Christoph Deppisch
+ */
+public class KubernetesResourceCleanup {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesResourceCleanup.class);
+
+    /** Label marking all resources created within a scenario */
+    public static final String SCENARIO_LABEL = "yaks.citrusframework.org/scenario-id";
+
+    /** Test variable holding the resource cleanup of the current scenario */
+    public static final String RESOURCE_CLEANUP_VARIABLE = "YAKS_KUBERNETES_RESOURCE_CLEANUP";
+
+    /** Maximum number of delete requests sent in parallel */
+    private static final int MAX_PARALLEL_REQUESTS = 10;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_PARALLEL_REQUESTS, runnable -> {
+        Thread thread = new Thread(runnable, "yaks-kubernetes-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final KubernetesClient k8sClient;
+    private final String scenarioId;
+
+    private final Set<ResourceType> resourceTypes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public KubernetesResourceCleanup(KubernetesClient k8sClient) {
+        this(k8sClient, UUID.randomUUID().toString());
+    }
+
+    public KubernetesResourceCleanup(KubernetesClient k8sClient, String scenarioId) {
+        this.k8sClient = k8sClient;
+        this.scenarioId = scenarioId;
+    }
+
+    /**
+     * Gets the resource cleanup of the current scenario. Creates a new cleanup and stores it in the test context
+     * if not present.
+     * @param context
+     * @param k8sClient
+     * @return
+     */
+    public static KubernetesResourceCleanup getOrCreate(TestContext context, KubernetesClient k8sClient) {
+        synchronized (context) {
+            if (context.getVariables().containsKey(RESOURCE_CLEANUP_VARIABLE)) {
+                return (KubernetesResourceCleanup) context.getVariableObject(RESOURCE_CLEANUP_VARIABLE);
+            }
+
+            KubernetesResourceCleanup resourceCleanup = new KubernetesResourceCleanup(k8sClient);
+            context.setVariable(RESOURCE_CLEANUP_VARIABLE, resourceCleanup);
+            return resourceCleanup;
+        }
+    }
+
+    /**
+     * Marks the cleanup as scheduled at the end of the scenario. Only the first call returns true, so the steps
+     * register one cleanup action per scenario.
+     * @return
+     */
+    public boolean schedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Adds the scenario label to given resource and tracks its kind for cleanup.
+     * @param resource
+     * @param namespace
+     */
+    public void track(HasMetadata resource, String namespace) {
+        if (resource.getMetadata() == null) {
+            resource.setMetadata(new ObjectMeta());
+        }
+
+        Map<String, String> labels = new HashMap<>();
+        if (resource.getMetadata().getLabels() != null) {
+            labels.putAll(resource.getMetadata().getLabels());
+        }
+        labels.put(SCENARIO_LABEL, scenarioId);
+        resource.getMetadata().setLabels(labels);
+
+        boolean namespaced = resource instanceof Namespaced || resource instanceof CustomResource;
+        resourceTypes.add(new ResourceType(KubernetesSupport.resourceContext(resource, namespaced), resource.getClass(),
+                namespaced ? namespace : null));
+    }
+
+    /**
+     * Adds the scenario label to given raw custom resource and tracks its kind for cleanup.
+     * @param resource
+     * @param crdContext
+     * @param namespace
+     */
+    @SuppressWarnings("unchecked")
+    public void track(Map<String, Object> resource, CustomResourceDefinitionContext crdContext, String namespace) {
+        Map<String, Object> metadata = (Map<String, Object>) resource.computeIfAbsent("metadata", key -> new LinkedHashMap<>());
+        Map<String, Object> labels = (Map<String, Object>) metadata.computeIfAbsent("labels", key -> new LinkedHashMap<>());
+        labels.put(SCENARIO_LABEL, scenarioId);
+
+        resourceTypes.add(new ResourceType(crdContext, null, "Cluster".equals(crdContext.getScope()) ? null : namespace));
+    }
+
+    /**
+     * Deletes all tracked resources with one delete request per kind.
+     */
+    public void cleanup() {
+        cleanup(KubernetesSettings.isCleanupWaitForFinalizers(),
+                KubernetesSettings.getMaxAttempts() * KubernetesSettings.getDelayBetweenAttempts());
+    }
+
+    /**
+     * Deletes all tracked resources with one delete request per kind. Optionally waits for the
+     * resources to be removed for given amount of time.
+     * @param waitForFinalizers
+     * @param timeout
+     */
+    public void cleanup(boolean waitForFinalizers, long timeout) {
+        List<ResourceType> types = new ArrayList<>(resourceTypes);
+        if (types.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> deletions = types.stream()
+                .map(type -> CompletableFuture.runAsync(() -> deleteCollection(type, waitForFinalizers), EXECUTOR))
+                .collect(Collectors.toList());
+
+        List<Throwable> errors = new ArrayList<>();
+        for (CompletableFuture<Void> deletion : deletions) {
+            try {
+                deletion.join();
+            } catch (RuntimeException e) {
+                errors.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+
+        if (waitForFinalizers) {
+            waitForDeletion(types, start + timeout);
+        }
+
+        resourceTypes.removeAll(types);
+
+        if (!errors.isEmpty()) {
+            CitrusRuntimeException error = new CitrusRuntimeException(String.format("Failed to cleanup Kubernetes resources for scenario '%s'", scenarioId));
+            errors.forEach(error::addSuppressed);
+            throw error;
+        }
+
+        LOG.info(String.format("Removed Kubernetes resources of %d kinds for scenario '%s' in %d ms",
+                types.size(), scenarioId, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Deletes all resources of given resource type selecting the resources of the current scenario.
+     * @param type
+     * @param waitForFinalizers
+     */
+    private void deleteCollection(ResourceType type, boolean waitForFinalizers) {
+        KubernetesSupport.deleteResources(k8sClient, type.context, type.resourceClass, type.namespace, getLabels(), waitForFinalizers);
+        LOG.info(String.format("Deleted %s for scenario '%s'", type, scenarioId));
+    }
+
+    /**
+     * Waits for all resources of given types to be removed.
+     * @param types
+     * @param deadline
+     */
+    private void waitForDeletion(List<ResourceType> types, long deadline) {
+        List<ResourceType> remaining = new ArrayList<>(types);
+        try {
+            while (!remaining.isEmpty()) {
+                remaining.removeIf(type -> KubernetesSupport.getResourceNames(k8sClient, type.context, type.resourceClass,
+                        type.namespace, getLabels()).isEmpty());
+
+                if (remaining.isEmpty()) {
+                    return;
+                }
+
+                if (System.currentTimeMillis() >= deadline) {
+                    LOG.warn(String.format("Timed out waiting for removal of %s for scenario '%s'", remaining, scenarioId));
+                    return;
+                }
+
+                Thread.sleep(KubernetesSettings.getDelayBetweenAttempts());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for Kubernetes resources to be removed", e);
+        }
+    }
+
+    /**
+     * Gets the scenario labels added to all tracked resources.
+     * @return
+     */
+    public Map<String, String> getLabels() {
+        return Collections.singletonMap(SCENARIO_LABEL, scenarioId);
+    }
+
+    /**
+     * Resource kind in a namespace.
+     */
+    private static final class ResourceType {
+        private final CustomResourceDefinitionContext context;
+        private final Class<? extends HasMetadata> resourceClass;
+        private final String namespace;
+
+        ResourceType(CustomResourceDefinitionContext context, Class<? extends HasMetadata> resourceClass, String namespace) {
+            this.context = context;
+            this.resourceClass = resourceClass;
+            this.namespace = namespace;
+        }
+
+        private String getApiVersion() {
+            return StringUtils.hasText(context.getGroup()) ?
+                    context.getGroup() + "/" + context.getVersion() : context.getVersion();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ResourceType that = (ResourceType) o;
+            return getApiVersion().equals(that.getApiVersion()) &&
+                    context.getPlural().equals(that.context.getPlural()) &&
+                    Objects.equals(namespace, that.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getApiVersion(), context.getPlural(), namespace);
+        }
+
+        @Override
+        public String toString() {
+            if (namespace != null) {
+                return String.format("%s.%s in namespace '%s'", context.getPlural(), getApiVersion(), namespace);
+            }
+
+            return String.format("%s.%s", context.getPlural(), getApiVersion());
+        }
+    }
+}
@@ -67,6 +67,70 @@ public class KubernetesSettings {
     private static final String DELAY_BETWEEN_ATTEMPTS_ENV = KUBERNETES_ENV_PREFIX + "DELAY_BETWEEN_ATTEMPTS";
     private static final String DELAY_BETWEEN_ATTEMPTS_DEFAULT = "2000";
 
+    private static final String WATCH_RESOURCES_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "watch.resources";
+    private static final String WATCH_RESOURCES_ENV = KUBERNETES_ENV_PREFIX + "WATCH_RESOURCES";
+    private static final String WATCH_RESOURCES_DEFAULT = "true";
+
+    private static final String CACHE_RESOURCES_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "cache.resources";
+    private static final String CACHE_RESOURCES_ENV = KUBERNETES_ENV_PREFIX + "CACHE_RESOURCES";
+    private static final String CACHE_RESOURCES_DEFAULT = "true";
+
+    private static final String CLEANUP_WAIT_FOR_FINALIZERS_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "cleanup.wait.for.finalizers";
+    private static final String CLEANUP_WAIT_FOR_FINALIZERS_ENV = KUBERNETES_ENV_PREFIX + "CLEANUP_WAIT_FOR_FINALIZERS";
+    private static final String CLEANUP_WAIT_FOR_FINALIZERS_DEFAULT = "true";
+
+    private static final String NAMESPACE_POOL_ENABLED_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "namespace.pool.enabled";
+    private static final String NAMESPACE_POOL_ENABLED_ENV = KUBERNETES_ENV_PREFIX + "NAMESPACE_POOL_ENABLED";
+    private static final String NAMESPACE_POOL_ENABLED_DEFAULT = "false";
+
+    private static final String NAMESPACE_POOL_SIZE_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "namespace.pool.size";
+    private static final String NAMESPACE_POOL_SIZE_ENV = KUBERNETES_ENV_PREFIX + "NAMESPACE_POOL_SIZE";
+    private static final String NAMESPACE_POOL_SIZE_DEFAULT = "3";
+
+    private static final String NAMESPACE_POOL_PREFIX_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "namespace.pool.prefix";
+    private static final String NAMESPACE_POOL_PREFIX_ENV = KUBERNETES_ENV_PREFIX + "NAMESPACE_POOL_PREFIX";
+    private static final String NAMESPACE_POOL_PREFIX_DEFAULT = "yaks-pool";
+
+    private static final String BACKOFF_STRATEGY_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.strategy";
+    private static final String BACKOFF_STRATEGY_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_STRATEGY";
+    private static final String BACKOFF_STRATEGY_DEFAULT = "exponential";
+
+    private static final String BACKOFF_MULTIPLIER_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.multiplier";
+    private static final String BACKOFF_MULTIPLIER_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_MULTIPLIER";
+    private static final String BACKOFF_MULTIPLIER_DEFAULT = "1.5";
+
+    private static final String BACKOFF_MAX_DELAY_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.max.delay";
+    private static final String BACKOFF_MAX_DELAY_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_MAX_DELAY";
+    private static final String BACKOFF_MAX_DELAY_DEFAULT = "10000";
+
+    private static final String BACKOFF_JITTER_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.jitter";
+    private static final String BACKOFF_JITTER_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_JITTER";
+    private static final String BACKOFF_JITTER_DEFAULT = "0.2";
+
+    private static final String BACKOFF_FAST_POLL_ATTEMPTS_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.fast.poll.attempts";
+    private static final String BACKOFF_FAST_POLL_ATTEMPTS_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_FAST_POLL_ATTEMPTS";
+    private static final String BACKOFF_FAST_POLL_ATTEMPTS_DEFAULT = "3";
+
+    private static final String BACKOFF_FAST_POLL_DELAY_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "backoff.fast.poll.delay";
+    private static final String BACKOFF_FAST_POLL_DELAY_ENV = KUBERNETES_ENV_PREFIX + "BACKOFF_FAST_POLL_DELAY";
+    private static final String BACKOFF_FAST_POLL_DELAY_DEFAULT = "250";
+
+    private static final String CLIENT_HTTP2_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "client.http2";
+    private static final String CLIENT_HTTP2_ENV = KUBERNETES_ENV_PREFIX + "CLIENT_HTTP2";
+    private static final String CLIENT_HTTP2_DEFAULT = "true";
+
+    private static final String CLIENT_MAX_CONCURRENT_REQUESTS_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "client.max.concurrent.requests";
+    private static final String CLIENT_MAX_CONCURRENT_REQUESTS_ENV = KUBERNETES_ENV_PREFIX + "CLIENT_MAX_CONCURRENT_REQUESTS";
+    private static final String CLIENT_MAX_CONCURRENT_REQUESTS_DEFAULT = "64";
+
+    private static final String CLIENT_MAX_IDLE_CONNECTIONS_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "client.max.idle.connections";
+    private static final String CLIENT_MAX_IDLE_CONNECTIONS_ENV = KUBERNETES_ENV_PREFIX + "CLIENT_MAX_IDLE_CONNECTIONS";
+    private static final String CLIENT_MAX_IDLE_CONNECTIONS_DEFAULT = "5";
+
+    private static final String CLIENT_KEEP_ALIVE_PROPERTY = KUBERNETES_PROPERTY_PREFIX + "client.keep.alive";
+    private static final String CLIENT_KEEP_ALIVE_ENV = KUBERNETES_ENV_PREFIX + "CLIENT_KEEP_ALIVE";
+    private static final String CLIENT_KEEP_ALIVE_DEFAULT = "300000";
+
     private KubernetesSettings() {
         // prevent instantiation of utility class
     }
@@ -158,4 +222,153 @@ public class KubernetesSettings {
         return Long.parseLong(System.getProperty(DELAY_BETWEEN_ATTEMPTS_PROPERTY,
                 System.getenv(DELAY_BETWEEN_ATTEMPTS_ENV) != null ? System.getenv(DELAY_BETWEEN_ATTEMPTS_ENV) : DELAY_BETWEEN_ATTEMPTS_DEFAULT));
     }
+
+    /**
+     * When set to true verify actions open a watch on the resource and complete as soon as the resource
+     * reaches the expected state. Actions fall back to polling when the watch is not permitted.
+     * @return
+     */
+    public static boolean isWatchResources() {
+        return Boolean.parseBoolean(System.getProperty(WATCH_RESOURCES_PROPERTY,
+                System.getenv(WATCH_RESOURCES_ENV) != null ? System.getenv(WATCH_RESOURCES_ENV) : WATCH_RESOURCES_DEFAULT));
+    }
+
+    /**
+     * When set to true read operations on pods, services, secrets and custom resources are served from a
+     * shared informer cache instead of sending requests to the API server.
+     * @return
+     */
+    public static boolean isCacheResources() {
+        return Boolean.parseBoolean(System.getProperty(CACHE_RESOURCES_PROPERTY,
+                System.getenv(CACHE_RESOURCES_ENV) != null ? System.getenv(CACHE_RESOURCES_ENV) : CACHE_RESOURCES_DEFAULT));
+    }
+
+    /**
+     * When set to true the auto removal of resources at the end of a scenario waits until all resources have been
+     * removed including finalizers and dependent resources. Otherwise the scenario ends as soon as the delete requests
+     * have been accepted.
+     * @return
+     */
+    public static boolean isCleanupWaitForFinalizers() {
+        return Boolean.parseBoolean(System.getProperty(CLEANUP_WAIT_FOR_FINALIZERS_PROPERTY,
+                System.getenv(CLEANUP_WAIT_FOR_FINALIZERS_ENV) != null ? System.getenv(CLEANUP_WAIT_FOR_FINALIZERS_ENV) : CLEANUP_WAIT_FOR_FINALIZERS_DEFAULT));
+    }
+
+    /**
+     * When set to true each scenario runs in its own namespace taken from a pool of pre-created namespaces.
+     * @return
+     */
+    public static boolean isNamespacePoolEnabled() {
+        return Boolean.parseBoolean(System.getProperty(NAMESPACE_POOL_ENABLED_PROPERTY,
+                System.getenv(NAMESPACE_POOL_ENABLED_ENV) != null ? System.getenv(NAMESPACE_POOL_ENABLED_ENV) : NAMESPACE_POOL_ENABLED_DEFAULT));
+    }
+
+    /**
+     * Number of namespaces the namespace pool keeps ready.
+     * @return
+     */
+    public static int getNamespacePoolSize() {
+        return Integer.parseInt(System.getProperty(NAMESPACE_POOL_SIZE_PROPERTY,
+                System.getenv(NAMESPACE_POOL_SIZE_ENV) != null ? System.getenv(NAMESPACE_POOL_SIZE_ENV) : NAMESPACE_POOL_SIZE_DEFAULT));
+    }
+
+    /**
+     * Name prefix of namespaces created by the namespace pool. Also used as value of the pool label.
+     * @return
+     */
+    public static String getNamespacePoolPrefix() {
+        return System.getProperty(NAMESPACE_POOL_PREFIX_PROPERTY,
+                System.getenv(NAMESPACE_POOL_PREFIX_ENV) != null ? System.getenv(NAMESPACE_POOL_PREFIX_ENV) : NAMESPACE_POOL_PREFIX_DEFAULT);
+    }
+
+    /**
+     * Backoff strategy used when polling for resource states. Either "exponential" or "fixed".
+     * @return
+     */
+    public static String getBackoffStrategy() {
+        return System.getProperty(BACKOFF_STRATEGY_PROPERTY,
+                System.getenv(BACKOFF_STRATEGY_ENV) != null ? System.getenv(BACKOFF_STRATEGY_ENV) : BACKOFF_STRATEGY_DEFAULT);
+    }
+
+    /**
+     * Factor the delay between attempts is multiplied with after each attempt when using exponential backoff.
+     * @return
+     */
+    public static double getBackoffMultiplier() {
+        return Double.parseDouble(System.getProperty(BACKOFF_MULTIPLIER_PROPERTY,
+                System.getenv(BACKOFF_MULTIPLIER_ENV) != null ? System.getenv(BACKOFF_MULTIPLIER_ENV) : BACKOFF_MULTIPLIER_DEFAULT));
+    }
+
+    /**
+     * Maximum delay in milliseconds between attempts when using exponential backoff.
+     * @return
+     */
+    public static long getBackoffMaxDelay() {
+        return Long.parseLong(System.getProperty(BACKOFF_MAX_DELAY_PROPERTY,
+                System.getenv(BACKOFF_MAX_DELAY_ENV) != null ? System.getenv(BACKOFF_MAX_DELAY_ENV) : BACKOFF_MAX_DELAY_DEFAULT));
+    }
+
+    /**
+     * Random jitter applied to the delay between attempts as fraction of the delay (e.g. 0.2 = +/- 20%).
+     * @return
+     */
+    public static double getBackoffJitter() {
+        return Double.parseDouble(System.getProperty(BACKOFF_JITTER_PROPERTY,
+                System.getenv(BACKOFF_JITTER_ENV) != null ? System.getenv(BACKOFF_JITTER_ENV) : BACKOFF_JITTER_DEFAULT));
+    }
+
+    /**
+     * Number of attempts polling with a short delay before the exponential backoff starts.
+     * @return
+     */
+    public static int getBackoffFastPollAttempts() {
+        return Integer.parseInt(System.getProperty(BACKOFF_FAST_POLL_ATTEMPTS_PROPERTY,
+                System.getenv(BACKOFF_FAST_POLL_ATTEMPTS_ENV) != null ? System.getenv(BACKOFF_FAST_POLL_ATTEMPTS_ENV) : BACKOFF_FAST_POLL_ATTEMPTS_DEFAULT));
+    }
+
+    /**
+     * Delay in milliseconds between attempts in the fast poll phase.
+     * @return
+     */
+    public static long getBackoffFastPollDelay() {
+        return Long.parseLong(System.getProperty(BACKOFF_FAST_POLL_DELAY_PROPERTY,
+                System.getenv(BACKOFF_FAST_POLL_DELAY_ENV) != null ? System.getenv(BACKOFF_FAST_POLL_DELAY_ENV) : BACKOFF_FAST_POLL_DELAY_DEFAULT));
+    }
+
+    /**
+     * When set to true the shared Kubernetes client negotiates Http/2 with the API server so concurrent
+     * requests are multiplexed over a single connection.
+     * @return
+     */
+    public static boolean isClientHttp2() {
+        return Boolean.parseBoolean(System.getProperty(CLIENT_HTTP2_PROPERTY,
+                System.getenv(CLIENT_HTTP2_ENV) != null ? System.getenv(CLIENT_HTTP2_ENV) : CLIENT_HTTP2_DEFAULT));
+    }
+
+    /**
+     * Maximum number of concurrent requests the shared Kubernetes client sends to the API server.
+     * @return
+     */
+    public static int getClientMaxConcurrentRequests() {
+        return Integer.parseInt(System.getProperty(CLIENT_MAX_CONCURRENT_REQUESTS_PROPERTY,
+                System.getenv(CLIENT_MAX_CONCURRENT_REQUESTS_ENV) != null ? System.getenv(CLIENT_MAX_CONCURRENT_REQUESTS_ENV) : CLIENT_MAX_CONCURRENT_REQUESTS_DEFAULT));
+    }
+
+    /**
+     * Maximum number of idle connections kept in the connection pool of the shared Kubernetes client.
+     * @return
+     */
+    public static int getClientMaxIdleConnections() {
+        return Integer.parseInt(System.getProperty(CLIENT_MAX_IDLE_CONNECTIONS_PROPERTY,
+                System.getenv(CLIENT_MAX_IDLE_CONNECTIONS_ENV) != null ? System.getenv(CLIENT_MAX_IDLE_CONNECTIONS_ENV) : CLIENT_MAX_IDLE_CONNECTIONS_DEFAULT));
+    }
+
+    /**
+     * Time in milliseconds to keep idle connections of the shared Kubernetes client alive.
+     * @return
+     */
+    public static long getClientKeepAlive() {
+        return Long.parseLong(System.getProperty(CLIENT_KEEP_ALIVE_PROPERTY,
+                System.getenv(CLIENT_KEEP_ALIVE_ENV) != null ? System.getenv(CLIENT_KEEP_ALIVE_ENV) : CLIENT_KEEP_ALIVE_DEFAULT));
+    }
 }
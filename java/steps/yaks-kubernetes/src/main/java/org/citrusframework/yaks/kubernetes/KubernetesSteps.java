@@ -21,9 +21,11 @@ import java.io.IOException;
 import java.util.Map;
 
 import com.consol.citrus.Citrus;
+import com.consol.citrus.TestAction;
 import com.consol.citrus.TestCaseRunner;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.http.message.HttpMessage;
@@ -53,6 +55,9 @@ public class KubernetesSteps {
     @CitrusFramework
     private Citrus citrus;
 
+    @CitrusResource
+    private TestContext context;
+
     private HttpServer httpServer;
 
     private int servicePort = KubernetesSettings.getServicePort();
@@ -61,10 +66,16 @@ public class KubernetesSteps {
     private long timeout = KubernetesSettings.getServiceTimeout();
 
     private KubernetesClient k8sClient;
+    private KubernetesResourceCache resourceCache;
+
+    private KubernetesNamespacePool namespacePool;
+    private String pooledNamespace;
 
     private boolean autoRemoveResources = KubernetesSettings.isAutoRemoveResources();
     private int maxAttempts = KubernetesSettings.getMaxAttempts();
     private long delayBetweenAttempts = KubernetesSettings.getDelayBetweenAttempts();
+    private boolean watchResources = KubernetesSettings.isWatchResources();
+    private boolean waitForFinalizers = KubernetesSettings.isCleanupWaitForFinalizers();
 
     @Before
     public void before(Scenario scenario) {
@@ -87,6 +98,17 @@ public class KubernetesSteps {
         if (k8sClient == null) {
             k8sClient = KubernetesSupport.getKubernetesClient(citrus);
         }
+
+        if (resourceCache == null && KubernetesSettings.isCacheResources()) {
+            resourceCache = KubernetesSupport.getResourceCache(citrus, k8sClient);
+        }
+
+        if (KubernetesSettings.isNamespacePoolEnabled()) {
+            namespacePool = KubernetesSupport.getNamespacePool(citrus, k8sClient);
+            pooledNamespace = namespacePool.acquire();
+            runner.run(createVariable(KubernetesVariableNames.NAMESPACE.value(), pooledNamespace));
+            registerNamespaceRelease();
+        }
     }
 
     @Given("^Disable auto removal of Kubernetes resources$")
@@ -94,10 +116,16 @@ public class KubernetesSteps {
         autoRemoveResources = false;
     }
 
+    @Given("^Disable waiting for Kubernetes resource finalizers$")
+    public void disableWaitForFinalizers() {
+        waitForFinalizers = false;
+    }
+
     @Given("^Kubernetes resource polling configuration$")
     public void configureResourcePolling(Map<String, Object> configuration) {
         maxAttempts = Integer.parseInt(configuration.getOrDefault("maxAttempts", maxAttempts).toString());
         delayBetweenAttempts = Long.parseLong(configuration.getOrDefault("delayBetweenAttempts", delayBetweenAttempts).toString());
+        watchResources = Boolean.parseBoolean(configuration.getOrDefault("watch", watchResources).toString());
     }
 
     @Given("^Kubernetes namespace ([^\\s]+)$")
@@ -134,7 +162,7 @@ public class KubernetesSteps {
     public void createCustomResource(String resourceType, String yaml) {
         KubernetesResource resource = KubernetesSupport.yaml().loadAs(yaml, KubernetesResource.class);
 
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cleanup(getResourceCleanup())
                 .customResources()
                 .create()
                 .type(resourceType)
@@ -142,15 +170,7 @@ public class KubernetesSteps {
                 .apiVersion(resource.getApiVersion())
                 .content(yaml));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(kubernetes().client(k8sClient)
-                            .customResources()
-                            .delete(resource.getMetadata().getName())
-                            .type(resourceType)
-                            .kind(resource.getKind())
-                            .apiVersion(resource.getApiVersion())));
-        }
+        registerCleanup();
     }
 
     @Given("^load Kubernetes custom resource ([^\\s]+) in ([^\\s]+)$")
@@ -185,17 +205,12 @@ public class KubernetesSteps {
 
     @Given("^create Kubernetes resource$")
     public void createResource(String content) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cleanup(getResourceCleanup())
                 .resources()
                 .create()
                 .content(content));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(kubernetes().client(k8sClient)
-                            .resources()
-                            .delete(content)));
-        }
+        registerCleanup();
     }
 
     @Given("^load Kubernetes resource ([^\\s]+)$")
@@ -225,32 +240,22 @@ public class KubernetesSteps {
 
     @Given("^create Kubernetes secret ([^\\s]+)$")
     public void createSecret(String name, Map<String, String> properties) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cleanup(getResourceCleanup())
                 .secrets()
                 .create(name)
                 .properties(properties));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(kubernetes().client(k8sClient)
-                            .secrets()
-                            .delete(name)));
-        }
+        registerCleanup();
     }
 
     @Given("^load Kubernetes secret from file ([^\\s]+).properties$")
     public void createSecret(String fileName) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cleanup(getResourceCleanup())
                 .secrets()
                 .create(fileName)
                 .fromFile(fileName + ".properties"));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(kubernetes().client(k8sClient)
-                            .secrets()
-                            .delete(fileName)));
-        }
+        registerCleanup();
     }
 
     @Given("^create Kubernetes service ([^\\s]+)$")
@@ -266,17 +271,12 @@ public class KubernetesSteps {
             httpServer.start();
         }
 
-        runner.given(kubernetes().client(k8sClient)
+        runner.given(kubernetes().client(k8sClient).cleanup(getResourceCleanup())
                 .services()
                 .create(serviceName)
                 .targetPort(targetPort));
 
-        if (autoRemoveResources) {
-            runner.then(doFinally()
-                    .actions(kubernetes().client(k8sClient)
-                            .services()
-                            .delete(serviceName)));
-        }
+        registerCleanup();
     }
 
     @Given("^delete Kubernetes service ([^\\s]+)$")
@@ -287,6 +287,25 @@ public class KubernetesSteps {
                 .delete(serviceName));
     }
 
+    @Given("^forward Kubernetes service ([^\\s]+) port (\\d+)$")
+    public void portForwardService(String serviceName, int port) {
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
+                .services()
+                .portForward(serviceName)
+                .port(port)
+                .portForwards(KubernetesSupport.getPortForwards(citrus, k8sClient)));
+    }
+
+    @Given("^forward Kubernetes service ([^\\s]+) port (\\d+) to endpoint ([^\\s]+)$")
+    public void portForwardService(String serviceName, int port, String endpointName) {
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
+                .services()
+                .portForward(serviceName)
+                .port(port)
+                .endpoint(endpointName)
+                .portForwards(KubernetesSupport.getPortForwards(citrus, k8sClient)));
+    }
+
     @Given("^delete Kubernetes secret ([^\\s]+)$")
     public void deleteSecret(String secretName) {
         runner.run(kubernetes().client(k8sClient)
@@ -296,12 +315,13 @@ public class KubernetesSteps {
 
     @Given("^wait for condition=([^\\s]+) on Kubernetes custom resource ([^\\s]+) in ([^\\s]+)$")
     public void resourceShouldMatchCondition(String condition, String name, String resourceType) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
                 .customResources()
                 .verify(name)
                 .type(resourceType)
                 .maxAttempts(maxAttempts)
                 .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
                 .condition(condition));
     }
 
@@ -313,12 +333,13 @@ public class KubernetesSteps {
 
     @Given("^wait for condition=([^\\s]+) on Kubernetes custom resource in ([^\\s]+) labeled with ([^\\s]+)=([^\\s]+)$")
     public void resourceLabeledShouldMatchCondition(String condition, String resourceType, String label, String value) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
                 .customResources()
                 .verify(label, value)
                 .type(resourceType)
                 .maxAttempts(maxAttempts)
                 .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
                 .condition(condition));
     }
 
@@ -328,6 +349,32 @@ public class KubernetesSteps {
         resourceLabeledShouldMatchCondition("Ready", resourceType, label, value);
     }
 
+    @Given("^wait for Kubernetes custom resource ([^\\s]+) in ([^\\s]+) to match (.+)$")
+    @Then("^Kubernetes custom resource ([^\\s]+) in ([^\\s]+) should match (.+)$")
+    public void resourceShouldMatchJsonPath(String name, String resourceType, String expression) {
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
+                .customResources()
+                .verify(name)
+                .type(resourceType)
+                .maxAttempts(maxAttempts)
+                .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
+                .jsonPath(expression));
+    }
+
+    @Given("^wait for Kubernetes custom resource in ([^\\s]+) labeled with ([^\\s]+)=([^\\s]+) to match (.+)$")
+    @Then("^Kubernetes custom resource in ([^\\s]+) labeled with ([^\\s]+)=([^\\s]+) should match (.+)$")
+    public void resourceLabeledShouldMatchJsonPath(String resourceType, String label, String value, String expression) {
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
+                .customResources()
+                .verify(label, value)
+                .type(resourceType)
+                .maxAttempts(maxAttempts)
+                .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
+                .jsonPath(expression));
+    }
+
     @Given("^wait for Kubernetes pod ([a-z0-9-]+)$")
     public void waitForRunningPod(String name) {
         podShouldBeInPhase(name, "running");
@@ -336,11 +383,12 @@ public class KubernetesSteps {
     @Given("^Kubernetes pod ([a-z0-9-]+) is (running|stopped)$")
     @Then("^Kubernetes pod ([a-z0-9-]+) should be (running|stopped)$")
     public void podShouldBeInPhase(String name, String status) {
-        VerifyPodAction.Builder action = kubernetes().client(k8sClient)
+        VerifyPodAction.Builder action = kubernetes().client(k8sClient).cache(resourceCache)
                 .pods()
                 .verify(name)
                 .maxAttempts(maxAttempts)
-                .delayBetweenAttempts(delayBetweenAttempts);
+                .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources);
 
         if (status.equals("running")) {
             action.isRunning();
@@ -359,11 +407,12 @@ public class KubernetesSteps {
     @Given("^Kubernetes pod labeled with ([^\\s]+)=([^\\s]+) is (running|stopped)$")
     @Then("^Kubernetes pod labeled with ([^\\s]+)=([^\\s]+) should be (running|stopped)$")
     public void podByLabelShouldBeInPhase(String label, String value, String status) {
-        VerifyPodAction.Builder action = kubernetes().client(k8sClient)
+        VerifyPodAction.Builder action = kubernetes().client(k8sClient).cache(resourceCache)
                 .pods()
                 .verify(label, value)
                 .maxAttempts(maxAttempts)
-                .delayBetweenAttempts(delayBetweenAttempts);
+                .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources);
 
         if (status.equals("running")) {
             action.isRunning();
@@ -376,11 +425,12 @@ public class KubernetesSteps {
 
     @Then("^Kubernetes pod ([a-z0-9-]+) should print (.*)$")
     public void podShouldPrint(String name, String message) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
                 .pods()
                 .verify(name)
                 .maxAttempts(maxAttempts)
                 .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
                 .waitForLogMessage(message));
     }
 
@@ -388,21 +438,23 @@ public class KubernetesSteps {
     public void podShouldNotPrint(String name, String message) {
         runner.run(assertException()
                 .exception(ActionTimeoutException.class)
-                .when(kubernetes().client(k8sClient)
+                .when(kubernetes().client(k8sClient).cache(resourceCache)
                         .pods()
                         .verify(name)
                         .maxAttempts(maxAttempts)
                         .delayBetweenAttempts(delayBetweenAttempts)
+                        .watch(watchResources)
                         .waitForLogMessage(message)));
     }
 
     @Then("^Kubernetes pod labeled with ([^\\s]+)=([^\\s]+) should print (.*)$")
     public void podByLabelShouldPrint(String label, String value, String message) {
-        runner.run(kubernetes().client(k8sClient)
+        runner.run(kubernetes().client(k8sClient).cache(resourceCache)
                 .pods()
                 .verify(label, value)
                 .maxAttempts(maxAttempts)
                 .delayBetweenAttempts(delayBetweenAttempts)
+                .watch(watchResources)
                 .waitForLogMessage(message));
     }
 
@@ -410,11 +462,12 @@ public class KubernetesSteps {
     public void podByLabelShouldNotPrint(String label, String value, String message) {
         runner.run(assertException()
                 .exception(ActionTimeoutException.class)
-                .when(kubernetes().client(k8sClient)
+                .when(kubernetes().client(k8sClient).cache(resourceCache)
                         .pods()
                         .verify(label, value)
                         .maxAttempts(maxAttempts)
                         .delayBetweenAttempts(delayBetweenAttempts)
+                        .watch(watchResources)
                         .waitForLogMessage(message)));
     }
 
@@ -435,4 +488,56 @@ public class KubernetesSteps {
                 .send()
                 .response(status));
     }
+
+    /**
+     * Gets the resource cleanup that tracks created resources when auto removal is enabled.
+     * @return the resource cleanup or null when auto removal is disabled.
+     */
+    private KubernetesResourceCleanup getResourceCleanup() {
+        return autoRemoveResources ? KubernetesResourceCleanup.getOrCreate(context, k8sClient) : null;
+    }
+
+    /**
+     * Releases the pooled namespace at the end of the scenario. The resource cleanup is registered in the same finally
+     * sequence right before the release, so the namespace goes back to the pool only after the cleanup has finished.
+     */
+    private void registerNamespaceRelease() {
+        String namespace = pooledNamespace;
+        TestAction release = context -> {
+            if (resourceCache != null) {
+                resourceCache.stop(namespace);
+            }
+
+            namespacePool.release(namespace);
+        };
+
+        KubernetesResourceCleanup resourceCleanup = getResourceCleanup();
+        if (resourceCleanup != null && resourceCleanup.schedule()) {
+            runner.then(doFinally()
+                    .actions(kubernetes().client(k8sClient).cleanup(resourceCleanup)
+                            .resources()
+                            .cleanup()
+                            .waitForFinalizers(waitForFinalizers)
+                            .timeout(maxAttempts * delayBetweenAttempts))
+                    .actions(release));
+        } else {
+            runner.then(doFinally().actions(release));
+        }
+    }
+
+    /**
+     * Removes all tracked resources at the end of the scenario. The cleanup is shared with other steps of the
+     * scenario, so the cleanup action is registered only once and deletes all resources of a kind with a single request.
+     */
+    private void registerCleanup() {
+        KubernetesResourceCleanup resourceCleanup = getResourceCleanup();
+        if (resourceCleanup != null && resourceCleanup.schedule()) {
+            runner.then(doFinally()
+                    .actions(kubernetes().client(k8sClient).cleanup(resourceCleanup)
+                            .resources()
+                            .cleanup()
+                            .waitForFinalizers(waitForFinalizers)
+                            .timeout(maxAttempts * delayBetweenAttempts)));
+        }
+    }
 }
@@ -18,10 +18,25 @@
 package org.citrusframework.yaks.kubernetes;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import com.consol.citrus.Citrus;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.report.AbstractTestSuiteListener;
+import com.consol.citrus.spi.ReferenceResolver;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -29,10 +44,29 @@ import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.DeleteOptions;
+import io.fabric8.kubernetes.api.model.DeleteOptionsBuilder;
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.HttpClientAware;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.introspector.Property;
 import org.yaml.snakeyaml.nodes.NodeTuple;
@@ -44,6 +78,36 @@ import org.yaml.snakeyaml.representer.Representer;
  */
 public final class KubernetesSupport {
 
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesSupport.class);
+
+    private static final String KUBERNETES_CLIENT_BEAN_NAME = "yaksKubernetesClient";
+    private static final String RESOURCE_CACHE_BEAN_NAME = "yaksKubernetesResourceCache";
+    private static final String NAMESPACE_POOL_BEAN_NAME = "yaksKubernetesNamespacePool";
+    private static final String PORT_FORWARDS_BEAN_NAME = "yaksKubernetesPortForwards";
+
+    /** Objects shared by all steps of the running test suite per Citrus instance */
+    private static final Map<Citrus, Map<String, Object>> SUITE_OBJECTS = new WeakHashMap<>();
+
+    /** Maximum number of attempts for idempotent requests failing with connection errors */
+    private static final int MAX_REQUEST_ATTEMPTS = 3;
+    private static final long REQUEST_RETRY_DELAY = 200L;
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final MediaType APPLY_PATCH = MediaType.parse("application/apply-patch+yaml");
+
+    /** Field manager owning the fields of resources applied with server-side apply */
+    private static final String FIELD_MANAGER = "yaks";
+
+    /** Maximum number of requests sent in parallel when applying a batch of resources */
+    private static final int MAX_PARALLEL_REQUESTS = 10;
+
+    private static final ExecutorService REQUEST_EXECUTOR = Executors.newFixedThreadPool(MAX_PARALLEL_REQUESTS, runnable -> {
+        Thread thread = new Thread(runnable, "yaks-kubernetes-apply");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static final ObjectMapper OBJECT_MAPPER;
 
     static {
@@ -60,12 +124,163 @@ public final class KubernetesSupport {
         // prevent instantiation of utility class
     }
 
-    public static KubernetesClient getKubernetesClient(Citrus citrus) {
-        if (citrus.getCitrusContext().getReferenceResolver().resolveAll(KubernetesClient.class).size() == 1L) {
-            return citrus.getCitrusContext().getReferenceResolver().resolve(KubernetesClient.class);
-        } else {
-            return new DefaultKubernetesClient();
+    /**
+     * Gets the Kubernetes client. Uses the client bean registered in the Citrus context if any. Otherwise acquires the
+     * shared client from {@link KubernetesClientHolder} and shares it with all steps of the test suite. The shared client
+     * is released when the test suite has finished, so the next test suite acquires a new client.
+     * @param citrus
+     * @return
+     */
+    public static synchronized KubernetesClient getKubernetesClient(Citrus citrus) {
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(KUBERNETES_CLIENT_BEAN_NAME)) {
+            return referenceResolver.resolve(KUBERNETES_CLIENT_BEAN_NAME, KubernetesClient.class);
+        }
+
+        if (referenceResolver.resolveAll(KubernetesClient.class).size() == 1L) {
+            return referenceResolver.resolve(KubernetesClient.class);
         }
+
+        Optional<KubernetesClient> k8sClient = getSuiteObject(citrus, KUBERNETES_CLIENT_BEAN_NAME, KubernetesClient.class);
+        return k8sClient.orElseGet(() -> shareWithSuite(citrus, KUBERNETES_CLIENT_BEAN_NAME, KubernetesClientHolder.acquire(),
+                client -> KubernetesClientHolder.release()));
+    }
+
+    /**
+     * Gets the resource cache shared across scenarios. Creates a new cache for given client on first access.
+     * The cache is stopped when the test suite has finished.
+     * @param citrus
+     * @param k8sClient
+     * @return
+     */
+    public static synchronized KubernetesResourceCache getResourceCache(Citrus citrus, KubernetesClient k8sClient) {
+        return getSuiteObject(citrus, RESOURCE_CACHE_BEAN_NAME, KubernetesResourceCache.class)
+                .orElseGet(() -> shareWithSuite(citrus, RESOURCE_CACHE_BEAN_NAME, new KubernetesResourceCache(k8sClient),
+                        KubernetesResourceCache::stop));
+    }
+
+    /**
+     * Gets the namespace pool shared across scenarios. Creates and starts a new pool for given client on first access.
+     * The pool is stopped and all pooled namespaces are deleted when the test suite has finished.
+     * @param citrus
+     * @param k8sClient
+     * @return
+     */
+    public static synchronized KubernetesNamespacePool getNamespacePool(Citrus citrus, KubernetesClient k8sClient) {
+        Optional<KubernetesNamespacePool> shared = getSuiteObject(citrus, NAMESPACE_POOL_BEAN_NAME, KubernetesNamespacePool.class);
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+
+        // keep the shared client open until the pooled namespaces have been deleted
+        boolean retained = KubernetesClientHolder.retain(k8sClient);
+
+        KubernetesNamespacePool namespacePool = new KubernetesNamespacePool(k8sClient);
+        namespacePool.start();
+        return shareWithSuite(citrus, NAMESPACE_POOL_BEAN_NAME, namespacePool, pool -> {
+            pool.stop();
+
+            if (retained) {
+                KubernetesClientHolder.release();
+            }
+        });
+    }
+
+    /**
+     * Gets the port forwards shared across scenarios. Creates a new instance for given client on first access.
+     * All port forwards are closed when the test suite has finished.
+     * @param citrus
+     * @param k8sClient
+     * @return
+     */
+    public static synchronized KubernetesPortForwards getPortForwards(Citrus citrus, KubernetesClient k8sClient) {
+        Optional<KubernetesPortForwards> shared = getSuiteObject(citrus, PORT_FORWARDS_BEAN_NAME, KubernetesPortForwards.class);
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+
+        // keep the shared client open until the port forwards have been closed
+        boolean retained = KubernetesClientHolder.retain(k8sClient);
+
+        KubernetesPortForwards portForwards = new KubernetesPortForwards(k8sClient,
+                KubernetesSettings.isCacheResources() ? getResourceCache(citrus, k8sClient) : null);
+        return shareWithSuite(citrus, PORT_FORWARDS_BEAN_NAME, portForwards, forwards -> {
+            forwards.close();
+
+            if (retained) {
+                KubernetesClientHolder.release();
+            }
+        });
+    }
+
+    /**
+     * Gets object shared by all steps of the running test suite. Uses the bean with given name registered in the Citrus
+     * context if any.
+     * @param citrus
+     * @param name
+     * @param type
+     * @param <T>
+     * @return the shared object or empty if there is none for the running test suite.
+     */
+    public static synchronized <T> Optional<T> getSuiteObject(Citrus citrus, String name, Class<T> type) {
+        ReferenceResolver referenceResolver = citrus.getCitrusContext().getReferenceResolver();
+        if (referenceResolver.isResolvable(name)) {
+            return Optional.of(referenceResolver.resolve(name, type));
+        }
+
+        return Optional.ofNullable(SUITE_OBJECTS.get(citrus))
+                .map(objects -> objects.get(name))
+                .map(type::cast);
+    }
+
+    /**
+     * Shares given object with all steps of the running test suite. The object is not bound to the Citrus context,
+     * because it must not outlive the test suite. Once the test suite has finished the object is removed and given
+     * callback closes it, so the next test suite on the same Citrus instance creates a new object.
+     * @param citrus
+     * @param name
+     * @param object
+     * @param onFinish
+     * @param <T>
+     * @return
+     */
+    public static synchronized <T> T shareWithSuite(Citrus citrus, String name, T object, Consumer<T> onFinish) {
+        SUITE_OBJECTS.computeIfAbsent(citrus, key -> new HashMap<>()).put(name, object);
+        citrus.addTestSuiteListener(new AbstractTestSuiteListener() {
+            @Override
+            public void onFinish() {
+                boolean removed;
+                synchronized (KubernetesSupport.class) {
+                    removed = Optional.ofNullable(SUITE_OBJECTS.get(citrus))
+                            .map(objects -> objects.remove(name, object))
+                            .orElse(false);
+                }
+
+                if (removed) {
+                    onFinish.accept(object);
+                }
+            }
+        });
+
+        return object;
+    }
+
+    /**
+     * Creates the backoff strategy configured in the settings starting with given delay between attempts.
+     * @param delayBetweenAttempts
+     * @return
+     */
+    public static BackoffStrategy backoffStrategy(long delayBetweenAttempts) {
+        if ("fixed".equalsIgnoreCase(KubernetesSettings.getBackoffStrategy())) {
+            return BackoffStrategy.fixed(delayBetweenAttempts);
+        }
+
+        return new ExponentialBackoff(delayBetweenAttempts,
+                KubernetesSettings.getBackoffMaxDelay(),
+                KubernetesSettings.getBackoffMultiplier(),
+                KubernetesSettings.getBackoffJitter(),
+                KubernetesSettings.getBackoffFastPollAttempts(),
+                Math.min(KubernetesSettings.getBackoffFastPollDelay(), delayBetweenAttempts));
     }
 
     public static Yaml yaml() {
@@ -122,6 +337,400 @@ public final class KubernetesSupport {
         }
     }
 
+    /**
+     * Gets the executor shared by all steps that apply a batch of resources in parallel.
+     * @return
+     */
+    public static Executor requestExecutor() {
+        return REQUEST_EXECUTOR;
+    }
+
+    /**
+     * Creates or updates given resource with server-side apply. A single apply patch request creates the resource or
+     * updates the fields owned by YAKS, so there is no need to read the resource first. Falls back to create or replace
+     * when the API server does not support server-side apply or the resource has no name.
+     * @param k8sClient
+     * @param resource
+     * @param namespace
+     */
+    public static void applyResource(KubernetesClient k8sClient, HasMetadata resource, String namespace) {
+        boolean namespaced = resource instanceof Namespaced || resource instanceof CustomResource;
+        if (namespaced && resource.getMetadata() != null) {
+            resource.getMetadata().setNamespace(namespace);
+        }
+
+        String name = resource.getMetadata() != null ? resource.getMetadata().getName() : null;
+        if (!applyResource(k8sClient, resourceContext(resource, namespaced), namespaced ? namespace : null,
+                name, Serialization.asJson(resource))) {
+            k8sClient.resource(resource).inNamespace(namespace).createOrReplace();
+        }
+    }
+
+    /**
+     * Creates or updates given raw custom resource with server-side apply. Falls back to create or replace when the API
+     * server does not support server-side apply or the resource has no name.
+     * @param k8sClient
+     * @param context
+     * @param namespace
+     * @param resource
+     * @return the resource returned by the API server when falling back to create or replace, otherwise empty.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> applyResource(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                                    String namespace, Map<String, Object> resource) {
+        boolean namespaced = !"Cluster".equals(context.getScope());
+        Map<String, Object> metadata = Optional.ofNullable((Map<String, Object>) resource.get("metadata"))
+                .orElseGet(Collections::emptyMap);
+
+        String json = Serialization.asJson(resource);
+        if (applyResource(k8sClient, context, namespaced ? namespace : null, getName(metadata), json)) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return k8sClient.customResource(context).createOrReplace(namespace, json);
+        } catch (IOException e) {
+            throw new CitrusRuntimeException("Failed to create custom resource", e);
+        }
+    }
+
+    private static String getName(Map<String, Object> metadata) {
+        return metadata.get("name") instanceof String ? (String) metadata.get("name") : null;
+    }
+
+    /**
+     * Sends server-side apply request for given resource content. The request is sent with the raw Http client, because
+     * the Kubernetes client in use has no support for server-side apply. Fields owned by other field managers are taken
+     * over just like create or replace overwrites the whole resource.
+     *
+     * An unsupported media type response means that the API server does not support server-side apply. As server-side
+     * apply creates missing resources a not found response is only possible when the API server does not support it either
+     * (e.g. mock servers) or the namespace or kind does not exist. Create or replace then reports the actual error.
+     * @param k8sClient
+     * @param context
+     * @param namespace
+     * @param name
+     * @param content
+     * @return false when the resource could not be applied with server-side apply.
+     */
+    private static boolean applyResource(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                         String namespace, String name, String content) {
+        if (!(k8sClient instanceof HttpClientAware) || name == null || name.isEmpty()) {
+            return false;
+        }
+
+        HttpUrl url = resourceUrl(k8sClient, context, namespace)
+                .addPathSegment(name)
+                .addQueryParameter("fieldManager", FIELD_MANAGER)
+                .addQueryParameter("force", "true")
+                .build();
+
+        Request request = new Request.Builder()
+                .url(url)
+                .patch(RequestBody.create(APPLY_PATCH, content.getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        return executeWithRetry(() -> {
+            try (Response response = ((HttpClientAware) k8sClient).getHttpClient().newCall(request).execute()) {
+                if (response.isSuccessful()) {
+                    return true;
+                }
+
+                if (response.code() == 415 || response.code() == 404) {
+                    LOG.debug(String.format("Server-side apply is not supported - create or replace %s '%s'", context.getKind(), name));
+                    return false;
+                }
+
+                throw new KubernetesClientException(String.format("Failed to apply %s '%s': %s",
+                        context.getKind(), name, response.body() != null ? response.body().string() : response.message()),
+                        response.code(), null);
+            }
+        });
+    }
+
+    /**
+     * Builds the API server URL of given resource kind in namespace.
+     * @param k8sClient
+     * @param context
+     * @param namespace namespace of the resources or null for cluster scoped resources.
+     * @return
+     */
+    private static HttpUrl.Builder resourceUrl(KubernetesClient k8sClient, CustomResourceDefinitionContext context, String namespace) {
+        HttpUrl.Builder url = HttpUrl.get(k8sClient.getMasterUrl()).newBuilder();
+        if (context.getGroup() == null || context.getGroup().isEmpty()) {
+            url.addPathSegment("api");
+        } else {
+            url.addPathSegment("apis").addPathSegment(context.getGroup());
+        }
+        url.addPathSegment(context.getVersion());
+
+        if (namespace != null) {
+            url.addPathSegment("namespaces").addPathSegment(namespace);
+        }
+
+        return url.addPathSegment(context.getPlural());
+    }
+
+    /**
+     * Builds the resource context of given resource kind. Takes group and version from the resource api version and
+     * the plural from the resource model class.
+     * @param resource
+     * @param namespaced
+     * @return
+     */
+    public static CustomResourceDefinitionContext resourceContext(HasMetadata resource, boolean namespaced) {
+        String apiVersion = Optional.ofNullable(resource.getApiVersion())
+                .orElseGet(() -> HasMetadata.getApiVersion(resource.getClass()));
+        return resourceContext(apiVersion, resource.getKind(), CustomResource.getPlural(resource.getClass()), namespaced);
+    }
+
+    /**
+     * Builds the resource context of given resource model class. Takes group, version and kind from the model class.
+     * @param type
+     * @param namespaced
+     * @return
+     */
+    public static CustomResourceDefinitionContext resourceContext(Class<? extends HasMetadata> type, boolean namespaced) {
+        return resourceContext(HasMetadata.getApiVersion(type), HasMetadata.getKind(type), CustomResource.getPlural(type), namespaced);
+    }
+
+    private static CustomResourceDefinitionContext resourceContext(String apiVersion, String kind, String plural, boolean namespaced) {
+        String group = apiVersion.contains("/") ? apiVersion.substring(0, apiVersion.indexOf("/")) : "";
+        String version = apiVersion.substring(apiVersion.indexOf("/") + 1);
+
+        return new CustomResourceDefinitionContext.Builder()
+                .withName(group.isEmpty() ? plural : String.format("%s.%s", plural, group))
+                .withGroup(group)
+                .withVersion(version)
+                .withKind(kind)
+                .withPlural(plural)
+                .withScope(namespaced ? "Namespaced" : "Cluster")
+                .build();
+    }
+
+    /**
+     * Deletes all resources of given kind in namespace matching the labels with a single delete collection request.
+     * Falls back to deleting the resources one by one when the API does not support deleting collections. The fallback
+     * uses the typed resource operations when the model class of the kind is given and the raw custom resource
+     * operations otherwise.
+     * @param k8sClient
+     * @param context resource context providing group, version, plural and scope of the kind.
+     * @param type model class of the kind or null for raw custom resources.
+     * @param namespace namespace of the resources or null for cluster scoped resources.
+     * @param labels labels selecting the resources.
+     * @param foreground when true use foreground deletion so resources are removed after their dependents.
+     */
+    public static void deleteResources(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                       Class<? extends HasMetadata> type, String namespace, Map<String, String> labels,
+                                       boolean foreground) {
+        DeletionPropagation propagation = foreground ? DeletionPropagation.FOREGROUND : DeletionPropagation.BACKGROUND;
+        DeleteOptions deleteOptions = new DeleteOptionsBuilder()
+                .withPropagationPolicy(propagation.toString())
+                .build();
+
+        if (k8sClient instanceof HttpClientAware
+                && executeWithRetry(() -> deleteCollection(k8sClient, context, namespace, labels, deleteOptions))) {
+            return;
+        }
+
+        Optional<MixedOperation<HasMetadata, KubernetesResourceList<HasMetadata>, Resource<HasMetadata>>> resources =
+                typedResources(k8sClient, context, type);
+        if (resources.isPresent()) {
+            executeWithRetry(() -> select(resources.get(), namespace, labels).withPropagationPolicy(propagation).delete());
+            return;
+        }
+
+        for (String name : getResourceNames(k8sClient, context, null, namespace, labels)) {
+            try {
+                executeWithRetry(() -> k8sClient.customResource(context).delete(namespace, name, deleteOptions));
+            } catch (KubernetesClientException e) {
+                if (e.getCode() != 404) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends delete collection request for all resources of given kind in namespace matching the labels. The request is
+     * sent with the raw Http client, because the typed and custom resource operations of the Kubernetes client list the
+     * resources and delete them one by one.
+     *
+     * A not found response is only treated as success when the namespace does not exist (anymore). Otherwise the
+     * resource kind is unknown to the API server (e.g. wrong group, version or plural) and the request fails.
+     * @param k8sClient
+     * @param context
+     * @param namespace
+     * @param labels
+     * @param deleteOptions
+     * @return false when the API does not support deleting collections of this kind.
+     * @throws IOException
+     */
+    private static boolean deleteCollection(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                            String namespace, Map<String, String> labels, DeleteOptions deleteOptions) throws IOException {
+        HttpUrl.Builder url = resourceUrl(k8sClient, context, namespace);
+        if (!labels.isEmpty()) {
+            url.addQueryParameter("labelSelector", labels.entrySet().stream()
+                    .map(label -> label.getKey() + "=" + label.getValue())
+                    .collect(Collectors.joining(",")));
+        }
+
+        Request request = new Request.Builder()
+                .url(url.build())
+                .delete(RequestBody.create(JSON, Serialization.asJson(deleteOptions).getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        try (Response response = ((HttpClientAware) k8sClient).getHttpClient().newCall(request).execute()) {
+            if (response.isSuccessful()) {
+                return true;
+            }
+
+            if (response.code() == 404 && namespace != null && k8sClient.namespaces().withName(namespace).get() == null) {
+                LOG.debug(String.format("Namespace '%s' has already been deleted - skip deleting %s", namespace, context.getName()));
+                return true;
+            }
+
+            if (response.code() == 405) {
+                LOG.debug(String.format("Delete collection is not supported for %s - delete resources one by one", context.getName()));
+                return false;
+            }
+
+            throw new KubernetesClientException(String.format("Failed to delete %s in namespace '%s': %s",
+                    context.getName(), namespace, response.body() != null ? response.body().string() : response.message()),
+                    response.code(), null);
+        }
+    }
+
+    /**
+     * Deletes resource of given kind and name in namespace. Uses the typed resource operations when the model class of
+     * the kind is given and falls back to the raw custom resource operations otherwise.
+     * @param k8sClient
+     * @param context resource context providing group, version, plural and scope of the kind.
+     * @param type model class of the kind or null for raw custom resources.
+     * @param namespace namespace of the resource or null for cluster scoped resources.
+     * @param name name of the resource.
+     */
+    public static void deleteResource(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                      Class<? extends HasMetadata> type, String namespace, String name) {
+        Optional<MixedOperation<HasMetadata, KubernetesResourceList<HasMetadata>, Resource<HasMetadata>>> resources =
+                typedResources(k8sClient, context, type);
+        if (resources.isPresent()) {
+            executeWithRetry(() -> namespace != null ? resources.get().inNamespace(namespace).withName(name).delete() :
+                    resources.get().withName(name).delete());
+            return;
+        }
+
+        executeWithRetry(() -> k8sClient.customResource(context).delete(namespace, name));
+    }
+
+    /**
+     * List names of all resources of given kind in namespace matching the labels.
+     * @param k8sClient
+     * @param context resource context providing group, version, plural and scope of the kind.
+     * @param type model class of the kind or null for raw custom resources.
+     * @param namespace namespace of the resources or null for cluster scoped resources.
+     * @param labels labels selecting the resources.
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> getResourceNames(KubernetesClient k8sClient, CustomResourceDefinitionContext context,
+                                                Class<? extends HasMetadata> type, String namespace, Map<String, String> labels) {
+        try {
+            Optional<MixedOperation<HasMetadata, KubernetesResourceList<HasMetadata>, Resource<HasMetadata>>> resources =
+                    typedResources(k8sClient, context, type);
+            if (resources.isPresent()) {
+                return executeWithRetry(() -> select(resources.get(), namespace, labels).list()).getItems().stream()
+                        .map(resource -> resource.getMetadata().getName())
+                        .collect(Collectors.toList());
+            }
+
+            Map<String, Object> resourceList = executeWithRetry(() -> k8sClient.customResource(context).list(namespace, labels));
+            Object items = resourceList.get("items");
+            if (!(items instanceof List)) {
+                return Collections.emptyList();
+            }
+
+            return ((List<Object>) items).stream()
+                    .filter(Map.class::isInstance)
+                    .map(item -> ((Map<String, Object>) item).get("metadata"))
+                    .filter(Map.class::isInstance)
+                    .map(metadata -> ((Map<String, Object>) metadata).get("name"))
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .collect(Collectors.toList());
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == 404) {
+                return Collections.emptyList();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Typed resource operations for given kind. Resolves the list model class of the kind by naming convention.
+     * @param k8sClient
+     * @param context
+     * @param type
+     * @return the operations or empty when no model class is given or the list model class is not available.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Optional<MixedOperation<HasMetadata, KubernetesResourceList<HasMetadata>, Resource<HasMetadata>>> typedResources(
+            KubernetesClient k8sClient, CustomResourceDefinitionContext context, Class<? extends HasMetadata> type) {
+        if (type == null) {
+            return Optional.empty();
+        }
+
+        try {
+            Class<?> listType = Class.forName(type.getName() + "List", true, type.getClassLoader());
+            return Optional.of(k8sClient.customResources(context, (Class) type, (Class) listType));
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static FilterWatchListDeletable<HasMetadata, KubernetesResourceList<HasMetadata>> select(
+            MixedOperation<HasMetadata, KubernetesResourceList<HasMetadata>, Resource<HasMetadata>> resources,
+            String namespace, Map<String, String> labels) {
+        if (namespace != null) {
+            return resources.inNamespace(namespace).withLabels(labels);
+        }
+
+        return resources.withLabels(labels);
+    }
+
+    /**
+     * Executes given idempotent request. Retries the request when the connection fails (e.g. connection reset by the
+     * API server) for a limited number of attempts.
+     * @param request
+     * @param <T>
+     * @return
+     */
+    private static <T> T executeWithRetry(Callable<T> request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return request.call();
+            } catch (IOException | KubernetesClientException e) {
+                boolean connectionError = e instanceof IOException || e.getCause() instanceof IOException;
+                if (!connectionError || attempt >= MAX_REQUEST_ATTEMPTS) {
+                    throw e instanceof KubernetesClientException ? (KubernetesClientException) e :
+                            new CitrusRuntimeException("Failed to send request to Kubernetes API server", e);
+                }
+
+                LOG.warn(String.format("Failed to send request to Kubernetes API server - retry in %d ms",
+                        REQUEST_RETRY_DELAY * attempt), e);
+                try {
+                    Thread.sleep(REQUEST_RETRY_DELAY * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new CitrusRuntimeException("Interrupted while sending request to Kubernetes API server", e);
+                }
+            } catch (Exception e) {
+                throw new CitrusRuntimeException("Failed to send request to Kubernetes API server", e);
+            }
+        }
+    }
+
     public static CustomResourceDefinitionContext crdContext(String resourceType, String group, String kind, String version) {
         return new CustomResourceDefinitionContext.Builder()
                 .withName(resourceType.contains(".") ? resourceType : String.format("%s.%s", resourceType, group))
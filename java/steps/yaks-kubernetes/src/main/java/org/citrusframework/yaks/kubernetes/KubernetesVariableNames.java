@@ -22,7 +22,9 @@ package org.citrusframework.yaks.kubernetes;
  */
 public enum KubernetesVariableNames {
 
-    NAMESPACE("KUBERNETES_NAMESPACE");
+    NAMESPACE("KUBERNETES_NAMESPACE"),
+    PORT_FORWARD_PORT("KUBERNETES_PORT_FORWARD_PORT"),
+    PORT_FORWARD_URL("KUBERNETES_PORT_FORWARD_URL");
 
     private final String variableName;
 
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.BytesLimitTerminateTimeTailPrettyLoggable;
+import io.fabric8.kubernetes.client.dsl.LogWatch;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.TimestampBytesLimitTerminateTimeTailPrettyLoggable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows the log output of a pod and waits for a given message to be printed. The log stream is scanned
+ * incrementally with a bounded window so memory consumption does not grow with the size of the pod log. Matching
+ * completes as soon as the message appears in the stream.
+ *
+ * The log is read with timestamps. When the stream gets reopened the matcher resumes at the timestamp of the last line
+ * consumed, so earlier log lines are neither read nor matched again.
+ *
+ * @author Christoph Deppisch
+ */
+public class PodLogMatcher {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(PodLogMatcher.class);
+
+    private static final int BUFFER_SIZE = 4096;
+
+    /** Max length of the timestamp prefix on a log line */
+    private static final int MAX_HEADER_LENGTH = 64;
+
+    /** Shared executor reading the followed log streams */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(daemonThreads());
+
+    private final KubernetesClient k8sClient;
+    private final String namespace;
+
+    public PodLogMatcher(KubernetesClient k8sClient, String namespace) {
+        this.k8sClient = k8sClient;
+        this.namespace = namespace;
+    }
+
+    /**
+     * Follows the logs of given pod until the message has been printed or the timeout is exceeded. When the log
+     * stream is closed before the message has been found (e.g. container restart) the stream is reopened after
+     * given delay as long as the timeout is not exceeded. The reopened stream continues after the last line consumed.
+     * @param pod
+     * @param message
+     * @param timeout
+     * @param delayBetweenReconnects
+     * @return true when the message has been printed within the timeout.
+     */
+    public boolean waitForLogMessage(Pod pod, String message, long timeout, long delayBetweenReconnects) {
+        if (message == null || message.isEmpty()) {
+            return true;
+        }
+
+        long deadline = System.currentTimeMillis() + timeout;
+        LogPosition position = new LogPosition();
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Future<Boolean> match = null;
+                try (LogWatch logWatch = watchLog(pod, position)) {
+                    match = EXECUTOR.submit(() -> scan(
+                            new InputStreamReader(logWatch.getOutput(), StandardCharsets.UTF_8), message, position));
+
+                    if (match.get(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (TimeoutException e) {
+                    return false;
+                } catch (ExecutionException e) {
+                    LOG.warn(String.format("Failed to read logs of pod '%s'", pod.getMetadata().getName()), e.getCause());
+                } finally {
+                    if (match != null) {
+                        match.cancel(true);
+                    }
+                }
+
+                LOG.warn(String.format("Log stream of pod '%s' closed - reconnect in %s ms",
+                        pod.getMetadata().getName(), delayBetweenReconnects));
+                Thread.sleep(delayBetweenReconnects);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for pod logs", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Scans given log stream without timestamps for the message.
+     * @param reader
+     * @param message
+     * @return true when the message has been found, false when the stream has ended.
+     * @throws IOException
+     */
+    static boolean scan(Reader reader, String message) throws IOException {
+        return scan(reader, message, null);
+    }
+
+    /**
+     * Scans given log stream for the message in chunks of fixed size. Only keeps a window of the last characters read
+     * that is needed to detect messages spanning multiple reads or lines, so a single huge log line does not get
+     * buffered as a whole. When a log position is given the lines start with a timestamp that gets removed before
+     * matching. Lines consumed by a previous scan of the log (before a reconnect) are skipped.
+     * @param reader
+     * @param message
+     * @param position
+     * @return true when the message has been found, false when the stream has ended.
+     * @throws IOException
+     */
+    static boolean scan(Reader reader, String message, LogPosition position) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder window = new StringBuilder(BUFFER_SIZE + message.length());
+        StringBuilder header = new StringBuilder(MAX_HEADER_LENGTH);
+        int keep = message.length() - 1;
+        LineState state = position != null ? LineState.HEADER : LineState.CONTENT;
+        if (position != null) {
+            position.resume();
+        }
+
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                switch (state) {
+                    case HEADER:
+                        header.append(c);
+                        if (c == ' ' || c == '\n' || header.length() >= MAX_HEADER_LENGTH) {
+                            String content = position.consume(header.toString());
+                            header.setLength(0);
+
+                            if (content == null) {
+                                state = c == '\n' ? LineState.HEADER : LineState.SKIP;
+                            } else {
+                                window.append(content);
+                                state = c == '\n' ? LineState.HEADER : LineState.CONTENT;
+                            }
+                        }
+                        break;
+                    case SKIP:
+                        if (c == '\n') {
+                            state = LineState.HEADER;
+                        }
+                        break;
+                    default:
+                        window.append(c);
+                        if (c == '\n' && position != null) {
+                            state = LineState.HEADER;
+                        }
+                }
+            }
+
+            if (window.indexOf(message) >= 0) {
+                return true;
+            }
+
+            if (window.length() > keep) {
+                window.delete(0, window.length() - keep);
+            }
+        }
+
+        if (header.length() > 0) {
+            String content = position.consume(header.toString());
+            if (content != null) {
+                window.append(content);
+            }
+        }
+
+        return window.append('\n').indexOf(message) >= 0;
+    }
+
+    /**
+     * Opens the log stream of given pod with timestamps. Resumes at the last consumed timestamp if any.
+     * @param pod
+     * @param position
+     * @return
+     */
+    private LogWatch watchLog(Pod pod, LogPosition position) {
+        BytesLimitTerminateTimeTailPrettyLoggable<LogWatch> loggable = getLoggable(pod).usingTimestamps();
+        if (position.getTimestamp() != null) {
+            return loggable.sinceTime(position.getTimestamp().toString()).watchLog();
+        }
+
+        return loggable.watchLog();
+    }
+
+    /**
+     * Select the pod or the first container of the pod if the pod has multiple containers.
+     * @param pod
+     * @return
+     */
+    private TimestampBytesLimitTerminateTimeTailPrettyLoggable<LogWatch> getLoggable(Pod pod) {
+        PodResource<Pod> podRes = k8sClient.pods()
+                .inNamespace(namespace)
+                .withName(pod.getMetadata().getName());
+
+        if (pod.getSpec() != null && pod.getSpec().getContainers() != null && pod.getSpec().getContainers().size() > 1) {
+            return podRes.inContainer(pod.getSpec().getContainers().get(0).getName());
+        }
+
+        return podRes;
+    }
+
+    /**
+     * Thread factory creating daemon threads so pending log reads do not block the JVM shutdown.
+     * @return
+     */
+    private static ThreadFactory daemonThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "yaks-pod-log-matcher");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Parser state on the current log line.
+     */
+    private enum LineState {
+        HEADER,
+        SKIP,
+        CONTENT
+    }
+
+    /**
+     * Timestamp of the last log line consumed. Several lines may share the same timestamp, so the position also counts
+     * the lines consumed with the last timestamp. A resumed log stream repeats these lines and only the lines beyond
+     * that count are new.
+     */
+    static final class LogPosition {
+        private Instant timestamp;
+
+        /** Number of lines consumed with the last timestamp */
+        private int consumed;
+
+        /** Number of lines with the last timestamp read from the current log stream */
+        private int replayed;
+
+        /**
+         * Starts reading a new log stream that resumes at the last consumed timestamp.
+         */
+        void resume() {
+            replayed = 0;
+        }
+
+        /**
+         * Removes the timestamp from given log line and remembers the timestamp. Returns null when the line has
+         * already been consumed before, i.e. the line timestamp is before the last consumed timestamp or the line is
+         * one of the lines already consumed with the last timestamp.
+         * @param line
+         * @return
+         */
+        String consume(String line) {
+            int separator = line.indexOf(' ');
+            if (separator <= 0) {
+                return line;
+            }
+
+            Instant lineTimestamp;
+            try {
+                lineTimestamp = Instant.parse(line.substring(0, separator));
+            } catch (DateTimeParseException e) {
+                return line;
+            }
+
+            if (timestamp != null && lineTimestamp.isBefore(timestamp)) {
+                return null;
+            }
+
+            if (lineTimestamp.equals(timestamp)) {
+                if (replayed++ < consumed) {
+                    return null;
+                }
+            } else {
+                timestamp = lineTimestamp;
+                consumed = 0;
+                replayed = 1;
+            }
+
+            consumed++;
+            return line.substring(separator + 1);
+        }
+
+        Instant getTimestamp() {
+            return timestamp;
+        }
+    }
+}
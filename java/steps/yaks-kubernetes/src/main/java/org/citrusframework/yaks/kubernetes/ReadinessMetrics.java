@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Collections;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the time it takes for resources to reach the verified state grouped by resource kind.
+ *
+ * @author Christoph Deppisch
+ */
+public final class ReadinessMetrics {
+
+    private static final Map<String, LongSummaryStatistics> STATISTICS = new ConcurrentHashMap<>();
+
+    private ReadinessMetrics() {
+        // prevent instantiation of utility class
+    }
+
+    /**
+     * Records time to ready for given resource kind.
+     * @param kind
+     * @param millis
+     */
+    public static void record(String kind, long millis) {
+        STATISTICS.compute(kind, (key, statistics) -> {
+            LongSummaryStatistics result = statistics != null ? statistics : new LongSummaryStatistics();
+            result.accept(millis);
+            return result;
+        });
+    }
+
+    /**
+     * Gets a snapshot of the time to ready statistics for given resource kind.
+     * @param kind
+     * @return
+     */
+    public static LongSummaryStatistics getStatistics(String kind) {
+        LongSummaryStatistics snapshot = new LongSummaryStatistics();
+        STATISTICS.computeIfPresent(kind, (key, statistics) -> {
+            snapshot.combine(statistics);
+            return statistics;
+        });
+        return snapshot;
+    }
+
+    /**
+     * Gets all resource kinds that have recorded metrics.
+     * @return
+     */
+    public static Set<String> getKinds() {
+        return Collections.unmodifiableSet(STATISTICS.keySet());
+    }
+
+    /**
+     * Removes all recorded metrics.
+     */
+    public static void reset() {
+        STATISTICS.clear();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.LongSummaryStatistics;
+import java.util.function.Supplier;
+
+import com.consol.citrus.exceptions.ActionTimeoutException;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for a resource to reach a state by probing the resource until it is ready or the deadline is exceeded. The
+ * delay between probes is given by a backoff strategy. The time to ready gets recorded in the readiness metrics for the
+ * resource kind.
+ *
+ * @author Christoph Deppisch
+ */
+public class ResourceWaiter {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceWaiter.class);
+
+    private final String kind;
+    private final long timeout;
+    private final BackoffStrategy backoff;
+
+    public ResourceWaiter(String kind, long timeout, BackoffStrategy backoff) {
+        this.kind = kind;
+        this.timeout = timeout;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Probes the resource until the probe returns a value other than null or false.
+     * @param description human readable description of the awaited state used in log and error messages.
+     * @param probe
+     * @param <T>
+     * @return the value returned by the successful probe.
+     */
+    public <T> T waitFor(String description, Supplier<T> probe) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout;
+
+        for (int attempt = 1; ; attempt++) {
+            T result = probe.get();
+            if (result != null && !Boolean.FALSE.equals(result)) {
+                long elapsed = System.currentTimeMillis() - start;
+                ReadinessMetrics.record(kind, elapsed);
+
+                LongSummaryStatistics statistics = ReadinessMetrics.getStatistics(kind);
+                LOG.info(String.format("Verified %s after %d ms and %d attempts (%s average %.0f ms over %d verifications)",
+                        description, elapsed, attempt, kind, statistics.getAverage(), statistics.getCount()));
+                return result;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new ActionTimeoutException(timeout,
+                        new CitrusRuntimeException(String.format("Failed to verify %s - timed out after %d ms and %d attempts",
+                                description, timeout, attempt)));
+            }
+
+            long delay = Math.min(backoff.getDelay(attempt), remaining);
+            LOG.warn(String.format("Waiting for %s - retry in %s ms", description, delay));
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CitrusRuntimeException(String.format("Interrupted while waiting for %s", description), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the time left of given timeout started at given time. Used to keep the overall timeout when an action falls
+     * back from one way of waiting to another.
+     * @param start
+     * @param timeout
+     * @return the remaining time or zero when the timeout has been exceeded.
+     */
+    public static long getRemainingTime(long start, long timeout) {
+        return Math.max(timeout - (System.currentTimeMillis() - start), 0L);
+    }
+
+    /**
+     * Gets the resource kind.
+     * @return
+     */
+    public String getKind() {
+        return kind;
+    }
+}
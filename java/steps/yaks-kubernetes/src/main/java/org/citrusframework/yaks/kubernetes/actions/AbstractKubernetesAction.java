@@ -20,6 +20,8 @@ package org.citrusframework.yaks.kubernetes.actions;
 import com.consol.citrus.AbstractTestActionBuilder;
 import com.consol.citrus.actions.AbstractTestAction;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCache;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCleanup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,11 +34,15 @@ public abstract class AbstractKubernetesAction extends AbstractTestAction implem
     protected final Logger LOG = LoggerFactory.getLogger(getClass());
 
     private final KubernetesClient kubernetesClient;
+    private final KubernetesResourceCache resourceCache;
+    private final KubernetesResourceCleanup resourceCleanup;
 
     public AbstractKubernetesAction(String name, Builder<?, ?> builder) {
         super("k8s:" + name, builder);
 
         this.kubernetesClient = builder.kubernetesClient;
+        this.resourceCache = builder.resourceCache;
+        this.resourceCleanup = builder.resourceCleanup;
     }
 
     @Override
@@ -44,12 +50,30 @@ public abstract class AbstractKubernetesAction extends AbstractTestAction implem
         return kubernetesClient;
     }
 
+    /**
+     * Gets the optional resource cache used for read operations. Returns null when no cache is set.
+     * @return
+     */
+    public KubernetesResourceCache getResourceCache() {
+        return resourceCache;
+    }
+
+    /**
+     * Gets the optional resource cleanup that tracks created resources for removal. Returns null when no cleanup is set.
+     * @return
+     */
+    public KubernetesResourceCleanup getResourceCleanup() {
+        return resourceCleanup;
+    }
+
     /**
      * Action builder.
      */
     public static abstract class Builder<T extends KubernetesAction, B extends Builder<T, B>> extends AbstractTestActionBuilder<T, B> {
 
         private KubernetesClient kubernetesClient;
+        private KubernetesResourceCache resourceCache;
+        private KubernetesResourceCleanup resourceCleanup;
 
         /**
          * Use a custom Kubernetes client.
@@ -59,5 +83,21 @@ public abstract class AbstractKubernetesAction extends AbstractTestAction implem
             return self;
         }
 
+        /**
+         * Use a shared resource cache for read operations.
+         */
+        public B cache(KubernetesResourceCache resourceCache) {
+            this.resourceCache = resourceCache;
+            return self;
+        }
+
+        /**
+         * Track created resources with given resource cleanup.
+         */
+        public B cleanup(KubernetesResourceCleanup resourceCleanup) {
+            this.resourceCleanup = resourceCleanup;
+            return self;
+        }
+
     }
 }
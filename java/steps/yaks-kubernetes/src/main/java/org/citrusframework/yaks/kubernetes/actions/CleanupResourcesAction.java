@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes.actions;
+
+import com.consol.citrus.context.TestContext;
+import org.citrusframework.yaks.kubernetes.KubernetesSettings;
+
+/**
+ * Removes all resources tracked by the resource cleanup with one delete operation per resource kind.
+ *
+ * @author Christoph Deppisch
+ */
+public class CleanupResourcesAction extends AbstractKubernetesAction {
+
+    private final boolean waitForFinalizers;
+    private final long timeout;
+
+    public CleanupResourcesAction(Builder builder) {
+        super("cleanup-resources", builder);
+
+        this.waitForFinalizers = builder.waitForFinalizers;
+        this.timeout = builder.timeout;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        if (getResourceCleanup() != null) {
+            getResourceCleanup().cleanup(waitForFinalizers, timeout);
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractKubernetesAction.Builder<CleanupResourcesAction, Builder> {
+
+        private boolean waitForFinalizers = KubernetesSettings.isCleanupWaitForFinalizers();
+        private long timeout = KubernetesSettings.getMaxAttempts() * KubernetesSettings.getDelayBetweenAttempts();
+
+        public Builder waitForFinalizers(boolean waitForFinalizers) {
+            this.waitForFinalizers = waitForFinalizers;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        @Override
+        public CleanupResourcesAction build() {
+            return new CleanupResourcesAction(this);
+        }
+    }
+}
@@ -18,13 +18,22 @@
 package org.citrusframework.yaks.kubernetes.actions;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 
 /**
+ * Creates custom resources from YAML content. Content holding multiple YAML documents is applied as a batch where
+ * all resources are created in parallel. Each resource is created or updated with a single server-side apply request.
+ *
  * @author Christoph Deppisch
  */
 public class CreateCustomResourceAction extends AbstractKubernetesAction implements KubernetesAction {
@@ -46,18 +55,101 @@ public class CreateCustomResourceAction extends AbstractKubernetesAction impleme
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void doExecute(TestContext context) {
+        CustomResourceDefinitionContext crdContext = KubernetesSupport.crdContext(context.replaceDynamicContentInString(type),
+                context.replaceDynamicContentInString(group),
+                context.replaceDynamicContentInString(kind),
+                context.replaceDynamicContentInString(version));
+
+        String resolvedContent = context.replaceDynamicContentInString(content);
+        List<Object> documents = StreamSupport.stream(KubernetesSupport.yaml().loadAll(resolvedContent).spliterator(), false)
+                .filter(document -> document != null)
+                .collect(Collectors.toList());
+
+        if (getResourceCleanup() != null) {
+            documents.stream()
+                    .filter(Map.class::isInstance)
+                    .forEach(document -> getResourceCleanup().track((Map<String, Object>) document, crdContext, namespace(context)));
+        }
+
+        if (documents.isEmpty()) {
+            createResource(crdContext, namespace(context), resolvedContent);
+        } else if (documents.size() == 1) {
+            applyResource(crdContext, namespace(context), documents.get(0));
+        } else {
+            createResources(crdContext, namespace(context), documents);
+        }
+    }
+
+    /**
+     * Creates all given custom resources in parallel.
+     * @param crdContext
+     * @param namespace
+     * @param documents
+     */
+    private void createResources(CustomResourceDefinitionContext crdContext, String namespace, List<Object> documents) {
+        long start = System.currentTimeMillis();
         try {
+            CompletableFuture.allOf(documents.stream()
+                    .map(document -> CompletableFuture.runAsync(() -> applyResource(crdContext, namespace, document),
+                            KubernetesSupport.requestExecutor()))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new CitrusRuntimeException("Failed to create custom resources", e.getCause());
+        }
+
+        LOG.info(String.format("Created %d custom resources in %d ms", documents.size(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Applies single custom resource document and logs the time it took to apply the resource. Documents that are
+     * no Json objects are sent as is with create or replace.
+     * @param crdContext
+     * @param namespace
+     * @param document
+     */
+    @SuppressWarnings("unchecked")
+    private void applyResource(CustomResourceDefinitionContext crdContext, String namespace, Object document) {
+        if (!(document instanceof Map)) {
+            createResource(crdContext, namespace, KubernetesSupport.yaml().dump(document));
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, Object> resources = KubernetesSupport.applyResource(getKubernetesClient(), crdContext, namespace,
+                (Map<String, Object>) document);
+
+        if (resources.get("messages") != null) {
+            throw new CitrusRuntimeException(String.format("Failed to create custom resource - %s", resources.get("messages")));
+        }
+
+        LOG.info(String.format("Created %s in %d ms", crdContext.getKind(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Creates or replaces single custom resource and logs the time it took to apply the resource.
+     * @param crdContext
+     * @param namespace
+     * @param yaml
+     */
+    private void createResource(CustomResourceDefinitionContext crdContext, String namespace, String yaml) {
+        try {
+            long start = System.currentTimeMillis();
             Map<String, Object> resources = getKubernetesClient()
-                     .customResource(KubernetesSupport.crdContext(context.replaceDynamicContentInString(type),
-                             context.replaceDynamicContentInString(group),
-                             context.replaceDynamicContentInString(kind),
-                             context.replaceDynamicContentInString(version)))
-                     .createOrReplace(namespace(context), context.replaceDynamicContentInString(content));
+                     .customResource(crdContext)
+                     .createOrReplace(namespace, yaml);
 
             if (resources.get("messages") != null) {
                 throw new CitrusRuntimeException(String.format("Failed to create custom resource - %s", resources.get("messages")));
             }
+
+            LOG.info(String.format("Created %s in %d ms", crdContext.getKind(), System.currentTimeMillis() - start));
         } catch (IOException e) {
             throw new CitrusRuntimeException("Failed to create custom resource", e);
         }
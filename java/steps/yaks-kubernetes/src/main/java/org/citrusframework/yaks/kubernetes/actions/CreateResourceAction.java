@@ -19,14 +19,42 @@ package org.citrusframework.yaks.kubernetes.actions;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import org.citrusframework.yaks.kubernetes.KubernetesSupport;
 
 /**
+ * Creates Kubernetes resources from YAML content. Content holding multiple YAML documents is applied as a batch. Resources
+ * are grouped into dependency tiers by kind so dependencies (e.g. namespaces, service accounts, config maps) get created
+ * first. All resources of the same tier are independent of each other and get created in parallel. Each resource is
+ * created or updated with a single server-side apply request.
+ *
  * @author Christoph Deppisch
  */
 public class CreateResourceAction extends AbstractKubernetesAction implements KubernetesAction {
 
+    /** Dependency tiers of resource kinds when applying a batch of resources, all other kinds are applied last */
+    private static final Map<String, Integer> KIND_TIERS = new HashMap<>();
+
+    /** Tier of unknown kinds such as custom resources */
+    private static final int UNKNOWN_KIND_TIER = 3;
+
+    static {
+        addKindTier(0, "Namespace", "CustomResourceDefinition");
+        addKindTier(1, "ServiceAccount", "ClusterRole", "Role", "ClusterRoleBinding", "RoleBinding",
+                "Secret", "ConfigMap", "PersistentVolume", "PersistentVolumeClaim");
+        addKindTier(2, "Service", "Deployment", "StatefulSet", "DaemonSet", "ReplicaSet", "Job", "CronJob", "Pod", "Ingress");
+    }
+
     private final String content;
 
     public CreateResourceAction(Builder builder) {
@@ -36,11 +64,77 @@ public class CreateResourceAction extends AbstractKubernetesAction implements Ku
 
     @Override
     public void doExecute(TestContext context) {
-        getKubernetesClient()
+        List<HasMetadata> resources = getKubernetesClient()
                  .load(new ByteArrayInputStream(context.replaceDynamicContentInString(content)
                          .getBytes(StandardCharsets.UTF_8)))
-                 .inNamespace(namespace(context))
-                 .createOrReplace();
+                 .get();
+
+        if (getResourceCleanup() != null) {
+            resources.forEach(resource -> getResourceCleanup().track(resource, namespace(context)));
+        }
+
+        if (resources.size() <= 1) {
+            resources.forEach(resource -> createResource(resource, namespace(context)));
+        } else {
+            createResources(resources, namespace(context));
+        }
+    }
+
+    /**
+     * Creates given batch of resources. Groups resources by kind tier and creates the resources of each tier in parallel.
+     * @param resources
+     * @param namespace
+     */
+    private void createResources(List<HasMetadata> resources, String namespace) {
+        Map<Integer, List<HasMetadata>> groups = resources.stream()
+                .collect(Collectors.groupingBy(CreateResourceAction::getKindTier, TreeMap::new, Collectors.toList()));
+
+        long start = System.currentTimeMillis();
+        try {
+            for (List<HasMetadata> tier : groups.values()) {
+                CompletableFuture.allOf(tier.stream()
+                        .map(resource -> CompletableFuture.runAsync(() -> createResource(resource, namespace),
+                                KubernetesSupport.requestExecutor()))
+                        .toArray(CompletableFuture[]::new))
+                        .join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new CitrusRuntimeException("Failed to create Kubernetes resources", e.getCause());
+        }
+
+        LOG.info(String.format("Created %d Kubernetes resources in %d ms", resources.size(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Applies single resource and logs the time it took to apply the resource.
+     * @param resource
+     * @param namespace
+     */
+    private void createResource(HasMetadata resource, String namespace) {
+        long start = System.currentTimeMillis();
+        KubernetesSupport.applyResource(getKubernetesClient(), resource, namespace);
+
+        LOG.info(String.format("Created %s '%s' in %d ms", resource.getKind(), resource.getMetadata().getName(),
+                System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Gets dependency tier of given resource kind. Unknown kinds such as custom resources are created last.
+     * @param resource
+     * @return
+     */
+    static int getKindTier(HasMetadata resource) {
+        return KIND_TIERS.getOrDefault(resource.getKind(), UNKNOWN_KIND_TIER);
+    }
+
+    private static void addKindTier(int tier, String... kinds) {
+        for (String kind : kinds) {
+            KIND_TIERS.put(kind, tier);
+        }
     }
 
     /**
@@ -71,6 +71,10 @@ public class CreateSecretAction extends AbstractKubernetesAction implements Kube
                 .withData(context.resolveDynamicValuesInMap(secrets))
                 .build();
 
+        if (getResourceCleanup() != null) {
+            getResourceCleanup().track(secret, namespace(context));
+        }
+
         getKubernetesClient().secrets()
                 .inNamespace(namespace(context))
                 .createOrReplace(secret);
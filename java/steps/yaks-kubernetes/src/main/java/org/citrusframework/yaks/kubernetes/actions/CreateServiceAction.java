@@ -65,6 +65,10 @@ public class CreateServiceAction extends AbstractKubernetesAction {
                 .endSpec()
                 .build();
 
+        if (getResourceCleanup() != null) {
+            getResourceCleanup().track(service, namespace(context));
+        }
+
         getKubernetesClient().services().inNamespace(namespace(context))
                 .createOrReplace(service);
     }
@@ -19,6 +19,8 @@ package org.citrusframework.yaks.kubernetes.actions;
 
 import com.consol.citrus.TestActionBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCache;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCleanup;
 import org.springframework.util.Assert;
 
 /**
@@ -29,6 +31,12 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
     /** Kubernetes client */
     private KubernetesClient kubernetesClient;
 
+    /** Optional resource cache used for read operations */
+    private KubernetesResourceCache resourceCache;
+
+    /** Optional resource cleanup tracking created resources */
+    private KubernetesResourceCleanup resourceCleanup;
+
     private AbstractKubernetesAction.Builder<? extends KubernetesAction, ?> delegate;
 
     /**
@@ -56,6 +64,24 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         return this;
     }
 
+    /**
+     * Use a shared resource cache for read operations.
+     * @param resourceCache
+     */
+    public KubernetesActionBuilder cache(KubernetesResourceCache resourceCache) {
+        this.resourceCache = resourceCache;
+        return this;
+    }
+
+    /**
+     * Track created resources with given resource cleanup.
+     * @param resourceCleanup
+     */
+    public KubernetesActionBuilder cleanup(KubernetesResourceCleanup resourceCleanup) {
+        this.resourceCleanup = resourceCleanup;
+        return this;
+    }
+
     /**
      * Performs actions on Kubernetes services.
      * @return
@@ -102,6 +128,14 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         if (kubernetesClient != null) {
             delegate.client(kubernetesClient);
         }
+
+        if (resourceCache != null) {
+            delegate.cache(resourceCache);
+        }
+
+        if (resourceCleanup != null) {
+            delegate.cleanup(resourceCleanup);
+        }
         return delegate.build();
     }
 
@@ -118,6 +152,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public CreateSecretAction.Builder create(String secretName) {
             CreateSecretAction.Builder builder = new CreateSecretAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .name(secretName);
             delegate = builder;
             return builder;
@@ -130,6 +166,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public DeleteSecretAction.Builder delete(String secretName) {
             DeleteSecretAction.Builder builder = new DeleteSecretAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .name(secretName);
             delegate = builder;
             return builder;
@@ -142,7 +180,9 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
          */
         public CreateCustomResourceAction.Builder create() {
             CreateCustomResourceAction.Builder builder = new CreateCustomResourceAction.Builder()
-                    .client(kubernetesClient);
+                    .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup);
             delegate = builder;
             return builder;
         }
@@ -154,6 +194,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public DeleteCustomResourceAction.Builder delete(String name) {
             DeleteCustomResourceAction.Builder builder = new DeleteCustomResourceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .resourceName(name);
             delegate = builder;
             return builder;
@@ -166,6 +208,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public VerifyCustomResourceAction.Builder verify(String name) {
             VerifyCustomResourceAction.Builder builder = new VerifyCustomResourceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .resourceName(name);
             delegate = builder;
             return builder;
@@ -179,6 +223,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public VerifyCustomResourceAction.Builder verify(String label, String value) {
             VerifyCustomResourceAction.Builder builder = new VerifyCustomResourceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .label(label, value);
             delegate = builder;
             return builder;
@@ -193,6 +239,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public VerifyPodAction.Builder verify(String podName) {
             VerifyPodAction.Builder builder = new VerifyPodAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .podName(podName);
             delegate = builder;
             return builder;
@@ -206,6 +254,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public VerifyPodAction.Builder verify(String label, String value) {
             VerifyPodAction.Builder builder = new VerifyPodAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .label(label, value);
             delegate = builder;
             return builder;
@@ -218,7 +268,21 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
          */
         public CreateResourceAction.Builder create() {
             CreateResourceAction.Builder builder = new CreateResourceAction.Builder()
-                    .client(kubernetesClient);
+                    .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup);
+            delegate = builder;
+            return builder;
+        }
+
+        /**
+         * Delete all resources tracked by the resource cleanup.
+         */
+        public CleanupResourcesAction.Builder cleanup() {
+            CleanupResourcesAction.Builder builder = new CleanupResourcesAction.Builder()
+                    .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup);
             delegate = builder;
             return builder;
         }
@@ -230,6 +294,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public DeleteResourceAction.Builder delete(String content) {
             DeleteResourceAction.Builder builder = new DeleteResourceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .content(content);
             delegate = builder;
             return builder;
@@ -245,6 +311,8 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public CreateServiceAction.Builder create(String serviceName) {
             CreateServiceAction.Builder builder = new CreateServiceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .name(serviceName);
             delegate = builder;
             return builder;
@@ -257,11 +325,25 @@ public class KubernetesActionBuilder implements TestActionBuilder.DelegatingTest
         public DeleteServiceAction.Builder delete(String serviceName) {
             DeleteServiceAction.Builder builder = new DeleteServiceAction.Builder()
                     .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
                     .name(serviceName);
             delegate = builder;
             return builder;
         }
 
-
+        /**
+         * Forward local port to service.
+         * @param serviceName the name of the Kubernetes service.
+         */
+        public PortForwardServiceAction.Builder portForward(String serviceName) {
+            PortForwardServiceAction.Builder builder = new PortForwardServiceAction.Builder()
+                    .client(kubernetesClient)
+                    .cache(resourceCache)
+                    .cleanup(resourceCleanup)
+                    .service(serviceName);
+            delegate = builder;
+            return builder;
+        }
     }
 }
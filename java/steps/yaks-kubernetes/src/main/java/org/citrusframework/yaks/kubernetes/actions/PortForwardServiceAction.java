@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes.actions;
+
+import com.consol.citrus.TestCase;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.report.AbstractTestListener;
+import org.citrusframework.yaks.kubernetes.KubernetesPortForwards;
+import org.citrusframework.yaks.kubernetes.KubernetesVariableNames;
+
+/**
+ * Test action forwards a local port to given Kubernetes service port so tests running outside of the cluster are able to
+ * connect to the service. Sets the local port and URL as test variables and optionally binds the local address to an
+ * endpoint (e.g. Http client or Kafka endpoint).
+ *
+ * @author Christoph Deppisch
+ */
+public class PortForwardServiceAction extends AbstractKubernetesAction {
+
+    private final String serviceName;
+    private final String port;
+    private final String localPort;
+    private final String endpointName;
+    private final KubernetesPortForwards portForwards;
+
+    public PortForwardServiceAction(Builder builder) {
+        super("port-forward-service", builder);
+
+        this.serviceName = builder.serviceName;
+        this.port = builder.port;
+        this.localPort = builder.localPort;
+        this.endpointName = builder.endpointName;
+        this.portForwards = builder.portForwards;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        KubernetesPortForwards forwards = portForwards;
+        if (forwards == null) {
+            if (context.getReferenceResolver().resolveAll(KubernetesPortForwards.class).size() == 1L) {
+                forwards = context.getReferenceResolver().resolve(KubernetesPortForwards.class);
+            } else {
+                forwards = createPortForwards(context);
+            }
+        }
+
+        int boundPort = forwards.forward(namespace(context),
+                context.replaceDynamicContentInString(serviceName),
+                Integer.parseInt(context.replaceDynamicContentInString(port)),
+                Integer.parseInt(context.replaceDynamicContentInString(localPort)));
+
+        context.setVariable(KubernetesVariableNames.PORT_FORWARD_PORT.value(), boundPort);
+        context.setVariable(KubernetesVariableNames.PORT_FORWARD_URL.value(), KubernetesPortForwards.getLocalUrl(boundPort));
+
+        if (endpointName != null) {
+            KubernetesPortForwards.bindEndpoint(context.getReferenceResolver(),
+                    context.replaceDynamicContentInString(endpointName), boundPort);
+        }
+    }
+
+    /**
+     * Creates port forwards for this test only. Closes the forwards once the test has finished so the local listener
+     * and forward threads do not outlive the test.
+     * @param context
+     * @return
+     */
+    private KubernetesPortForwards createPortForwards(TestContext context) {
+        KubernetesPortForwards forwards = new KubernetesPortForwards(getKubernetesClient(), getResourceCache());
+        context.getTestListeners().addTestListener(new AbstractTestListener() {
+            @Override
+            public void onTestFinish(TestCase test) {
+                forwards.close();
+            }
+        });
+        return forwards;
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractKubernetesAction.Builder<PortForwardServiceAction, Builder> {
+
+        private String serviceName;
+        private String port = "80";
+        private String localPort = "0";
+        private String endpointName;
+        private KubernetesPortForwards portForwards;
+
+        public Builder service(String serviceName) {
+            this.serviceName = serviceName;
+            return this;
+        }
+
+        public Builder port(int port) {
+            return port(String.valueOf(port));
+        }
+
+        public Builder port(String port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder localPort(int localPort) {
+            return localPort(String.valueOf(localPort));
+        }
+
+        public Builder localPort(String localPort) {
+            this.localPort = localPort;
+            return this;
+        }
+
+        public Builder endpoint(String endpointName) {
+            this.endpointName = endpointName;
+            return this;
+        }
+
+        public Builder portForwards(KubernetesPortForwards portForwards) {
+            this.portForwards = portForwards;
+            return this;
+        }
+
+        @Override
+        public PortForwardServiceAction build() {
+            return new PortForwardServiceAction(this);
+        }
+    }
+}
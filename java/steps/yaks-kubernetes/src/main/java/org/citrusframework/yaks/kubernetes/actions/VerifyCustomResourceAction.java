@@ -17,25 +17,42 @@
 
 package org.citrusframework.yaks.kubernetes.actions;
 
+import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.citrusframework.yaks.kubernetes.BackoffStrategy;
+import org.citrusframework.yaks.kubernetes.JsonPathCondition;
 import org.citrusframework.yaks.kubernetes.KubernetesSettings;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.ReadinessMetrics;
+import org.citrusframework.yaks.kubernetes.ResourceWaiter;
 import org.springframework.util.StringUtils;
 
 /**
  * Test action verifies that given Kubernetes resource matches a given condition (e.g. condition=ready). Raises errors
  * when either the resource is not found or not in expected condition state. Both operations are automatically retried
- * for a given amount of attempts.
+ * with the configured backoff strategy until the timeout is exceeded.
+ *
+ * Instead of a status condition type the action is able to verify an arbitrary JSONPath expression on the resource
+ * (e.g. .status.observedGeneration >= .metadata.generation). When watching is enabled the action watches the resource
+ * and completes on the first event that matches the condition.
  *
  * @author Christoph Deppisch
  */
@@ -51,6 +68,9 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
     private final long delayBetweenAttempts;
 
     private final String condition;
+    private final String jsonPathExpression;
+    private final boolean watch;
+    private final BackoffStrategy backoff;
 
     /**
      * Constructor using given builder.
@@ -65,77 +85,169 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
         this.kind = builder.kind;
         this.labelExpression = builder.labelExpression;
         this.condition = builder.condition;
+        this.jsonPathExpression = builder.jsonPathExpression;
+        this.watch = builder.watch;
         this.maxAttempts = builder.maxAttempts;
         this.delayBetweenAttempts = builder.delayBetweenAttempts;
+        this.backoff = builder.backoff != null ? builder.backoff : KubernetesSupport.backoffStrategy(delayBetweenAttempts);
     }
 
     @Override
     public void doExecute(TestContext context) {
+        Predicate<Map<String, Object>> verifier;
+        String description;
+        if (jsonPathExpression != null && !jsonPathExpression.isEmpty()) {
+            JsonPathCondition jsonPathCondition = JsonPathCondition.compile(context.replaceDynamicContentInString(jsonPathExpression));
+            verifier = jsonPathCondition::matches;
+            description = jsonPathCondition.toString();
+        } else {
+            String resolvedCondition = context.replaceDynamicContentInString(condition);
+            verifier = resource -> verifyResourceStatus(resource, resolvedCondition);
+            description = resolvedCondition;
+        }
+
         verifyResource(
                 context.replaceDynamicContentInString(resourceName),
                 context.replaceDynamicContentInString(labelExpression),
-                context.replaceDynamicContentInString(condition),
-                context);
+                verifier, description, context);
     }
 
     /**
-     * Wait for given pod to be in given state.
+     * Wait for given resource to match the verifier. Uses watch when enabled and falls back to polling.
      * @param name
      * @param labelExpression
-     * @param condition
+     * @param verifier
+     * @param description
      * @param context
      * @return
      */
-    private void verifyResource(String name, String labelExpression, String condition, TestContext context) {
-        for (int i = 0; i < maxAttempts; i++) {
+    private void verifyResource(String name, String labelExpression, Predicate<Map<String, Object>> verifier,
+                                String description, TestContext context) {
+        long timeout = maxAttempts * delayBetweenAttempts;
+        long start = System.currentTimeMillis();
+        if (watch && watchResource(name, labelExpression, verifier, description, context)) {
+            ReadinessMetrics.record(type, System.currentTimeMillis() - start);
+            LOG.info(String.format("Verified resource '%s' state '%s'!", getNameOrLabel(name, labelExpression), description));
+            return;
+        }
+
+        new ResourceWaiter(type, ResourceWaiter.getRemainingTime(start, timeout), backoff)
+                .waitFor(String.format("resource '%s' in state '%s'", getNameOrLabel(name, labelExpression), description), () -> {
+                    if (name != null && !name.isEmpty()) {
+                        return getResource(name, verifier, context);
+                    } else {
+                        return getResourceFromLabel(labelExpression, verifier, context);
+                    }
+                });
+    }
+
+    /**
+     * Opens a watch on the resource selected by name or label expression and waits for the first event that matches
+     * the verifier. Each event is verified as received so the resource is not fetched again. Returns false when the watch
+     * could not be established (e.g. missing watch permissions) so the caller is able to fall back to polling.
+     * @param name
+     * @param labelExpression
+     * @param verifier
+     * @param description
+     * @param context
+     * @return true when the resource has matched the verifier.
+     */
+    private boolean watchResource(String name, String labelExpression, Predicate<Map<String, Object>> verifier,
+                                  String description, TestContext context) {
+        Map<String, String> labels = null;
+        if (name == null || name.isEmpty()) {
+            if (labelExpression == null || labelExpression.isEmpty()) {
+                return false;
+            }
+
+            String[] tokens = labelExpression.split("=");
+            labels = Collections.singletonMap(tokens[0], tokens.length > 1 ? tokens[1] : "");
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Watcher<String> watcher = new Watcher<String>() {
+            @Override
+            public void eventReceived(Action action, String resource) {
+                if (action == Action.DELETED || result.isDone()) {
+                    return;
+                }
+
+                try {
+                    if (verifier.test(KubernetesSupport.json().readValue(resource, Map.class))) {
+                        result.complete(true);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Failed to verify resource watch event", e);
+                }
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+                result.completeExceptionally(cause);
+            }
+        };
+
+        long timeout = maxAttempts * delayBetweenAttempts;
+        String nameOrLabel = getNameOrLabel(name, labelExpression);
+        try (Watch ignored = getKubernetesClient().customResource(getCrdContext(context))
+                .watch(namespace(context), name != null && !name.isEmpty() ? name : null, labels, (String) null, watcher)) {
+            // resource may have reached the state before the watch has been established
             Map<String, Object> resource;
             if (name != null && !name.isEmpty()) {
-                resource = getResource(name, condition, context);
+                resource = getResource(name, verifier, context);
             } else {
-                resource = getResourceFromLabel(labelExpression, condition, context);
+                resource = getResourceFromLabel(labelExpression, verifier, context);
             }
 
             if (resource != null) {
-                LOG.info(String.format("Verified resource '%s' state '%s'!", getNameOrLabel(name, labelExpression), condition));
-                return;
+                return true;
             }
 
-            LOG.warn(String.format("Waiting for resource '%s' in state '%s' - retry in %s ms",
-                    getNameOrLabel(name, labelExpression), condition, delayBetweenAttempts));
-            try {
-                Thread.sleep(delayBetweenAttempts);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted while waiting for resource condition", e);
-            }
+            LOG.info(String.format("Watching resource '%s' for state '%s' - timeout in %s ms", nameOrLabel, description, timeout));
+            return result.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (IOException | KubernetesClientException | ExecutionException e) {
+            LOG.warn(String.format("Failed to watch resource '%s' - fall back to polling", nameOrLabel), e);
+            return false;
+        } catch (TimeoutException e) {
+            throw new ActionTimeoutException(timeout,
+                    new CitrusRuntimeException(String.format("Failed to verify resource '%s' - " +
+                            "is not in state '%s' after %d ms", nameOrLabel, description, timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while watching resource state", e);
         }
-
-        throw new ActionTimeoutException((maxAttempts * delayBetweenAttempts),
-                new CitrusRuntimeException(String.format("Failed to verify resource '%s' - " +
-                        "is not in state '%s' after %d attempts", getNameOrLabel(name, labelExpression), condition, maxAttempts)));
     }
 
     /**
      * Retrieve resource given state.
      * @param name
-     * @param condition
+     * @param verifier
      * @param context
      * @return
      */
-    private Map<String, Object> getResource(String name, String condition, TestContext context) {
-        Map<String, Object> resource = KubernetesSupport.getResource(getKubernetesClient(), namespace(context),
-                getCrdContext(context), name);
+    private Map<String, Object> getResource(String name, Predicate<Map<String, Object>> verifier, TestContext context) {
+        Map<String, Object> resource;
+        if (getResourceCache() != null) {
+            resource = getResourceCache().getCustomResource(namespace(context), getCrdContext(context), name);
+        } else {
+            resource = KubernetesSupport.getResource(getKubernetesClient(), namespace(context), getCrdContext(context), name);
+        }
 
-        return verifyResourceStatus(resource, condition) ? resource : null;
+        if (resource == null) {
+            return null;
+        }
+
+        return verifier.test(resource) ? resource : null;
     }
 
     /**
-     * Retrieve pod given state selected by label key and value expression.
+     * Retrieve first resource in given state selected by label key and value expression.
      * @param labelExpression
-     * @param condition
+     * @param verifier
      * @param context
      * @return
      */
-    private Map<String, Object> getResourceFromLabel(String labelExpression, String condition, TestContext context) {
+    private Map<String, Object> getResourceFromLabel(String labelExpression, Predicate<Map<String, Object>> verifier, TestContext context) {
         if (labelExpression == null || labelExpression.isEmpty()) {
             return null;
         }
@@ -144,24 +256,22 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
         String labelKey = tokens[0];
         String labelValue = tokens.length > 1 ? tokens[1] : "";
 
-        Map<String, Object> resourceList = KubernetesSupport.getResources(getKubernetesClient(), namespace(context), getCrdContext(context));
-
-        Map<String, Object> resource = new HashMap<>();
-        for (Object value : getAsPropertyList("items", resourceList)) {
-            if (value instanceof Map) {
-                Map<String, Object> candidate = (Map<String, Object>) value;
-                Map<String, Object> metadata = getAsPropertyMap("metadata", candidate);
-                if (metadata.containsKey("labels")) {
-                    Map<String, Object> labels = getAsPropertyMap("labels", metadata);
-                    if (labels.containsKey(labelKey) && labels.get(labelKey).equals(labelValue)) {
-                        resource = candidate;
-                        break;
-                    }
-                }
+        List<Map<String, Object>> resources;
+        if (getResourceCache() != null) {
+            resources = getResourceCache().getCustomResources(namespace(context), getCrdContext(context));
+        } else {
+            resources = getAsPropertyList("items",
+                    KubernetesSupport.getResources(getKubernetesClient(), namespace(context), getCrdContext(context)));
+        }
+
+        for (Map<String, Object> candidate : resources) {
+            Map<String, Object> labels = getAsPropertyMap("labels", getAsPropertyMap("metadata", candidate));
+            if (labelValue.equals(labels.get(labelKey)) && verifier.test(candidate)) {
+                return candidate;
             }
         }
 
-        return verifyResourceStatus(resource, condition) ? resource : null;
+        return null;
     }
 
     /**
@@ -176,7 +286,7 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
 
         return conditions.stream()
                 .anyMatch(propertyMap -> propertyMap.getOrDefault("type", "").equals(condition)
-                        && Optional.ofNullable(propertyMap.get("status")).map(Boolean.class::cast).orElse(false));
+                        && Optional.ofNullable(propertyMap.get("status")).map(String::valueOf).map(Boolean::parseBoolean).orElse(false));
     }
 
     /**
@@ -248,6 +358,9 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
         private long delayBetweenAttempts = KubernetesSettings.getDelayBetweenAttempts();
 
         private String condition = "Ready";
+        private String jsonPathExpression;
+        private boolean watch = KubernetesSettings.isWatchResources();
+        private BackoffStrategy backoff;
 
         private String type;
         private String version = "v1";
@@ -316,6 +429,16 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
             return this;
         }
 
+        public Builder jsonPath(String expression) {
+            this.jsonPathExpression = expression;
+            return this;
+        }
+
+        public Builder watch(boolean watch) {
+            this.watch = watch;
+            return this;
+        }
+
         public Builder isAvailable() {
             condition("Available");
             return this;
@@ -341,6 +464,11 @@ public class VerifyCustomResourceAction extends AbstractKubernetesAction {
             return this;
         }
 
+        public Builder backoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
         @Override
         public VerifyCustomResourceAction build() {
             return new VerifyCustomResourceAction(this);
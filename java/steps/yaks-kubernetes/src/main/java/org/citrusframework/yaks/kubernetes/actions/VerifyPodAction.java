@@ -17,19 +17,33 @@
 
 package org.citrusframework.yaks.kubernetes.actions;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import org.citrusframework.yaks.kubernetes.BackoffStrategy;
 import org.citrusframework.yaks.kubernetes.KubernetesSettings;
 import org.citrusframework.yaks.kubernetes.KubernetesSupport;
+import org.citrusframework.yaks.kubernetes.PodLogMatcher;
+import org.citrusframework.yaks.kubernetes.ReadinessMetrics;
+import org.citrusframework.yaks.kubernetes.ResourceWaiter;
 
 /**
  * Test action verifies pod phase in running/stopped state and optionally waits for a log message to be present. Raises errors
  * when either the pod is not in expected state or the log message is not available. Both operations are automatically retried
- * for a given amount of attempts.
+ * with the configured backoff strategy until the timeout (max attempts times delay between attempts) is exceeded.
  *
  * @author Christoph Deppisch
  */
@@ -40,6 +54,8 @@ public class VerifyPodAction extends AbstractKubernetesAction {
     private final String logMessage;
     private final int maxAttempts;
     private final long delayBetweenAttempts;
+    private final boolean watch;
+    private final BackoffStrategy backoff;
 
     private final String phase;
 
@@ -55,55 +71,73 @@ public class VerifyPodAction extends AbstractKubernetesAction {
         this.logMessage = builder.logMessage;
         this.maxAttempts = builder.maxAttempts;
         this.delayBetweenAttempts = builder.delayBetweenAttempts;
+        this.watch = builder.watch;
+        this.backoff = builder.backoff != null ? builder.backoff : KubernetesSupport.backoffStrategy(delayBetweenAttempts);
     }
 
     @Override
     public void doExecute(TestContext context) {
         String resolvedPodName = context.replaceDynamicContentInString(podName);
         String resolvedLabelExpression = context.replaceDynamicContentInString(labelExpression);
-        Pod pod = verifyPod(resolvedPodName, resolvedLabelExpression,
+        Pod pod = verifyPod(namespace(context), resolvedPodName, resolvedLabelExpression,
                 context.replaceDynamicContentInString(phase));
 
         if (logMessage != null) {
-            verifyPodLogs(pod, getNameOrLabel(resolvedPodName, resolvedLabelExpression), context.replaceDynamicContentInString(logMessage));
+            verifyPodLogs(namespace(context), pod, getNameOrLabel(resolvedPodName, resolvedLabelExpression), context.replaceDynamicContentInString(logMessage));
         }
     }
 
     /**
      * Wait for pod to log given message.
+     * @param namespace
      * @param pod
      * @param nameOrLabel
      * @param message
      */
-    private void verifyPodLogs(Pod pod, String nameOrLabel, String message) {
-        for (int i = 0; i < maxAttempts; i++) {
-            String log = getPodLogs(pod);
-            if (log.contains(message)) {
-                LOG.info("Verified pod logs - All values OK!");
-                return;
-            }
-
-            LOG.warn(String.format("Waiting for pod '%s' to log message - retry in %s ms", nameOrLabel, delayBetweenAttempts));
+    private void verifyPodLogs(String namespace, Pod pod, String nameOrLabel, String message) {
+        long timeout = maxAttempts * delayBetweenAttempts;
+        long start = System.currentTimeMillis();
+        if (watch) {
             try {
-                Thread.sleep(delayBetweenAttempts);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted while waiting for pod logs", e);
+                PodLogMatcher matcher = new PodLogMatcher(getKubernetesClient(), namespace);
+                if (matcher.waitForLogMessage(pod, message, timeout, delayBetweenAttempts)) {
+                    LOG.info("Verified pod logs - All values OK!");
+                    return;
+                }
+
+                throw new ActionTimeoutException(timeout,
+                        new CitrusRuntimeException(String.format("Failed to verify pod '%s' - " +
+                                "has not printed message '%s' after %d ms", nameOrLabel, message, timeout)));
+            } catch (KubernetesClientException e) {
+                LOG.warn(String.format("Failed to follow logs of pod '%s' - fall back to polling", nameOrLabel), e);
             }
         }
 
-        throw new ActionTimeoutException((maxAttempts * delayBetweenAttempts),
-                new CitrusRuntimeException(String.format("Failed to verify pod '%s' - " +
-                        "has not printed message '%s' after %d attempts", nameOrLabel, logMessage, maxAttempts)));
+        pollPodLogs(namespace, pod, nameOrLabel, message, ResourceWaiter.getRemainingTime(start, timeout));
+    }
+
+    /**
+     * Wait for pod to log given message by polling the complete pod logs until the timeout is exceeded.
+     * @param namespace
+     * @param pod
+     * @param nameOrLabel
+     * @param message
+     * @param timeout
+     */
+    private void pollPodLogs(String namespace, Pod pod, String nameOrLabel, String message, long timeout) {
+        waiter("pod-log", timeout).waitFor(String.format("pod '%s' to log message '%s'", nameOrLabel, message),
+                () -> getPodLogs(namespace, pod).contains(message));
     }
 
     /**
      * Retrieve log messages from given pod.
+     * @param namespace
      * @param pod
      * @return
      */
-    private String getPodLogs(Pod pod) {
+    private String getPodLogs(String namespace, Pod pod) {
         PodResource<Pod> podRes = getKubernetesClient().pods()
-                .inNamespace(KubernetesSettings.getNamespace())
+                .inNamespace(namespace)
                 .withName(pod.getMetadata().getName());
 
         String containerName = null;
@@ -122,61 +156,175 @@ public class VerifyPodAction extends AbstractKubernetesAction {
 
     /**
      * Wait for given pod to be in given state.
+     * @param namespace
      * @param name
      * @param labelExpression
      * @param phase
      * @return
      */
-    private Pod verifyPod(String name, String labelExpression, String phase) {
-        for (int i = 0; i < maxAttempts; i++) {
-            Pod pod;
-            if (name != null && !name.isEmpty()) {
-                pod = getPod(name, phase);
-            } else {
-                pod = getPodFromLabel(labelExpression, phase);
-            }
-
+    private Pod verifyPod(String namespace, String name, String labelExpression, String phase) {
+        long timeout = maxAttempts * delayBetweenAttempts;
+        long start = System.currentTimeMillis();
+        if (watch) {
+            Pod pod = watchPod(namespace, name, labelExpression, phase);
             if (pod != null) {
+                ReadinessMetrics.record("pod", System.currentTimeMillis() - start);
                 LOG.info(String.format("Verified pod '%s' state '%s'!", getNameOrLabel(name, labelExpression), phase));
                 return pod;
             }
+        }
 
-            LOG.warn(String.format("Waiting for pod '%s' in state '%s' - retry in %s ms",
-                    getNameOrLabel(name, labelExpression), phase, delayBetweenAttempts));
-            try {
-                Thread.sleep(delayBetweenAttempts);
-            } catch (InterruptedException e) {
-                LOG.warn("Interrupted while waiting for pod state", e);
+        return pollPod(namespace, name, labelExpression, phase, ResourceWaiter.getRemainingTime(start, timeout));
+    }
+
+    /**
+     * Opens a watch on the pod selected by name or label expression and waits for the pod to reach given state.
+     * Returns null when the watch could not be established (e.g. missing watch permissions) so the caller is able
+     * to fall back to polling.
+     * @param namespace
+     * @param name
+     * @param labelExpression
+     * @param phase
+     * @return
+     */
+    private Pod watchPod(String namespace, String name, String labelExpression, String phase) {
+        Watchable<Watcher<Pod>> watchable = getPodWatchable(namespace, name, labelExpression);
+        if (watchable == null) {
+            return null;
+        }
+
+        CompletableFuture<Pod> result = new CompletableFuture<>();
+        Watcher<Pod> watcher = new Watcher<Pod>() {
+            @Override
+            public void eventReceived(Action action, Pod pod) {
+                if (action != Action.DELETED && KubernetesSupport.verifyPodStatus(pod, phase)) {
+                    result.complete(pod);
+                }
+            }
+
+            @Override
+            public void onClose(WatcherException cause) {
+                result.completeExceptionally(cause);
+            }
+        };
+
+        long timeout = maxAttempts * delayBetweenAttempts;
+        try (Watch ignored = watchable.watch(watcher)) {
+            // pod may have reached the state before the watch has been established
+            Pod pod = getPod(namespace, name, labelExpression, phase);
+            if (pod != null) {
+                return pod;
             }
+
+            LOG.info(String.format("Watching pod '%s' for state '%s' - timeout in %s ms",
+                    getNameOrLabel(name, labelExpression), phase, timeout));
+            return result.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (KubernetesClientException | ExecutionException e) {
+            LOG.warn(String.format("Failed to watch pod '%s' - fall back to polling", getNameOrLabel(name, labelExpression)), e);
+            return null;
+        } catch (TimeoutException e) {
+            throw new ActionTimeoutException(timeout,
+                    new CitrusRuntimeException(String.format("Failed to verify pod '%s' - " +
+                            "is not in state '%s' after %d ms", getNameOrLabel(name, labelExpression), phase, timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while watching pod state", e);
         }
+    }
 
-        throw new ActionTimeoutException((maxAttempts * delayBetweenAttempts),
-                new CitrusRuntimeException(String.format("Failed to verify pod '%s' - " +
-                        "is not in state '%s' after %d attempts", getNameOrLabel(name, labelExpression), phase, maxAttempts)));
+    /**
+     * Select pod by name or label expression so clients are able to watch the pod.
+     * @param namespace
+     * @param name
+     * @param labelExpression
+     * @return
+     */
+    private Watchable<Watcher<Pod>> getPodWatchable(String namespace, String name, String labelExpression) {
+        if (name != null && !name.isEmpty()) {
+            return getKubernetesClient().pods()
+                    .inNamespace(namespace)
+                    .withName(name);
+        }
+
+        if (labelExpression == null || labelExpression.isEmpty()) {
+            return null;
+        }
+
+        String[] tokens = labelExpression.split("=");
+        return getKubernetesClient().pods()
+                .inNamespace(namespace)
+                .withLabel(tokens[0], tokens.length > 1 ? tokens[1] : "");
+    }
+
+    /**
+     * Wait for given pod to be in given state by polling the pod until the timeout is exceeded.
+     * @param namespace
+     * @param name
+     * @param labelExpression
+     * @param phase
+     * @param timeout
+     * @return
+     */
+    private Pod pollPod(String namespace, String name, String labelExpression, String phase, long timeout) {
+        return waiter("pod", timeout).waitFor(String.format("pod '%s' in state '%s'", getNameOrLabel(name, labelExpression), phase),
+                () -> getPod(namespace, name, labelExpression, phase));
+    }
+
+    /**
+     * Creates waiter for given resource kind using the backoff strategy and given timeout.
+     * @param kind
+     * @param timeout
+     * @return
+     */
+    private ResourceWaiter waiter(String kind, long timeout) {
+        return new ResourceWaiter(kind, timeout, backoff);
+    }
+
+    /**
+     * Retrieve pod given state selected by name or label expression.
+     * @param namespace
+     * @param name
+     * @param labelExpression
+     * @param phase
+     * @return
+     */
+    private Pod getPod(String namespace, String name, String labelExpression, String phase) {
+        if (name != null && !name.isEmpty()) {
+            return getPod(namespace, name, phase);
+        } else {
+            return getPodFromLabel(namespace, labelExpression, phase);
+        }
     }
 
     /**
      * Retrieve pod given state.
+     * @param namespace
      * @param name
      * @param phase
      * @return
      */
-    private Pod getPod(String name, String phase) {
-        Pod pod = getKubernetesClient().pods()
-                .inNamespace(KubernetesSettings.getNamespace())
-                .withName(name)
-                .get();
+    private Pod getPod(String namespace, String name, String phase) {
+        Pod pod;
+        if (getResourceCache() != null) {
+            pod = getResourceCache().getPod(namespace, name);
+        } else {
+            pod = getKubernetesClient().pods()
+                    .inNamespace(namespace)
+                    .withName(name)
+                    .get();
+        }
 
         return KubernetesSupport.verifyPodStatus(pod, phase) ? pod : null;
     }
 
     /**
      * Retrieve pod given state selected by label key and value expression.
+     * @param namespace
      * @param labelExpression
      * @param phase
      * @return
      */
-    private Pod getPodFromLabel(String labelExpression, String phase) {
+    private Pod getPodFromLabel(String namespace, String labelExpression, String phase) {
         if (labelExpression == null || labelExpression.isEmpty()) {
             return null;
         }
@@ -185,12 +333,18 @@ public class VerifyPodAction extends AbstractKubernetesAction {
         String labelKey = tokens[0];
         String labelValue = tokens.length > 1 ? tokens[1] : "";
 
-        PodList pods = getKubernetesClient().pods()
-                .inNamespace(KubernetesSettings.getNamespace())
-                .withLabel(labelKey, labelValue)
-                .list();
+        List<Pod> pods;
+        if (getResourceCache() != null) {
+            pods = getResourceCache().getPods(namespace, labelKey, labelValue);
+        } else {
+            pods = getKubernetesClient().pods()
+                    .inNamespace(namespace)
+                    .withLabel(labelKey, labelValue)
+                    .list()
+                    .getItems();
+        }
 
-        return pods.getItems().stream()
+        return pods.stream()
                 .filter(pod -> KubernetesSupport.verifyPodStatus(pod, phase))
                 .findFirst()
                 .orElse(null);
@@ -221,6 +375,8 @@ public class VerifyPodAction extends AbstractKubernetesAction {
 
         private int maxAttempts = KubernetesSettings.getMaxAttempts();
         private long delayBetweenAttempts = KubernetesSettings.getDelayBetweenAttempts();
+        private boolean watch = KubernetesSettings.isWatchResources();
+        private BackoffStrategy backoff;
 
         private String phase = "Running";
 
@@ -259,6 +415,16 @@ public class VerifyPodAction extends AbstractKubernetesAction {
             return this;
         }
 
+        public Builder watch(boolean watch) {
+            this.watch = watch;
+            return this;
+        }
+
+        public Builder backoff(BackoffStrategy backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+
         @Override
         public VerifyPodAction build() {
             return new VerifyPodAction(this);
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Map;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class JsonPathConditionTest {
+
+    private static final String RESOURCE = "{" +
+            "\"metadata\": { \"name\": \"foo\", \"generation\": 2 }," +
+            "\"spec\": { \"message\": \"Hello\" }," +
+            "\"status\": { \"observedGeneration\": 2, \"conditions\": [" +
+                "{ \"type\": \"Ready\", \"status\": \"True\" }," +
+                "{ \"type\": \"Completed\", \"status\": \"False\" }" +
+            "]}" +
+        "}";
+
+    @Test
+    public void shouldCompareJsonPathExpressions() {
+        Assert.assertTrue(JsonPathCondition.compile(".status.observedGeneration >= .metadata.generation").matches(RESOURCE));
+        Assert.assertTrue(JsonPathCondition.compile(".status.observedGeneration == .metadata.generation").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".status.observedGeneration > .metadata.generation").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".status.observedGeneration != .metadata.generation").matches(RESOURCE));
+    }
+
+    @Test
+    public void shouldCompareLiterals() {
+        Assert.assertTrue(JsonPathCondition.compile(".spec.message == 'Hello'").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".spec.message == \"Bye\"").matches(RESOURCE));
+        Assert.assertTrue(JsonPathCondition.compile("$.metadata.generation < 10").matches(RESOURCE));
+        Assert.assertTrue(JsonPathCondition.compile(".spec.missing == null").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".spec.missing >= 1").matches(RESOURCE));
+    }
+
+    @Test
+    public void shouldEvaluateFilterExpressions() {
+        Assert.assertTrue(JsonPathCondition.compile(".status.conditions[?(@.type == 'Ready')].status == True").matches(RESOURCE));
+        Assert.assertTrue(JsonPathCondition.compile(".status.conditions[?(@.type == 'Ready')].status").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".status.conditions[?(@.type == 'Completed')].status").matches(RESOURCE));
+        Assert.assertFalse(JsonPathCondition.compile(".status.conditions[?(@.type == 'Unknown')].status").matches(RESOURCE));
+    }
+
+    @Test
+    public void shouldEvaluatePropertyMap() throws Exception {
+        Map<String, Object> resource = KubernetesSupport.json().readValue(RESOURCE, new TypeReference<Map<String, Object>>() {});
+        Assert.assertTrue(JsonPathCondition.compile(".status.observedGeneration >= .metadata.generation").matches(resource));
+        Assert.assertFalse(JsonPathCondition.compile(".spec.message == 'Bye'").matches(resource));
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnMissingOperand() {
+        JsonPathCondition.compile(".status.observedGeneration >= ");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import com.consol.citrus.Citrus;
+import com.consol.citrus.CitrusContext;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KubernetesClientHolderTest {
+
+    @Test
+    public void shouldShareClientUntilReleased() {
+        KubernetesClient client = KubernetesClientHolder.acquire();
+        Assert.assertSame(client, KubernetesClientHolder.acquire());
+        Assert.assertNotNull(KubernetesClientHolder.getHttpClient());
+
+        KubernetesClientHolder.release();
+        Assert.assertNotNull(KubernetesClientHolder.getHttpClient());
+
+        KubernetesClientHolder.release();
+        Assert.assertNull(KubernetesClientHolder.getHttpClient());
+
+        KubernetesClient newClient = KubernetesClientHolder.acquire();
+        Assert.assertNotSame(client, newClient);
+        KubernetesClientHolder.release();
+    }
+
+    @Test
+    public void shouldAcquireNewClientForNextSuite() {
+        Citrus citrus = Citrus.newInstance(CitrusContext.create());
+
+        KubernetesClient client = KubernetesSupport.getKubernetesClient(citrus);
+        Assert.assertSame(client, KubernetesSupport.getKubernetesClient(citrus));
+
+        citrus.getCitrusContext().getTestSuiteListeners().onFinish();
+        Assert.assertNull(KubernetesClientHolder.getHttpClient());
+
+        KubernetesClient next = KubernetesSupport.getKubernetesClient(citrus);
+        Assert.assertNotSame(client, next);
+        Assert.assertNotNull(KubernetesClientHolder.getHttpClient());
+
+        citrus.getCitrusContext().getTestSuiteListeners().onFinish();
+        Assert.assertNull(KubernetesClientHolder.getHttpClient());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
+import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinitionBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KubernetesNamespacePoolTest {
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher(), false);
+
+    private KubernetesClient k8sClient;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldRecycleNamespaces() throws InterruptedException, IOException {
+        CustomResourceDefinitionContext fooContext = createFooDefinition();
+
+        KubernetesNamespacePool pool = new KubernetesNamespacePool(k8sClient, 2, "yaks-test", 0L);
+        pool.start();
+        waitForReadyCount(pool, 2);
+
+        String namespace = pool.acquire();
+        Assert.assertEquals(1, pool.getReadyCount());
+
+        Namespace created = k8sClient.namespaces().withName(namespace).get();
+        Assert.assertNotNull(created);
+        Assert.assertEquals("yaks-test", created.getMetadata().getLabels().get(KubernetesNamespacePool.POOL_LABEL));
+
+        k8sClient.pods().inNamespace(namespace).create(new PodBuilder()
+                .withNewMetadata()
+                    .withName("test-pod")
+                .endMetadata()
+                .build());
+        k8sClient.apps().deployments().inNamespace(namespace).create(new DeploymentBuilder()
+                .withNewMetadata()
+                    .withName("test-deployment")
+                .endMetadata()
+                .build());
+        k8sClient.configMaps().inNamespace(namespace).create(new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("test-config")
+                .endMetadata()
+                .build());
+
+        k8sClient.customResource(fooContext).create(namespace, foo("test-foo"));
+
+        // resources created by the cluster in each namespace
+        k8sClient.serviceAccounts().inNamespace(namespace).create(new ServiceAccountBuilder()
+                .withNewMetadata()
+                    .withName("default")
+                .endMetadata()
+                .build());
+        k8sClient.secrets().inNamespace(namespace).create(new SecretBuilder()
+                .withNewMetadata()
+                    .withName("default-token-x7k2p")
+                .endMetadata()
+                .build());
+        k8sClient.configMaps().inNamespace(namespace).create(new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("kube-root-ca.crt")
+                .endMetadata()
+                .build());
+
+        pool.release(namespace);
+        waitForReadyCount(pool, 2);
+
+        Assert.assertNotNull(k8sClient.namespaces().withName(namespace).get());
+        Assert.assertTrue(k8sClient.pods().inNamespace(namespace).list().getItems().isEmpty());
+        Assert.assertTrue(k8sClient.apps().deployments().inNamespace(namespace).list().getItems().isEmpty());
+        Assert.assertNull(k8sClient.configMaps().inNamespace(namespace).withName("test-config").get());
+        Assert.assertTrue(KubernetesSupport.getResourceNames(k8sClient, fooContext, null, namespace, new HashMap<>()).isEmpty());
+
+        Assert.assertNotNull(k8sClient.serviceAccounts().inNamespace(namespace).withName("default").get());
+        Assert.assertNotNull(k8sClient.secrets().inNamespace(namespace).withName("default-token-x7k2p").get());
+        Assert.assertNotNull(k8sClient.configMaps().inNamespace(namespace).withName("kube-root-ca.crt").get());
+
+        // pool hands out the other warm namespace first and the recycled namespace afterwards
+        String other = pool.acquire();
+        String recycled = pool.acquire();
+        Assert.assertNotEquals(namespace, other);
+        Assert.assertEquals(namespace, recycled);
+
+        pool.stop();
+        Assert.assertNull(k8sClient.namespaces().withName(other).get());
+        Assert.assertNull(k8sClient.namespaces().withName(recycled).get());
+    }
+
+    @Test
+    public void shouldDeleteNamespaceReleasedAfterStop() {
+        KubernetesNamespacePool pool = new KubernetesNamespacePool(k8sClient, 1, "yaks-test", 0L);
+
+        String namespace = pool.acquire();
+        pool.stop();
+        Assert.assertNull(k8sClient.namespaces().withName(namespace).get());
+        Assert.assertEquals(0, pool.getReadyCount());
+
+        pool.release(namespace);
+        Assert.assertEquals(0, pool.getReadyCount());
+        Assert.assertTrue(k8sClient.namespaces().withLabel(KubernetesNamespacePool.POOL_LABEL).list().getItems().isEmpty());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldNotAcquireFromStoppedPool() {
+        KubernetesNamespacePool pool = new KubernetesNamespacePool(k8sClient, 0, "yaks-test", 0L);
+        pool.stop();
+        pool.acquire();
+    }
+
+    @Test
+    public void shouldCreateNamespaceOnDemand() {
+        KubernetesNamespacePool pool = new KubernetesNamespacePool(k8sClient, 0, "yaks-test", 0L);
+
+        String namespace = pool.acquire();
+        Assert.assertTrue(namespace.startsWith("yaks-test-"));
+        Assert.assertNotNull(k8sClient.namespaces().withName(namespace).get());
+
+        pool.stop();
+        Assert.assertNull(k8sClient.namespaces().withName(namespace).get());
+    }
+
+    private CustomResourceDefinitionContext createFooDefinition() {
+        k8sClient.apiextensions().v1().customResourceDefinitions().create(new CustomResourceDefinitionBuilder()
+                .withNewMetadata()
+                    .withName("foos.yaks.dev")
+                .endMetadata()
+                .withNewSpec()
+                    .withGroup("yaks.dev")
+                    .withScope("Namespaced")
+                    .withNewNames()
+                        .withKind("Foo")
+                        .withPlural("foos")
+                    .endNames()
+                    .addNewVersion()
+                        .withName("v1")
+                        .withServed(true)
+                        .withStorage(true)
+                    .endVersion()
+                .endSpec()
+                .build());
+
+        return KubernetesSupport.crdContext("foos", "yaks.dev", "Foo", "v1");
+    }
+
+    private static Map<String, Object> foo(String name) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+
+        Map<String, Object> foo = new LinkedHashMap<>();
+        foo.put("apiVersion", "yaks.dev/v1");
+        foo.put("kind", "Foo");
+        foo.put("metadata", metadata);
+        return foo;
+    }
+
+    private void waitForReadyCount(KubernetesNamespacePool pool, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (pool.getReadyCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+
+        Assert.assertEquals(count, pool.getReadyCount());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Collections;
+import java.util.HashMap;
+
+import com.consol.citrus.endpoint.direct.DirectEndpoint;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.client.HttpClient;
+import com.consol.citrus.http.client.HttpClientBuilder;
+import com.consol.citrus.spi.ReferenceResolver;
+import com.consol.citrus.spi.SimpleReferenceResolver;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class KubernetesPortForwardsTest {
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher(), false);
+
+    private final ReferenceResolver referenceResolver = new SimpleReferenceResolver();
+
+    private KubernetesClient k8sClient;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldResolveTargetPort() {
+        Service service = service(new IntOrString(8080));
+        KubernetesPortForwards portForwards = new KubernetesPortForwards(k8sClient);
+
+        Assert.assertEquals(8080, portForwards.getTargetPort("test", service, 80));
+    }
+
+    @Test
+    public void shouldResolveNamedTargetPort() {
+        k8sClient.pods().inNamespace("test").create(new PodBuilder()
+                .withNewMetadata()
+                    .withName("my-service-pod")
+                    .withLabels(Collections.singletonMap("app", "my-service"))
+                .endMetadata()
+                .withNewSpec()
+                    .addNewContainer()
+                        .withName("app")
+                        .addNewPort()
+                            .withName("metrics")
+                            .withContainerPort(9090)
+                        .endPort()
+                        .addNewPort()
+                            .withName("http")
+                            .withContainerPort(8080)
+                        .endPort()
+                    .endContainer()
+                .endSpec()
+                .build());
+
+        Service service = service(new IntOrString("http"));
+        KubernetesPortForwards portForwards = new KubernetesPortForwards(k8sClient);
+
+        Assert.assertEquals(8080, portForwards.getTargetPort("test", service, 80));
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnUnknownServicePort() {
+        new KubernetesPortForwards(k8sClient).getTargetPort("test", service(new IntOrString(8080)), 443);
+    }
+
+    @Test
+    public void shouldCreateHttpClient() {
+        KubernetesPortForwards.bindEndpoint(referenceResolver, "forwardClient", 12345);
+
+        HttpClient httpClient = referenceResolver.resolve("forwardClient", HttpClient.class);
+        Assert.assertEquals("http://localhost:12345", httpClient.getEndpointConfiguration().getRequestUrl());
+    }
+
+    @Test
+    public void shouldBindExistingHttpClient() {
+        HttpClient httpClient = new HttpClientBuilder()
+                .requestUrl("http://my-service.default.svc:8080")
+                .build();
+        referenceResolver.bind("myService", httpClient);
+
+        KubernetesPortForwards.bindEndpoint(referenceResolver, "myService", 23456);
+
+        Assert.assertEquals("http://localhost:23456", httpClient.getEndpointConfiguration().getRequestUrl());
+    }
+
+    @Test(expected = CitrusRuntimeException.class)
+    public void shouldFailOnUnsupportedEndpoint() {
+        referenceResolver.bind("direct", new DirectEndpoint());
+
+        KubernetesPortForwards.bindEndpoint(referenceResolver, "direct", 34567);
+    }
+
+    private static Service service(IntOrString targetPort) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName("my-service")
+                .endMetadata()
+                .withNewSpec()
+                    .withSelector(Collections.singletonMap("app", "my-service"))
+                    .addNewPort()
+                        .withProtocol("TCP")
+                        .withPort(80)
+                        .withTargetPort(targetPort)
+                    .endPort()
+                .endSpec()
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KubernetesResourceCacheTest {
+
+    private static final String NAMESPACE = "test";
+
+    /** When set the server rejects all pod list and watch requests */
+    private final AtomicBoolean rejectPodLists = new AtomicBoolean();
+
+    /** When set the server keeps watches open without sending any events */
+    private final AtomicBoolean silentWatches = new AtomicBoolean();
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    if (rejectPodLists.get() && "GET".equals(request.getMethod()) &&
+                            request.getPath().split("\\?")[0].endsWith("/pods")) {
+                        return new MockResponse().setResponseCode(403);
+                    }
+
+                    if (silentWatches.get() && request.getPath().contains("watch=true")) {
+                        return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {});
+                    }
+
+                    return super.dispatch(request);
+                }
+            }, false);
+
+    private KubernetesClient k8sClient;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+
+        k8sClient.pods().inNamespace(NAMESPACE).create(new PodBuilder()
+                .withNewMetadata()
+                    .withName("test-pod")
+                    .addToLabels("app", "yaks")
+                .endMetadata()
+                .build());
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldReadFromInformers() {
+        k8sClient.services().inNamespace(NAMESPACE).create(new ServiceBuilder()
+                .withNewMetadata()
+                    .withName("test-service")
+                .endMetadata()
+                .build());
+        k8sClient.secrets().inNamespace(NAMESPACE).create(new SecretBuilder()
+                .withNewMetadata()
+                    .withName("test-secret")
+                .endMetadata()
+                .build());
+
+        KubernetesResourceCache cache = new KubernetesResourceCache(k8sClient, 5000L, 60000L);
+
+        Pod pod = cache.getPod(NAMESPACE, "test-pod");
+        Assert.assertNotNull(pod);
+        Assert.assertEquals(1, cache.getPods(NAMESPACE, "app", "yaks").size());
+        Assert.assertEquals(0, cache.getPods(NAMESPACE, "app", "other").size());
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        Service service = cache.getService(NAMESPACE, "test-service");
+        Assert.assertNotNull(service);
+        Assert.assertNull(cache.getService(NAMESPACE, "unknown"));
+        Assert.assertTrue(cache.isInformerRunning(Service.class, NAMESPACE));
+
+        Secret secret = cache.getSecret(NAMESPACE, "test-secret");
+        Assert.assertNotNull(secret);
+        Assert.assertTrue(cache.isInformerRunning(Secret.class, NAMESPACE));
+
+        cache.stop();
+    }
+
+    @Test
+    public void shouldFallbackToDirectLookupOnCacheMiss() {
+        silentWatches.set(true);
+
+        KubernetesResourceCache cache = new KubernetesResourceCache(k8sClient, 5000L, 60000L);
+
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        // informer has not seen the new pod yet
+        k8sClient.pods().inNamespace(NAMESPACE).create(new PodBuilder()
+                .withNewMetadata()
+                    .withName("new-pod")
+                    .addToLabels("app", "new")
+                .endMetadata()
+                .build());
+
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "new-pod"));
+        Assert.assertEquals(1, cache.getPods(NAMESPACE, "app", "new").size());
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        cache.stop();
+    }
+
+    @Test
+    public void shouldFallbackToDirectLookupWhenInformerFails() {
+        rejectPodLists.set(true);
+
+        KubernetesResourceCache cache = new KubernetesResourceCache(k8sClient, 500L, 60000L);
+
+        Pod pod = cache.getPod(NAMESPACE, "test-pod");
+        Assert.assertNotNull(pod);
+        Assert.assertFalse(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        // failed informer is not started again within the retry delay
+        rejectPodLists.set(false);
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertFalse(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        cache.stop();
+    }
+
+    @Test
+    public void shouldRetryInformerAfterDelay() throws InterruptedException {
+        rejectPodLists.set(true);
+
+        KubernetesResourceCache cache = new KubernetesResourceCache(k8sClient, 500L, 1000L);
+
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertFalse(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        rejectPodLists.set(false);
+        Thread.sleep(1000L);
+
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        cache.stop();
+    }
+
+    @Test
+    public void shouldStopInformers() {
+        k8sClient.pods().inNamespace("other").create(new PodBuilder()
+                .withNewMetadata()
+                    .withName("other-pod")
+                .endMetadata()
+                .build());
+
+        KubernetesResourceCache cache = new KubernetesResourceCache(k8sClient, 5000L, 60000L);
+
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertNotNull(cache.getPod("other", "other-pod"));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, "other"));
+
+        cache.stop(NAMESPACE);
+        Assert.assertFalse(cache.isInformerRunning(Pod.class, NAMESPACE));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, "other"));
+
+        cache.stop();
+        Assert.assertFalse(cache.isInformerRunning(Pod.class, "other"));
+
+        // lookups after stop start a new informer
+        Assert.assertNotNull(cache.getPod(NAMESPACE, "test-pod"));
+        Assert.assertTrue(cache.isInformerRunning(Pod.class, NAMESPACE));
+
+        cache.stop();
+    }
+}
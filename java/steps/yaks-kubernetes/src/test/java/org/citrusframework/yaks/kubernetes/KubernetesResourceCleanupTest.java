@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KubernetesResourceCleanupTest {
+
+    private static final String NAMESPACE = "test";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private volatile boolean rejectDeleteCollection = false;
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    requests.add(request.getMethod() + " " + request.getPath());
+                    if (rejectDeleteCollection && "DELETE".equals(request.getMethod()) && request.getPath().contains("?labelSelector=")) {
+                        return new MockResponse().setResponseCode(405);
+                    }
+                    return super.dispatch(request);
+                }
+            }, false);
+
+    private final CustomResourceDefinitionContext fooContext = KubernetesSupport.crdContext("foos", "yaks.dev", "Foo", "v1");
+
+    private KubernetesClient k8sClient;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldLabelTrackedResources() {
+        KubernetesResourceCleanup cleanup = new KubernetesResourceCleanup(k8sClient, "scenario-1");
+
+        Pod pod = pod("test-pod");
+        pod.getMetadata().setLabels(new HashMap<>());
+        pod.getMetadata().getLabels().put("app", "yaks");
+        cleanup.track(pod, NAMESPACE);
+
+        Assert.assertEquals("scenario-1", pod.getMetadata().getLabels().get(KubernetesResourceCleanup.SCENARIO_LABEL));
+        Assert.assertEquals("yaks", pod.getMetadata().getLabels().get("app"));
+
+        Map<String, Object> foo = foo("test-foo");
+        cleanup.track(foo, fooContext, NAMESPACE);
+        Map<?, ?> labels = (Map<?, ?>) ((Map<?, ?>) foo.get("metadata")).get("labels");
+        Assert.assertEquals("scenario-1", labels.get(KubernetesResourceCleanup.SCENARIO_LABEL));
+    }
+
+    @Test
+    public void shouldShareCleanupPerScenario() {
+        TestContext context = TestContextFactory.newInstance().getObject();
+
+        KubernetesResourceCleanup cleanup = KubernetesResourceCleanup.getOrCreate(context, k8sClient);
+        Assert.assertSame(cleanup, KubernetesResourceCleanup.getOrCreate(context, k8sClient));
+        Assert.assertTrue(cleanup.schedule());
+        Assert.assertFalse(cleanup.schedule());
+
+        TestContext otherScenario = TestContextFactory.newInstance().getObject();
+        KubernetesResourceCleanup other = KubernetesResourceCleanup.getOrCreate(otherScenario, k8sClient);
+        Assert.assertNotSame(cleanup, other);
+        Assert.assertNotEquals(cleanup.getLabels(), other.getLabels());
+    }
+
+    @Test
+    public void shouldDeleteTrackedResourcesPerKind() {
+        KubernetesResourceCleanup cleanup = new KubernetesResourceCleanup(k8sClient, "scenario-1");
+
+        for (String name : new String[] { "pod-1", "pod-2" }) {
+            Pod pod = pod(name);
+            cleanup.track(pod, NAMESPACE);
+            k8sClient.pods().inNamespace(NAMESPACE).create(pod);
+        }
+
+        Service service = new ServiceBuilder()
+                .withNewMetadata()
+                    .withName("test-service")
+                .endMetadata()
+                .build();
+        cleanup.track(service, NAMESPACE);
+        k8sClient.services().inNamespace(NAMESPACE).create(service);
+
+        // resource of another scenario
+        k8sClient.pods().inNamespace(NAMESPACE).create(pod("other-pod"));
+
+        requests.clear();
+        cleanup.cleanup(true, 5000L);
+
+        Assert.assertEquals(1, k8sClient.pods().inNamespace(NAMESPACE).list().getItems().size());
+        Assert.assertNotNull(k8sClient.pods().inNamespace(NAMESPACE).withName("other-pod").get());
+        Assert.assertTrue(k8sClient.services().inNamespace(NAMESPACE).list().getItems().isEmpty());
+
+        Assert.assertEquals(1, countRequests("DELETE /api/v1/namespaces/test/pods?labelSelector="));
+        Assert.assertEquals(1, countRequests("DELETE /api/v1/namespaces/test/services?labelSelector="));
+        Assert.assertEquals(0, countRequests("DELETE /api/v1/namespaces/test/pods/"));
+
+        // tracked kinds are cleared after cleanup
+        requests.clear();
+        cleanup.cleanup(false, 0L);
+        Assert.assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void shouldDeleteRawCustomResources() throws Exception {
+        KubernetesResourceCleanup cleanup = new KubernetesResourceCleanup(k8sClient, "scenario-1");
+
+        Map<String, Object> foo = foo("test-foo");
+        cleanup.track(foo, fooContext, NAMESPACE);
+        k8sClient.customResource(fooContext).create(NAMESPACE, foo);
+        k8sClient.customResource(fooContext).create(NAMESPACE, foo("other-foo"));
+
+        cleanup.cleanup(true, 5000L);
+
+        Assert.assertEquals(1, KubernetesSupport.getResourceNames(k8sClient, fooContext, null, NAMESPACE,
+                new HashMap<>()).size());
+        Assert.assertNotNull(k8sClient.customResource(fooContext).get(NAMESPACE, "other-foo"));
+        Assert.assertEquals(1, countRequests("DELETE /apis/yaks.dev/v1/namespaces/test/foos?labelSelector="));
+    }
+
+    @Test
+    public void shouldDeleteOneByOneWhenDeleteCollectionIsRejected() throws Exception {
+        KubernetesResourceCleanup cleanup = new KubernetesResourceCleanup(k8sClient, "scenario-1");
+
+        Map<String, Object> foo = foo("test-foo");
+        cleanup.track(foo, fooContext, NAMESPACE);
+        k8sClient.customResource(fooContext).create(NAMESPACE, foo);
+        k8sClient.customResource(fooContext).create(NAMESPACE, foo("other-foo"));
+
+        rejectDeleteCollection = true;
+        cleanup.cleanup(true, 5000L);
+
+        Assert.assertNotNull(k8sClient.customResource(fooContext).get(NAMESPACE, "other-foo"));
+        Assert.assertEquals(1, countRequests("DELETE /apis/yaks.dev/v1/namespaces/test/foos?labelSelector="));
+        Assert.assertEquals(1, countRequests("DELETE /apis/yaks.dev/v1/namespaces/test/foos/test-foo"));
+    }
+
+    @Test
+    public void shouldIgnoreNotFoundWhenNamespaceIsGone() {
+        KubernetesSupport.deleteResources(k8sClient, KubernetesSupport.crdContext("bars", "yaks.dev", "Bar", "v1"),
+                null, "deleted", Collections.singletonMap(KubernetesResourceCleanup.SCENARIO_LABEL, "scenario-1"), false);
+
+        Assert.assertEquals(1, countRequests("DELETE /apis/yaks.dev/v1/namespaces/deleted/bars?labelSelector="));
+    }
+
+    @Test(expected = KubernetesClientException.class)
+    public void shouldFailOnNotFoundInExistingNamespace() {
+        k8sClient.namespaces().create(new NamespaceBuilder()
+                .withNewMetadata()
+                    .withName(NAMESPACE)
+                .endMetadata()
+                .build());
+
+        KubernetesSupport.deleteResources(k8sClient, KubernetesSupport.crdContext("bars", "yaks.dev", "Bar", "v1"),
+                null, NAMESPACE, Collections.singletonMap(KubernetesResourceCleanup.SCENARIO_LABEL, "scenario-1"), false);
+    }
+
+    private long countRequests(String prefix) {
+        return requests.stream().filter(request -> request.startsWith(prefix)).count();
+    }
+
+    private static Pod pod(String name) {
+        return new PodBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                .endMetadata()
+                .build();
+    }
+
+    private static Map<String, Object> foo(String name) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+
+        Map<String, Object> foo = new LinkedHashMap<>();
+        foo.put("apiVersion", "yaks.dev/v1");
+        foo.put("kind", "Foo");
+        foo.put("metadata", metadata);
+        return foo;
+    }
+}
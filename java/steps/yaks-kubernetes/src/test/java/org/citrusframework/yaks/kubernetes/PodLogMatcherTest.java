@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PodLogMatcherTest {
+
+    @Test
+    public void shouldMatchMessage() throws IOException {
+        Assert.assertTrue(PodLogMatcher.scan(new StringReader("Starting\nHello from YAKS!\nStopped"), "Hello from YAKS!"));
+        Assert.assertFalse(PodLogMatcher.scan(new StringReader("Starting\nHello from Citrus!\nStopped"), "Hello from YAKS!"));
+    }
+
+    @Test
+    public void shouldMatchMessageAcrossReads() throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            log.append("Some log line ").append(i).append("\n");
+        }
+        log.append("Hello from YAKS!");
+
+        Assert.assertTrue(PodLogMatcher.scan(new ChunkedReader(log.toString(), 7), "Hello from YAKS!"));
+        Assert.assertFalse(PodLogMatcher.scan(new ChunkedReader(log.toString(), 7), "Hello from Citrus!"));
+    }
+
+    @Test
+    public void shouldResumeAfterLastConsumedLine() throws IOException {
+        PodLogMatcher.LogPosition position = new PodLogMatcher.LogPosition();
+        Assert.assertFalse(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.100000000Z Starting\n" +
+                "2021-01-27T10:15:30.200000000Z Hello from Citrus!\n"), "Hello from YAKS!", position));
+        Assert.assertEquals("2021-01-27T10:15:30.200Z", position.getTimestamp().toString());
+
+        // reconnect resumes at the last timestamp so lines already consumed are skipped
+        Assert.assertFalse(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.100000000Z Starting\n" +
+                "2021-01-27T10:15:30.200000000Z Hello from Citrus!\n"), "Hello from Citrus!", position));
+        Assert.assertTrue(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.200000000Z Hello from Citrus!\n" +
+                "2021-01-27T10:15:31.000000000Z Hello from YAKS!\n"), "Hello from YAKS!", position));
+    }
+
+    @Test
+    public void shouldResumeWithinLinesOfSameTimestamp() throws IOException {
+        PodLogMatcher.LogPosition position = new PodLogMatcher.LogPosition();
+        Assert.assertFalse(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.100000000Z Starting\n" +
+                "2021-01-27T10:15:30.100000000Z Hello from Citrus!\n"), "Hello from YAKS!", position));
+
+        // stream closed between lines sharing the same timestamp, the next line with this timestamp is new
+        Assert.assertFalse(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.100000000Z Starting\n" +
+                "2021-01-27T10:15:30.100000000Z Hello from Citrus!\n"), "Hello from Citrus!", position));
+        Assert.assertTrue(PodLogMatcher.scan(new StringReader(
+                "2021-01-27T10:15:30.100000000Z Starting\n" +
+                "2021-01-27T10:15:30.100000000Z Hello from Citrus!\n" +
+                "2021-01-27T10:15:30.100000000Z Hello from YAKS!\n"), "Hello from YAKS!", position));
+    }
+
+    @Test
+    public void shouldMatchMessageInHugeLine() throws IOException {
+        StringBuilder log = new StringBuilder("2021-01-27T10:15:30.100000000Z ");
+        for (int i = 0; i < 1000000; i++) {
+            log.append('x');
+        }
+        log.append("Hello from YAKS!\n");
+        log.append("2021-01-27T10:15:31.000000000Z Stopped\n");
+
+        Assert.assertTrue(PodLogMatcher.scan(new ChunkedReader(log.toString(), 1000), "Hello from YAKS!",
+                new PodLogMatcher.LogPosition()));
+
+        PodLogMatcher.LogPosition position = new PodLogMatcher.LogPosition();
+        Assert.assertFalse(PodLogMatcher.scan(new ChunkedReader(log.toString(), 1000), "Hello from Citrus!", position));
+        Assert.assertEquals("2021-01-27T10:15:31Z", position.getTimestamp().toString());
+    }
+
+    /**
+     * Reader returns content in small chunks so messages span multiple reads.
+     */
+    private static class ChunkedReader extends Reader {
+        private final StringReader delegate;
+        private final int chunkSize;
+
+        ChunkedReader(String content, int chunkSize) {
+            this.delegate = new StringReader(content);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return delegate.read(cbuf, off, Math.min(len, chunkSize));
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.consol.citrus.exceptions.ActionTimeoutException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ResourceWaiterTest {
+
+    @Test
+    public void shouldCalculateExponentialBackoff() {
+        ExponentialBackoff backoff = new ExponentialBackoff(100L, 500L, 2.0, 0.0, 2, 10L);
+
+        Assert.assertEquals(10L, backoff.getDelay(1));
+        Assert.assertEquals(10L, backoff.getDelay(2));
+        Assert.assertEquals(100L, backoff.getDelay(3));
+        Assert.assertEquals(200L, backoff.getDelay(4));
+        Assert.assertEquals(400L, backoff.getDelay(5));
+        Assert.assertEquals(500L, backoff.getDelay(6));
+        Assert.assertEquals(500L, backoff.getDelay(100));
+    }
+
+    @Test
+    public void shouldApplyJitterWithinBounds() {
+        ExponentialBackoff backoff = new ExponentialBackoff(1000L, 10000L, 1.0, 0.2);
+
+        for (int i = 1; i < 50; i++) {
+            long delay = backoff.getDelay(i);
+            Assert.assertTrue(delay >= 800L && delay <= 1200L);
+        }
+    }
+
+    @Test
+    public void shouldWaitForResource() {
+        AtomicInteger attempts = new AtomicInteger();
+        ResourceWaiter waiter = new ResourceWaiter("test-ready", 5000L, BackoffStrategy.fixed(10L));
+
+        String result = waiter.waitFor("test resource", () -> attempts.incrementAndGet() < 3 ? null : "ready");
+
+        Assert.assertEquals("ready", result);
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(1L, ReadinessMetrics.getStatistics("test-ready").getCount());
+    }
+
+    @Test
+    public void shouldTreatFalseAsNotReady() {
+        AtomicInteger attempts = new AtomicInteger();
+        ResourceWaiter waiter = new ResourceWaiter("test-condition", 5000L, BackoffStrategy.fixed(10L));
+
+        Assert.assertTrue(waiter.waitFor("test condition", () -> attempts.incrementAndGet() == 2));
+        Assert.assertEquals(2, attempts.get());
+    }
+
+    @Test(expected = ActionTimeoutException.class)
+    public void shouldTimeoutAtDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        ResourceWaiter waiter = new ResourceWaiter("test-timeout", 200L, BackoffStrategy.fixed(1000L));
+
+        try {
+            waiter.waitFor("test resource", () -> {
+                attempts.incrementAndGet();
+                return null;
+            });
+        } finally {
+            // delay is capped at the deadline so the resource is checked one last time before the timeout
+            Assert.assertEquals(2, attempts.get());
+            Assert.assertEquals(0L, ReadinessMetrics.getStatistics("test-timeout").getCount());
+        }
+    }
+}
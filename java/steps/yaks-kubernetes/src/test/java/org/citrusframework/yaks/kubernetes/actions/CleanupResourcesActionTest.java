@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes.actions;
+
+import java.util.HashMap;
+
+import com.consol.citrus.context.TestContextFactory;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockWebServer;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCleanup;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CleanupResourcesActionTest {
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher(), false);
+
+    private KubernetesClient k8sClient;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldRemoveTrackedResources() {
+        KubernetesResourceCleanup cleanup = new KubernetesResourceCleanup(k8sClient);
+
+        Pod pod = new PodBuilder()
+                .withNewMetadata()
+                    .withName("test-pod")
+                .endMetadata()
+                .build();
+        cleanup.track(pod, "test");
+        k8sClient.pods().inNamespace("test").create(pod);
+
+        new CleanupResourcesAction.Builder()
+                .client(k8sClient)
+                .cleanup(cleanup)
+                .waitForFinalizers(true)
+                .timeout(5000L)
+                .build()
+                .execute(TestContextFactory.newInstance().getObject());
+
+        Assert.assertNull(k8sClient.pods().inNamespace("test").withName("test-pod").get());
+    }
+}
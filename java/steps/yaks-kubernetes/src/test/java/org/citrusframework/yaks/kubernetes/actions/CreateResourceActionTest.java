@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes.actions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.citrusframework.yaks.kubernetes.KubernetesVariableNames;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CreateResourceActionTest {
+
+    private static final String CONTENT = "apiVersion: v1\n" +
+            "kind: ConfigMap\n" +
+            "metadata:\n" +
+            "  name: test-config\n" +
+            "data:\n" +
+            "  key: value\n" +
+            "---\n" +
+            "apiVersion: v1\n" +
+            "kind: Namespace\n" +
+            "metadata:\n" +
+            "  name: test-namespace\n";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private volatile boolean serverSideApply = true;
+
+    private final KubernetesMockServer k8sServer = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new KubernetesCrudDispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    requests.add(request.getMethod() + " " + request.getPath());
+                    if (serverSideApply && "PATCH".equals(request.getMethod())
+                            && "application/apply-patch+yaml".equals(request.getHeader("Content-Type"))) {
+                        return new MockResponse().setResponseCode(201).setBody(request.getBody().readUtf8());
+                    }
+                    return super.dispatch(request);
+                }
+            }, false);
+
+    private KubernetesClient k8sClient;
+    private TestContext context;
+
+    @Before
+    public void setup() {
+        k8sServer.init();
+        k8sClient = k8sServer.createClient();
+
+        context = TestContextFactory.newInstance().getObject();
+        context.setVariable(KubernetesVariableNames.NAMESPACE.value(), "test");
+    }
+
+    @After
+    public void destroy() {
+        k8sClient.close();
+        k8sServer.destroy();
+    }
+
+    @Test
+    public void shouldApplyResourcesWithServerSideApply() {
+        new CreateResourceAction.Builder()
+                .client(k8sClient)
+                .content(CONTENT)
+                .build()
+                .execute(context);
+
+        Assert.assertEquals(Arrays.asList(
+                "PATCH /api/v1/namespaces/test-namespace?fieldManager=yaks&force=true",
+                "PATCH /api/v1/namespaces/test/configmaps/test-config?fieldManager=yaks&force=true"), requests);
+    }
+
+    @Test
+    public void shouldFallBackToCreateOrReplace() {
+        serverSideApply = false;
+
+        new CreateResourceAction.Builder()
+                .client(k8sClient)
+                .content(CONTENT)
+                .build()
+                .execute(context);
+
+        Assert.assertNotNull(k8sClient.configMaps().inNamespace("test").withName("test-config").get());
+        Assert.assertNotNull(k8sClient.namespaces().withName("test-namespace").get());
+    }
+}
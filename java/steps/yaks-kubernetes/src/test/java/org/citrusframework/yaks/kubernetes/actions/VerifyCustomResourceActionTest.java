@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.kubernetes.actions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import org.citrusframework.yaks.kubernetes.KubernetesResourceCache;
+import org.citrusframework.yaks.kubernetes.KubernetesVariableNames;
+import org.junit.Test;
+
+public class VerifyCustomResourceActionTest {
+
+    @Test
+    public void shouldVerifyAnyLabeledResource() {
+        KubernetesResourceCache cache = new KubernetesResourceCache(null) {
+            @Override
+            public List<Map<String, Object>> getCustomResources(String namespace, CustomResourceDefinitionContext context) {
+                return Arrays.asList(foo("foo-other", "other-app", "True"),
+                        foo("foo-pending", "foo-app", "False"),
+                        foo("foo-ready", "foo-app", "True"));
+            }
+        };
+
+        TestContext context = TestContextFactory.newInstance().getObject();
+        context.setVariable(KubernetesVariableNames.NAMESPACE.value(), "test");
+
+        new VerifyCustomResourceAction.Builder()
+                .cache(cache)
+                .type("foos.yaks.dev/v1")
+                .kind("Foo")
+                .label("app", "foo-app")
+                .isReady()
+                .watch(false)
+                .maxAttempts(1)
+                .delayBetweenAttempts(100L)
+                .build()
+                .execute(context);
+    }
+
+    private static Map<String, Object> foo(String name, String app, String ready) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+        metadata.put("labels", Collections.singletonMap("app", app));
+
+        Map<String, Object> condition = new LinkedHashMap<>();
+        condition.put("type", "Ready");
+        condition.put("status", ready);
+
+        Map<String, Object> foo = new LinkedHashMap<>();
+        foo.put("apiVersion", "yaks.dev/v1");
+        foo.put("kind", "Foo");
+        foo.put("metadata", metadata);
+        foo.put("status", Collections.singletonMap("conditions", Collections.singletonList(condition)));
+        return foo;
+    }
+}
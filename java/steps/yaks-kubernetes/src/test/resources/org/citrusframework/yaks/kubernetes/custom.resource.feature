@@ -71,3 +71,23 @@ status:
     status: true
 """
     Then wait for condition=Completed on Kubernetes custom resource foo/job-resource in foos.yaks.dev/v1
+
+  Scenario: Wait for custom resource matching JSONPath expression
+    Given create Kubernetes custom resource in foos.yaks.dev
+"""
+apiVersion: yaks.dev/v1
+kind: Foo
+metadata:
+  name: expression-resource
+  labels:
+    app: expression-app
+spec:
+  message: Hello
+status:
+  conditions:
+  - type: Ready
+    status: true
+"""
+    Then wait for Kubernetes custom resource foo/expression-resource in foos.yaks.dev/v1 to match .spec.message == 'Hello'
+    Then Kubernetes custom resource foo/expression-resource in foos.yaks.dev/v1 should match .status.conditions[?(@.type == 'Ready')].status == true
+    Then Kubernetes custom resource in foos.yaks.dev/v1 labeled with app=expression-app should match .status.conditions
@@ -17,3 +17,9 @@ Feature: Kubernetes pod
   Scenario: Find pod by label
     Given Kubernetes pod p3 with label yaks.citrusframework.org/pod=sample
     Then Kubernetes pod labeled with yaks.citrusframework.org/pod=sample should be running
+
+  Scenario: Verify pod running without watch
+    Given Kubernetes resource polling configuration
+      | watch | false |
+    Given Kubernetes pod p4
+    Then Kubernetes pod p4 should be running
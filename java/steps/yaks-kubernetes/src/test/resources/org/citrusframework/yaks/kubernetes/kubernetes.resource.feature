@@ -24,3 +24,40 @@ spec:
   Scenario: Create from file resource
     Given load Kubernetes resource pod.yaml
     Then verify pod my-pod-resource exists
+
+  Scenario: Create multiple resources
+    Given create Kubernetes resource
+"""
+apiVersion: v1
+kind: Pod
+metadata:
+  name: batch-pod
+  labels:
+    name: batch-pod
+spec:
+  containers:
+  - name: nginx
+    image: nginx
+    ports:
+    - containerPort: 80
+---
+apiVersion: v1
+kind: Service
+metadata:
+  name: batch-service
+spec:
+  selector:
+    name: batch-pod
+  ports:
+  - port: 80
+---
+apiVersion: v1
+kind: Secret
+metadata:
+  name: batch-secret
+stringData:
+  username: yaks
+"""
+    Then verify pod batch-pod exists
+    Then verify Kubernetes service batch-service exists
+    Then verify secret batch-secret exists
@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import com.consol.citrus.Citrus;
 import com.consol.citrus.CitrusSettings;
@@ -30,11 +29,9 @@ import com.consol.citrus.annotations.CitrusAnnotations;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
 import com.consol.citrus.context.TestContext;
-import io.apicurio.datamodels.openapi.models.OasOperation;
 import io.apicurio.datamodels.openapi.models.OasParameter;
-import io.apicurio.datamodels.openapi.models.OasPathItem;
-import io.apicurio.datamodels.openapi.models.OasResponse;
 import io.apicurio.datamodels.openapi.models.OasSchema;
+import io.cucumber.datatable.DataTable;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.And;
@@ -42,7 +39,13 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.citrusframework.yaks.http.HttpClientSteps;
+import org.citrusframework.yaks.http.HttpConnectionPool;
+import org.citrusframework.yaks.http.load.VerifyHttpLoadAction;
+import org.citrusframework.yaks.openapi.load.OpenApiLoadAction;
 import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.citrusframework.yaks.openapi.model.OasOperationEntry;
+import org.citrusframework.yaks.openapi.validation.OasSchemaValidationProcessor;
+import org.citrusframework.yaks.openapi.validation.OasSchemaValidator;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
@@ -59,7 +62,7 @@ public class OpenApiClientSteps {
 
     private HttpClientSteps clientSteps;
 
-    private OasOperation operation;
+    private OasOperationEntry operation;
 
     private long timeout = OpenApiSettings.getTimeout();
 
@@ -88,16 +91,10 @@ public class OpenApiClientSteps {
 
     @When("^(?:send|invoke) operation: (.+)$")
     public void invokeOperation(String operationId) {
-        for (OasPathItem path : OasModelHelper.getPathItems(OpenApiSteps.openApiDoc.paths)) {
-            Optional<Map.Entry<String, OasOperation>> operationEntry = OasModelHelper.getOperationMap(path).entrySet().stream()
-                    .filter(op -> operationId.equals(op.getValue().operationId))
-                    .findFirst();
-
-            if (operationEntry.isPresent()) {
-                operation = operationEntry.get().getValue();
-                sendRequest(path.getPath(), operationEntry.get().getKey(), operationEntry.get().getValue());
-                break;
-            }
+        Optional<OasOperationEntry> operationEntry = OasModelHelper.findOperation(OpenApiSteps.openApiDoc, operationId);
+        if (operationEntry.isPresent()) {
+            operation = operationEntry.get();
+            sendRequest(operation);
         }
     }
 
@@ -111,29 +108,65 @@ public class OpenApiClientSteps {
         receiveResponse(operation, response);
     }
 
+    @When("^run OpenAPI operations for (\\d+) (?:seconds|s) at (\\d+) requests? per second(?: with concurrency (\\d+))?(?: validating (\\d+) ?% of responses)?$")
+    public void runOperationLoad(long seconds, double rate, Integer concurrency, Integer validationSample, DataTable dataTable) {
+        OpenApiLoadAction.Builder load = new OpenApiLoadAction.Builder()
+                .specification(OpenApiSteps.openApiDoc)
+                .baseUrl(OpenApiSteps.openApiUrl)
+                .rate(rate)
+                .duration(seconds * 1000L)
+                .timeout(timeout)
+                .client(HttpConnectionPool.getOrCreate(citrus).getHttpClient());
+
+        for (List<String> row : dataTable.asLists()) {
+            if (row.isEmpty() || "operation".equals(row.get(0))) {
+                continue;
+            }
+
+            load.operation(row.get(0), row.size() > 1 ? Integer.parseInt(row.get(1)) : 1);
+        }
+
+        Optional.ofNullable(concurrency).ifPresent(load::concurrency);
+        Optional.ofNullable(validationSample).ifPresent(load::validationSample);
+
+        runner.run(load);
+    }
+
+    @Then("^OpenAPI operation ([^\\s]+) (p\\d+(?:\\.\\d+)?|mean|max) latency should be (<|<=|>|>=) (\\d+(?:\\.\\d+)?)(?: ms| milliseconds)$")
+    public void verifyOperationLoadLatency(String operationId, String metric, String operator, double threshold) {
+        runner.run(new VerifyHttpLoadAction.Builder()
+                .result(OpenApiLoadAction.getResultVariable(operationId))
+                .metric(metric)
+                .operator(operator)
+                .threshold(threshold));
+    }
+
+    @Then("^OpenAPI operation ([^\\s]+) error rate should be (<|<=|>|>=) (\\d+(?:\\.\\d+)?) ?%$")
+    public void verifyOperationLoadErrorRate(String operationId, String operator, double threshold) {
+        runner.run(new VerifyHttpLoadAction.Builder()
+                .result(OpenApiLoadAction.getResultVariable(operationId))
+                .errorRate()
+                .operator(operator)
+                .threshold(threshold));
+    }
+
     /**
      * Invoke request for given API operation. The request parameters, headers and payload are generated via specification
      * details in that operation.
-     * @param path
-     * @param method
      * @param operation
      */
-    private void sendRequest(String path, String method, OasOperation operation) {
-        if (operation.parameters != null) {
-            operation.parameters.stream()
-                    .filter(param -> "header".equals(param.in))
-                    .filter(param -> param.required != null && param.required)
-                    .forEach(param -> clientSteps.addRequestHeader(param.getName(), OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) param.schema, OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false)));
-
-            operation.parameters.stream()
-                    .filter(param -> "query".equals(param.in))
-                    .filter(param -> param.required != null && param.required)
-                    .forEach(param -> clientSteps.addRequestQueryParam(param.getName(), OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) param.schema)));
-        }
+    private void sendRequest(OasOperationEntry operation) {
+        Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc);
+
+        operation.getRequiredHeaders()
+                .forEach(param -> clientSteps.addRequestHeader(param.getName(), OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) param.schema, definitions, false)));
+
+        operation.getRequiredQueryParams()
+                .forEach(param -> clientSteps.addRequestQueryParam(param.getName(), OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) param.schema)));
 
-        Optional<OasSchema> body = OasModelHelper.getRequestBodySchema(OpenApiSteps.openApiDoc, operation);
+        Optional<OasSchema> body = operation.getRequestBodySchema();
         if (body.isPresent()) {
-            clientSteps.setRequestBody(OpenApiTestDataGenerator.createOutboundPayload(body.get(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc)));
+            clientSteps.setRequestBody(OpenApiTestDataGenerator.createOutboundPayload(body.get(), definitions));
 
             if (OasModelHelper.isReferenceType(body.get())
                     || OasModelHelper.isObjectType(body.get())
@@ -142,30 +175,23 @@ public class OpenApiClientSteps {
             }
         }
 
-        String randomizedPath = path;
-        if (operation.parameters != null) {
-            List<OasParameter> pathParams = operation.parameters.stream()
-                    .filter(p -> "path".equals(p.in))
-                    .collect(Collectors.toList());
-
-            for (OasParameter parameter : pathParams) {
-                String parameterValue;
-                if (context.getVariables().containsKey(parameter.getName())) {
-                    parameterValue = "\\" + CitrusSettings.VARIABLE_PREFIX + parameter.getName() + CitrusSettings.VARIABLE_SUFFIX;
-                } else {
-                    parameterValue = OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) parameter.schema);
-                }
-                randomizedPath = Pattern.compile("\\{" + parameter.getName() + "}")
-                                        .matcher(randomizedPath)
-                                        .replaceAll(parameterValue);
+        String randomizedPath = operation.getPath();
+        for (OasParameter parameter : operation.getPathParams()) {
+            String parameterValue;
+            if (context.getVariables().containsKey(parameter.getName())) {
+                parameterValue = "\\" + CitrusSettings.VARIABLE_PREFIX + parameter.getName() + CitrusSettings.VARIABLE_SUFFIX;
+            } else {
+                parameterValue = OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) parameter.schema);
             }
+            randomizedPath = Pattern.compile("\\{" + parameter.getName() + "}")
+                                    .matcher(randomizedPath)
+                                    .replaceAll(parameterValue);
         }
 
-        Optional<String> contentType = OasModelHelper.getRequestContentType(operation);
-        contentType.ifPresent(s -> clientSteps.addRequestHeader(HttpHeaders.CONTENT_TYPE, s));
+        operation.getRequestContentType().ifPresent(s -> clientSteps.addRequestHeader(HttpHeaders.CONTENT_TYPE, s));
 
         clientSteps.setUrl(OpenApiSteps.openApiUrl);
-        clientSteps.sendClientRequest(method.toUpperCase(), randomizedPath);
+        clientSteps.sendClientRequest(operation.getMethod().toUpperCase(), randomizedPath);
     }
 
     /**
@@ -173,22 +199,26 @@ public class OpenApiClientSteps {
      * @param operation
      * @param status
      */
-    private void receiveResponse(OasOperation operation, String status) {
-        if (operation.responses != null) {
-            OasResponse response = Optional.ofNullable(operation.responses.getItem(status))
-                                        .orElse(operation.responses.default_);
-
-            if (response != null) {
-                Map<String, OasSchema> headers = OasModelHelper.getRequiredHeaders(response);
-                if (headers != null) {
-                    for (Map.Entry<String, OasSchema> header : headers.entrySet()) {
-                        clientSteps.addResponseHeader(header.getKey(), OpenApiTestDataGenerator.createValidationExpression(header.getValue(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false));
-                    }
+    private void receiveResponse(OasOperationEntry operation, String status) {
+        Optional<OasOperationEntry.ResponseEntry> response = operation.getResponse(status);
+        if (response.isPresent()) {
+            Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc);
+
+            for (Map.Entry<String, OasSchema> header : response.get().getRequiredHeaders().entrySet()) {
+                clientSteps.addResponseHeader(header.getKey(), OpenApiTestDataGenerator.createValidationExpression(header.getValue(), definitions, false));
+            }
+
+            Optional<OasSchema> responseSchema = response.get().getSchema();
+            if (responseSchema.isPresent()) {
+                boolean schemaValidation = OpenApiSteps.isSchemaValidation(operation.getResponseContentType());
+                if (schemaValidation) {
+                    clientSteps.addValidationProcessor(new OasSchemaValidationProcessor(
+                            OasSchemaValidator.forSchema(responseSchema.get(), definitions,
+                                    OpenApiSteps.validateOptionalFields, OpenApiSteps.validateStrict)));
                 }
 
-                Optional<OasSchema> responseSchema = OasModelHelper.getSchema(response);
-                if (responseSchema.isPresent()) {
-                    clientSteps.setResponseBody(OpenApiTestDataGenerator.createInboundPayload(responseSchema.get(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc)));
+                if (!schemaValidation || !OpenApiSteps.inboundDictionary.getMappings().isEmpty()) {
+                    clientSteps.setResponseBody(OpenApiTestDataGenerator.createInboundPayload(responseSchema.get(), definitions));
 
                     if (OasModelHelper.isReferenceType(responseSchema.get())
                             || OasModelHelper.isObjectType(responseSchema.get())
@@ -199,8 +229,7 @@ public class OpenApiClientSteps {
             }
         }
 
-        Optional<String> contentType = OasModelHelper.getResponseContentType(OpenApiSteps.openApiDoc, operation);
-        contentType.ifPresent(s -> clientSteps.addResponseHeader(HttpHeaders.CONTENT_TYPE, s));
+        operation.getResponseContentType().ifPresent(s -> clientSteps.addResponseHeader(HttpHeaders.CONTENT_TYPE, s));
 
         if (Pattern.compile("[0-9]+").matcher(status).matches()) {
             clientSteps.receiveClientResponse(Integer.parseInt(status));
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.apicurio.datamodels.Library;
+import io.apicurio.datamodels.openapi.models.OasDocument;
+
+/**
+ * Caches parsed Open API documents by the hash of their content. Scenarios loading the same specification share the
+ * parsed document instead of parsing the specification content over and over again. As the cache key is the content
+ * hash a changed specification is always parsed again, no matter where it has been loaded from.
+ *
+ * The cache keeps a limited number of documents and evicts the least recently used document once the limit is reached.
+ * The cached documents are shared across scenarios and must not be modified. Steps only read the document model and keep
+ * derived data such as compiled validators as attributes that are not part of the specification.
+ *
+ * @author Christoph Deppisch
+ */
+public final class OpenApiDocumentCache {
+
+    private static final Map<String, OasDocument> DOCUMENTS = new LinkedHashMap<String, OasDocument>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OasDocument> eldest) {
+            return size() > OpenApiSettings.getDocumentCacheSize();
+        }
+    };
+
+    /**
+     * Prevent instantiation of utility class.
+     */
+    private OpenApiDocumentCache() {
+        super();
+    }
+
+    /**
+     * Gets the parsed document for given specification content. Parses the content when there is no cached document with
+     * the same content hash or when the cache has been disabled. Parsing happens outside of the cache lock, when two
+     * scenarios parse the same content concurrently the first cached document wins.
+     * @param content
+     * @return
+     */
+    public static OasDocument get(String content) {
+        if (!OpenApiSettings.isDocumentCacheEnabled()) {
+            return parse(content);
+        }
+
+        String key = hash(content);
+        synchronized (DOCUMENTS) {
+            OasDocument cached = DOCUMENTS.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        OasDocument parsed = parse(content);
+        synchronized (DOCUMENTS) {
+            OasDocument cached = DOCUMENTS.putIfAbsent(key, parsed);
+            return cached != null ? cached : parsed;
+        }
+    }
+
+    /**
+     * Removes all cached documents.
+     */
+    public static void clear() {
+        synchronized (DOCUMENTS) {
+            DOCUMENTS.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached documents.
+     * @return
+     */
+    public static int size() {
+        synchronized (DOCUMENTS) {
+            return DOCUMENTS.size();
+        }
+    }
+
+    private static OasDocument parse(String content) {
+        return (OasDocument) Library.readDocumentFromJSONString(content);
+    }
+
+    /**
+     * Calculates the SHA-256 hash of given content as hex string.
+     * @param content
+     * @return
+     */
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to calculate Open API specification hash", e);
+        }
+    }
+}
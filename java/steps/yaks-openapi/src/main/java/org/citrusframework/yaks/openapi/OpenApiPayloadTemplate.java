@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+
+/**
+ * Payload template compiled from an Open API schema. The schema is resolved once into a tree of template nodes with all
+ * schema references resolved. Recursive references are detected while compiling and end the recursion with a null value
+ * in generated payloads and an ignore expression in validation payloads.
+ *
+ * The rendered template only holds Citrus functions and validation matchers that get evaluated for each message, so the
+ * same template is valid for all messages. The rendered template is kept as attribute on the schema and rendered again
+ * only when the schema definitions or the optional fields setting change.
+ *
+ * @author Christoph Deppisch
+ */
+final class OpenApiPayloadTemplate {
+
+    /** Schema attribute prefix for rendered templates */
+    private static final String TEMPLATE_ATTRIBUTE_PREFIX = "yaks.template.";
+
+    /** Template modes */
+    enum Mode {
+        OUTBOUND,
+        RANDOM_VALUE,
+        INBOUND,
+        VALIDATION
+    }
+
+    private final Map<String, OasSchema> definitions;
+    private final boolean generateOptionalFields;
+    private final boolean validateOptionalFields;
+
+    /** Schemas currently being compiled used to detect recursive references */
+    private final Deque<OasSchema> resolving = new ArrayDeque<>();
+
+    private OpenApiPayloadTemplate(Map<String, OasSchema> definitions, boolean generateOptionalFields, boolean validateOptionalFields) {
+        this.definitions = definitions;
+        this.generateOptionalFields = generateOptionalFields;
+        this.validateOptionalFields = validateOptionalFields;
+    }
+
+    /**
+     * Gets the rendered template for given schema and mode. Compiles and renders the template on first access and
+     * keeps the result with the schema.
+     * @param schema
+     * @param definitions
+     * @param mode
+     * @param quotes
+     * @return
+     */
+    static String render(OasSchema schema, Map<String, OasSchema> definitions, Mode mode, boolean quotes) {
+        boolean generateOptionalFields = OpenApiSteps.generateOptionalFields;
+        boolean validateOptionalFields = OpenApiSteps.validateOptionalFields;
+        boolean optionalFields = mode == Mode.OUTBOUND || mode == Mode.RANDOM_VALUE ? generateOptionalFields : validateOptionalFields;
+        String attribute = TEMPLATE_ATTRIBUTE_PREFIX + mode.name() + "." + quotes + "." + optionalFields;
+
+        synchronized (schema) {
+            Object cached = schema.getAttribute(attribute);
+            if (cached instanceof RenderedTemplate && ((RenderedTemplate) cached).definitions == definitions) {
+                return ((RenderedTemplate) cached).payload;
+            }
+
+            OpenApiPayloadTemplate template = new OpenApiPayloadTemplate(definitions, generateOptionalFields, validateOptionalFields);
+            StringBuilder payload = new StringBuilder();
+            template.compile(schema, mode, quotes).render(payload);
+
+            String rendered = payload.toString();
+            schema.setAttribute(attribute, new RenderedTemplate(definitions, rendered));
+            return rendered;
+        }
+    }
+
+    private Node compile(OasSchema schema, Mode mode, boolean quotes) {
+        resolving.push(schema);
+        switch (mode) {
+            case OUTBOUND:
+                return outbound(schema);
+            case RANDOM_VALUE:
+                return randomValue(schema, quotes);
+            case INBOUND:
+                return inbound(schema);
+            default:
+                return validation(schema, quotes);
+        }
+    }
+
+    private Node outbound(OasSchema schema) {
+        if (OasModelHelper.isReferenceType(schema)) {
+            return resolve(schema, this::outbound, () -> Literal.NULL);
+        }
+
+        if (OasModelHelper.isObjectType(schema)) {
+            return object(schema, generateOptionalFields, property -> randomValue(property, true));
+        } else if (OasModelHelper.isArrayType(schema)) {
+            return new ArrayTemplate(randomValue((OasSchema) schema.items, true));
+        }
+
+        return randomValue(schema, true);
+    }
+
+    private Node randomValue(OasSchema schema, boolean quotes) {
+        if (OasModelHelper.isReferenceType(schema)) {
+            return resolve(schema, resolved -> randomValue(resolved, quotes), () -> Literal.NULL);
+        }
+
+        if (OasModelHelper.isObjectType(schema) || OasModelHelper.isArrayType(schema)) {
+            return outbound(schema);
+        }
+
+        return new Literal(OpenApiTestDataGenerator.createRandomValueLiteral(schema, quotes));
+    }
+
+    private Node inbound(OasSchema schema) {
+        if (OasModelHelper.isReferenceType(schema)) {
+            return resolve(schema, this::inbound, () -> Literal.IGNORE);
+        }
+
+        if (OasModelHelper.isObjectType(schema)) {
+            return object(schema, validateOptionalFields, property -> validation(property, true));
+        } else if (OasModelHelper.isArrayType(schema)) {
+            return new ArrayTemplate(validation((OasSchema) schema.items, true));
+        }
+
+        return validation(schema, false);
+    }
+
+    private Node validation(OasSchema schema, boolean quotes) {
+        if (OasModelHelper.isReferenceType(schema)) {
+            return resolve(schema, resolved -> validation(resolved, quotes), () -> quotes ? Literal.IGNORE_QUOTED : Literal.IGNORE);
+        }
+
+        if (OasModelHelper.isObjectType(schema)) {
+            return object(schema, validateOptionalFields, property -> validation(property, quotes));
+        }
+
+        String expression = OpenApiTestDataGenerator.createValidationExpression(schema);
+        return new Literal(quotes ? "\"" + expression + "\"" : expression);
+    }
+
+    /**
+     * Compiles object template with all properties to include.
+     * @param schema
+     * @param optionalFields
+     * @param properties
+     * @return
+     */
+    private Node object(OasSchema schema, boolean optionalFields, Function<OasSchema, Node> properties) {
+        Map<String, Node> fields = new LinkedHashMap<>();
+        if (schema.properties != null) {
+            for (Map.Entry<String, OasSchema> entry : schema.properties.entrySet()) {
+                if (optionalFields || isRequired(schema, entry.getKey())) {
+                    fields.put(entry.getKey(), properties.apply(entry.getValue()));
+                }
+            }
+        }
+
+        return new ObjectTemplate(fields);
+    }
+
+    /**
+     * Resolves schema reference and compiles the referenced schema. Uses given recursion node when the referenced schema
+     * is already being compiled.
+     * @param schema
+     * @param compiler
+     * @param recursion
+     * @return
+     */
+    private Node resolve(OasSchema schema, Function<OasSchema, Node> compiler, Supplier<Node> recursion) {
+        OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
+        if (resolved == null) {
+            throw new IllegalStateException(String.format("Unable to resolve schema reference: %s", schema.$ref));
+        }
+
+        if (resolving.contains(resolved)) {
+            return recursion.get();
+        }
+
+        resolving.push(resolved);
+        try {
+            return compiler.apply(resolved);
+        } finally {
+            resolving.pop();
+        }
+    }
+
+    /**
+     * Checks if given field name is in list of required fields for this schema.
+     * @param schema
+     * @param field
+     * @return
+     */
+    private static boolean isRequired(OasSchema schema, String field) {
+        if (schema.required == null) {
+            return true;
+        }
+
+        return schema.required.contains(field);
+    }
+
+    /**
+     * Rendered template together with the schema definitions used to compile it.
+     */
+    private static final class RenderedTemplate {
+        private final Map<String, OasSchema> definitions;
+        private final String payload;
+
+        RenderedTemplate(Map<String, OasSchema> definitions, String payload) {
+            this.definitions = definitions;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Node in the compiled template tree.
+     */
+    interface Node {
+        void render(StringBuilder payload);
+    }
+
+    /**
+     * Fixed template text such as random value functions or validation matchers.
+     */
+    static final class Literal implements Node {
+        static final Literal NULL = new Literal("null");
+        static final Literal IGNORE = new Literal("@ignore@");
+        static final Literal IGNORE_QUOTED = new Literal("\"@ignore@\"");
+
+        private final String value;
+
+        Literal(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void render(StringBuilder payload) {
+            payload.append(value);
+        }
+    }
+
+    /**
+     * Json object with templates for each field.
+     */
+    static final class ObjectTemplate implements Node {
+        private final Map<String, Node> fields;
+
+        ObjectTemplate(Map<String, Node> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public void render(StringBuilder payload) {
+            payload.append("{");
+
+            boolean first = true;
+            for (Map.Entry<String, Node> field : fields.entrySet()) {
+                if (!first) {
+                    payload.append(",");
+                }
+
+                payload.append("\"").append(field.getKey()).append("\": ");
+                field.getValue().render(payload);
+                first = false;
+            }
+
+            payload.append("}");
+        }
+    }
+
+    /**
+     * Json array with a single item template.
+     */
+    static final class ArrayTemplate implements Node {
+        private final Node item;
+
+        ArrayTemplate(Node item) {
+            this.item = item;
+        }
+
+        @Override
+        public void render(StringBuilder payload) {
+            payload.append("[");
+            item.render(payload);
+            payload.append("]");
+        }
+    }
+}
@@ -28,7 +28,6 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Objects;
 
 import com.consol.citrus.util.FileUtils;
-import io.apicurio.datamodels.Library;
 import io.apicurio.datamodels.openapi.models.OasDocument;
 import org.apache.http.HttpHeaders;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
@@ -38,7 +37,8 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 
 /**
- * Loads Open API specifications from different locations like file resource or web resource.
+ * Loads Open API specifications from different locations like file resource or web resource. The parsed documents are
+ * cached by content hash in {@link OpenApiDocumentCache}.
  * @author Christoph Deppisch
  */
 public final class OpenApiResourceLoader {
@@ -57,7 +57,7 @@ public final class OpenApiResourceLoader {
      */
     public static OasDocument fromFile(String resource) {
         try {
-            return (OasDocument) Library.readDocumentFromJSONString(FileUtils.readToString(FileUtils.getFileResource(resource)));
+            return OpenApiDocumentCache.get(FileUtils.readToString(FileUtils.getFileResource(resource)));
         } catch (IOException e) {
             throw new IllegalStateException("Failed to parse Open API specification: " + resource, e);
         }
@@ -80,7 +80,7 @@ public final class OpenApiResourceLoader {
                 throw new IllegalStateException("Failed to retrieve Open API specification: " + url.toString(),
                         new IOException(FileUtils.readToString(con.getErrorStream())));
             } else {
-                return (OasDocument) Library.readDocumentFromJSONString(FileUtils.readToString(con.getInputStream()));
+                return OpenApiDocumentCache.get(FileUtils.readToString(con.getInputStream()));
             }
         } catch (IOException e) {
             throw new IllegalStateException("Failed to retrieve Open API specification: " + url.toString(), e);
@@ -118,7 +118,7 @@ public final class OpenApiResourceLoader {
                 throw new IllegalStateException("Failed to retrieve Open API specification: " + url.toString(),
                         new IOException(FileUtils.readToString(con.getErrorStream())));
             } else {
-                return (OasDocument) Library.readDocumentFromJSONString(FileUtils.readToString(con.getInputStream()));
+                return OpenApiDocumentCache.get(FileUtils.readToString(con.getInputStream()));
             }
         } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
             throw new IllegalStateException("Failed to create https client for ssl connection", e);
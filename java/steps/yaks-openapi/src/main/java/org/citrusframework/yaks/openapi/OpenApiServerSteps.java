@@ -17,11 +17,9 @@
 
 package org.citrusframework.yaks.openapi;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import com.consol.citrus.Citrus;
 import com.consol.citrus.CitrusSettings;
@@ -30,10 +28,7 @@ import com.consol.citrus.annotations.CitrusAnnotations;
 import com.consol.citrus.annotations.CitrusFramework;
 import com.consol.citrus.annotations.CitrusResource;
 import com.consol.citrus.context.TestContext;
-import io.apicurio.datamodels.openapi.models.OasOperation;
 import io.apicurio.datamodels.openapi.models.OasParameter;
-import io.apicurio.datamodels.openapi.models.OasPathItem;
-import io.apicurio.datamodels.openapi.models.OasResponse;
 import io.apicurio.datamodels.openapi.models.OasSchema;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
@@ -43,6 +38,9 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.citrusframework.yaks.http.HttpServerSteps;
 import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.citrusframework.yaks.openapi.model.OasOperationEntry;
+import org.citrusframework.yaks.openapi.validation.OasSchemaValidationProcessor;
+import org.citrusframework.yaks.openapi.validation.OasSchemaValidator;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
@@ -59,7 +57,7 @@ public class OpenApiServerSteps {
 
     private HttpServerSteps serverSteps;
 
-    private OasOperation operation;
+    private OasOperationEntry operation;
 
     private long timeout = OpenApiSettings.getTimeout();
 
@@ -83,16 +81,10 @@ public class OpenApiServerSteps {
 
     @When("^(?:receive|expect|verify) operation: (.+)$")
     public void receiveOperation(String operationId) {
-        for (OasPathItem path : OasModelHelper.getPathItems(OpenApiSteps.openApiDoc.paths)) {
-            Optional<Map.Entry<String, OasOperation>> operationEntry = OasModelHelper.getOperationMap(path).entrySet().stream()
-                    .filter(op -> operationId.equals(op.getValue().operationId))
-                    .findFirst();
-
-            if (operationEntry.isPresent()) {
-                operation = operationEntry.get().getValue();
-                receiveRequest(path.getPath(), operationEntry.get().getKey(), operationEntry.get().getValue());
-                break;
-            }
+        Optional<OasOperationEntry> operationEntry = OasModelHelper.findOperation(OpenApiSteps.openApiDoc, operationId);
+        if (operationEntry.isPresent()) {
+            operation = operationEntry.get();
+            receiveRequest(operation);
         }
     }
 
@@ -109,57 +101,53 @@ public class OpenApiServerSteps {
     /**
      * Invoke request for given API operation. The request parameters, headers and payload are generated via specification
      * details in that operation.
-     * @param path
-     * @param method
      * @param operation
      */
-    private void receiveRequest(String path, String method, OasOperation operation) {
-        if (operation.parameters != null) {
-            operation.parameters.stream()
-                    .filter(param -> "header".equals(param.in))
-                    .filter(param -> param.required != null && param.required)
-                    .forEach(param -> serverSteps.addRequestHeader(param.getName(), OpenApiTestDataGenerator.createValidationExpression((OasSchema) param.schema, OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false)));
-
-            operation.parameters.stream()
-                    .filter(param -> "query".equals(param.in))
-                    .filter(param -> param.required != null && param.required)
-                    .forEach(param -> serverSteps.addRequestQueryParam(param.getName(), OpenApiTestDataGenerator.createValidationExpression((OasSchema) param.schema, OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false)));
-        }
+    private void receiveRequest(OasOperationEntry operation) {
+        Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc);
+
+        operation.getRequiredHeaders()
+                .forEach(param -> serverSteps.addRequestHeader(param.getName(), OpenApiTestDataGenerator.createValidationExpression((OasSchema) param.schema, definitions, false)));
 
-        Optional<OasSchema> body = OasModelHelper.getRequestBodySchema(OpenApiSteps.openApiDoc, operation);
+        operation.getRequiredQueryParams()
+                .forEach(param -> serverSteps.addRequestQueryParam(param.getName(), OpenApiTestDataGenerator.createValidationExpression((OasSchema) param.schema, definitions, false)));
+
+        Optional<OasSchema> body = operation.getRequestBodySchema();
         if (body.isPresent()) {
-            serverSteps.setRequestBody(OpenApiTestDataGenerator.createInboundPayload(body.get(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc)));
+            boolean schemaValidation = OpenApiSteps.isSchemaValidation(operation.getRequestContentType());
+            if (schemaValidation) {
+                serverSteps.addValidationProcessor(new OasSchemaValidationProcessor(
+                        OasSchemaValidator.forSchema(body.get(), definitions,
+                                OpenApiSteps.validateOptionalFields, OpenApiSteps.validateStrict)));
+            }
+
+            if (!schemaValidation || !OpenApiSteps.inboundDictionary.getMappings().isEmpty()) {
+                serverSteps.setRequestBody(OpenApiTestDataGenerator.createInboundPayload(body.get(), definitions));
 
-            if (OasModelHelper.isReferenceType(body.get())
-                    || OasModelHelper.isObjectType(body.get())
-                    || OasModelHelper.isArrayType(body.get())) {
-                serverSteps.setInboundDictionary(OpenApiSteps.inboundDictionary);
+                if (OasModelHelper.isReferenceType(body.get())
+                        || OasModelHelper.isObjectType(body.get())
+                        || OasModelHelper.isArrayType(body.get())) {
+                    serverSteps.setInboundDictionary(OpenApiSteps.inboundDictionary);
+                }
             }
         }
 
-        String randomizedPath = OasModelHelper.getBasePath(OpenApiSteps.openApiDoc) + path;
-        if (operation.parameters != null) {
-            List<OasParameter> pathParams = operation.parameters.stream()
-                    .filter(p -> "path".equals(p.in))
-                    .collect(Collectors.toList());
-
-            for (OasParameter parameter : pathParams) {
-                String parameterValue;
-                if (context.getVariables().containsKey(parameter.getName())) {
-                    parameterValue = "\\" + CitrusSettings.VARIABLE_PREFIX + parameter.getName() + CitrusSettings.VARIABLE_SUFFIX;
-                } else {
-                    parameterValue = OpenApiTestDataGenerator.createValidationExpression((OasSchema) parameter.schema, OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false);
-                }
-                randomizedPath = Pattern.compile("\\{" + parameter.getName() + "}")
-                                        .matcher(randomizedPath)
-                                        .replaceAll(parameterValue);
+        String randomizedPath = OasModelHelper.getBasePath(OpenApiSteps.openApiDoc) + operation.getPath();
+        for (OasParameter parameter : operation.getPathParams()) {
+            String parameterValue;
+            if (context.getVariables().containsKey(parameter.getName())) {
+                parameterValue = "\\" + CitrusSettings.VARIABLE_PREFIX + parameter.getName() + CitrusSettings.VARIABLE_SUFFIX;
+            } else {
+                parameterValue = OpenApiTestDataGenerator.createValidationExpression((OasSchema) parameter.schema, definitions, false);
             }
+            randomizedPath = Pattern.compile("\\{" + parameter.getName() + "}")
+                                    .matcher(randomizedPath)
+                                    .replaceAll(parameterValue);
         }
 
-        Optional<String> contentType = OasModelHelper.getRequestContentType(operation);
-        contentType.ifPresent(s -> serverSteps.addRequestHeader(HttpHeaders.CONTENT_TYPE, String.format("@startsWith(%s)@", s)));
+        operation.getRequestContentType().ifPresent(s -> serverSteps.addRequestHeader(HttpHeaders.CONTENT_TYPE, String.format("@startsWith(%s)@", s)));
 
-        serverSteps.receiveServerRequest(method.toUpperCase(), randomizedPath);
+        serverSteps.receiveServerRequest(operation.getMethod().toUpperCase(), randomizedPath);
     }
 
     /**
@@ -167,34 +155,28 @@ public class OpenApiServerSteps {
      * @param operation
      * @param status
      */
-    private void sendResponse(OasOperation operation, String status) {
-        if (operation.responses != null) {
-            OasResponse response = Optional.ofNullable(operation.responses.getItem(status))
-                                        .orElse(operation.responses.default_);
-
-            if (response != null) {
-                Map<String, OasSchema> headers = OasModelHelper.getRequiredHeaders(response);
-                if (headers != null) {
-                    for (Map.Entry<String, OasSchema> header : headers.entrySet()) {
-                        serverSteps.addResponseHeader(header.getKey(), OpenApiTestDataGenerator.createRandomValueExpression(header.getValue(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc), false));
-                    }
-                }
+    private void sendResponse(OasOperationEntry operation, String status) {
+        Optional<OasOperationEntry.ResponseEntry> response = operation.getResponse(status);
+        if (response.isPresent()) {
+            Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc);
+
+            for (Map.Entry<String, OasSchema> header : response.get().getRequiredHeaders().entrySet()) {
+                serverSteps.addResponseHeader(header.getKey(), OpenApiTestDataGenerator.createRandomValueExpression(header.getValue(), definitions, false));
+            }
 
-                Optional<OasSchema> responseSchema = OasModelHelper.getSchema(response);
-                if (responseSchema.isPresent()) {
-                    serverSteps.setResponseBody(OpenApiTestDataGenerator.createOutboundPayload(responseSchema.get(), OasModelHelper.getSchemaDefinitions(OpenApiSteps.openApiDoc)));
+            Optional<OasSchema> responseSchema = response.get().getSchema();
+            if (responseSchema.isPresent()) {
+                serverSteps.setResponseBody(OpenApiTestDataGenerator.createOutboundPayload(responseSchema.get(), definitions));
 
-                    if (OasModelHelper.isReferenceType(responseSchema.get())
-                            || OasModelHelper.isObjectType(responseSchema.get())
-                            || OasModelHelper.isArrayType(responseSchema.get())) {
-                        serverSteps.setOutboundDictionary(OpenApiSteps.outboundDictionary);
-                    }
+                if (OasModelHelper.isReferenceType(responseSchema.get())
+                        || OasModelHelper.isObjectType(responseSchema.get())
+                        || OasModelHelper.isArrayType(responseSchema.get())) {
+                    serverSteps.setOutboundDictionary(OpenApiSteps.outboundDictionary);
                 }
             }
         }
 
-        Optional<String> contentType = OasModelHelper.getResponseContentType(OpenApiSteps.openApiDoc, operation);
-        contentType.ifPresent(s -> serverSteps.addResponseHeader(HttpHeaders.CONTENT_TYPE, s));
+        operation.getResponseContentType().ifPresent(s -> serverSteps.addResponseHeader(HttpHeaders.CONTENT_TYPE, s));
 
         if (Pattern.compile("[0-9]+").matcher(status).matches()) {
             serverSteps.sendServerResponse(Integer.parseInt(status));
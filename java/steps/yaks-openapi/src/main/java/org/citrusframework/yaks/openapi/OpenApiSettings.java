@@ -37,6 +37,18 @@ public class OpenApiSettings {
     private static final String VALIDATE_OPTIONAL_FIELDS_ENV = OPENAPI_ENV_PREFIX + "VALIDATE_OPTIONAL_FIELDS";
     private static final String VALIDATE_OPTIONAL_FIELDS_DEFAULT = "true";
 
+    private static final String VALIDATE_STRICT_PROPERTY = OPENAPI_PROPERTY_PREFIX + "validate.strict";
+    private static final String VALIDATE_STRICT_ENV = OPENAPI_ENV_PREFIX + "VALIDATE_STRICT";
+    private static final String VALIDATE_STRICT_DEFAULT = "true";
+
+    private static final String DOCUMENT_CACHE_PROPERTY = OPENAPI_PROPERTY_PREFIX + "document.cache";
+    private static final String DOCUMENT_CACHE_ENV = OPENAPI_ENV_PREFIX + "DOCUMENT_CACHE";
+    private static final String DOCUMENT_CACHE_DEFAULT = "true";
+
+    private static final String DOCUMENT_CACHE_SIZE_PROPERTY = OPENAPI_PROPERTY_PREFIX + "document.cache.size";
+    private static final String DOCUMENT_CACHE_SIZE_ENV = OPENAPI_ENV_PREFIX + "DOCUMENT_CACHE_SIZE";
+    private static final String DOCUMENT_CACHE_SIZE_DEFAULT = "10";
+
     private OpenApiSettings() {
         // prevent instantiation of utility class
     }
@@ -67,4 +79,31 @@ public class OpenApiSettings {
         return Boolean.parseBoolean(System.getProperty(VALIDATE_OPTIONAL_FIELDS_PROPERTY,
                 System.getenv(VALIDATE_OPTIONAL_FIELDS_ENV) != null ? System.getenv(VALIDATE_OPTIONAL_FIELDS_ENV) : VALIDATE_OPTIONAL_FIELDS_DEFAULT));
     }
+
+    /**
+     * Reject properties that the schema does not declare and require all declared properties when validating optional fields.
+     * @return
+     */
+    public static boolean isValidateStrict() {
+        return Boolean.parseBoolean(System.getProperty(VALIDATE_STRICT_PROPERTY,
+                System.getenv(VALIDATE_STRICT_ENV) != null ? System.getenv(VALIDATE_STRICT_ENV) : VALIDATE_STRICT_DEFAULT));
+    }
+
+    /**
+     * Share parsed Open API documents across scenarios loading the same specification content.
+     * @return
+     */
+    public static boolean isDocumentCacheEnabled() {
+        return Boolean.parseBoolean(System.getProperty(DOCUMENT_CACHE_PROPERTY,
+                System.getenv(DOCUMENT_CACHE_ENV) != null ? System.getenv(DOCUMENT_CACHE_ENV) : DOCUMENT_CACHE_DEFAULT));
+    }
+
+    /**
+     * Maximum number of parsed Open API documents kept in the document cache.
+     * @return
+     */
+    public static int getDocumentCacheSize() {
+        return Integer.parseInt(System.getProperty(DOCUMENT_CACHE_SIZE_PROPERTY,
+                System.getenv(DOCUMENT_CACHE_SIZE_ENV) != null ? System.getenv(DOCUMENT_CACHE_SIZE_ENV) : DOCUMENT_CACHE_SIZE_DEFAULT));
+    }
 }
@@ -51,6 +51,7 @@ public class OpenApiSteps {
 
     static boolean generateOptionalFields = OpenApiSettings.isGenerateOptionalFields();
     static boolean validateOptionalFields = OpenApiSettings.isValidateOptionalFields();
+    static boolean validateStrict = OpenApiSettings.isValidateStrict();
 
     @Before
     public void before(Scenario scenario) {
@@ -78,6 +79,16 @@ public class OpenApiSteps {
         validateOptionalFields = true;
     }
 
+    @Given("^Disable OpenAPI strict schema validation$")
+    public void disableValidateStrict() {
+        validateStrict = false;
+    }
+
+    @Given("^Enable OpenAPI strict schema validation$")
+    public void enableValidateStrict() {
+        validateStrict = true;
+    }
+
     @Given("^OpenAPI (?:specification|resource): ([^\\s]+)$")
     public void loadOpenApiResource(String resource) {
         if (resource.startsWith("http")) {
@@ -132,6 +143,16 @@ public class OpenApiSteps {
         addMappingsFromFile(fileName, inboundDictionary);
     }
 
+    /**
+     * Checks if message bodies with given content type get validated with the compiled Json schema validator. All other
+     * bodies are validated with a control message.
+     * @param contentType
+     * @return
+     */
+    static boolean isSchemaValidation(Optional<String> contentType) {
+        return contentType.map(type -> type.contains("json")).orElse(true);
+    }
+
     /**
      * Read given file resource and add mappings to provided data dictionary.
      * @param fileName
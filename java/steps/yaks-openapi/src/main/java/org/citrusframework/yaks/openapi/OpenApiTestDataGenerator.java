@@ -21,7 +21,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import io.apicurio.datamodels.openapi.models.OasSchema;
-import org.citrusframework.yaks.openapi.model.OasModelHelper;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -30,6 +29,8 @@ import org.springframework.util.StringUtils;
  * with generated random test data according to specification and creates inbound payloads with proper validation expressions to
  * enforce the specification rules.
  *
+ * Payloads are rendered from templates compiled once per schema (see {@link OpenApiPayloadTemplate}).
+ *
  * @author Christoph Deppisch
  */
 public class OpenApiTestDataGenerator {
@@ -41,41 +42,7 @@ public class OpenApiTestDataGenerator {
      * @return
      */
     public static String createOutboundPayload(OasSchema schema, Map<String, OasSchema> definitions) {
-        if (OasModelHelper.isReferenceType(schema)) {
-            OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
-            return createOutboundPayload(resolved, definitions);
-        }
-
-        StringBuilder payload = new StringBuilder();
-        if (OasModelHelper.isObjectType(schema)) {
-            payload.append("{");
-
-            if (schema.properties != null) {
-                for (Map.Entry<String, OasSchema> entry : schema.properties.entrySet()) {
-                    if (OpenApiSteps.generateOptionalFields || isRequired(schema, entry.getKey())) {
-                        payload.append("\"")
-                                .append(entry.getKey())
-                                .append("\": ")
-                                .append(createRandomValueExpression(entry.getValue(), definitions, true))
-                                .append(",");
-                    }
-                }
-            }
-
-            if (payload.toString().endsWith(",")) {
-                payload.replace(payload.length() - 1, payload.length(), "");
-            }
-
-            payload.append("}");
-        } else if (OasModelHelper.isArrayType(schema)) {
-            payload.append("[");
-            payload.append(createRandomValueExpression((OasSchema) schema.items, definitions, true));
-            payload.append("]");
-        } else {
-            payload.append(createRandomValueExpression(schema, definitions, true));
-        }
-
-        return payload.toString();
+        return OpenApiPayloadTemplate.render(schema, definitions, OpenApiPayloadTemplate.Mode.OUTBOUND, true);
     }
 
     /**
@@ -86,15 +53,18 @@ public class OpenApiTestDataGenerator {
      * @return
      */
     public static String createRandomValueExpression(OasSchema schema, Map<String, OasSchema> definitions, boolean quotes) {
-        if (OasModelHelper.isReferenceType(schema)) {
-            OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
-            return createRandomValueExpression(resolved, definitions, quotes);
-        }
+        return OpenApiPayloadTemplate.render(schema, definitions, OpenApiPayloadTemplate.Mode.RANDOM_VALUE, quotes);
+    }
 
+    /**
+     * Create random value expression for schema that is neither object nor array.
+     * @param schema
+     * @param quotes
+     * @return
+     */
+    static String createRandomValueLiteral(OasSchema schema, boolean quotes) {
         StringBuilder payload = new StringBuilder();
-        if (OasModelHelper.isObjectType(schema) || OasModelHelper.isArrayType(schema)) {
-            payload.append(createOutboundPayload(schema, definitions));
-        } else if ("string".equals(schema.type)) {
+        if ("string".equals(schema.type)) {
             if (quotes) {
                 payload.append("\"");
             }
@@ -134,55 +104,7 @@ public class OpenApiTestDataGenerator {
      * @return
      */
     public static String createInboundPayload(OasSchema schema, Map<String, OasSchema> definitions) {
-        if (OasModelHelper.isReferenceType(schema)) {
-            OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
-            return createInboundPayload(resolved, definitions);
-        }
-
-        StringBuilder payload = new StringBuilder();
-        if (OasModelHelper.isObjectType(schema)) {
-            payload.append("{");
-
-            if (schema.properties != null) {
-                for (Map.Entry<String, OasSchema> entry : schema.properties.entrySet()) {
-                    if (OpenApiSteps.validateOptionalFields || isRequired(schema, entry.getKey())) {
-                        payload.append("\"")
-                                .append(entry.getKey())
-                                .append("\": ")
-                                .append(createValidationExpression(entry.getValue(), definitions, true))
-                                .append(",");
-                    }
-                }
-            }
-
-            if (payload.toString().endsWith(",")) {
-                payload.replace(payload.length() - 1, payload.length(), "");
-            }
-
-            payload.append("}");
-        } else if (OasModelHelper.isArrayType(schema)) {
-            payload.append("[");
-            payload.append(createValidationExpression((OasSchema) schema.items, definitions, true));
-            payload.append("]");
-        } else {
-            payload.append(createValidationExpression(schema, definitions, false));
-        }
-
-        return payload.toString();
-    }
-
-    /**
-     * Checks if given field name is in list of required fields for this schema.
-     * @param schema
-     * @param field
-     * @return
-     */
-    private static boolean isRequired(OasSchema schema, String field) {
-        if (schema.required == null) {
-            return true;
-        }
-
-        return schema.required.contains(field);
+        return OpenApiPayloadTemplate.render(schema, definitions, OpenApiPayloadTemplate.Mode.INBOUND, false);
     }
 
     /**
@@ -193,45 +115,7 @@ public class OpenApiTestDataGenerator {
      * @return
      */
     public static String createValidationExpression(OasSchema schema, Map<String, OasSchema> definitions, boolean quotes) {
-        if (OasModelHelper.isReferenceType(schema)) {
-            OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
-            return createValidationExpression(resolved, definitions, quotes);
-        }
-
-        StringBuilder payload = new StringBuilder();
-        if (OasModelHelper.isObjectType(schema)) {
-            payload.append("{");
-
-            if (schema.properties != null) {
-                for (Map.Entry<String, OasSchema> entry : schema.properties.entrySet()) {
-                    if (OpenApiSteps.validateOptionalFields || isRequired(schema, entry.getKey())) {
-                        payload.append("\"")
-                                .append(entry.getKey())
-                                .append("\": ")
-                                .append(createValidationExpression(entry.getValue(), definitions, quotes))
-                                .append(",");
-                    }
-                }
-            }
-
-            if (payload.toString().endsWith(",")) {
-                payload.replace(payload.length() - 1, payload.length(), "");
-            }
-
-            payload.append("}");
-        } else {
-            if (quotes) {
-                payload.append("\"");
-            }
-
-            payload.append(createValidationExpression(schema));
-
-            if (quotes) {
-                payload.append("\"");
-            }
-        }
-
-        return payload.toString();
+        return OpenApiPayloadTemplate.render(schema, definitions, OpenApiPayloadTemplate.Mode.VALIDATION, quotes);
     }
 
     /**
@@ -239,7 +123,7 @@ public class OpenApiTestDataGenerator {
      * @param schema
      * @return
      */
-    private static String createValidationExpression(OasSchema schema) {
+    static String createValidationExpression(OasSchema schema) {
         switch (schema.type) {
             case "string":
                 if (schema.format != null && schema.format.equals("date")) {
@@ -0,0 +1,519 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.load;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.consol.citrus.AbstractTestActionBuilder;
+import com.consol.citrus.CitrusSettings;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasParameter;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.citrusframework.yaks.http.load.HttpLoadAction;
+import org.citrusframework.yaks.http.load.HttpLoadResult;
+import org.citrusframework.yaks.openapi.OpenApiSettings;
+import org.citrusframework.yaks.openapi.OpenApiTestDataGenerator;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.citrusframework.yaks.openapi.model.OasOperationEntry;
+import org.citrusframework.yaks.openapi.validation.OasSchemaValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Test action runs a weighted mix of Open API operations as load at a target rate for a given duration. Each request is
+ * generated from the operation specification with required parameters and a random request body, just like a single
+ * operation invocation. Operations are picked at random according to their weight.
+ *
+ * Latencies are measured from the scheduled start time of each request. Responses with status code 400 or higher and I/O
+ * errors count as errors. A sample of the successful responses gets validated against the operation specification, i.e.
+ * the status code must be declared, the content type must match and the body must match the response schema. The body
+ * is checked with the compiled {@link OasSchemaValidator} of the response schema. Invalid responses count as errors, too.
+ *
+ * The overall result is stored as load result in test variable {@link HttpLoadAction#LOAD_RESULT_VARIABLE}, the result of each
+ * operation is stored in test variable {@link #getResultVariable(String)}, so the Http load verification applies to both.
+ *
+ * @author Christoph Deppisch
+ */
+public class OpenApiLoadAction extends AbstractTestAction {
+
+    /** Logger */
+    private static final Logger LOG = LoggerFactory.getLogger(OpenApiLoadAction.class);
+
+    /** Test variable prefix for load results of single operations */
+    public static final String OPERATION_RESULT_VARIABLE_PREFIX = "YAKS_OPENAPI_LOAD_RESULT_";
+
+    private final OasDocument openApiDoc;
+    private final String baseUrl;
+    private final Map<String, Integer> operations;
+    private final double rate;
+    private final long duration;
+    private final int concurrency;
+    private final double validationSample;
+    private final long timeout;
+    private final HttpClient httpClient;
+
+    public OpenApiLoadAction(Builder builder) {
+        super("openapi-load", builder);
+
+        this.openApiDoc = builder.openApiDoc;
+        this.baseUrl = builder.baseUrl;
+        this.operations = builder.operations;
+        this.rate = builder.rate;
+        this.duration = builder.duration;
+        this.concurrency = builder.concurrency;
+        this.validationSample = builder.validationSample;
+        this.timeout = builder.timeout;
+        this.httpClient = builder.httpClient;
+    }
+
+    /**
+     * Gets the name of the test variable holding the load result of given operation.
+     * @param operationId
+     * @return
+     */
+    public static String getResultVariable(String operationId) {
+        return OPERATION_RESULT_VARIABLE_PREFIX + operationId;
+    }
+
+    @Override
+    public void doExecute(TestContext context) {
+        List<OperationLoad> loads = new ArrayList<>();
+        int[] cumulativeWeights = new int[operations.size()];
+        int totalWeight = 0;
+        for (Map.Entry<String, Integer> operation : operations.entrySet()) {
+            OasOperationEntry entry = OasModelHelper.findOperation(openApiDoc, operation.getKey())
+                    .orElseThrow(() -> new CitrusRuntimeException(String.format("Unknown Open API operation '%s'", operation.getKey())));
+
+            totalWeight += operation.getValue();
+            cumulativeWeights[loads.size()] = totalWeight;
+            loads.add(new OperationLoad(entry, context));
+        }
+
+        String url = context.replaceDynamicContentInString(baseUrl).replaceAll("/$", "");
+        LOG.info(String.format("Starting Open API load on %s with operations %s at %s requests per second and concurrency %d",
+                url, operations, rate, concurrency));
+
+        Histogram latencies = new ConcurrentHistogram(3);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong sequence = new AtomicLong();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(duration);
+        int weights = totalWeight;
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "yaks-openapi-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    TestContext workerContext = createWorkerContext(context);
+                    while (!Thread.currentThread().isInterrupted()) {
+                        long scheduled = start + sequence.getAndIncrement() * intervalNanos;
+                        if (scheduled >= deadline) {
+                            break;
+                        }
+
+                        long wait;
+                        while ((wait = scheduled - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+
+                        OperationLoad load = loads.get(pick(cumulativeWeights, weights));
+                        requests.incrementAndGet();
+                        if (send(url, load, workerContext)) {
+                            long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                            latencies.recordValue(latency);
+                            load.latencies.recordValue(latency);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while running Open API load", e);
+        } catch (ExecutionException e) {
+            throw new CitrusRuntimeException("Failed to run Open API load", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long errors = 0L;
+        StringBuilder report = new StringBuilder();
+        for (OperationLoad load : loads) {
+            HttpLoadResult result = new HttpLoadResult(load.latencies, load.requests.get(),
+                    load.errors.get() + load.invalid.get(), durationMillis);
+            context.setVariable(getResultVariable(load.operationId), result);
+            errors += result.getErrors();
+
+            report.append(String.format("%n  %s: %s, invalid=%d of %d validated", load.operationId, result,
+                    load.invalid.get(), load.validated.get()));
+        }
+
+        HttpLoadResult result = new HttpLoadResult(latencies, requests.get(), errors, durationMillis);
+        LOG.info(String.format("Finished Open API load on %s: %s%s", url, result, report));
+        context.setVariable(HttpLoadAction.LOAD_RESULT_VARIABLE, result);
+    }
+
+    /**
+     * Creates a copy of the test context for a single load worker. Each worker resolves the dynamic request content
+     * with its own context so workers do not contend on the shared test context.
+     * @param context
+     * @return
+     */
+    private static TestContext createWorkerContext(TestContext context) {
+        TestContext workerContext = new TestContext();
+        workerContext.setFunctionRegistry(context.getFunctionRegistry());
+        workerContext.setReferenceResolver(context.getReferenceResolver());
+        workerContext.getVariables().putAll(context.getVariables());
+        return workerContext;
+    }
+
+    /**
+     * Picks random operation index according to the cumulative operation weights.
+     * @param cumulativeWeights
+     * @param totalWeight
+     * @return
+     */
+    private static int pick(int[] cumulativeWeights, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        int index = Arrays.binarySearch(cumulativeWeights, value + 1);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Sends a request for given operation. Request URL, headers and body get resolved for each request so random value
+     * functions produce new values for every request. The given context must not be shared with other load workers.
+     * @param url
+     * @param load
+     * @param context
+     * @return true when the response was successful and valid.
+     */
+    private boolean send(String url, OperationLoad load, TestContext context) {
+        RequestBuilder request = RequestBuilder.create(load.method)
+                .setConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) timeout)
+                        .setConnectionRequestTimeout((int) timeout)
+                        .setSocketTimeout((int) timeout)
+                        .build());
+
+        try {
+            request.setUri(url + context.replaceDynamicContentInString(load.path) + getQueryString(load, context));
+            load.headers.forEach((name, value) -> request.addHeader(name, context.replaceDynamicContentInString(value)));
+            if (load.body != null) {
+                request.setEntity(new StringEntity(context.replaceDynamicContentInString(load.body), "UTF-8"));
+            }
+
+            boolean validate = ThreadLocalRandom.current().nextDouble(100D) < validationSample;
+            return httpClient.execute(request.build(), response -> handleResponse(response, load, validate));
+        } catch (IOException | RuntimeException e) {
+            if (load.errors.incrementAndGet() == 1L) {
+                LOG.warn(String.format("Open API load request for operation '%s' failed - logging further errors on debug level", load.operationId), e);
+            } else {
+                LOG.debug(String.format("Open API load request for operation '%s' failed", load.operationId), e);
+            }
+            return false;
+        } finally {
+            load.requests.incrementAndGet();
+        }
+    }
+
+    /**
+     * Resolves the query parameters of given operation and builds the URL encoded query string.
+     * @param load
+     * @param context
+     * @return
+     * @throws UnsupportedEncodingException
+     */
+    private static String getQueryString(OperationLoad load, TestContext context) throws UnsupportedEncodingException {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> parameter : load.queryParams.entrySet()) {
+            query.append(query.length() == 0 ? "?" : "&")
+                    .append(URLEncoder.encode(parameter.getKey(), "UTF-8"))
+                    .append("=")
+                    .append(URLEncoder.encode(context.replaceDynamicContentInString(parameter.getValue()), "UTF-8"));
+        }
+
+        return query.toString();
+    }
+
+    private boolean handleResponse(HttpResponse response, OperationLoad load, boolean validate) throws IOException {
+        int status = response.getStatusLine().getStatusCode();
+        if (status >= 400) {
+            EntityUtils.consume(response.getEntity());
+            load.errors.incrementAndGet();
+            return false;
+        }
+
+        if (!validate) {
+            EntityUtils.consume(response.getEntity());
+            return true;
+        }
+
+        String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+        Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+
+        load.validated.incrementAndGet();
+        try {
+            validateResponse(load, status, contentType != null ? contentType.getValue() : null, body);
+            return true;
+        } catch (CitrusRuntimeException e) {
+            if (load.invalid.incrementAndGet() == 1L) {
+                LOG.warn(String.format("Invalid response for Open API operation '%s' - logging further validation errors on debug level", load.operationId), e);
+            } else {
+                LOG.debug(String.format("Invalid response for Open API operation '%s'", load.operationId), e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Validates the response against the operation specification.
+     * @param load
+     * @param status
+     * @param contentType
+     * @param body
+     */
+    private void validateResponse(OperationLoad load, int status, String contentType, String body) {
+        Optional<OasOperationEntry.ResponseEntry> response = load.operation.getResponse(String.valueOf(status));
+        if (!response.isPresent()) {
+            throw new ValidationException(String.format("Response status %d is not declared for operation '%s'", status, load.operationId));
+        }
+
+        Optional<String> expectedContentType = load.operation.getResponseContentType();
+        if (expectedContentType.isPresent() && (contentType == null || !contentType.startsWith(expectedContentType.get()))) {
+            throw new ValidationException(String.format("Expected response content type '%s' for operation '%s' but was '%s'",
+                    expectedContentType.get(), load.operationId, contentType));
+        }
+
+        load.getValidator(response.get()).ifPresent(validator -> validator.validate(body));
+    }
+
+    /**
+     * Request template and statistics of a single operation in the load mix.
+     */
+    private class OperationLoad {
+        private final String operationId;
+        private final OasOperationEntry operation;
+        private final Map<String, OasSchema> definitions;
+
+        private final String method;
+        private final String path;
+        private final Map<String, String> queryParams = new LinkedHashMap<>();
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final String body;
+
+        private final Map<OasOperationEntry.ResponseEntry, Optional<OasSchemaValidator>> validators = new ConcurrentHashMap<>();
+
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private final AtomicLong validated = new AtomicLong();
+
+        OperationLoad(OasOperationEntry operation, TestContext context) {
+            this.operation = operation;
+            this.operationId = operation.getOperation().operationId;
+            this.definitions = OasModelHelper.getSchemaDefinitions(openApiDoc);
+            this.method = operation.getMethod().toUpperCase();
+
+            // base URL already includes the base path of the specification
+            String resolvedPath = operation.getPath();
+            for (OasParameter parameter : operation.getPathParams()) {
+                resolvedPath = resolvedPath.replace("{" + parameter.getName() + "}", getParameterValue(parameter, context));
+            }
+            this.path = resolvedPath;
+
+            for (OasParameter parameter : operation.getRequiredQueryParams()) {
+                queryParams.put(parameter.getName(), getParameterValue(parameter, context));
+            }
+
+            for (OasParameter parameter : operation.getRequiredHeaders()) {
+                headers.put(parameter.getName(), getParameterValue(parameter, context));
+            }
+
+            operation.getRequestContentType().ifPresent(contentType -> headers.put(HttpHeaders.CONTENT_TYPE, contentType));
+            operation.getResponseContentType().ifPresent(contentType -> headers.put(HttpHeaders.ACCEPT, contentType));
+
+            this.body = operation.getRequestBodySchema()
+                    .map(schema -> OpenApiTestDataGenerator.createOutboundPayload(schema, definitions))
+                    .orElse(null);
+        }
+
+        /**
+         * Uses test variable with the parameter name if present or random value expression otherwise.
+         * @param parameter
+         * @param context
+         * @return
+         */
+        private String getParameterValue(OasParameter parameter, TestContext context) {
+            if (context.getVariables().containsKey(parameter.getName())) {
+                return CitrusSettings.VARIABLE_PREFIX + parameter.getName() + CitrusSettings.VARIABLE_SUFFIX;
+            }
+
+            return OpenApiTestDataGenerator.createRandomValueExpression((OasSchema) parameter.schema, definitions, false);
+        }
+
+        Optional<OasSchemaValidator> getValidator(OasOperationEntry.ResponseEntry response) {
+            return validators.computeIfAbsent(response, key -> key.getSchema()
+                    .map(schema -> OasSchemaValidator.forSchema(schema, definitions,
+                            OpenApiSettings.isValidateOptionalFields(), OpenApiSettings.isValidateStrict())));
+        }
+    }
+
+    /**
+     * Action builder.
+     */
+    public static class Builder extends AbstractTestActionBuilder<OpenApiLoadAction, Builder> {
+
+        private OasDocument openApiDoc;
+        private String baseUrl;
+        private final Map<String, Integer> operations = new LinkedHashMap<>();
+        private double rate;
+        private long duration;
+        private int concurrency = 10;
+        private double validationSample = 10D;
+        private long timeout = 5000L;
+        private HttpClient httpClient;
+
+        /**
+         * Fluent API action building entry method used in Java DSL.
+         * @return
+         */
+        public static Builder openApiLoad() {
+            return new Builder();
+        }
+
+        public Builder specification(OasDocument openApiDoc) {
+            this.openApiDoc = openApiDoc;
+            return this;
+        }
+
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Adds operation to the load mix with given relative weight.
+         * @param operationId
+         * @param weight
+         * @return
+         */
+        public Builder operation(String operationId, int weight) {
+            this.operations.put(operationId, weight);
+            return this;
+        }
+
+        public Builder rate(double requestsPerSecond) {
+            this.rate = requestsPerSecond;
+            return this;
+        }
+
+        public Builder duration(long milliseconds) {
+            this.duration = milliseconds;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Percentage of successful responses validated against the specification.
+         * @param percent
+         * @return
+         */
+        public Builder validationSample(double percent) {
+            this.validationSample = percent;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder client(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        @Override
+        public OpenApiLoadAction build() {
+            if (openApiDoc == null || baseUrl == null) {
+                throw new CitrusRuntimeException("Open API load requires a specification and a base URL - please load the specification first");
+            }
+
+            if (operations.isEmpty() || operations.values().stream().anyMatch(weight -> weight <= 0)) {
+                throw new CitrusRuntimeException("Open API load requires operations with positive weights");
+            }
+
+            if (rate <= 0D || duration <= 0L || concurrency <= 0) {
+                throw new CitrusRuntimeException("Open API load requires positive rate, duration and concurrency");
+            }
+
+            if (httpClient == null) {
+                throw new CitrusRuntimeException("Missing Http client for Open API load");
+            }
+
+            return new OpenApiLoadAction(this);
+        }
+    }
+}
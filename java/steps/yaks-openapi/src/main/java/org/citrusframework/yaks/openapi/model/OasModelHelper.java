@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import io.apicurio.datamodels.openapi.models.OasDocument;
 import io.apicurio.datamodels.openapi.models.OasOperation;
@@ -45,6 +46,10 @@ import org.citrusframework.yaks.openapi.model.v3.Oas30ModelHelper;
  */
 public final class OasModelHelper {
 
+    /** Document attributes holding values computed once per document */
+    private static final String SCHEMA_DEFINITIONS_ATTRIBUTE = "yaks.schemaDefinitions";
+    private static final String OPERATION_INDEX_ATTRIBUTE = "yaks.operationIndex";
+
     private OasModelHelper() {
         // utility class
     }
@@ -88,8 +93,33 @@ public final class OasModelHelper {
         return delegate(openApiDoc, Oas20ModelHelper::getBasePath, Oas30ModelHelper::getBasePath);
     }
 
+    /**
+     * Gets the schema definitions of given document by name. The definitions are collected once per document.
+     * @param openApiDoc
+     * @return unmodifiable map of schema definitions.
+     */
     public static Map<String, OasSchema> getSchemaDefinitions(OasDocument openApiDoc) {
-        return delegate(openApiDoc, Oas20ModelHelper::getSchemaDefinitions, Oas30ModelHelper::getSchemaDefinitions);
+        return memoize(openApiDoc, SCHEMA_DEFINITIONS_ATTRIBUTE, () -> Collections.unmodifiableMap(
+                delegate(openApiDoc, Oas20ModelHelper::getSchemaDefinitions, Oas30ModelHelper::getSchemaDefinitions)));
+    }
+
+    /**
+     * Gets the index of all operations in given document by operationId. The index is built once per document.
+     * @param openApiDoc
+     * @return
+     */
+    public static OasOperationIndex getOperationIndex(OasDocument openApiDoc) {
+        return memoize(openApiDoc, OPERATION_INDEX_ATTRIBUTE, () -> OasOperationIndex.build(openApiDoc));
+    }
+
+    /**
+     * Finds the operation with given operationId in the document.
+     * @param openApiDoc
+     * @param operationId
+     * @return
+     */
+    public static Optional<OasOperationEntry> findOperation(OasDocument openApiDoc, String operationId) {
+        return getOperationIndex(openApiDoc).get(operationId);
     }
 
     /**
@@ -154,7 +184,7 @@ public final class OasModelHelper {
      */
     public static String getReferenceName(String reference) {
         if (reference != null) {
-            return reference.replaceAll("^.*/", "");
+            return reference.substring(reference.lastIndexOf('/') + 1);
         }
 
         return null;
@@ -252,6 +282,27 @@ public final class OasModelHelper {
         throw new IllegalArgumentException(String.format("Unsupported Open API document type: %s", openApiDoc.getClass()));
     }
 
+    /**
+     * Gets value stored as attribute on given document. Computes and stores the value on first access.
+     * @param openApiDoc
+     * @param attribute
+     * @param supplier
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T memoize(OasDocument openApiDoc, String attribute, Supplier<T> supplier) {
+        synchronized (openApiDoc) {
+            Object value = openApiDoc.getAttribute(attribute);
+            if (value == null) {
+                value = supplier.get();
+                openApiDoc.setAttribute(attribute, value);
+            }
+
+            return (T) value;
+        }
+    }
+
     private static boolean isOas30(OasDocument openApiDoc) {
         return OpenApiVersion.fromDocumentType(openApiDoc).equals(OpenApiVersion.V3);
     }
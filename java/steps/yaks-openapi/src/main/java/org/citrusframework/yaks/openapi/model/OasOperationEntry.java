@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasOperation;
+import io.apicurio.datamodels.openapi.models.OasParameter;
+import io.apicurio.datamodels.openapi.models.OasResponse;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+
+/**
+ * Operation in an Open API document together with the path and the Http method it is bound to. Parameters, content
+ * types, request body schema and response schemas get resolved once when the entry is created, so steps using the
+ * operation do not have to search the document again.
+ *
+ * @author Christoph Deppisch
+ */
+public final class OasOperationEntry {
+
+    private final String path;
+    private final String method;
+    private final OasOperation operation;
+
+    private final List<OasParameter> requiredHeaders;
+    private final List<OasParameter> requiredQueryParams;
+    private final List<OasParameter> pathParams;
+
+    private final OasSchema requestBodySchema;
+    private final String requestContentType;
+    private final String responseContentType;
+
+    private final Map<String, ResponseEntry> responses;
+    private final ResponseEntry defaultResponse;
+
+    public OasOperationEntry(OasDocument openApiDoc, String path, String method, OasOperation operation) {
+        this.path = path;
+        this.method = method;
+        this.operation = operation;
+
+        List<OasParameter> parameters = Optional.ofNullable(operation.parameters).orElse(Collections.emptyList());
+        this.requiredHeaders = getRequiredParameters(parameters, "header");
+        this.requiredQueryParams = getRequiredParameters(parameters, "query");
+        this.pathParams = Collections.unmodifiableList(parameters.stream()
+                .filter(param -> "path".equals(param.in))
+                .collect(Collectors.toList()));
+
+        this.requestBodySchema = OasModelHelper.getRequestBodySchema(openApiDoc, operation).orElse(null);
+        this.requestContentType = OasModelHelper.getRequestContentType(operation).orElse(null);
+        this.responseContentType = OasModelHelper.getResponseContentType(openApiDoc, operation).orElse(null);
+
+        Map<String, ResponseEntry> responseEntries = new LinkedHashMap<>();
+        if (operation.responses != null) {
+            for (String status : operation.responses.getItemNames()) {
+                responseEntries.put(status, new ResponseEntry(operation.responses.getItem(status)));
+            }
+        }
+        this.responses = Collections.unmodifiableMap(responseEntries);
+        this.defaultResponse = operation.responses != null && operation.responses.default_ != null ?
+                new ResponseEntry(operation.responses.default_) : null;
+    }
+
+    private static List<OasParameter> getRequiredParameters(List<OasParameter> parameters, String in) {
+        return Collections.unmodifiableList(parameters.stream()
+                .filter(param -> in.equals(param.in))
+                .filter(param -> param.required != null && param.required)
+                .collect(Collectors.toList()));
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the lower case Http method name.
+     * @return
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    public OasOperation getOperation() {
+        return operation;
+    }
+
+    public List<OasParameter> getRequiredHeaders() {
+        return requiredHeaders;
+    }
+
+    public List<OasParameter> getRequiredQueryParams() {
+        return requiredQueryParams;
+    }
+
+    public List<OasParameter> getPathParams() {
+        return pathParams;
+    }
+
+    public Optional<OasSchema> getRequestBodySchema() {
+        return Optional.ofNullable(requestBodySchema);
+    }
+
+    public Optional<String> getRequestContentType() {
+        return Optional.ofNullable(requestContentType);
+    }
+
+    public Optional<String> getResponseContentType() {
+        return Optional.ofNullable(responseContentType);
+    }
+
+    /**
+     * Gets the response for given status code or name. Falls back to the default response of the operation.
+     * @param status
+     * @return
+     */
+    public Optional<ResponseEntry> getResponse(String status) {
+        return Optional.ofNullable(responses.getOrDefault(status, defaultResponse));
+    }
+
+    /**
+     * Operation response with its required headers and body schema.
+     */
+    public static final class ResponseEntry {
+
+        private final Map<String, OasSchema> requiredHeaders;
+        private final OasSchema schema;
+
+        ResponseEntry(OasResponse response) {
+            this.requiredHeaders = Optional.ofNullable(OasModelHelper.getRequiredHeaders(response))
+                    .map(Collections::unmodifiableMap)
+                    .orElse(Collections.emptyMap());
+            this.schema = OasModelHelper.getSchema(response).orElse(null);
+        }
+
+        public Map<String, OasSchema> getRequiredHeaders() {
+            return requiredHeaders;
+        }
+
+        public Optional<OasSchema> getSchema() {
+            return Optional.ofNullable(schema);
+        }
+    }
+}
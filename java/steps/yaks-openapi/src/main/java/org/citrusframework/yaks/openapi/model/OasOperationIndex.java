@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasOperation;
+import io.apicurio.datamodels.openapi.models.OasPathItem;
+
+/**
+ * Immutable index of all operations in an Open API document by their operationId. The index is built once per document
+ * and gives constant time access to the operation with its resolved parameters and schemas. Operations without
+ * operationId are not part of the index. When several operations share an operationId the first one wins.
+ *
+ * @author Christoph Deppisch
+ */
+public final class OasOperationIndex {
+
+    private final Map<String, OasOperationEntry> operations;
+
+    private OasOperationIndex(Map<String, OasOperationEntry> operations) {
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * Builds the index for given document walking all paths and operations.
+     * @param openApiDoc
+     * @return
+     */
+    public static OasOperationIndex build(OasDocument openApiDoc) {
+        Map<String, OasOperationEntry> operations = new LinkedHashMap<>();
+        for (OasPathItem path : OasModelHelper.getPathItems(openApiDoc.paths)) {
+            for (Map.Entry<String, OasOperation> operation : OasModelHelper.getOperationMap(path).entrySet()) {
+                String operationId = operation.getValue().operationId;
+                if (operationId != null && !operations.containsKey(operationId)) {
+                    operations.put(operationId, new OasOperationEntry(openApiDoc, path.getPath(), operation.getKey(), operation.getValue()));
+                }
+            }
+        }
+
+        return new OasOperationIndex(operations);
+    }
+
+    /**
+     * Gets the operation with given operationId.
+     * @param operationId
+     * @return
+     */
+    public Optional<OasOperationEntry> get(String operationId) {
+        return Optional.ofNullable(operations.get(operationId));
+    }
+
+    /**
+     * Gets all indexed operations in order of appearance in the document.
+     * @return
+     */
+    public Collection<OasOperationEntry> getOperations() {
+        return operations.values();
+    }
+
+    public int size() {
+        return operations.size();
+    }
+}
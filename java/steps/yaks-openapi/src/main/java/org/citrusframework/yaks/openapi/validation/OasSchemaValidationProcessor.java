@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.validation;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.validation.ValidationProcessor;
+
+/**
+ * Validates the message body with a compiled Open API schema validator.
+ *
+ * @author Christoph Deppisch
+ */
+public class OasSchemaValidationProcessor implements ValidationProcessor {
+
+    private final OasSchemaValidator validator;
+
+    public OasSchemaValidationProcessor(OasSchemaValidator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public void validate(Message message, TestContext context) {
+        validator.validate(message.getPayload(String.class));
+    }
+}
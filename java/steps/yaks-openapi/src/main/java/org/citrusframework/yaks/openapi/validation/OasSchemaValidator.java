@@ -0,0 +1,848 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.validation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.exceptions.ValidationException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.apicurio.datamodels.core.models.Extension;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import io.apicurio.datamodels.openapi.v3.models.Oas30Schema;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Json schema validator compiled from an Open API schema. The schema is resolved once into a tree of validation nodes
+ * with all schema references resolved, recursive references point back to the node being compiled.
+ *
+ * The validator reads the Json payload in a single streaming pass and checks types, required properties, all array
+ * elements, string formats and patterns, numeric ranges as well as allOf, oneOf, anyOf and not compositions. Composite
+ * schemas buffer the current value and replay it for each sub schema. Each error gets reported with the Json path
+ * of the offending value (e.g. $.tags[1].name).
+ *
+ * When optional fields are not validated the validator checks only the required properties of an object and skips all
+ * other declared properties. In strict mode objects reject undeclared properties unless the schema allows additional
+ * properties, and all declared properties are mandatory when optional fields get validated. Compiled validators are kept
+ * as attribute on the schema and compiled again only when the schema definitions or the validation settings change.
+ *
+ * @author Christoph Deppisch
+ */
+public final class OasSchemaValidator {
+
+    /** Schema attribute prefix for compiled validators */
+    private static final String VALIDATOR_ATTRIBUTE_PREFIX = "yaks.validator.";
+
+    /** Maximum number of errors reported for a single payload */
+    private static final int MAX_ERRORS = 25;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Pattern UUID_PATTERN = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern BYTE_PATTERN = Pattern.compile("^(?:[A-Za-z0-9+/]{4})*(?:[A-Za-z0-9+/]{2}==|[A-Za-z0-9+/]{3}=)?$");
+    private static final Pattern IPV4_PATTERN = Pattern.compile("^((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)$");
+    private static final Pattern SIMPLE_NAME_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*$");
+
+    private static final BigInteger INT32_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger INT32_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    private final Node root;
+
+    private OasSchemaValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the validator for given schema. Compiles the validator on first access and keeps the result with the schema.
+     * @param schema
+     * @param definitions
+     * @param validateOptionalFields
+     * @param strict
+     * @return
+     */
+    public static OasSchemaValidator forSchema(OasSchema schema, Map<String, OasSchema> definitions,
+                                               boolean validateOptionalFields, boolean strict) {
+        String attribute = VALIDATOR_ATTRIBUTE_PREFIX + validateOptionalFields + "." + strict;
+
+        synchronized (schema) {
+            Object cached = schema.getAttribute(attribute);
+            if (cached instanceof CompiledValidator && ((CompiledValidator) cached).definitions == definitions) {
+                return ((CompiledValidator) cached).validator;
+            }
+
+            OasSchemaValidator validator = new OasSchemaValidator(new Compiler(definitions, validateOptionalFields, strict).compile(schema));
+            schema.setAttribute(attribute, new CompiledValidator(definitions, validator));
+            return validator;
+        }
+    }
+
+    /**
+     * Validates given Json payload and raises validation exception listing all errors found.
+     * @param payload
+     */
+    public void validate(String payload) {
+        List<String> errors = getErrors(payload);
+        if (!errors.isEmpty()) {
+            throw new ValidationException(String.format("Open API schema validation failed with %s error(s):%n  %s",
+                    errors.size() < MAX_ERRORS ? errors.size() : MAX_ERRORS + " or more",
+                    String.join(String.format("%n  "), errors)));
+        }
+    }
+
+    /**
+     * Validates given Json payload and gets the list of errors. Returns an empty list when the payload is valid.
+     * @param payload
+     * @return
+     */
+    public List<String> getErrors(String payload) {
+        Errors errors = new Errors();
+        if (!StringUtils.hasText(payload)) {
+            errors.add("$", "expected Json content but body is empty");
+            return errors.messages;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            parser.nextToken();
+            root.validate(parser, "$", errors);
+
+            if (parser.nextToken() != null) {
+                errors.add("$", "unexpected content after Json value");
+            }
+        } catch (JsonProcessingException e) {
+            errors.add("$", "malformed Json content - " + e.getOriginalMessage());
+        } catch (IOException e) {
+            errors.add("$", "failed to read Json content - " + e.getMessage());
+        }
+
+        return errors.messages;
+    }
+
+    /**
+     * Compiles validation nodes from Open API schemas.
+     *
+     * In strict mode objects reject properties that the schema does not declare unless the schema explicitly allows
+     * additional properties. When optional fields get validated, too, all declared properties are mandatory. Objects that
+     * are part of a schema composition (allOf, oneOf, anyOf, not) only declare some of the properties and accept
+     * additional properties.
+     */
+    private static final class Compiler {
+        private final Map<String, OasSchema> definitions;
+        private final boolean validateOptionalFields;
+        private final boolean strict;
+
+        /** Nodes of referenced schemas, may still be compiling when the schema is recursive */
+        private final Map<OasSchema, RefNode> references = new IdentityHashMap<>();
+        private final Map<OasSchema, RefNode> openReferences = new IdentityHashMap<>();
+
+        Compiler(Map<String, OasSchema> definitions, boolean validateOptionalFields, boolean strict) {
+            this.definitions = definitions;
+            this.validateOptionalFields = validateOptionalFields;
+            this.strict = strict;
+        }
+
+        Node compile(OasSchema schema) {
+            return compile(schema, false);
+        }
+
+        /**
+         * Compiles given schema.
+         * @param schema
+         * @param open accept additional properties on the object even in strict mode
+         * @return
+         */
+        private Node compile(OasSchema schema, boolean open) {
+            if (schema == null) {
+                return AnyNode.INSTANCE;
+            }
+
+            if (OasModelHelper.isReferenceType(schema)) {
+                return resolve(schema, open);
+            }
+
+            boolean composed = !CollectionUtils.isEmpty(schema.allOf);
+            if (schema instanceof Oas30Schema) {
+                Oas30Schema oas30Schema = (Oas30Schema) schema;
+                composed |= !CollectionUtils.isEmpty(oas30Schema.oneOf) || !CollectionUtils.isEmpty(oas30Schema.anyOf)
+                        || oas30Schema.not != null;
+            }
+
+            List<Node> nodes = new ArrayList<>();
+            Node typed = typed(schema, open || composed);
+            if (typed != AnyNode.INSTANCE) {
+                nodes.add(typed);
+            }
+
+            if (!CollectionUtils.isEmpty(schema.allOf)) {
+                schema.allOf.forEach(sub -> nodes.add(compile(sub, true)));
+            }
+
+            if (schema instanceof Oas30Schema) {
+                Oas30Schema oas30Schema = (Oas30Schema) schema;
+                if (!CollectionUtils.isEmpty(oas30Schema.oneOf)) {
+                    nodes.add(new OneOfNode(compileAll(oas30Schema.oneOf), false));
+                }
+
+                if (!CollectionUtils.isEmpty(oas30Schema.anyOf)) {
+                    nodes.add(new OneOfNode(compileAll(oas30Schema.anyOf), true));
+                }
+
+                if (oas30Schema.not != null) {
+                    nodes.add(new NotNode(compile(oas30Schema.not, true)));
+                }
+            }
+
+            if (nodes.isEmpty()) {
+                return AnyNode.INSTANCE;
+            } else if (nodes.size() == 1) {
+                return nodes.get(0);
+            }
+
+            return new AllOfNode(nodes, isNullable(schema));
+        }
+
+        private List<Node> compileAll(List<OasSchema> schemas) {
+            return schemas.stream().map(schema -> compile(schema, true)).collect(Collectors.toList());
+        }
+
+        private Node typed(OasSchema schema, boolean open) {
+            String type = schema.type;
+            if (type == null) {
+                if (schema.properties != null || schema.additionalProperties != null) {
+                    type = "object";
+                } else if (schema.items != null) {
+                    type = "array";
+                }
+            }
+
+            if (type == null) {
+                return AnyNode.INSTANCE;
+            }
+
+            boolean nullable = isNullable(schema);
+            switch (type) {
+                case "object":
+                    return object(schema, nullable, open);
+                case "array":
+                    return new ArrayNode(schema.items instanceof OasSchema ? compile((OasSchema) schema.items) : AnyNode.INSTANCE,
+                            toInteger(schema.minItems), toInteger(schema.maxItems), nullable);
+                case "string":
+                    return new StringNode(schema, nullable);
+                case "integer":
+                case "number":
+                    return new NumberNode(schema, nullable);
+                case "boolean":
+                    return new BooleanNode(nullable);
+                default:
+                    return AnyNode.INSTANCE;
+            }
+        }
+
+        private Node object(OasSchema schema, boolean nullable, boolean open) {
+            Set<String> required = schema.required != null ? new HashSet<>(schema.required) : new HashSet<>();
+            if (strict && validateOptionalFields && schema.properties != null) {
+                required.addAll(schema.properties.keySet());
+            }
+
+            Map<String, Node> properties = new LinkedHashMap<>();
+            if (schema.properties != null) {
+                for (Map.Entry<String, OasSchema> property : schema.properties.entrySet()) {
+                    if (validateOptionalFields || required.contains(property.getKey())) {
+                        properties.put(property.getKey(), compile(property.getValue()));
+                    } else {
+                        properties.put(property.getKey(), AnyNode.INSTANCE);
+                    }
+                }
+            }
+
+            Node additionalProperties = AnyNode.INSTANCE;
+            if (schema.additionalProperties instanceof OasSchema) {
+                additionalProperties = compile((OasSchema) schema.additionalProperties);
+            } else if (Boolean.FALSE.equals(schema.additionalProperties)) {
+                additionalProperties = null;
+            } else if (schema.additionalProperties == null && strict && !open && !properties.isEmpty()) {
+                additionalProperties = null;
+            }
+
+            return new ObjectNode(properties, required, additionalProperties, nullable);
+        }
+
+        /**
+         * Resolves schema reference and compiles the referenced schema once. Recursive references get the node
+         * of the referenced schema that is still being compiled.
+         * @param schema
+         * @param open
+         * @return
+         */
+        private Node resolve(OasSchema schema, boolean open) {
+            OasSchema resolved = definitions.get(OasModelHelper.getReferenceName(schema.$ref));
+            if (resolved == null) {
+                throw new IllegalStateException(String.format("Unable to resolve schema reference: %s", schema.$ref));
+            }
+
+            Map<OasSchema, RefNode> compiled = open ? openReferences : references;
+            RefNode reference = compiled.get(resolved);
+            if (reference == null) {
+                reference = new RefNode();
+                compiled.put(resolved, reference);
+                reference.target = compile(resolved, open);
+            }
+
+            return reference;
+        }
+
+        private static boolean isNullable(OasSchema schema) {
+            if (schema instanceof Oas30Schema) {
+                return Boolean.TRUE.equals(((Oas30Schema) schema).nullable);
+            }
+
+            Extension nullable = schema.getExtension("x-nullable");
+            return nullable != null && Boolean.parseBoolean(String.valueOf(nullable.value));
+        }
+    }
+
+    private static Integer toInteger(Number number) {
+        return number != null ? number.intValue() : null;
+    }
+
+    private static String getTokenType(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NUMBER_INT:
+                return "integer";
+            case VALUE_NUMBER_FLOAT:
+                return "number";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            case VALUE_NULL:
+                return "null";
+            default:
+                return token.name();
+        }
+    }
+
+    /**
+     * Collects errors up to the maximum number of reported errors.
+     */
+    private static final class Errors {
+        private final List<String> messages = new ArrayList<>();
+
+        void add(String path, String message) {
+            if (messages.size() < MAX_ERRORS) {
+                messages.add(path + ": " + message);
+            }
+        }
+
+        boolean isEmpty() {
+            return messages.isEmpty();
+        }
+    }
+
+    /**
+     * Compiled validator together with the schema definitions used to compile it.
+     */
+    private static final class CompiledValidator {
+        private final Map<String, OasSchema> definitions;
+        private final OasSchemaValidator validator;
+
+        CompiledValidator(Map<String, OasSchema> definitions, OasSchemaValidator validator) {
+            this.definitions = definitions;
+            this.validator = validator;
+        }
+    }
+
+    /**
+     * Node in the compiled validator tree. Validates the value the parser currently points to and leaves the parser
+     * on the last token of that value.
+     */
+    private interface Node {
+        void validate(JsonParser parser, String path, Errors errors) throws IOException;
+    }
+
+    /**
+     * Validates values of a single Json type and handles null values.
+     */
+    private abstract static class TypedNode implements Node {
+        private final String type;
+        private final boolean nullable;
+
+        TypedNode(String type, boolean nullable) {
+            this.type = type;
+            this.nullable = nullable;
+        }
+
+        @Override
+        public void validate(JsonParser parser, String path, Errors errors) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                if (!nullable) {
+                    errors.add(path, String.format("expected %s but was null", type));
+                }
+            } else if (accepts(token)) {
+                validateValue(parser, path, errors);
+            } else {
+                errors.add(path, String.format("expected %s but was %s", type, getTokenType(token)));
+                parser.skipChildren();
+            }
+        }
+
+        abstract boolean accepts(JsonToken token);
+
+        abstract void validateValue(JsonParser parser, String path, Errors errors) throws IOException;
+    }
+
+    /**
+     * Accepts any value.
+     */
+    private static final class AnyNode implements Node {
+        static final AnyNode INSTANCE = new AnyNode();
+
+        @Override
+        public void validate(JsonParser parser, String path, Errors errors) throws IOException {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Delegates to the node of a referenced schema.
+     */
+    private static final class RefNode implements Node {
+        private Node target;
+
+        @Override
+        public void validate(JsonParser parser, String path, Errors errors) throws IOException {
+            target.validate(parser, path, errors);
+        }
+    }
+
+    /**
+     * Json object with property nodes, required properties and additional properties node. Additional properties
+     * are not allowed when additional properties node is null.
+     */
+    private static final class ObjectNode extends TypedNode {
+        private final Map<String, Node> properties;
+        private final Set<String> required;
+        private final Node additionalProperties;
+
+        ObjectNode(Map<String, Node> properties, Set<String> required, Node additionalProperties, boolean nullable) {
+            super("object", nullable);
+            this.properties = properties;
+            this.required = required;
+            this.additionalProperties = additionalProperties;
+        }
+
+        @Override
+        boolean accepts(JsonToken token) {
+            return token == JsonToken.START_OBJECT;
+        }
+
+        @Override
+        void validateValue(JsonParser parser, String path, Errors errors) throws IOException {
+            Set<String> missing = required.isEmpty() ? Collections.emptySet() : new HashSet<>(required);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                missing.remove(name);
+
+                Node property = properties.getOrDefault(name, additionalProperties);
+                if (property != null) {
+                    property.validate(parser, getPropertyPath(path, name), errors);
+                } else {
+                    errors.add(getPropertyPath(path, name), "unexpected property");
+                    parser.skipChildren();
+                }
+            }
+
+            for (String name : required) {
+                if (missing.contains(name)) {
+                    errors.add(path, String.format("missing required property '%s'", name));
+                }
+            }
+        }
+
+        private static String getPropertyPath(String path, String name) {
+            if (SIMPLE_NAME_PATTERN.matcher(name).matches()) {
+                return path + "." + name;
+            }
+
+            return path + "['" + name + "']";
+        }
+    }
+
+    /**
+     * Json array validating each element with the items node.
+     */
+    private static final class ArrayNode extends TypedNode {
+        private final Node items;
+        private final Integer minItems;
+        private final Integer maxItems;
+
+        ArrayNode(Node items, Integer minItems, Integer maxItems, boolean nullable) {
+            super("array", nullable);
+            this.items = items;
+            this.minItems = minItems;
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        boolean accepts(JsonToken token) {
+            return token == JsonToken.START_ARRAY;
+        }
+
+        @Override
+        void validateValue(JsonParser parser, String path, Errors errors) throws IOException {
+            int size = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                items.validate(parser, path + "[" + size + "]", errors);
+                size++;
+            }
+
+            if (minItems != null && size < minItems) {
+                errors.add(path, String.format("expected at least %s items but was %s", minItems, size));
+            }
+
+            if (maxItems != null && size > maxItems) {
+                errors.add(path, String.format("expected at most %s items but was %s", maxItems, size));
+            }
+        }
+    }
+
+    /**
+     * Json string with enumeration, length, pattern and format constraints.
+     */
+    private static final class StringNode extends TypedNode {
+        private final Set<String> enumValues;
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final Pattern pattern;
+        private final String format;
+
+        StringNode(OasSchema schema, boolean nullable) {
+            super("string", nullable);
+            this.enumValues = CollectionUtils.isEmpty(schema.enum_) ? null : new LinkedHashSet<>(schema.enum_);
+            this.minLength = toInteger(schema.minLength);
+            this.maxLength = toInteger(schema.maxLength);
+            this.format = schema.format;
+
+            try {
+                this.pattern = StringUtils.hasText(schema.pattern) ? Pattern.compile(schema.pattern) : null;
+            } catch (PatternSyntaxException e) {
+                throw new IllegalStateException(String.format("Invalid schema pattern: %s", schema.pattern), e);
+            }
+        }
+
+        @Override
+        boolean accepts(JsonToken token) {
+            return token == JsonToken.VALUE_STRING;
+        }
+
+        @Override
+        void validateValue(JsonParser parser, String path, Errors errors) throws IOException {
+            String value = parser.getText();
+
+            if (enumValues != null && !enumValues.contains(value)) {
+                errors.add(path, String.format("value '%s' is not one of %s", value, enumValues));
+            }
+
+            if (minLength != null && value.length() < minLength) {
+                errors.add(path, String.format("expected at least %s characters but was %s", minLength, value.length()));
+            }
+
+            if (maxLength != null && value.length() > maxLength) {
+                errors.add(path, String.format("expected at most %s characters but was %s", maxLength, value.length()));
+            }
+
+            if (pattern != null && !pattern.matcher(value).find()) {
+                errors.add(path, String.format("value '%s' does not match pattern '%s'", value, pattern.pattern()));
+            }
+
+            if (format != null && !isValidFormat(value)) {
+                errors.add(path, String.format("value '%s' is not a valid %s", value, format));
+            }
+        }
+
+        private boolean isValidFormat(String value) {
+            try {
+                switch (format) {
+                    case "date":
+                        LocalDate.parse(value);
+                        return true;
+                    case "date-time":
+                        return isValidDateTime(value);
+                    case "uuid":
+                        return UUID_PATTERN.matcher(value).matches();
+                    case "email":
+                        return EMAIL_PATTERN.matcher(value).matches();
+                    case "uri":
+                        return new URI(value).isAbsolute();
+                    case "byte":
+                        return BYTE_PATTERN.matcher(value).matches();
+                    case "ipv4":
+                        return IPV4_PATTERN.matcher(value).matches();
+                    default:
+                        return true;
+                }
+            } catch (DateTimeParseException | URISyntaxException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Accepts date times with and without offset as the generated test data uses local date times.
+         * @param value
+         * @return
+         */
+        private static boolean isValidDateTime(String value) {
+            try {
+                OffsetDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                LocalDateTime.parse(value);
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Json number with format, enumeration and range constraints. Integer nodes do not accept decimal numbers.
+     */
+    private static final class NumberNode extends TypedNode {
+        private final boolean integer;
+        private final boolean int32;
+        private final List<BigDecimal> enumValues;
+        private final BigDecimal minimum;
+        private final boolean exclusiveMinimum;
+        private final BigDecimal maximum;
+        private final boolean exclusiveMaximum;
+
+        NumberNode(OasSchema schema, boolean nullable) {
+            super(schema.type, nullable);
+            this.integer = "integer".equals(schema.type);
+            this.int32 = "int32".equals(schema.format);
+            this.enumValues = CollectionUtils.isEmpty(schema.enum_) ? null :
+                    schema.enum_.stream().map(BigDecimal::new).collect(Collectors.toList());
+            this.minimum = schema.minimum != null ? new BigDecimal(schema.minimum.toString()) : null;
+            this.exclusiveMinimum = Boolean.TRUE.equals(schema.exclusiveMinimum);
+            this.maximum = schema.maximum != null ? new BigDecimal(schema.maximum.toString()) : null;
+            this.exclusiveMaximum = Boolean.TRUE.equals(schema.exclusiveMaximum);
+        }
+
+        @Override
+        boolean accepts(JsonToken token) {
+            return token == JsonToken.VALUE_NUMBER_INT || (!integer && token == JsonToken.VALUE_NUMBER_FLOAT);
+        }
+
+        @Override
+        void validateValue(JsonParser parser, String path, Errors errors) throws IOException {
+            BigDecimal value = parser.getDecimalValue();
+
+            if (int32 && parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                BigInteger intValue = parser.getBigIntegerValue();
+                if (intValue.compareTo(INT32_MIN) < 0 || intValue.compareTo(INT32_MAX) > 0) {
+                    errors.add(path, String.format("value %s is out of int32 range", intValue));
+                }
+            }
+
+            if (enumValues != null && enumValues.stream().noneMatch(enumValue -> enumValue.compareTo(value) == 0)) {
+                errors.add(path, String.format("value %s is not one of %s", value, enumValues));
+            }
+
+            if (minimum != null) {
+                int comparison = value.compareTo(minimum);
+                if (comparison < 0 || (exclusiveMinimum && comparison == 0)) {
+                    errors.add(path, String.format("value %s is less than %sminimum %s", value, exclusiveMinimum ? "exclusive " : "", minimum));
+                }
+            }
+
+            if (maximum != null) {
+                int comparison = value.compareTo(maximum);
+                if (comparison > 0 || (exclusiveMaximum && comparison == 0)) {
+                    errors.add(path, String.format("value %s is greater than %smaximum %s", value, exclusiveMaximum ? "exclusive " : "", maximum));
+                }
+            }
+        }
+    }
+
+    /**
+     * Json boolean.
+     */
+    private static final class BooleanNode extends TypedNode {
+        BooleanNode(boolean nullable) {
+            super("boolean", nullable);
+        }
+
+        @Override
+        boolean accepts(JsonToken token) {
+            return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+        }
+
+        @Override
+        void validateValue(JsonParser parser, String path, Errors errors) {
+            // no further constraints on boolean values
+        }
+    }
+
+    /**
+     * Base class for composite nodes validating the same value with several nodes. The current value is buffered
+     * once and replayed for each node.
+     */
+    private abstract static class CompositeNode implements Node {
+        final List<Node> nodes;
+
+        CompositeNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void validate(JsonParser parser, String path, Errors errors) throws IOException {
+            TokenBuffer buffer = new TokenBuffer(parser, null);
+            buffer.copyCurrentStructure(parser);
+            validate(buffer, path, errors);
+        }
+
+        abstract void validate(TokenBuffer buffer, String path, Errors errors) throws IOException;
+
+        /**
+         * Validates the buffered value with given node.
+         * @param buffer
+         * @param node
+         * @param path
+         * @param errors
+         * @throws IOException
+         */
+        static void replay(TokenBuffer buffer, Node node, String path, Errors errors) throws IOException {
+            try (JsonParser replay = buffer.asParser()) {
+                replay.nextToken();
+                node.validate(replay, path, errors);
+            }
+        }
+    }
+
+    /**
+     * Value must be valid for all nodes.
+     */
+    private static final class AllOfNode extends CompositeNode {
+        private final boolean nullable;
+
+        AllOfNode(List<Node> nodes, boolean nullable) {
+            super(nodes);
+            this.nullable = nullable;
+        }
+
+        @Override
+        public void validate(JsonParser parser, String path, Errors errors) throws IOException {
+            if (nullable && parser.currentToken() == JsonToken.VALUE_NULL) {
+                return;
+            }
+
+            super.validate(parser, path, errors);
+        }
+
+        @Override
+        void validate(TokenBuffer buffer, String path, Errors errors) throws IOException {
+            for (Node node : nodes) {
+                replay(buffer, node, path, errors);
+            }
+        }
+    }
+
+    /**
+     * Value must be valid for exactly one node (oneOf) or for at least one node (anyOf).
+     */
+    private static final class OneOfNode extends CompositeNode {
+        private final boolean any;
+
+        OneOfNode(List<Node> nodes, boolean any) {
+            super(nodes);
+            this.any = any;
+        }
+
+        @Override
+        void validate(TokenBuffer buffer, String path, Errors errors) throws IOException {
+            int matches = 0;
+            List<String> failures = new ArrayList<>();
+            for (Node node : nodes) {
+                Errors nodeErrors = new Errors();
+                replay(buffer, node, path, nodeErrors);
+
+                if (nodeErrors.isEmpty()) {
+                    matches++;
+                } else {
+                    failures.add(nodeErrors.messages.get(0));
+                }
+            }
+
+            if (matches == 0) {
+                errors.add(path, String.format("value does not match any schema of %s %s", any ? "anyOf" : "oneOf", failures));
+            } else if (!any && matches > 1) {
+                errors.add(path, String.format("value matches %s schemas of oneOf but expected exactly one", matches));
+            }
+        }
+    }
+
+    /**
+     * Value must not be valid for the node.
+     */
+    private static final class NotNode extends CompositeNode {
+        NotNode(Node node) {
+            super(Collections.singletonList(node));
+        }
+
+        @Override
+        void validate(TokenBuffer buffer, String path, Errors errors) throws IOException {
+            Errors nodeErrors = new Errors();
+            replay(buffer, nodes.get(0), path, nodeErrors);
+
+            if (nodeErrors.isEmpty()) {
+                errors.add(path, "value must not match schema of not");
+            }
+        }
+    }
+}
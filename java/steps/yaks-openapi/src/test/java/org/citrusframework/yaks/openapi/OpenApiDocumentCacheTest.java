@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.consol.citrus.Citrus;
+import com.consol.citrus.CitrusContext;
+import com.consol.citrus.TestActionBuilder;
+import com.consol.citrus.TestCaseRunner;
+import com.consol.citrus.annotations.CitrusAnnotations;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.http.client.HttpClientBuilder;
+import com.consol.citrus.http.server.HttpServerBuilder;
+import io.apicurio.datamodels.Library;
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.citrusframework.yaks.openapi.model.OasOperationEntry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class OpenApiDocumentCacheTest {
+
+    @Before
+    public void setup() {
+        OpenApiDocumentCache.clear();
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty("yaks.openapi.document.cache.size");
+        OpenApiDocumentCache.clear();
+
+        OpenApiSteps.generateOptionalFields = OpenApiSettings.isGenerateOptionalFields();
+        OpenApiSteps.validateOptionalFields = OpenApiSettings.isValidateOptionalFields();
+    }
+
+    @Test
+    public void shouldShareDocumentWithSameContent() {
+        OasDocument openApiDoc = OpenApiResourceLoader.fromFile("classpath:org/citrusframework/yaks/openapi/petstore-v3.json");
+
+        Assert.assertSame(openApiDoc, OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v3.json"));
+        Assert.assertEquals(1, OpenApiDocumentCache.size());
+
+        Assert.assertNotSame(openApiDoc, OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v2.json"));
+        Assert.assertEquals(2, OpenApiDocumentCache.size());
+    }
+
+    @Test
+    public void shouldMemoizeDocumentLookups() {
+        OasDocument openApiDoc = OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v2.json");
+
+        Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(openApiDoc);
+        Assert.assertTrue(definitions.containsKey("Pet"));
+        Assert.assertSame(definitions, OasModelHelper.getSchemaDefinitions(openApiDoc));
+
+        Optional<OasOperationEntry> operation = OasModelHelper.findOperation(openApiDoc, "getPetById");
+        Assert.assertTrue(operation.isPresent());
+        Assert.assertEquals("/pet/{petId}", operation.get().getPath());
+        Assert.assertEquals("get", operation.get().getMethod());
+        Assert.assertSame(operation.get(), OasModelHelper.findOperation(openApiDoc, "getPetById").get());
+
+        Assert.assertFalse(OasModelHelper.findOperation(openApiDoc, "unknown").isPresent());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedDocument() {
+        System.setProperty("yaks.openapi.document.cache.size", "2");
+
+        OasDocument petstoreV2 = OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v2.json");
+        OasDocument petstoreV3 = OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v3.json");
+
+        Assert.assertSame(petstoreV2, OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v2.json"));
+
+        OpenApiDocumentCache.get("{\"openapi\": \"3.0.2\", \"info\": {\"title\": \"Empty\", \"version\": \"1.0\"}, \"paths\": {}}");
+        Assert.assertEquals(2, OpenApiDocumentCache.size());
+
+        Assert.assertSame(petstoreV2, OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v2.json"));
+        Assert.assertNotSame(petstoreV3, OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v3.json"));
+    }
+
+    @Test
+    public void shouldNotModifySharedDocumentInSteps() {
+        verifyStepsDoNotModifyDocument("org/citrusframework/yaks/openapi/petstore-v2.json");
+        verifyStepsDoNotModifyDocument("org/citrusframework/yaks/openapi/petstore-v3.json");
+    }
+
+    /**
+     * Runs all operations of given specification through the client and server steps and makes sure that the shared
+     * document still serializes to the same specification afterwards. The test runner only builds the test actions
+     * so no message is actually sent.
+     * @param resource
+     */
+    private void verifyStepsDoNotModifyDocument(String resource) {
+        Citrus citrus = Citrus.newInstance(CitrusContext.create());
+        citrus.getCitrusContext().bind("httpClient", new HttpClientBuilder().requestUrl("http://localhost:8080").build());
+        citrus.getCitrusContext().bind("httpServer", new HttpServerBuilder().port(8080).build());
+
+        TestContext context = citrus.getCitrusContext().createTestContext();
+        TestCaseRunner runner = Mockito.mock(TestCaseRunner.class);
+        when(runner.run(any())).thenAnswer(invocation -> ((TestActionBuilder<?>) invocation.getArgument(0)).build());
+
+        OpenApiSteps steps = new OpenApiSteps();
+        OpenApiClientSteps clientSteps = new OpenApiClientSteps();
+        OpenApiServerSteps serverSteps = new OpenApiServerSteps();
+        CitrusAnnotations.injectAll(clientSteps, citrus, context);
+        CitrusAnnotations.injectTestRunner(clientSteps, runner);
+        CitrusAnnotations.injectAll(serverSteps, citrus, context);
+        CitrusAnnotations.injectTestRunner(serverSteps, runner);
+
+        steps.before(null);
+        steps.enableGenerateOptionalFields();
+        steps.enableValidateOptionalFields();
+        steps.loadOpenApiResource(resource);
+
+        OasDocument openApiDoc = OpenApiSteps.openApiDoc;
+        Assert.assertSame(openApiDoc, OpenApiResourceLoader.fromFile(resource));
+        String specification = Library.writeDocumentToJSONString(openApiDoc);
+
+        for (OasOperationEntry operation : OasModelHelper.getOperationIndex(openApiDoc).getOperations()) {
+            for (String status : operation.getOperation().responses.getItemNames()) {
+                clientSteps.before(null);
+                clientSteps.invokeOperation(operation.getOperation().operationId);
+                clientSteps.verifyResponseByStatus(Integer.parseInt(status));
+
+                serverSteps.before(null);
+                serverSteps.receiveOperation(operation.getOperation().operationId);
+                serverSteps.sendResponseByStatus(Integer.parseInt(status));
+            }
+        }
+
+        Assert.assertEquals(specification, Library.writeDocumentToJSONString(openApiDoc));
+    }
+}
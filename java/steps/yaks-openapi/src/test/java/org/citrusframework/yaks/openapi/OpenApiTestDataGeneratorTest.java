@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi;
+
+import java.util.Map;
+
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class OpenApiTestDataGeneratorTest {
+
+    private static final String SPECIFICATION = "{\"openapi\": \"3.0.2\", \"info\": {\"title\": \"Tree\", \"version\": \"1.0\"}, \"paths\": {}," +
+            "\"components\": {\"schemas\": {" +
+                "\"Node\": {\"type\": \"object\", \"required\": [\"name\"], \"properties\": {" +
+                    "\"name\": {\"type\": \"string\"}," +
+                    "\"parent\": {\"$ref\": \"#/components/schemas/Node\"}," +
+                    "\"children\": {\"type\": \"array\", \"items\": {\"$ref\": \"#/components/schemas/Node\"}}}}}}}";
+
+    @After
+    public void cleanup() {
+        OpenApiSteps.generateOptionalFields = OpenApiSettings.isGenerateOptionalFields();
+        OpenApiSteps.validateOptionalFields = OpenApiSettings.isValidateOptionalFields();
+    }
+
+    @Test
+    public void shouldStopRecursiveReferences() {
+        OasDocument openApiDoc = OpenApiDocumentCache.get(SPECIFICATION);
+        Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(openApiDoc);
+        OasSchema node = definitions.get("Node");
+
+        Assert.assertEquals("{\"name\": \"citrus:randomString(10)\",\"parent\": null,\"children\": [null]}",
+                OpenApiTestDataGenerator.createOutboundPayload(node, definitions));
+        Assert.assertEquals("{\"name\": \"@notEmpty()@\",\"parent\": \"@ignore@\",\"children\": \"@ignore@\"}",
+                OpenApiTestDataGenerator.createInboundPayload(node, definitions));
+    }
+
+    @Test
+    public void shouldReuseRenderedTemplate() {
+        OasDocument openApiDoc = OpenApiDocumentCache.get(SPECIFICATION);
+        Map<String, OasSchema> definitions = OasModelHelper.getSchemaDefinitions(openApiDoc);
+        OasSchema node = definitions.get("Node");
+
+        OpenApiSteps.generateOptionalFields = true;
+        String payload = OpenApiTestDataGenerator.createOutboundPayload(node, definitions);
+        Assert.assertSame(payload, OpenApiTestDataGenerator.createOutboundPayload(node, definitions));
+
+        OpenApiSteps.generateOptionalFields = false;
+        Assert.assertEquals("{\"name\": \"citrus:randomString(10)\"}", OpenApiTestDataGenerator.createOutboundPayload(node, definitions));
+
+        OpenApiSteps.generateOptionalFields = true;
+        Assert.assertSame(payload, OpenApiTestDataGenerator.createOutboundPayload(node, definitions));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.load;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.TestContextFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.citrusframework.yaks.http.load.HttpLoadAction;
+import org.citrusframework.yaks.http.load.HttpLoadResult;
+import org.citrusframework.yaks.openapi.OpenApiResourceLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class OpenApiLoadActionTest {
+
+    private final Queue<String> requestUris = new ConcurrentLinkedQueue<>();
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestUris.add(exchange.getRequestURI().toString());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        httpClient = HttpClients.createDefault();
+    }
+
+    @After
+    public void destroy() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldRequestOperationPathOnBaseUrl() {
+        TestContext context = TestContextFactory.newInstance().getObject();
+        context.setVariable("petId", "1001");
+
+        new OpenApiLoadAction.Builder()
+                .specification(OpenApiResourceLoader.fromFile("classpath:org/citrusframework/yaks/openapi/petstore-v3.json"))
+                .baseUrl(String.format("http://localhost:%d/petstore/v3", server.getAddress().getPort()))
+                .operation("getPetById", 1)
+                .rate(50D)
+                .duration(200L)
+                .concurrency(2)
+                .validationSample(0D)
+                .client(httpClient)
+                .build()
+                .execute(context);
+
+        HttpLoadResult result = (HttpLoadResult) context.getVariableObject(HttpLoadAction.LOAD_RESULT_VARIABLE);
+        Assert.assertEquals(0L, result.getErrors());
+        Assert.assertFalse(requestUris.isEmpty());
+        requestUris.forEach(uri -> Assert.assertEquals("/petstore/v3/pet/1001", uri));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.model;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import org.citrusframework.yaks.openapi.OpenApiResourceLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class OasOperationIndexTest {
+
+    @Test
+    public void shouldIndexOperations() {
+        OasDocument openApiDoc = OpenApiResourceLoader.fromFile("org/citrusframework/yaks/openapi/petstore-v3.json");
+
+        OasOperationIndex index = OasModelHelper.getOperationIndex(openApiDoc);
+        Assert.assertSame(index, OasModelHelper.getOperationIndex(openApiDoc));
+        Assert.assertEquals(4, index.size());
+        Assert.assertEquals("updatePet,addPet,getPetById,deletePet", index.getOperations().stream()
+                .map(entry -> entry.getOperation().operationId)
+                .collect(Collectors.joining(",")));
+
+        Optional<OasOperationEntry> getPetById = index.get("getPetById");
+        Assert.assertTrue(getPetById.isPresent());
+        Assert.assertEquals("/pet/{petId}", getPetById.get().getPath());
+        Assert.assertEquals("get", getPetById.get().getMethod());
+        Assert.assertEquals(1, getPetById.get().getPathParams().size());
+        Assert.assertEquals("petId", getPetById.get().getPathParams().get(0).getName());
+        Assert.assertFalse(getPetById.get().getRequestBodySchema().isPresent());
+        Assert.assertEquals("application/json", getPetById.get().getResponseContentType().orElse(""));
+        Assert.assertTrue(getPetById.get().getResponse("200").flatMap(OasOperationEntry.ResponseEntry::getSchema).isPresent());
+        Assert.assertFalse(getPetById.get().getResponse("500").isPresent());
+
+        Optional<OasOperationEntry> deletePet = index.get("deletePet");
+        Assert.assertTrue(deletePet.isPresent());
+        Assert.assertTrue(deletePet.get().getRequiredHeaders().isEmpty());
+
+        Optional<OasOperationEntry> addPet = index.get("addPet");
+        Assert.assertTrue(addPet.isPresent());
+        Assert.assertTrue(addPet.get().getRequestBodySchema().isPresent());
+        Assert.assertEquals("application/json", addPet.get().getRequestContentType().orElse(""));
+
+        Assert.assertFalse(index.get("unknown").isPresent());
+    }
+}
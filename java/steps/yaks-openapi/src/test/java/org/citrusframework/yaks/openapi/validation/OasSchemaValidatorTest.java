@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.citrusframework.yaks.openapi.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import com.consol.citrus.exceptions.ValidationException;
+import io.apicurio.datamodels.openapi.models.OasDocument;
+import io.apicurio.datamodels.openapi.models.OasSchema;
+import org.citrusframework.yaks.openapi.OpenApiDocumentCache;
+import org.citrusframework.yaks.openapi.model.OasModelHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class OasSchemaValidatorTest {
+
+    private static final String SPECIFICATION = "{\"openapi\": \"3.0.2\", \"info\": {\"title\": \"Shop\", \"version\": \"1.0\"}, \"paths\": {}," +
+            "\"components\": {\"schemas\": {" +
+                "\"Tag\": {\"type\": \"object\", \"required\": [\"name\"], \"properties\": {" +
+                    "\"id\": {\"type\": \"integer\", \"format\": \"int32\"}," +
+                    "\"name\": {\"type\": \"string\", \"minLength\": 1}}}," +
+                "\"Item\": {\"type\": \"object\", \"required\": [\"id\", \"status\"], \"properties\": {" +
+                    "\"id\": {\"type\": \"string\", \"format\": \"uuid\"}," +
+                    "\"created\": {\"type\": \"string\", \"format\": \"date-time\"}," +
+                    "\"price\": {\"type\": \"number\", \"minimum\": 0, \"exclusiveMinimum\": true}," +
+                    "\"status\": {\"type\": \"string\", \"enum\": [\"available\", \"sold\"]}," +
+                    "\"note\": {\"type\": \"string\", \"nullable\": true}," +
+                    "\"tags\": {\"type\": \"array\", \"maxItems\": 3, \"items\": {\"$ref\": \"#/components/schemas/Tag\"}}," +
+                    "\"parent\": {\"$ref\": \"#/components/schemas/Item\"}}}," +
+                "\"Book\": {\"allOf\": [{\"$ref\": \"#/components/schemas/Item\"}, " +
+                    "{\"type\": \"object\", \"required\": [\"isbn\"], \"properties\": {\"isbn\": {\"type\": \"string\", \"pattern\": \"^[0-9-]+$\"}}}]}," +
+                "\"Payment\": {\"oneOf\": [" +
+                    "{\"type\": \"object\", \"required\": [\"card\"], \"properties\": {\"card\": {\"type\": \"string\"}}, \"additionalProperties\": false}," +
+                    "{\"type\": \"object\", \"required\": [\"iban\"], \"properties\": {\"iban\": {\"type\": \"string\"}}, \"additionalProperties\": false}]}}}}";
+
+    private Map<String, OasSchema> definitions;
+
+    @Before
+    public void setup() {
+        OasDocument openApiDoc = OpenApiDocumentCache.get(SPECIFICATION);
+        definitions = OasModelHelper.getSchemaDefinitions(openApiDoc);
+    }
+
+    @Test
+    public void shouldValidatePayload() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Item"), definitions, true, false);
+
+        validator.validate("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"created\": \"2021-01-27T10:15:30Z\", \"price\": 9.99, " +
+                "\"status\": \"sold\", \"note\": null, \"tags\": [{\"id\": 1, \"name\": \"new\"}, {\"name\": \"sale\"}], " +
+                "\"parent\": {\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c01\", \"status\": \"available\"}, \"extra\": true}");
+    }
+
+    @Test
+    public void shouldReportErrorPaths() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Item"), definitions, true, false);
+
+        Assert.assertEquals(Arrays.asList(
+                "$.id: value 'foo' is not a valid uuid",
+                "$.created: value 'yesterday' is not a valid date-time",
+                "$.price: value 0 is less than exclusive minimum 0",
+                "$.tags[1].id: value 4294967296 is out of int32 range",
+                "$.tags[2].name: expected string but was integer",
+                "$.tags[3]: missing required property 'name'",
+                "$.tags: expected at most 3 items but was 4",
+                "$.parent.status: value 'lost' is not one of [available, sold]",
+                "$: missing required property 'status'"),
+                validator.getErrors("{\"id\": \"foo\", \"created\": \"yesterday\", \"price\": 0, " +
+                        "\"tags\": [{\"name\": \"new\"}, {\"id\": 4294967296, \"name\": \"sale\"}, {\"name\": 5}, {}], " +
+                        "\"parent\": {\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c01\", \"status\": \"lost\"}}"));
+    }
+
+    @Test
+    public void shouldValidateCompositions() {
+        OasSchemaValidator book = OasSchemaValidator.forSchema(definitions.get("Book"), definitions, true, false);
+
+        Assert.assertEquals(Collections.emptyList(), book.getErrors("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"status\": \"sold\", \"isbn\": \"978-3-16\"}"));
+        Assert.assertEquals(Arrays.asList(
+                "$: missing required property 'status'",
+                "$.isbn: value 'unknown' does not match pattern '^[0-9-]+$'"),
+                book.getErrors("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"isbn\": \"unknown\"}"));
+
+        OasSchemaValidator payment = OasSchemaValidator.forSchema(definitions.get("Payment"), definitions, true, true);
+
+        Assert.assertEquals(Collections.emptyList(), payment.getErrors("{\"iban\": \"DE00\"}"));
+        Assert.assertEquals(Collections.singletonList("$: value does not match any schema of oneOf " +
+                        "[$.cash: unexpected property, $.cash: unexpected property]"),
+                payment.getErrors("{\"cash\": \"\"}"));
+    }
+
+    @Test
+    public void shouldSkipOptionalFields() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Item"), definitions, false, false);
+
+        Assert.assertEquals(Collections.emptyList(), validator.getErrors("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"status\": \"sold\", \"tags\": 5}"));
+        Assert.assertSame(validator, OasSchemaValidator.forSchema(definitions.get("Item"), definitions, false, false));
+        Assert.assertNotSame(validator, OasSchemaValidator.forSchema(definitions.get("Item"), definitions, true, false));
+    }
+
+    @Test
+    public void shouldRejectUndeclaredPropertiesInStrictMode() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Item"), definitions, false, true);
+
+        Assert.assertEquals(Collections.singletonList("$.extra: unexpected property"),
+                validator.getErrors("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"status\": \"sold\", \"extra\": true}"));
+        Assert.assertNotSame(validator, OasSchemaValidator.forSchema(definitions.get("Item"), definitions, false, false));
+    }
+
+    @Test
+    public void shouldRequireDeclaredPropertiesInStrictMode() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Tag"), definitions, true, true);
+
+        Assert.assertEquals(Collections.emptyList(), validator.getErrors("{\"id\": 1, \"name\": \"new\"}"));
+        Assert.assertEquals(Collections.singletonList("$: missing required property 'id'"), validator.getErrors("{\"name\": \"new\"}"));
+    }
+
+    @Test
+    public void shouldAcceptComposedPropertiesInStrictMode() {
+        OasSchemaValidator book = OasSchemaValidator.forSchema(definitions.get("Book"), definitions, false, true);
+
+        Assert.assertEquals(Collections.emptyList(), book.getErrors("{\"id\": \"3f1c8a52-9c4e-4d53-8d3e-2b7a5e6f1c00\", \"status\": \"sold\", \"isbn\": \"978-3-16\"}"));
+    }
+
+    @Test
+    public void shouldRejectMalformedPayload() {
+        OasSchemaValidator validator = OasSchemaValidator.forSchema(definitions.get("Tag"), definitions, true, false);
+
+        Assert.assertEquals(Collections.singletonList("$: expected Json content but body is empty"), validator.getErrors(""));
+        Assert.assertTrue(validator.getErrors("{\"name\": ").get(0).startsWith("$: malformed Json content"));
+        Assert.assertEquals(Collections.singletonList("$: expected object but was array"), validator.getErrors("[]"));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void shouldRaiseValidationException() {
+        OasSchemaValidator.forSchema(definitions.get("Tag"), definitions, true, false).validate("{\"id\": \"1\"}");
+    }
+}
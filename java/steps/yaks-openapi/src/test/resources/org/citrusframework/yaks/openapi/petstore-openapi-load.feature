@@ -0,0 +1,18 @@
+Feature: Petstore API load
+
+  Background:
+    Given OpenAPI specification: http://localhost:8080/petstore/v3/openapi.json
+    Given variable petId is "citrus:randomNumber(5)"
+
+  Scenario: Operation mix
+    When run OpenAPI operations for 2 seconds at 50 requests per second with concurrency 1 validating 100% of responses
+      | operation  | weight |
+      | getPetById | 3      |
+      | addPet     | 1      |
+      | deletePet  | 1      |
+    Then HTTP error rate should be <= 0%
+    And HTTP throughput should be > 20 requests per second
+    And OpenAPI operation getPetById error rate should be <= 0%
+    And OpenAPI operation getPetById p99 latency should be < 1000 ms
+    And OpenAPI operation addPet max latency should be < 1000 ms
+    And OpenAPI operation deletePet error rate should be <= 0%